@@ -5,6 +5,10 @@ import io.github.multicloud.ecs.api.dto.PriceInfo;
 import io.github.multicloud.ecs.api.dto.VirtualMachine;
 import io.github.multicloud.ecs.api.exception.EcsException;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 云厂商ECS客户端接口
  * 各云厂商的Provider需要实现此接口
@@ -92,6 +96,34 @@ public interface CloudEcsClient {
      */
     VirtualMachine getInstance(String instanceId) throws EcsException;
 
+    /**
+     * 批量查询实例详情
+     * 支持批量查询的实现应在一次API调用中完成（不超过 getMaxQueryBatchSize() 个ID），默认逐个调用 getInstance
+     *
+     * @param instanceIds 云厂商实例ID
+     * @return instanceId -> 实例详情，不存在的实例不在结果中
+     * @throws EcsException 查询失败时抛出
+     */
+    default Map<String, VirtualMachine> getInstances(Collection<String> instanceIds) throws EcsException {
+        Map<String, VirtualMachine> result = new LinkedHashMap<>();
+        for (String instanceId : instanceIds) {
+            VirtualMachine vm = getInstance(instanceId);
+            if (vm != null) {
+                result.put(instanceId, vm);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 单次批量查询最多的实例ID数
+     *
+     * @return 最大ID数，默认1（不支持批量查询）
+     */
+    default int getMaxQueryBatchSize() {
+        return 1;
+    }
+
     /**
      * 根据实例名称查找实例ID
      * 用于将业务ID转换为云厂商实例ID
@@ -102,6 +134,49 @@ public interface CloudEcsClient {
      */
     String findInstanceIdByName(String instanceName) throws EcsException;
 
+    /**
+     * 获取绑定指定区域的客户端
+     * 支持按区域分片的实现为每个区域返回独立实例（独立的区域端点与连接），由注册中心按需创建并缓存，
+     * 某个区域变慢不影响其他区域；不分片的实现返回自身
+     *
+     * @param region 区域
+     * @return 该区域的客户端
+     */
+    default CloudEcsClient forRegion(String region) {
+        return this;
+    }
+
+    /**
+     * 获取客户端绑定的区域
+     *
+     * @return 区域，未绑定区域时返回null
+     */
+    default String getRegion() {
+        return null;
+    }
+
+    /**
+     * 是否支持在指定区域创建实例
+     * 供调度过滤使用，无法判断时返回true
+     *
+     * @param region 区域
+     * @return 是否支持
+     */
+    default boolean supportsRegion(String region) {
+        return true;
+    }
+
+    /**
+     * 是否提供指定GPU型号的规格
+     * 供调度过滤使用，无法判断时返回true
+     *
+     * @param gpuModel GPU型号（如 A100, V100, T4）
+     * @return 是否支持
+     */
+    default boolean supportsGpuModel(String gpuModel) {
+        return true;
+    }
+
     /**
      * 检查客户端是否可用
      * 用于健康检查
@@ -3,11 +3,17 @@ package io.github.multicloud.ecs.api;
 import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
 import io.github.multicloud.ecs.api.exception.EcsException;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * ECS调度器接口
  * 负责根据请求选择合适的云厂商客户端
  *
  * V1: FixedScheduler - 根据request.provider固定路由
+ * FailoverScheduler - 按优先级返回候选列表，配额/库存/可用性失败时换下一个云厂商
+ * ConsistentHashScheduler - 按 tenantId 一致性哈希固定云厂商，按权重分布负载
+ * PluggableScheduler - 过滤插件剔除候选、打分插件并行打分后加权排序
  * V2: CostOptimizedScheduler - 自动比价选择最优云厂商（预留）
  *
  * @author guo
@@ -23,6 +29,29 @@ public interface EcsScheduler {
      */
     CloudEcsClient select(CreateInstanceRequest request) throws EcsException;
 
+    /**
+     * 根据请求选择有序的候选客户端
+     * 创建在前一个候选上因配额、库存或可用性失败（EcsException.isFailoverRetryable）时，依次尝试下一个候选；
+     * 默认只返回 select() 的结果（不切换）
+     *
+     * @param request 创建请求
+     * @return 候选客户端（至少一个），按尝试顺序排列
+     * @throws EcsException 无法选择时抛出
+     */
+    default List<CloudEcsClient> selectCandidates(CreateInstanceRequest request) throws EcsException {
+        return Collections.singletonList(select(request));
+    }
+
+    /**
+     * 调度结果是否依赖 tenantId（如按租户亲和路由）
+     * 调度决策缓存据此决定缓存Key是否包含 tenantId
+     *
+     * @return 默认false
+     */
+    default boolean isTenantAware() {
+        return false;
+    }
+
     /**
      * 获取调度器名称
      *
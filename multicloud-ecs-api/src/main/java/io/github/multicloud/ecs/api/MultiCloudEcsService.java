@@ -76,6 +76,7 @@ public interface MultiCloudEcsService {
 
     /**
      * 根据实例名称查找实例ID
+     * 依次查询云厂商默认区域和已使用过的其他区域
      *
      * @param providerCode 云厂商代码
      * @param instanceName 实例名称
@@ -84,6 +85,17 @@ public interface MultiCloudEcsService {
      */
     String findInstanceIdByName(String providerCode, String instanceName) throws EcsException;
 
+    /**
+     * 在指定区域根据实例名称查找实例ID
+     *
+     * @param providerCode 云厂商代码
+     * @param region 区域，为空时等同于 findInstanceIdByName(providerCode, instanceName)
+     * @param instanceName 实例名称
+     * @return 实例ID，未找到返回null
+     * @throws EcsException 查询失败时抛出
+     */
+    String findInstanceIdByName(String providerCode, String region, String instanceName) throws EcsException;
+
     /**
      * 获取所有已注册的云厂商代码
      *
@@ -2,6 +2,7 @@ package io.github.multicloud.ecs.api.dto;
 
 import io.github.multicloud.ecs.api.enums.BandwidthMode;
 import io.github.multicloud.ecs.api.enums.InstanceChargeMode;
+import io.github.multicloud.ecs.api.enums.RequestPriority;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -161,6 +162,14 @@ public class CreateInstanceRequest {
     @Builder.Default
     private Integer quantity = 1;
 
+    /**
+     * 优先级（默认NORMAL）
+     * HIGH: 付费生产负载，优先获得云厂商容量
+     * LOW: 试用、尽力而为的负载
+     */
+    @Builder.Default
+    private RequestPriority priority = RequestPriority.NORMAL;
+
     /**
      * 描述/备注
      */
@@ -0,0 +1,55 @@
+package io.github.multicloud.ecs.api.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 请求优先级枚举
+ * 创建请求按优先级进入不同的排队通道，高优先级先获得云厂商容量，低优先级按等待时长逐步提升
+ *
+ * @author guo
+ */
+@Getter
+@AllArgsConstructor
+public enum RequestPriority {
+
+    /**
+     * 高优先级（付费生产负载）
+     */
+    HIGH("HIGH", "高优先级"),
+
+    /**
+     * 普通优先级（默认）
+     */
+    NORMAL("NORMAL", "普通优先级"),
+
+    /**
+     * 低优先级（试用、尽力而为的负载）
+     */
+    LOW("LOW", "低优先级");
+
+    /**
+     * 优先级代码
+     */
+    private final String code;
+
+    /**
+     * 优先级描述
+     */
+    private final String description;
+
+    /**
+     * 根据代码获取枚举
+     */
+    public static RequestPriority fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (RequestPriority priority : values()) {
+            if (priority.getCode().equalsIgnoreCase(code)) {
+                return priority;
+            }
+        }
+        return null;
+    }
+}
@@ -108,6 +108,38 @@ public class EcsException extends RuntimeException {
                (cloudErrorMessage != null && cloudErrorMessage.contains("QuotaExceeded"));
     }
 
+    /**
+     * 判断是否为库存不足错误
+     */
+    public boolean isStockOut() {
+        return "STOCK_OUT".equals(errorCode) ||
+               (cloudErrorMessage != null && cloudErrorMessage.contains("NoStock"));
+    }
+
+    /**
+     * 判断是否为云厂商不可用错误（客户端不可用、服务端不可用、本地SDK连接已满）
+     */
+    public boolean isProviderUnavailable() {
+        return "PROVIDER_UNAVAILABLE".equals(errorCode) ||
+               "SERVICE_UNAVAILABLE".equals(errorCode) ||
+               "SDK_CONNECTION_POOL_EXHAUSTED".equals(errorCode) ||
+               (cloudErrorMessage != null && cloudErrorMessage.contains("ServiceUnavailable"));
+    }
+
+    /**
+     * 判断是否可以换一个云厂商重试（配额不足、库存不足、云厂商不可用）
+     */
+    public boolean isFailoverRetryable() {
+        return isQuotaExceeded() || isStockOut() || isProviderUnavailable();
+    }
+
+    /**
+     * 判断是否为超过请求截止时间（multicloud.ecs.operation-timeout）
+     */
+    public boolean isDeadlineExceeded() {
+        return "DEADLINE_EXCEEDED".equals(errorCode);
+    }
+
     /**
      * 判断是否为网络资源配额错误
      */
@@ -0,0 +1,466 @@
+package io.github.multicloud.ecs.core.admission;
+
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.enums.RequestPriority;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 创建请求准入控制
+ * 按 tenantId 限制每个租户同时进行中的创建数，并以全局并发上限保护云厂商配额和执行线程；
+ * 超出上限的请求按 CreateInstanceRequest.priority 进入各自的有界排队通道，由中心分发器统一放行
+ *
+ * - 通道之间严格优先级：有空闲并发时先放行高优先级通道；请求每等待 agingMillis 提升一级，低优先级不会饿死
+ * - 通道之内加权公平排队（WFQ）：入队时计算虚拟完成时间 finish = max(通道虚拟时钟, 租户上一个完成时间) + cost / weight，
+ *   cost 为创建数量；放行未达到租户上限的租户中队首完成时间最小的请求，大租户突发时小租户仍保持低延迟
+ * - 通道或租户队列已满时直接拒绝（ADMISSION_REJECTED）；排队超过 queueTimeout 或请求截止时间时放弃
+ * - 租户队列排空后移除（虚拟完成时间只在排队期间保留）；租户既无进行中也无排队请求时移除其状态，
+ *   因此租户指标只反映活跃租户
+ *
+ * 配置：multicloud.ecs.admission.*（默认关闭），由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class CreateAdmissionController {
+
+    /**
+     * 准入被拒绝的错误码
+     */
+    public static final String ADMISSION_REJECTED = "ADMISSION_REJECTED";
+
+    /**
+     * 排队超时的错误码
+     */
+    public static final String ADMISSION_TIMEOUT = "ADMISSION_TIMEOUT";
+
+    private final int maxConcurrent;
+    private final int tenantMaxConcurrent;
+    private final int tenantMaxQueued;
+    private final long queueTimeoutMillis;
+    private final long agingMillis;
+    private final Map<String, Double> tenantWeights;
+
+    /**
+     * 排队通道：按优先级从高到低遍历（受 this 保护）
+     */
+    private final Map<RequestPriority, Lane> lanes = new EnumMap<>(RequestPriority.class);
+
+    /**
+     * 活跃租户状态：有进行中或排队请求的租户（受 this 保护）
+     */
+    private final Map<String, TenantState> tenants = new HashMap<>();
+
+    private int inFlight;
+    private int queued;
+    private long sequence;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    /**
+     * 准入许可，创建结束后关闭以释放并发名额
+     */
+    public final class Permit implements AutoCloseable {
+        private final TenantState tenant;
+        private boolean released;
+
+        private Permit(TenantState tenant) {
+            this.tenant = tenant;
+        }
+
+        @Override
+        public void close() {
+            synchronized (CreateAdmissionController.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                inFlight--;
+                tenant.inFlight--;
+                dispatch();
+                evictIfIdle(tenant);
+            }
+        }
+    }
+
+    /**
+     * 排队中的请求
+     */
+    private static final class Ticket {
+        private final Lane lane;
+        private final TenantQueue queue;
+        private final double finishTag;
+        private final long seq;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<Void> granted = new CompletableFuture<>();
+
+        private Ticket(Lane lane, TenantQueue queue, double finishTag, long seq) {
+            this.lane = lane;
+            this.queue = queue;
+            this.finishTag = finishTag;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * 单个优先级通道：有界队列 + 通道内加权公平排队
+     */
+    private static final class Lane {
+        private final RequestPriority priority;
+        private final int maxQueued;
+        /**
+         * 有排队请求的租户队列：tenantId -> 队列，排空后移除
+         */
+        private final Map<String, TenantQueue> queues = new HashMap<>();
+
+        /**
+         * 有排队请求的租户队列，放行时只遍历这些队列
+         */
+        private final Set<TenantQueue> backlogged = new LinkedHashSet<>();
+
+        private double virtualTime;
+        private int queued;
+        private long enqueued;
+        private long admitted;
+        private long aged;
+        private long rejected;
+        private long timedOut;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        private Lane(RequestPriority priority, int maxQueued) {
+            this.priority = priority;
+            this.maxQueued = Math.max(0, maxQueued);
+        }
+
+        /**
+         * 队首完成时间最小、且租户未达到并发上限的请求
+         */
+        private Ticket nextEligible(int tenantMaxConcurrent) {
+            Ticket next = null;
+            for (TenantQueue queue : backlogged) {
+                if (queue.tenant.inFlight >= tenantMaxConcurrent) {
+                    continue;
+                }
+                Ticket head = queue.tickets.peekFirst();
+                if (next == null || head.finishTag < next.finishTag
+                        || (head.finishTag == next.finishTag && head.seq < next.seq)) {
+                    next = head;
+                }
+            }
+            return next;
+        }
+
+        private void remove(Ticket ticket) {
+            ticket.queue.tickets.remove(ticket);
+            if (ticket.queue.tickets.isEmpty()) {
+                // 排空的队列不再保留：由分发排空时其完成时间不超过通道虚拟时钟，重新入队从虚拟时钟开始即可
+                backlogged.remove(ticket.queue);
+                queues.remove(ticket.queue.tenant.tenantId, ticket.queue);
+            }
+            queued--;
+        }
+
+        private Map<String, Object> getMetrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("depth", queued);
+            metrics.put("maxQueued", maxQueued);
+            metrics.put("enqueued", enqueued);
+            metrics.put("admitted", admitted);
+            metrics.put("aged", aged);
+            metrics.put("rejected", rejected);
+            metrics.put("timedOut", timedOut);
+            metrics.put("avgWaitMs", admitted > 0
+                    ? String.format("%.2f", totalWaitNanos / 1_000_000.0 / admitted) : "0.00");
+            metrics.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+            return metrics;
+        }
+    }
+
+    /**
+     * 租户在某个通道内的队列
+     */
+    private static final class TenantQueue {
+        private final TenantState tenant;
+        private final Deque<Ticket> tickets = new ArrayDeque<>();
+        private double lastFinishTag;
+
+        private TenantQueue(TenantState tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * 单个租户的并发与指标（跨通道）
+     */
+    private static final class TenantState {
+        private final String tenantId;
+        private final double weight;
+        private int inFlight;
+        private int queued;
+        private long admitted;
+        private long rejected;
+        private long timedOut;
+        private long queuedCount;
+        private long totalQueueNanos;
+        private long maxQueueNanos;
+
+        private TenantState(String tenantId, double weight) {
+            this.tenantId = tenantId;
+            this.weight = weight;
+        }
+
+        private Map<String, Object> getMetrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("weight", weight);
+            metrics.put("inFlight", inFlight);
+            metrics.put("queued", queued);
+            metrics.put("admitted", admitted);
+            metrics.put("rejected", rejected);
+            metrics.put("timedOut", timedOut);
+            metrics.put("avgQueueMs", queuedCount > 0
+                    ? String.format("%.2f", totalQueueNanos / 1_000_000.0 / queuedCount) : "0.00");
+            metrics.put("maxQueueMs", TimeUnit.NANOSECONDS.toMillis(maxQueueNanos));
+            return metrics;
+        }
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param maxConcurrent 全局同时进行中的创建数
+     * @param tenantMaxConcurrent 每个租户同时进行中的创建数
+     * @param tenantMaxQueued 每个租户排队上限
+     * @param queueTimeoutMillis 排队超时（毫秒），0表示只受请求截止时间限制
+     * @param tenantWeights 租户权重（tenantId -> weight），未配置的租户权重为1
+     * @param agingMillis 排队每等待该时长提升一级优先级，0表示不提升
+     * @param laneMaxQueued 各优先级通道的排队上限，未配置的通道不允许排队
+     */
+    public CreateAdmissionController(int maxConcurrent, int tenantMaxConcurrent, int tenantMaxQueued,
+                                     long queueTimeoutMillis, Map<String, Double> tenantWeights,
+                                     long agingMillis, Map<RequestPriority, Integer> laneMaxQueued) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.tenantMaxConcurrent = Math.max(1, tenantMaxConcurrent);
+        this.tenantMaxQueued = Math.max(0, tenantMaxQueued);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.agingMillis = Math.max(0, agingMillis);
+        this.tenantWeights = new HashMap<>();
+        if (tenantWeights != null) {
+            tenantWeights.forEach((tenantId, weight) -> {
+                if (weight != null && weight > 0) {
+                    this.tenantWeights.put(tenantId, weight);
+                } else {
+                    log.warn("[CreateAdmissionController] 忽略无效的租户权重: tenantId={}, weight={}", tenantId, weight);
+                }
+            });
+        }
+        for (RequestPriority priority : RequestPriority.values()) {
+            lanes.put(priority, new Lane(priority, laneMaxQueued.getOrDefault(priority, 0)));
+        }
+        log.info("[CreateAdmissionController] 初始化: maxConcurrent={}, tenantMaxConcurrent={}, "
+                        + "tenantMaxQueued={}, aging={}ms, laneMaxQueued={}, weights={}",
+                this.maxConcurrent, this.tenantMaxConcurrent, this.tenantMaxQueued, this.agingMillis,
+                laneMaxQueued, this.tenantWeights);
+    }
+
+    /**
+     * 申请创建许可，必要时在请求优先级对应的通道中排队等待
+     *
+     * @param request 创建请求（按 tenantId 计数，按 priority 选择通道，按 quantity 计算排队成本）
+     * @return 准入许可，创建结束后关闭
+     * @throws EcsException 队列已满抛出 ADMISSION_REJECTED；排队超时抛出 ADMISSION_TIMEOUT 或 DEADLINE_EXCEEDED
+     */
+    public Permit acquire(CreateInstanceRequest request) throws EcsException {
+        String tenantId = request.getTenantId();
+        RequestPriority priority = request.getPriority() != null ? request.getPriority() : RequestPriority.NORMAL;
+        int cost = request.getQuantity() != null ? Math.max(1, request.getQuantity()) : 1;
+        Ticket ticket;
+        synchronized (this) {
+            TenantState tenant = tenants.computeIfAbsent(tenantId,
+                    id -> new TenantState(id, tenantWeights.getOrDefault(id, 1.0)));
+            // 有空闲并发时不存在可放行的排队请求，直接放行
+            if (tenant.queued == 0 && tenant.inFlight < tenantMaxConcurrent && inFlight < maxConcurrent) {
+                grant(tenant, 0);
+                return new Permit(tenant);
+            }
+            Lane lane = lanes.get(priority);
+            if (tenant.queued >= tenantMaxQueued || lane.queued >= lane.maxQueued) {
+                tenant.rejected++;
+                lane.rejected++;
+                rejected.incrementAndGet();
+                evictIfIdle(tenant);
+                log.warn("[CreateAdmissionController] 拒绝创建请求: tenantId={}, priority={}, tenantQueued={}, laneDepth={}",
+                        tenantId, priority, tenant.queued, lane.queued);
+                throw EcsException.of("ADMISSION", ADMISSION_REJECTED,
+                        "创建请求排队已满: tenantId=" + tenantId + ", priority=" + priority
+                                + ", tenantQueued=" + tenant.queued + ", laneDepth=" + lane.queued);
+            }
+            TenantQueue queue = lane.queues.computeIfAbsent(tenantId, id -> new TenantQueue(tenant));
+            double start = Math.max(lane.virtualTime, queue.lastFinishTag);
+            queue.lastFinishTag = start + cost / tenant.weight;
+            ticket = new Ticket(lane, queue, queue.lastFinishTag, sequence++);
+            queue.tickets.addLast(ticket);
+            lane.backlogged.add(queue);
+            lane.queued++;
+            lane.enqueued++;
+            tenant.queued++;
+            queued++;
+            dispatch();
+        }
+        awaitTicket(ticket);
+        return new Permit(ticket.queue.tenant);
+    }
+
+    /**
+     * 获取准入指标
+     *
+     * @return 指标快照（含各通道深度与等待时间、各租户排队时间）
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("maxConcurrent", maxConcurrent);
+        metrics.put("tenantMaxConcurrent", tenantMaxConcurrent);
+        metrics.put("agingMillis", agingMillis);
+        metrics.put("inFlight", inFlight);
+        metrics.put("queued", queued);
+        metrics.put("admitted", admitted.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("timedOut", timedOut.get());
+        Map<String, Object> perLane = new LinkedHashMap<>();
+        lanes.forEach((priority, lane) -> perLane.put(priority.getCode(), lane.getMetrics()));
+        metrics.put("lanes", perLane);
+        Map<String, Object> perTenant = new LinkedHashMap<>();
+        tenants.forEach((tenantId, tenant) -> perTenant.put(tenantId, tenant.getMetrics()));
+        metrics.put("tenants", perTenant);
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private void awaitTicket(Ticket ticket) throws EcsException {
+        long remaining = EcsDeadline.remainingMillis();
+        long wait = queueTimeoutMillis > 0 ? Math.min(queueTimeoutMillis, remaining) : remaining;
+        try {
+            ticket.granted.get(wait, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (abandon(ticket)) {
+                String code = remaining <= wait ? EcsDeadline.DEADLINE_EXCEEDED : ADMISSION_TIMEOUT;
+                throw EcsException.of("ADMISSION", code, "创建请求排队超时: tenantId=" + ticket.queue.tenant.tenantId
+                        + ", priority=" + ticket.lane.priority + ", waited=" + wait + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (abandon(ticket)) {
+                throw new EcsException("ADMISSION", "INTERRUPTED", "等待创建许可被中断", e);
+            }
+        } catch (ExecutionException e) {
+            throw new EcsException("ADMISSION", ADMISSION_REJECTED, "等待创建许可失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 放弃排队；与放行竞争时若已被放行则保留许可
+     *
+     * @return 是否已放弃（false 表示许可已授予）
+     */
+    private synchronized boolean abandon(Ticket ticket) {
+        if (ticket.granted.isDone()) {
+            return false;
+        }
+        TenantState tenant = ticket.queue.tenant;
+        ticket.lane.remove(ticket);
+        ticket.lane.timedOut++;
+        tenant.queued--;
+        tenant.timedOut++;
+        queued--;
+        timedOut.incrementAndGet();
+        evictIfIdle(tenant);
+        log.warn("[CreateAdmissionController] 创建请求排队超时: tenantId={}, priority={}",
+                tenant.tenantId, ticket.lane.priority);
+        return true;
+    }
+
+    /**
+     * 中心分发：有空闲并发时从各通道选出下一个放行的请求（调用方持有锁）
+     * 通道排名 = 优先级序号 - 等待时长 / agingMillis，排名相同时高优先级通道优先
+     */
+    private void dispatch() {
+        while (inFlight < maxConcurrent) {
+            long now = System.nanoTime();
+            Ticket next = null;
+            long nextRank = 0;
+            for (Lane lane : lanes.values()) {
+                Ticket head = lane.nextEligible(tenantMaxConcurrent);
+                if (head == null) {
+                    continue;
+                }
+                long rank = rank(head, now);
+                if (next == null || rank < nextRank) {
+                    next = head;
+                    nextRank = rank;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Lane lane = next.lane;
+            TenantState tenant = next.queue.tenant;
+            long waitNanos = now - next.enqueuedAt;
+            lane.remove(next);
+            lane.virtualTime = Math.max(lane.virtualTime, next.finishTag);
+            lane.admitted++;
+            lane.totalWaitNanos += waitNanos;
+            lane.maxWaitNanos = Math.max(lane.maxWaitNanos, waitNanos);
+            if (nextRank < lane.priority.ordinal()) {
+                lane.aged++;
+            }
+            tenant.queued--;
+            queued--;
+            grant(tenant, waitNanos);
+            next.granted.complete(null);
+        }
+    }
+
+    private long rank(Ticket ticket, long now) {
+        long boost = agingMillis > 0 ? TimeUnit.NANOSECONDS.toMillis(now - ticket.enqueuedAt) / agingMillis : 0;
+        return ticket.lane.priority.ordinal() - boost;
+    }
+
+    /**
+     * 租户既无进行中也无排队请求时移除其状态（调用方持有锁）
+     */
+    private void evictIfIdle(TenantState tenant) {
+        if (tenant.inFlight == 0 && tenant.queued == 0) {
+            tenants.remove(tenant.tenantId, tenant);
+        }
+    }
+
+    private void grant(TenantState tenant, long queueNanos) {
+        inFlight++;
+        tenant.inFlight++;
+        tenant.admitted++;
+        admitted.incrementAndGet();
+        if (queueNanos > 0) {
+            tenant.queuedCount++;
+            tenant.totalQueueNanos += queueNanos;
+            tenant.maxQueueNanos = Math.max(tenant.maxQueueNanos, queueNanos);
+        }
+    }
+}
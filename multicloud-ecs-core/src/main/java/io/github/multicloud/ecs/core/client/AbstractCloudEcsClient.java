@@ -5,10 +5,13 @@ import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
 import io.github.multicloud.ecs.api.dto.PriceInfo;
 import io.github.multicloud.ecs.api.dto.VirtualMachine;
 import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
 import io.github.multicloud.ecs.core.util.TenantTagInjector;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -61,7 +64,8 @@ public abstract class AbstractCloudEcsClient implements CloudEcsClient {
         logCreateInstanceStart(request);
 
         try {
-            // 4. 调用子类实现的创建逻辑
+            // 4. 调用子类实现的创建逻辑（截止时间已到则不再发起）
+            EcsDeadline.check("createInstance:" + getProviderCode());
             VirtualMachine vm = doCreateInstance(request);
 
             // 5. 记录成功日志
@@ -191,6 +195,7 @@ public abstract class AbstractCloudEcsClient implements CloudEcsClient {
     public boolean deleteInstance(String instanceId) throws EcsException {
         log.info("[{}] 删除实例: instanceId={}", getProviderCode(), instanceId);
         try {
+            EcsDeadline.check("deleteInstance:" + getProviderCode());
             boolean result = doDeleteInstance(instanceId);
             log.info("[{}] 删除实例完成: instanceId={}, result={}", getProviderCode(), instanceId, result);
             return result;
@@ -213,6 +218,7 @@ public abstract class AbstractCloudEcsClient implements CloudEcsClient {
     public boolean startInstance(String instanceId) throws EcsException {
         log.info("[{}] 启动实例: instanceId={}", getProviderCode(), instanceId);
         try {
+            EcsDeadline.check("startInstance:" + getProviderCode());
             boolean result = doStartInstance(instanceId);
             log.info("[{}] 启动实例完成: instanceId={}, result={}", getProviderCode(), instanceId, result);
             return result;
@@ -235,6 +241,7 @@ public abstract class AbstractCloudEcsClient implements CloudEcsClient {
     public boolean stopInstance(String instanceId) throws EcsException {
         log.info("[{}] 停止实例: instanceId={}", getProviderCode(), instanceId);
         try {
+            EcsDeadline.check("stopInstance:" + getProviderCode());
             boolean result = doStopInstance(instanceId);
             log.info("[{}] 停止实例完成: instanceId={}, result={}", getProviderCode(), instanceId, result);
             return result;
@@ -257,6 +264,7 @@ public abstract class AbstractCloudEcsClient implements CloudEcsClient {
     public boolean restartInstance(String instanceId) throws EcsException {
         log.info("[{}] 重启实例: instanceId={}", getProviderCode(), instanceId);
         try {
+            EcsDeadline.check("restartInstance:" + getProviderCode());
             boolean result = doRestartInstance(instanceId);
             log.info("[{}] 重启实例完成: instanceId={}, result={}", getProviderCode(), instanceId, result);
             return result;
@@ -279,6 +287,7 @@ public abstract class AbstractCloudEcsClient implements CloudEcsClient {
     public VirtualMachine getInstance(String instanceId) throws EcsException {
         log.debug("[{}] 查询实例: instanceId={}", getProviderCode(), instanceId);
         try {
+            EcsDeadline.check("getInstance:" + getProviderCode());
             return doGetInstance(instanceId);
         } catch (EcsException e) {
             log.error("[{}] 查询实例失败: instanceId={}, error={}", getProviderCode(), instanceId, e.getMessage());
@@ -295,10 +304,42 @@ public abstract class AbstractCloudEcsClient implements CloudEcsClient {
      */
     protected abstract VirtualMachine doGetInstance(String instanceId) throws EcsException;
 
+    @Override
+    public Map<String, VirtualMachine> getInstances(Collection<String> instanceIds) throws EcsException {
+        log.debug("[{}] 批量查询实例: count={}", getProviderCode(), instanceIds.size());
+        try {
+            EcsDeadline.check("getInstances:" + getProviderCode());
+            return doGetInstances(instanceIds);
+        } catch (EcsException e) {
+            log.error("[{}] 批量查询实例失败: count={}, error={}", getProviderCode(), instanceIds.size(), e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("[{}] 批量查询实例异常: count={}, error={}", getProviderCode(), instanceIds.size(), e.getMessage(), e);
+            throw new EcsException(getProviderCode(), "GET_INSTANCE_FAILED",
+                    "批量查询实例失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 子类实现：执行实际的批量查询逻辑，默认逐个调用 doGetInstance
+     * 支持批量查询的云厂商应覆盖此方法和 getMaxQueryBatchSize()
+     */
+    protected Map<String, VirtualMachine> doGetInstances(Collection<String> instanceIds) throws EcsException {
+        Map<String, VirtualMachine> result = new LinkedHashMap<>();
+        for (String instanceId : instanceIds) {
+            VirtualMachine vm = doGetInstance(instanceId);
+            if (vm != null) {
+                result.put(instanceId, vm);
+            }
+        }
+        return result;
+    }
+
     @Override
     public String findInstanceIdByName(String instanceName) throws EcsException {
         log.debug("[{}] 按名称查找实例: instanceName={}", getProviderCode(), instanceName);
         try {
+            EcsDeadline.check("findInstanceIdByName:" + getProviderCode());
             return doFindInstanceIdByName(instanceName);
         } catch (EcsException e) {
             log.error("[{}] 按名称查找实例失败: instanceName={}, error={}", getProviderCode(), instanceName, e.getMessage());
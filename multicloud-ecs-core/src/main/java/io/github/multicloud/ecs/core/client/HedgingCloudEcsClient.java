@@ -0,0 +1,498 @@
+package io.github.multicloud.ecs.core.client;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.dto.PriceInfo;
+import io.github.multicloud.ecs.api.dto.VirtualMachine;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲读客户端（装饰器）
+ * 对幂等的只读操作（getInstance、getInstances、findInstanceIdByName、calculatePrice）在首个请求超过该操作的历史分位延迟后
+ * 发起第二个请求，先成功返回的结果胜出，用于削减云端控制面的长尾延迟
+ *
+ * - 对冲延迟 = 最近 windowSize 次调用延迟的 percentile 分位，限定在 [minDelay, maxDelay] 之间；样本不足时不对冲
+ * - 对冲预算：每个请求积累 budgetPercent% 个令牌，每次对冲消耗一个，最多积累 maxBurst 个，故障期间对冲量不超过请求量的 budgetPercent%
+ * - 首个请求在对冲延迟内失败时直接抛出，不对冲；两个请求都失败时抛出首个请求的异常
+ * - 截止时间剩余不足对冲延迟时不对冲（对冲请求来不及发起），只等待首个请求
+ * - 请求在执行器线程上执行，沿用调用方的截止时间；败出的请求通过中断执行线程取消
+ * - 写操作直接委托，不对冲
+ *
+ * @author guo
+ */
+@Slf4j
+public class HedgingCloudEcsClient implements CloudEcsClient {
+
+    public static final String OP_GET_INSTANCE = "getInstance";
+    public static final String OP_GET_INSTANCES = "getInstances";
+    public static final String OP_FIND_INSTANCE_ID = "findInstanceIdByName";
+    public static final String OP_CALCULATE_PRICE = "calculatePrice";
+
+    private final CloudEcsClient delegate;
+    private final Executor executor;
+    private final HedgingPolicy policy;
+
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+    private final HedgeBudget budget;
+
+    /**
+     * 对冲策略
+     */
+    @Data
+    @Builder
+    public static class HedgingPolicy {
+
+        /**
+         * 对冲延迟取历史延迟的分位数（0-100）
+         */
+        @Builder.Default
+        private double percentile = 95;
+
+        /**
+         * 最小对冲延迟（毫秒）
+         */
+        @Builder.Default
+        private long minDelay = 20;
+
+        /**
+         * 最大对冲延迟（毫秒）
+         */
+        @Builder.Default
+        private long maxDelay = 2000;
+
+        /**
+         * 延迟统计窗口（最近调用次数）
+         */
+        @Builder.Default
+        private int windowSize = 512;
+
+        /**
+         * 开始对冲前需要的最少样本数
+         */
+        @Builder.Default
+        private int minSamples = 20;
+
+        /**
+         * 对冲预算：对冲请求数占请求数的最大百分比
+         */
+        @Builder.Default
+        private double budgetPercent = 10;
+
+        /**
+         * 对冲预算最多积累的令牌数
+         */
+        @Builder.Default
+        private int maxBurst = 10;
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 被装饰的客户端
+     * @param executor 执行读请求的执行器
+     * @param policy 对冲策略
+     */
+    public HedgingCloudEcsClient(CloudEcsClient delegate, Executor executor, HedgingPolicy policy) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.policy = policy;
+        this.budget = new HedgeBudget(policy.getBudgetPercent(), policy.getMaxBurst());
+    }
+
+    /**
+     * 被装饰的客户端
+     */
+    public CloudEcsClient getDelegate() {
+        return delegate;
+    }
+
+    // ==================== 对冲的只读操作 ====================
+
+    @Override
+    public VirtualMachine getInstance(String instanceId) throws EcsException {
+        return hedge(OP_GET_INSTANCE, () -> delegate.getInstance(instanceId));
+    }
+
+    /**
+     * 批量查询同样对冲（查询合并器以批量方式查询单实例状态）
+     */
+    @Override
+    public Map<String, VirtualMachine> getInstances(Collection<String> instanceIds) throws EcsException {
+        return hedge(OP_GET_INSTANCES, () -> delegate.getInstances(instanceIds));
+    }
+
+    @Override
+    public String findInstanceIdByName(String instanceName) throws EcsException {
+        return hedge(OP_FIND_INSTANCE_ID, () -> delegate.findInstanceIdByName(instanceName));
+    }
+
+    @Override
+    public PriceInfo calculatePrice(CreateInstanceRequest request) throws EcsException {
+        return hedge(OP_CALCULATE_PRICE, () -> delegate.calculatePrice(request));
+    }
+
+    // ==================== 直接委托的操作 ====================
+
+    @Override
+    public String getProviderCode() {
+        return delegate.getProviderCode();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public VirtualMachine createInstance(CreateInstanceRequest request) throws EcsException {
+        return delegate.createInstance(request);
+    }
+
+    @Override
+    public int getMaxQueryBatchSize() {
+        return delegate.getMaxQueryBatchSize();
+    }
+
+    @Override
+    public boolean deleteInstance(String instanceId) throws EcsException {
+        return delegate.deleteInstance(instanceId);
+    }
+
+    @Override
+    public boolean startInstance(String instanceId) throws EcsException {
+        return delegate.startInstance(instanceId);
+    }
+
+    @Override
+    public boolean stopInstance(String instanceId) throws EcsException {
+        return delegate.stopInstance(instanceId);
+    }
+
+    @Override
+    public boolean restartInstance(String instanceId) throws EcsException {
+        return delegate.restartInstance(instanceId);
+    }
+
+    /**
+     * 区域客户端同样对冲，延迟统计和预算按区域独立
+     */
+    @Override
+    public CloudEcsClient forRegion(String region) {
+        CloudEcsClient regional = delegate.forRegion(region);
+        return regional == delegate ? this : new HedgingCloudEcsClient(regional, executor, policy);
+    }
+
+    @Override
+    public String getRegion() {
+        return delegate.getRegion();
+    }
+
+    @Override
+    public boolean supportsRegion(String region) {
+        return delegate.supportsRegion(region);
+    }
+
+    @Override
+    public boolean supportsGpuModel(String gpuModel) {
+        return delegate.supportsGpuModel(gpuModel);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public int getPriority() {
+        return delegate.getPriority();
+    }
+
+    /**
+     * 获取对冲指标
+     *
+     * @return 指标快照：operation -> 指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("provider", delegate.getProviderCode());
+        metrics.put("region", delegate.getRegion());
+        metrics.put("budgetTokens", String.format("%.2f", budget.tokens()));
+        stats.forEach((operation, s) -> metrics.put(operation, s.getMetrics()));
+        return metrics;
+    }
+
+    // ==================== 对冲实现 ====================
+
+    @FunctionalInterface
+    private interface ReadCall<T> {
+        T call() throws EcsException;
+    }
+
+    private <T> T hedge(String operation, ReadCall<T> call) throws EcsException {
+        OperationStats s = stats.computeIfAbsent(operation, k -> new OperationStats(policy));
+        s.calls.incrementAndGet();
+        budget.deposit();
+
+        EcsDeadline deadline = EcsDeadline.current();
+        ReadTask<T> primary = submit(s, call, deadline);
+        if (primary == null) {
+            // 执行器已满：在调用线程上直接执行，不对冲
+            return timed(s, call);
+        }
+
+        long delayMillis = s.hedgeDelayMillis();
+        if (delayMillis < 0) {
+            return EcsDeadline.await(primary, operation);
+        }
+        if (EcsDeadline.remainingMillis() <= delayMillis) {
+            s.deadlineSkipped.incrementAndGet();
+            return EcsDeadline.await(primary, operation);
+        }
+        try {
+            return primary.get(delayMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 首个请求超过对冲延迟，进入对冲
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new EcsException(delegate.getProviderCode(), "INTERRUPTED", "等待被中断: " + operation, e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        if (!budget.tryAcquire()) {
+            s.budgetDenied.incrementAndGet();
+            return EcsDeadline.await(primary, operation);
+        }
+        ReadTask<T> hedged = submit(s, call, deadline);
+        if (hedged == null) {
+            return EcsDeadline.await(primary, operation);
+        }
+        s.hedged.incrementAndGet();
+        log.debug("[HedgingCloudEcsClient] 发起对冲请求: provider={}, operation={}, delay={}ms",
+                delegate.getProviderCode(), operation, delayMillis);
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        primary.completion.thenAccept(winner::complete);
+        hedged.completion.thenAccept(value -> {
+            if (winner.complete(value)) {
+                s.hedgeWins.incrementAndGet();
+            }
+        });
+        CompletableFuture.allOf(primary.completion, hedged.completion).whenComplete((ignored, e) -> {
+            if (e != null && primary.completion.isCompletedExceptionally()
+                    && hedged.completion.isCompletedExceptionally()) {
+                primary.completion.whenComplete((v, primaryError) -> winner.completeExceptionally(primaryError));
+            }
+        });
+        try {
+            return EcsDeadline.await(winner, operation);
+        } finally {
+            // FutureTask.cancel(true) 中断仍在执行的败出请求
+            primary.cancel(true);
+            hedged.cancel(true);
+        }
+    }
+
+    /**
+     * 在执行器上发起一次读请求，执行线程沿用调用方的截止时间
+     *
+     * @return 可取消的读请求，执行器拒绝时返回null
+     */
+    private <T> ReadTask<T> submit(OperationStats s, ReadCall<T> call, EcsDeadline deadline) {
+        ReadTask<T> task = new ReadTask<>(() -> {
+            try (EcsDeadline.Scope scope = EcsDeadline.attach(deadline)) {
+                return timed(s, call);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            s.rejected.incrementAndGet();
+            return null;
+        }
+        return task;
+    }
+
+    /**
+     * 执行读请求并记录成功调用的延迟（包括未被采用的慢请求，保证分位统计反映真实长尾）
+     */
+    private <T> T timed(OperationStats s, ReadCall<T> call) throws EcsException {
+        long start = System.nanoTime();
+        T result = call.call();
+        s.window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    private EcsException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof EcsException) {
+            return (EcsException) cause;
+        }
+        return new EcsException(delegate.getProviderCode(), "READ_FAILED", cause.getMessage(), cause);
+    }
+
+    /**
+     * 一次读请求：取消时中断执行线程，结束后通过 completion 通知等待方
+     */
+    private static final class ReadTask<T> extends FutureTask<T> {
+        private final CompletableFuture<T> completion = new CompletableFuture<>();
+
+        private ReadTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                completion.cancel(false);
+                return;
+            }
+            try {
+                completion.complete(get());
+            } catch (ExecutionException e) {
+                completion.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                completion.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 单个操作的统计
+     */
+    private static final class OperationStats {
+        private final HedgingPolicy policy;
+        private final LatencyWindow window;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong hedged = new AtomicLong();
+        private final AtomicLong hedgeWins = new AtomicLong();
+        private final AtomicLong budgetDenied = new AtomicLong();
+        private final AtomicLong deadlineSkipped = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private OperationStats(HedgingPolicy policy) {
+            this.policy = policy;
+            this.window = new LatencyWindow(policy.getWindowSize());
+        }
+
+        /**
+         * 当前对冲延迟，样本不足时返回-1（不对冲）
+         */
+        private long hedgeDelayMillis() {
+            if (window.size() < policy.getMinSamples()) {
+                return -1;
+            }
+            long delay = window.percentile(policy.getPercentile());
+            return Math.max(policy.getMinDelay(), Math.min(policy.getMaxDelay(), delay));
+        }
+
+        private Map<String, Object> getMetrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("calls", calls.get());
+            metrics.put("hedged", hedged.get());
+            metrics.put("hedgeWins", hedgeWins.get());
+            metrics.put("budgetDenied", budgetDenied.get());
+            metrics.put("deadlineSkipped", deadlineSkipped.get());
+            metrics.put("rejected", rejected.get());
+            metrics.put("samples", window.size());
+            metrics.put("p50Ms", window.percentile(50));
+            metrics.put("p99Ms", window.percentile(99));
+            metrics.put("hedgeDelayMs", hedgeDelayMillis());
+            return metrics;
+        }
+    }
+
+    /**
+     * 最近N次调用的延迟窗口，分位数每积累一批新样本重算一次
+     */
+    static final class LatencyWindow {
+        private static final int RECOMPUTE_EVERY = 32;
+
+        private final long[] samples;
+        private int next;
+        private int count;
+        private int sinceSorted = RECOMPUTE_EVERY;
+        private long[] sorted = new long[0];
+
+        LatencyWindow(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+            sinceSorted++;
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        synchronized long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (sinceSorted >= RECOMPUTE_EVERY || sorted.length != count) {
+                sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                sinceSorted = 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    /**
+     * 对冲预算（令牌桶）：每个请求存入 budgetPercent/100 个令牌，每次对冲取出一个
+     */
+    static final class HedgeBudget {
+        private final double depositPerRequest;
+        private final double maxTokens;
+        private double tokens;
+
+        HedgeBudget(double budgetPercent, int maxBurst) {
+            this.depositPerRequest = Math.max(0, budgetPercent) / 100.0;
+            this.maxTokens = Math.max(1, maxBurst);
+        }
+
+        synchronized void deposit() {
+            tokens = Math.min(maxTokens, tokens + depositPerRequest);
+        }
+
+        synchronized boolean tryAcquire() {
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized double tokens() {
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package io.github.multicloud.ecs.core.client;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.VirtualMachine;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 实例查询合并分发器
+ * 位于 CloudEcsClient.getInstance 之前，合并短时间内的并发查询，减少 DescribeInstances 调用次数
+ *
+ * - 同一实例的并发查询共享同一个进行中的结果
+ * - 同一客户端（云厂商+区域）在 window 毫秒内到达的不同实例合并为一次 getInstances 批量查询，
+ *   每批不超过 min(maxBatchSize, client.getMaxQueryBatchSize())，攒满立即发出
+ * - 不支持批量查询的客户端不等待窗口，只做同实例合并
+ * - 调用方在自身截止时间内等待，超时不影响共享同一批次的其他调用方
+ * - 批量查询在专用线程池上执行（有界队列），线程和队列都占满时该批次的调用方直接收到 QUERY_REJECTED，
+ *   不在窗口定时线程上执行阻塞查询
+ *
+ * 配置：multicloud.ecs.query-batch.*（默认关闭，关闭时直接调用 client.getInstance），
+ * 由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class InstanceQueryDispatcher {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxBatchSize;
+
+    /**
+     * 批次分发器：provider|region -> 分发器
+     */
+    private final Map<String, Batcher> batchers = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ecs-query-batch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 批量查询执行线程：有界队列，占满时拒绝
+     */
+    private final ThreadPoolExecutor queryExecutor;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedIds = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong rejectedBatches = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param enabled 是否启用合并
+     * @param windowMillis 合并窗口（毫秒）
+     * @param maxBatchSize 每批最多实例数
+     * @param maxThreads 批量查询线程数
+     * @param maxQueued 批量查询最多排队的批次数
+     */
+    public InstanceQueryDispatcher(boolean enabled, long windowMillis, int maxBatchSize, int maxThreads, int maxQueued) {
+        this.enabled = enabled;
+        this.windowMillis = Math.max(0, windowMillis);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, maxThreads);
+        this.queryExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, maxQueued)), r -> {
+            Thread thread = new Thread(r, "ecs-query-batch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.queryExecutor.allowCoreThreadTimeOut(true);
+        log.info("[InstanceQueryDispatcher] 初始化: enabled={}, window={}ms, maxBatchSize={}, maxThreads={}, maxQueued={}",
+                enabled, this.windowMillis, this.maxBatchSize, threads, maxQueued);
+    }
+
+    /**
+     * 查询实例详情（合并并发查询）
+     *
+     * @param client 实例所在区域的客户端
+     * @param instanceId 云厂商实例ID
+     * @return 实例详情，不存在返回null
+     * @throws EcsException 查询失败或超过截止时间时抛出
+     */
+    public VirtualMachine getInstance(CloudEcsClient client, String instanceId) throws EcsException {
+        if (!enabled) {
+            return client.getInstance(instanceId);
+        }
+        requests.incrementAndGet();
+        CompletableFuture<VirtualMachine> shared = batcherFor(client).enqueue(instanceId);
+        // 等待独立的派生结果：超时取消只影响当前调用方
+        return EcsDeadline.await(shared.thenApply(Function.identity()), "getInstance:" + client.getProviderCode());
+    }
+
+    /**
+     * 获取合并指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long batchCount = batches.get();
+        long requestCount = requests.get();
+        metrics.put("enabled", enabled);
+        metrics.put("windowMillis", windowMillis);
+        metrics.put("maxBatchSize", maxBatchSize);
+        metrics.put("requests", requestCount);
+        metrics.put("coalesced", coalesced.get());
+        metrics.put("batches", batchCount);
+        metrics.put("failedBatches", failedBatches.get());
+        metrics.put("rejectedBatches", rejectedBatches.get());
+        metrics.put("queueDepth", queryExecutor.getQueue().size());
+        metrics.put("avgBatchSize", batchCount > 0 ? String.format("%.2f", batchedIds.get() * 1.0 / batchCount) : "0.00");
+        metrics.put("requestsPerCall", batchCount > 0 ? String.format("%.2f", requestCount * 1.0 / batchCount) : "0.00");
+        Map<String, Object> pending = new LinkedHashMap<>();
+        batchers.forEach((key, batcher) -> pending.put(key, batcher.inFlight.size()));
+        metrics.put("inFlight", pending);
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        queryExecutor.shutdown();
+    }
+
+    private Batcher batcherFor(CloudEcsClient client) {
+        String key = client.getProviderCode() + "|" + client.getRegion();
+        Batcher batcher = batchers.get(key);
+        if (batcher != null && batcher.client == client) {
+            return batcher;
+        }
+        // 客户端重新注册后替换分发器，旧分发器上进行中的查询照常完成
+        return batchers.compute(key, (k, current) ->
+                current != null && current.client == client ? current : new Batcher(client));
+    }
+
+    /**
+     * 单个客户端的批次分发器
+     */
+    private final class Batcher {
+        private final CloudEcsClient client;
+        private final int batchLimit;
+        private final long window;
+
+        /**
+         * 已提交、尚未返回的查询：instanceId -> 共享结果
+         */
+        private final Map<String, CompletableFuture<VirtualMachine>> inFlight = new ConcurrentHashMap<>();
+
+        /**
+         * 当前窗口内待发出的实例ID（受 this 保护）
+         */
+        private List<String> pending = new ArrayList<>();
+        private long generation;
+
+        private Batcher(CloudEcsClient client) {
+            this.client = client;
+            this.batchLimit = Math.max(1, Math.min(maxBatchSize, client.getMaxQueryBatchSize()));
+            this.window = batchLimit > 1 ? windowMillis : 0;
+        }
+
+        private CompletableFuture<VirtualMachine> enqueue(String instanceId) {
+            CompletableFuture<VirtualMachine> existing = inFlight.get(instanceId);
+            if (existing != null) {
+                coalesced.incrementAndGet();
+                return existing;
+            }
+            CompletableFuture<VirtualMachine> future;
+            List<String> ready = null;
+            synchronized (this) {
+                existing = inFlight.get(instanceId);
+                if (existing != null) {
+                    coalesced.incrementAndGet();
+                    return existing;
+                }
+                future = new CompletableFuture<>();
+                inFlight.put(instanceId, future);
+                pending.add(instanceId);
+                if (pending.size() >= batchLimit || window == 0) {
+                    ready = takePending();
+                } else if (pending.size() == 1) {
+                    long scheduledGeneration = generation;
+                    timer.schedule(() -> flush(scheduledGeneration), window, TimeUnit.MILLISECONDS);
+                }
+            }
+            if (ready != null) {
+                dispatch(ready);
+            }
+            return future;
+        }
+
+        private void flush(long scheduledGeneration) {
+            List<String> ready;
+            synchronized (this) {
+                // 该窗口已因攒满提前发出
+                if (scheduledGeneration != generation || pending.isEmpty()) {
+                    return;
+                }
+                ready = takePending();
+            }
+            dispatch(ready);
+        }
+
+        private List<String> takePending() {
+            List<String> ready = pending;
+            pending = new ArrayList<>();
+            generation++;
+            return ready;
+        }
+
+        private void dispatch(List<String> instanceIds) {
+            try {
+                queryExecutor.execute(() -> execute(instanceIds));
+            } catch (RejectedExecutionException e) {
+                // 执行器已满：直接失败返回给等待者，不在提交线程（可能是窗口定时线程）上执行阻塞查询
+                rejectedBatches.incrementAndGet();
+                log.warn("[InstanceQueryDispatcher] 批量查询执行器已满，拒绝批次: provider={}, region={}, count={}",
+                        client.getProviderCode(), client.getRegion(), instanceIds.size());
+                complete(instanceIds, Collections.emptyMap(), EcsException.of(client.getProviderCode(),
+                        "QUERY_REJECTED", "实例查询执行器已满: count=" + instanceIds.size()));
+            }
+        }
+
+        private void execute(List<String> instanceIds) {
+            batches.incrementAndGet();
+            batchedIds.addAndGet(instanceIds.size());
+            Map<String, VirtualMachine> result;
+            Throwable failure = null;
+            try {
+                result = instanceIds.size() == 1
+                        ? singleton(instanceIds.get(0), client.getInstance(instanceIds.get(0)))
+                        : client.getInstances(instanceIds);
+            } catch (Throwable e) {
+                result = Collections.emptyMap();
+                failure = e;
+                failedBatches.incrementAndGet();
+                log.warn("[InstanceQueryDispatcher] 批量查询失败: provider={}, region={}, count={}, error={}",
+                        client.getProviderCode(), client.getRegion(), instanceIds.size(), e.getMessage());
+            }
+            log.debug("[InstanceQueryDispatcher] 批量查询完成: provider={}, region={}, count={}",
+                    client.getProviderCode(), client.getRegion(), instanceIds.size());
+            complete(instanceIds, result, failure);
+        }
+
+        private void complete(List<String> instanceIds, Map<String, VirtualMachine> result, Throwable failure) {
+            for (String instanceId : instanceIds) {
+                CompletableFuture<VirtualMachine> future = inFlight.remove(instanceId);
+                if (future == null) {
+                    continue;
+                }
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(result.get(instanceId));
+                }
+            }
+        }
+
+        private Map<String, VirtualMachine> singleton(String instanceId, VirtualMachine vm) {
+            return vm != null ? Collections.singletonMap(instanceId, vm) : Collections.emptyMap();
+        }
+    }
+}
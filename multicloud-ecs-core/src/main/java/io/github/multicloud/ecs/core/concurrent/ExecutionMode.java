@@ -0,0 +1,61 @@
+package io.github.multicloud.ecs.core.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+
+/**
+ * 阻塞云厂商调用的执行模式
+ *
+ * - PLATFORM：使用按线程数配置的平台线程池（默认，兼容 Java 8）
+ * - VIRTUAL：每个任务一个虚拟线程，需要 JDK 21+；运行时不支持时回退到 PLATFORM
+ * - AUTO：运行时支持虚拟线程时使用 VIRTUAL，否则 PLATFORM
+ *
+ * @author guo
+ */
+@Slf4j
+public enum ExecutionMode {
+
+    PLATFORM,
+    VIRTUAL,
+    AUTO;
+
+    /**
+     * 解析配置值，无法识别时按 PLATFORM 处理
+     *
+     * @param value 配置值（platform / virtual / auto，不区分大小写）
+     * @return 执行模式
+     */
+    public static ExecutionMode of(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return PLATFORM;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("[ExecutionMode] 无法识别的执行模式，使用 platform: value={}", value);
+            return PLATFORM;
+        }
+    }
+
+    /**
+     * 在当前运行时是否应使用虚拟线程
+     *
+     * @return 是否使用虚拟线程
+     */
+    public boolean useVirtualThreads() {
+        switch (this) {
+            case VIRTUAL:
+                if (!VirtualThreadExecutor.isSupported()) {
+                    log.warn("[ExecutionMode] 当前运行时不支持虚拟线程（需要 JDK 21+），回退到平台线程池: java.version={}",
+                            System.getProperty("java.version"));
+                    return false;
+                }
+                return true;
+            case AUTO:
+                return VirtualThreadExecutor.isSupported();
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.multicloud.ecs.core.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 虚拟线程执行器
+ * 每个任务一个虚拟线程（JDK 21+），阻塞的云厂商SDK调用不再受线程池大小限制
+ *
+ * - 通过反射创建，框架本身仍以 Java 8 编译；运行时不支持时 isSupported() 返回false
+ * - 以 maxInFlight 限制同时执行的任务数，超出时抛出 RejectedExecutionException（与平台线程池的 AbortPolicy 一致），
+ *   防止无界并发压垮云端API限流
+ *
+ * @author guo
+ */
+@Slf4j
+public class VirtualThreadExecutor implements Executor {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long awaitTerminationSeconds;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param namePrefix 线程名前缀（后接自增序号）
+     * @param maxInFlight 同时执行的最大任务数
+     * @param awaitTerminationSeconds 关闭时等待进行中任务完成的最长时间（秒）
+     * @throws IllegalStateException 当前运行时不支持虚拟线程时抛出
+     */
+    public VirtualThreadExecutor(String namePrefix, int maxInFlight, long awaitTerminationSeconds) {
+        if (!isSupported()) {
+            throw new IllegalStateException("当前运行时不支持虚拟线程（需要 JDK 21+）: java.version="
+                    + System.getProperty("java.version"));
+        }
+        this.name = namePrefix;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.permits = new Semaphore(this.maxInFlight);
+        this.awaitTerminationSeconds = awaitTerminationSeconds;
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            this.delegate = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("创建虚拟线程执行器失败: " + e.getMessage(), e);
+        }
+        log.info("[VirtualThreadExecutor] 虚拟线程执行器已创建: name={}, maxInFlight={}", namePrefix, this.maxInFlight);
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     *
+     * @return 是否支持
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("虚拟线程执行器并发已满: name=" + name + ", maxInFlight=" + maxInFlight);
+        }
+        submitted.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    completed.incrementAndGet();
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取执行器指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("name", name);
+        metrics.put("maxInFlight", maxInFlight);
+        metrics.put("inFlight", maxInFlight - permits.availablePermits());
+        metrics.put("submitted", submitted.get());
+        metrics.put("completed", completed.get());
+        metrics.put("rejected", rejected.get());
+        return metrics;
+    }
+
+    /**
+     * 关闭执行器，最多等待 awaitTerminationSeconds 让进行中的任务完成
+     */
+    public void shutdown() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(awaitTerminationSeconds, TimeUnit.SECONDS)) {
+                log.warn("[VirtualThreadExecutor] 等待任务完成超时，强制关闭: name={}, inFlight={}",
+                        name, maxInFlight - permits.availablePermits());
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            delegate.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package io.github.multicloud.ecs.core.coordination;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 多节点协调服务
+ * 编排服务多副本部署时，兜底轮询、预热池补充等后台工作按分区Key（云厂商、租户、池Key等）划分到存活节点，
+ * 避免多个副本重复调用云厂商API或互相冲突
+ *
+ * - 节点定期向 LeaseStore 心跳（有效期 = 3 × heartbeatInterval），心跳后刷新存活节点视图
+ * - 分区归属使用 Rendezvous（最高随机权重）哈希：节点加入或离开时只有约 1/N 的分区迁移
+ * - 存活节点视图变化时通知监听器（如重新触发本节点新获得分区的补充）
+ * - 本节点连续心跳失败超过有效期后不再认领任何分区（其他节点已视其离开），避免重复执行
+ * - 需要严格互斥的工作使用 tryLease() 获取排他租约（如预热池共享库存的取用、补充时的成本预算计算）
+ *
+ * 配置：multicloud.ecs.coordination.*，由 MultiCloudEcsAutoConfiguration 创建；
+ * 未注册 LeaseStore Bean 时按 store 配置创建 memory / file 存储
+ *
+ * @author guo
+ */
+@Slf4j
+public class CoordinationService {
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final LeaseStore store;
+    private final long heartbeatIntervalMillis;
+    private final long nodeTtlMillis;
+
+    /**
+     * 存活节点视图（已排序）
+     */
+    private volatile List<String> liveNodes;
+    private volatile long lastHeartbeatAt;
+
+    private final List<Consumer<List<String>>> listeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService heartbeatScheduler;
+
+    private final AtomicLong membershipVersion = new AtomicLong();
+    private final AtomicLong heartbeatFailures = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param store 租约存储
+     * @param enabled 是否启用协调（关闭时本节点执行全部后台工作）
+     * @param nodeId 节点ID，为空时使用 主机名-进程号-随机后缀
+     * @param heartbeatIntervalMillis 心跳间隔（毫秒）
+     */
+    public CoordinationService(LeaseStore store, boolean enabled, String nodeId, long heartbeatIntervalMillis) {
+        this.enabled = enabled;
+        this.nodeId = sanitize(nodeId == null || nodeId.trim().isEmpty() ? defaultNodeId() : nodeId.trim());
+        this.store = store;
+        this.heartbeatIntervalMillis = Math.max(100, heartbeatIntervalMillis);
+        this.nodeTtlMillis = this.heartbeatIntervalMillis * 3;
+        this.liveNodes = Collections.singletonList(this.nodeId);
+        this.lastHeartbeatAt = System.currentTimeMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("[CoordinationService] 多节点协调已关闭，本节点执行全部后台工作");
+            return;
+        }
+        heartbeat();
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ecs-coordination-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat,
+                heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("[CoordinationService] 多节点协调已启动: nodeId={}, store={}, heartbeatInterval={}ms, liveNodes={}",
+                nodeId, store.getName(), heartbeatIntervalMillis, liveNodes);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeatScheduler == null) {
+            return;
+        }
+        heartbeatScheduler.shutdownNow();
+        try {
+            store.leave(nodeId);
+            log.info("[CoordinationService] 节点已离开: nodeId={}", nodeId);
+        } catch (Exception e) {
+            log.warn("[CoordinationService] 节点离开失败: nodeId={}, error={}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * 本节点是否负责该分区
+     *
+     * @param partitionKey 分区Key（如 "pool:eip|cn-hangzhou"、"instance:ALIYUN|i-xxx"）
+     * @return 是否由本节点执行；协调关闭时总是返回true
+     */
+    public boolean owns(String partitionKey) {
+        if (!enabled) {
+            return true;
+        }
+        if (System.currentTimeMillis() - lastHeartbeatAt > nodeTtlMillis) {
+            return false;
+        }
+        return nodeId.equals(ownerOf(partitionKey));
+    }
+
+    /**
+     * 计算分区的负责节点（Rendezvous 哈希）
+     *
+     * @param partitionKey 分区Key
+     * @return 负责节点ID
+     */
+    public String ownerOf(String partitionKey) {
+        List<String> nodes = liveNodes;
+        String owner = null;
+        long best = 0;
+        for (String node : nodes) {
+            long score = score(node, partitionKey);
+            if (owner == null || Long.compareUnsigned(score, best) > 0) {
+                owner = node;
+                best = score;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * 获取或续约排他租约
+     *
+     * @param leaseKey 租约Key
+     * @param ttlMillis 租约有效期（毫秒）
+     * @return 是否持有租约；协调关闭时总是返回true
+     */
+    public boolean tryLease(String leaseKey, long ttlMillis) {
+        if (!enabled) {
+            return true;
+        }
+        try {
+            return store.tryAcquire(leaseKey, nodeId, ttlMillis);
+        } catch (Exception e) {
+            log.warn("[CoordinationService] 获取租约失败: leaseKey={}, error={}", leaseKey, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 释放排他租约
+     *
+     * @param leaseKey 租约Key
+     */
+    public void releaseLease(String leaseKey) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            store.release(leaseKey, nodeId);
+        } catch (Exception e) {
+            log.warn("[CoordinationService] 释放租约失败: leaseKey={}, error={}", leaseKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 注册存活节点变化监听器
+     *
+     * @param listener 监听器，参数为新的存活节点列表
+     * @return 用于注销的句柄
+     */
+    public Runnable addMembershipListener(Consumer<List<String>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public List<String> getLiveNodes() {
+        return liveNodes;
+    }
+
+    /**
+     * 获取协调指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("nodeId", nodeId);
+        metrics.put("store", store.getName());
+        metrics.put("liveNodes", liveNodes);
+        metrics.put("membershipVersion", membershipVersion.get());
+        metrics.put("heartbeatFailures", heartbeatFailures.get());
+        metrics.put("heartbeatAgeMs", System.currentTimeMillis() - lastHeartbeatAt);
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 心跳并刷新存活节点视图
+     */
+    void heartbeat() {
+        List<String> nodes;
+        try {
+            store.heartbeat(nodeId, nodeTtlMillis);
+            nodes = new ArrayList<>(store.liveNodes());
+            lastHeartbeatAt = System.currentTimeMillis();
+        } catch (Exception e) {
+            heartbeatFailures.incrementAndGet();
+            log.warn("[CoordinationService] 心跳失败: nodeId={}, store={}, error={}", nodeId, store.getName(), e.getMessage());
+            return;
+        }
+        if (!nodes.contains(nodeId)) {
+            nodes.add(nodeId);
+        }
+        Collections.sort(nodes);
+        if (nodes.equals(liveNodes)) {
+            return;
+        }
+        List<String> previous = liveNodes;
+        liveNodes = Collections.unmodifiableList(nodes);
+        membershipVersion.incrementAndGet();
+        log.info("[CoordinationService] 存活节点变化，重新划分分区: nodeId={}, before={}, after={}",
+                nodeId, previous, liveNodes);
+        for (Consumer<List<String>> listener : listeners) {
+            try {
+                listener.accept(liveNodes);
+            } catch (Exception e) {
+                log.warn("[CoordinationService] 节点变化监听器异常: error={}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rendezvous 权重：FNV-1a 64 位哈希后再做一次混合，保证节点间分布均匀
+     */
+    private static long score(String node, String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (node + "|" + key).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * 默认节点ID：主机名-进程号-随机后缀
+     */
+    private static String defaultNodeId() {
+        String runtime = ManagementFactory.getRuntimeMXBean().getName();
+        int at = runtime.indexOf('@');
+        String host = at >= 0 ? runtime.substring(at + 1) : runtime;
+        String pid = at >= 0 ? runtime.substring(0, at) : "0";
+        return host + "-" + pid + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static String sanitize(String value) {
+        return value.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.multicloud.ecs.core.coordination;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于共享目录的租约存储
+ * 多个进程挂载同一目录即可协调，适用于测试和不便引入外部存储的小规模部署
+ *
+ * 目录结构：
+ * - nodes/{nodeId}.node：内容为过期时间（毫秒）
+ * - leases/{leaseKey}.lease：内容为 "持有者\n过期时间"
+ * - store.lock：修改租约时持有的文件锁，保证跨进程的 tryAcquire 原子性
+ *
+ * 写入先写临时文件再原子替换，读取方不会看到半写的内容
+ *
+ * @author guo
+ */
+@Slf4j
+public class FileLeaseStore implements LeaseStore {
+
+    private final Path nodesDir;
+    private final Path leasesDir;
+    private final Path lockFile;
+
+    /**
+     * 构造函数
+     *
+     * @param directory 共享目录（不存在时创建）
+     */
+    public FileLeaseStore(Path directory) {
+        this.nodesDir = directory.resolve("nodes");
+        this.leasesDir = directory.resolve("leases");
+        this.lockFile = directory.resolve("store.lock");
+        try {
+            Files.createDirectories(nodesDir);
+            Files.createDirectories(leasesDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建租约目录失败: " + directory, e);
+        }
+        log.info("[FileLeaseStore] 初始化: directory={}", directory.toAbsolutePath());
+    }
+
+    @Override
+    public void heartbeat(String nodeId, long ttlMillis) {
+        write(nodesDir.resolve(fileName(nodeId) + ".node"), String.valueOf(System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        delete(nodesDir.resolve(fileName(nodeId) + ".node"));
+        withLock(() -> {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(leasesDir, "*.lease")) {
+                for (Path file : files) {
+                    String[] lease = readLease(file);
+                    if (lease != null && lease[0].equals(nodeId)) {
+                        delete(file);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<String> liveNodes() {
+        long now = System.currentTimeMillis();
+        List<String> nodes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(nodesDir, "*.node")) {
+            for (Path file : files) {
+                String content = read(file);
+                String name = file.getFileName().toString();
+                if (content != null && parseLong(content.trim()) > now) {
+                    nodes.add(name.substring(0, name.length() - ".node".length()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取节点列表失败: " + nodesDir, e);
+        }
+        return nodes;
+    }
+
+    @Override
+    public boolean tryAcquire(String leaseKey, String owner, long ttlMillis) {
+        Path file = leasesDir.resolve(fileName(leaseKey) + ".lease");
+        return withLock(() -> {
+            long now = System.currentTimeMillis();
+            String[] current = readLease(file);
+            if (current != null && !current[0].equals(owner) && parseLong(current[1]) > now) {
+                return false;
+            }
+            write(file, owner + "\n" + (now + ttlMillis));
+            return true;
+        });
+    }
+
+    @Override
+    public void release(String leaseKey, String owner) {
+        Path file = leasesDir.resolve(fileName(leaseKey) + ".lease");
+        withLock(() -> {
+            String[] current = readLease(file);
+            if (current != null && current[0].equals(owner)) {
+                delete(file);
+            }
+            return null;
+        });
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    @FunctionalInterface
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * 在跨进程文件锁内执行（同一进程内的线程先经过 synchronized，避免 OverlappingFileLockException）
+     */
+    private synchronized <T> T withLock(LockedAction<T> action) {
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            return action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("租约存储操作失败: " + lockFile, e);
+        }
+    }
+
+    private String[] readLease(Path file) {
+        String content = read(file);
+        if (content == null) {
+            return null;
+        }
+        String[] parts = content.split("\n");
+        return parts.length == 2 ? parts : null;
+    }
+
+    private String read(Path file) {
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取租约文件失败: " + file, e);
+        }
+    }
+
+    private void write(Path file, String content) {
+        try {
+            Path temp = Files.createTempFile(file.getParent(), ".tmp-", null);
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入租约文件失败: " + file, e);
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("删除租约文件失败: " + file, e);
+        }
+    }
+
+    /**
+     * 文件名：只保留安全字符，节点ID本身已由 CoordinationService 规整为安全字符
+     */
+    private static String fileName(String key) {
+        String safe = key.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.equals(key) ? safe : safe + "-" + Integer.toHexString(key.hashCode());
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.multicloud.ecs.core.coordination;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内租约存储
+ * 只在单个进程内共享，适用于单节点部署（此时本节点拥有全部工作）和测试中模拟多个节点
+ *
+ * @author guo
+ */
+public class InMemoryLeaseStore implements LeaseStore {
+
+    /**
+     * 节点心跳：nodeId -> 过期时间
+     */
+    private final Map<String, Long> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * 租约：leaseKey -> 持有者与过期时间
+     */
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private static final class Lease {
+        private final String owner;
+        private final long expiresAt;
+
+        private Lease(String owner, long expiresAt) {
+            this.owner = owner;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Override
+    public void heartbeat(String nodeId, long ttlMillis) {
+        nodes.put(nodeId, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        nodes.remove(nodeId);
+        leases.entrySet().removeIf(entry -> entry.getValue().owner.equals(nodeId));
+    }
+
+    @Override
+    public List<String> liveNodes() {
+        long now = System.currentTimeMillis();
+        nodes.entrySet().removeIf(entry -> entry.getValue() <= now);
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    @Override
+    public boolean tryAcquire(String leaseKey, String owner, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Lease lease = leases.compute(leaseKey, (key, current) ->
+                current == null || current.expiresAt <= now || current.owner.equals(owner)
+                        ? new Lease(owner, now + ttlMillis) : current);
+        return lease.owner.equals(owner);
+    }
+
+    @Override
+    public void release(String leaseKey, String owner) {
+        leases.computeIfPresent(leaseKey, (key, current) -> current.owner.equals(owner) ? null : current);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.multicloud.ecs.core.coordination;
+
+import java.util.List;
+
+/**
+ * 租约存储SPI
+ * 多个编排节点通过共享的租约存储登记存活状态、竞争排他租约，由 CoordinationService 在此基础上划分后台工作
+ *
+ * - 节点心跳与租约都带过期时间，过期由读取方按当前时间判断，节点崩溃后无需清理即可被视为离开
+ * - 实现需保证 tryAcquire 的原子性（同一时刻同一租约只有一个持有者）
+ * - 内置 InMemoryLeaseStore（单进程、测试）与 FileLeaseStore（共享目录、测试或小规模部署），
+ *   生产环境可注册基于数据库或分布式KV的实现为 Spring Bean
+ *
+ * @author guo
+ */
+public interface LeaseStore {
+
+    /**
+     * 登记或续约节点存活
+     *
+     * @param nodeId 节点ID
+     * @param ttlMillis 存活有效期（毫秒）
+     */
+    void heartbeat(String nodeId, long ttlMillis);
+
+    /**
+     * 节点主动离开（停机时调用），其他节点下一次心跳即重新划分
+     *
+     * @param nodeId 节点ID
+     */
+    void leave(String nodeId);
+
+    /**
+     * 列出存活节点
+     *
+     * @return 心跳未过期的节点ID
+     */
+    List<String> liveNodes();
+
+    /**
+     * 获取或续约排他租约
+     *
+     * @param leaseKey 租约Key
+     * @param owner 持有者（节点ID）
+     * @param ttlMillis 租约有效期（毫秒）
+     * @return 租约空闲、已过期或已由 owner 持有时返回true
+     */
+    boolean tryAcquire(String leaseKey, String owner, long ttlMillis);
+
+    /**
+     * 释放租约（仅持有者可释放）
+     *
+     * @param leaseKey 租约Key
+     * @param owner 持有者（节点ID）
+     */
+    void release(String leaseKey, String owner);
+
+    /**
+     * 存储名称（用于日志和指标）
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
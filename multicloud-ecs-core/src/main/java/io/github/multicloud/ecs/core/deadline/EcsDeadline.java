@@ -0,0 +1,183 @@
+package io.github.multicloud.ecs.core.deadline;
+
+import io.github.multicloud.ecs.api.exception.EcsException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 请求级截止时间
+ * 在服务入口按 operationTimeout 建立，沿调用线程向调度器、客户端、网络步骤传递，每一步只使用剩余预算
+ *
+ * - 线程内通过 ThreadLocal 传递；嵌套建立时取更早的截止时间，不会延长外层预算
+ * - 截止时间到达后 check() / await() 抛出 DEADLINE_EXCEEDED，await() 同时取消仍未完成的异步结果
+ * - 跨线程的异步步骤在提交时读取 remainingMillis() 作为自身超时；调用方要等待的任务可用 current() 捕获、
+ *   在执行线程上用 attach() 恢复截止时间
+ *
+ * @author guo
+ */
+@Slf4j
+public final class EcsDeadline {
+
+    /**
+     * 截止时间超出的错误码
+     */
+    public static final String DEADLINE_EXCEEDED = "DEADLINE_EXCEEDED";
+
+    private static final ThreadLocal<EcsDeadline> CURRENT = new ThreadLocal<>();
+
+    private final String operation;
+    private final long timeoutMillis;
+    private final long deadlineNanos;
+
+    private EcsDeadline(String operation, long timeoutMillis, long deadlineNanos) {
+        this.operation = operation;
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 截止时间作用域，关闭时恢复外层截止时间
+     */
+    public static final class Scope implements AutoCloseable {
+        private final EcsDeadline previous;
+
+        private Scope(EcsDeadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * 在当前线程建立截止时间
+     *
+     * @param operation 操作名称（用于错误信息）
+     * @param timeoutMillis 超时时间（毫秒），小于等于0表示不限制
+     * @return 作用域，需在 finally 或 try-with-resources 中关闭
+     */
+    public static Scope start(String operation, long timeoutMillis) {
+        EcsDeadline previous = CURRENT.get();
+        if (timeoutMillis > 0) {
+            long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            if (previous == null || deadlineNanos - previous.deadlineNanos < 0) {
+                CURRENT.set(new EcsDeadline(operation, timeoutMillis, deadlineNanos));
+            }
+        }
+        return new Scope(previous);
+    }
+
+    /**
+     * 当前线程的截止时间
+     *
+     * @return 截止时间，未建立时返回null
+     */
+    public static EcsDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在当前线程（通常是执行器线程）恢复调用方捕获的截止时间
+     *
+     * @param deadline 调用方线程上 current() 的返回值，可为null
+     * @return 作用域，关闭时恢复本线程原有的截止时间
+     */
+    public static Scope attach(EcsDeadline deadline) {
+        EcsDeadline previous = CURRENT.get();
+        if (deadline != null) {
+            CURRENT.set(deadline);
+        } else {
+            CURRENT.remove();
+        }
+        return new Scope(previous);
+    }
+
+    /**
+     * 剩余预算
+     *
+     * @return 剩余毫秒数，已超时返回0，未建立截止时间返回 Long.MAX_VALUE
+     */
+    public static long remainingMillis() {
+        EcsDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline.deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * 在进入下一步之前检查截止时间
+     *
+     * @param step 步骤名称
+     * @throws EcsException 已超时时抛出 DEADLINE_EXCEEDED
+     */
+    public static void check(String step) throws EcsException {
+        EcsDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.deadlineNanos - System.nanoTime() <= 0) {
+            throw deadline.exceeded(step);
+        }
+    }
+
+    /**
+     * 在剩余预算内等待异步结果，超时后取消该异步结果
+     *
+     * @param future 异步结果
+     * @param step 步骤名称
+     * @return 异步结果的值
+     * @throws EcsException 超时抛出 DEADLINE_EXCEEDED；异步步骤失败时抛出其 EcsException 或包装后的异常
+     */
+    public static <T> T await(Future<T> future, String step) throws EcsException {
+        EcsDeadline deadline = CURRENT.get();
+        try {
+            if (deadline == null) {
+                return future.get();
+            }
+            long remainingNanos = deadline.deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0 && !future.isDone()) {
+                future.cancel(true);
+                throw deadline.exceeded(step);
+            }
+            return future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw deadline.exceeded(step);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new EcsException("DEADLINE", "INTERRUPTED", "等待被中断: " + step, e);
+        } catch (CancellationException e) {
+            throw new EcsException("DEADLINE", "CANCELLED", "异步步骤已取消: " + step, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof EcsException) {
+                throw (EcsException) cause;
+            }
+            throw new EcsException(cause.getMessage(), cause);
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    private EcsException exceeded(String step) {
+        log.warn("[EcsDeadline] 截止时间已到: operation={}, step={}, timeout={}ms", operation, step, timeoutMillis);
+        return EcsException.of("DEADLINE", DEADLINE_EXCEEDED,
+                "操作超过截止时间: operation=" + operation + ", step=" + step + ", timeout=" + timeoutMillis + "ms");
+    }
+}
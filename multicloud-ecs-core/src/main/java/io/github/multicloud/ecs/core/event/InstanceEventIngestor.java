@@ -0,0 +1,156 @@
+package io.github.multicloud.ecs.core.event;
+
+import io.github.multicloud.ecs.api.exception.EcsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 实例事件摄取器
+ * 接收云厂商实例状态变更通知（HTTP回调或进程内事件源），解析归一化后更新状态跟踪器并发布 InstanceStateEvent
+ *
+ * - 通过 InstanceEventParser SPI 支持不同云厂商的事件格式
+ * - 按 eventId 去重（事件通知至少投递一次，可能重复）
+ * - 无法识别、解析或应用失败时抛出 EcsException，回调方据此返回错误让事件总线重投（失败的 eventId 不计入去重）
+ *
+ * @author guo
+ */
+@Slf4j
+@Component
+public class InstanceEventIngestor {
+
+    /**
+     * 去重窗口：最近处理过的事件ID数量
+     */
+    private static final int DEDUP_WINDOW = 10_000;
+
+    private final ObjectProvider<List<InstanceEventParser>> parsersProvider;
+    private final InstanceStateTracker stateTracker;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 最近处理过的事件ID（LRU）
+     */
+    private final Set<String> recentEventIds = Collections.newSetFromMap(
+            Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(1024, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > DEDUP_WINDOW;
+                }
+            }));
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong ingested = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong unsupported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public InstanceEventIngestor(ObjectProvider<List<InstanceEventParser>> parsersProvider,
+                                 InstanceStateTracker stateTracker,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.parsersProvider = parsersProvider;
+        this.stateTracker = stateTracker;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 摄取一条云厂商格式的事件通知
+     *
+     * @param payload 已解码的事件JSON
+     * @return 解析后的状态事件；非状态类事件、重复或乱序事件返回null
+     * @throws EcsException 无法识别的格式、解析失败或应用失败时抛出
+     */
+    public InstanceStateEvent ingest(Map<String, Object> payload) throws EcsException {
+        received.incrementAndGet();
+        List<InstanceEventParser> parsers = parsersProvider.getIfAvailable(Collections::emptyList);
+        for (InstanceEventParser parser : parsers) {
+            if (!parser.supports(payload)) {
+                continue;
+            }
+            InstanceStateEvent event;
+            try {
+                event = parser.parse(payload);
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                log.warn("[InstanceEventIngestor] 解析事件失败: provider={}, error={}",
+                        parser.getProviderCode(), e.getMessage());
+                throw new EcsException(parser.getProviderCode(), "EVENT_PARSE_FAILED",
+                        "解析实例事件失败: " + e.getMessage(), e);
+            }
+            if (event == null) {
+                return null;
+            }
+            if (event.getProvider() == null) {
+                event.setProvider(parser.getProviderCode());
+            }
+            return ingest(event) ? event : null;
+        }
+        unsupported.incrementAndGet();
+        log.warn("[InstanceEventIngestor] 无法识别的事件格式: keys={}", payload != null ? payload.keySet() : null);
+        throw EcsException.of("EVENT", "EVENT_UNSUPPORTED", "无法识别的事件格式");
+    }
+
+    /**
+     * 摄取一条已归一化的状态事件（进程内事件源、兜底轮询）
+     *
+     * @param event 状态事件
+     * @return 是否已应用；重复或乱序事件返回false
+     * @throws EcsException 应用失败时抛出
+     */
+    public boolean ingest(InstanceStateEvent event) throws EcsException {
+        if (event.getEventId() != null && !recentEventIds.add(event.getEventId())) {
+            duplicates.incrementAndGet();
+            log.debug("[InstanceEventIngestor] 忽略重复事件: eventId={}", event.getEventId());
+            return false;
+        }
+        if (event.getEventTime() == null) {
+            event.setEventTime(System.currentTimeMillis());
+        }
+        boolean applied;
+        try {
+            applied = stateTracker.apply(event);
+        } catch (RuntimeException e) {
+            if (event.getEventId() != null) {
+                recentEventIds.remove(event.getEventId());
+            }
+            failed.incrementAndGet();
+            log.warn("[InstanceEventIngestor] 应用事件失败: instanceId={}, error={}", event.getInstanceId(), e.getMessage());
+            throw new EcsException(event.getProvider(), "EVENT_APPLY_FAILED", "应用实例事件失败: " + e.getMessage(), e);
+        }
+        if (!applied) {
+            return false;
+        }
+        ingested.incrementAndGet();
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            log.error("[InstanceEventIngestor] 发布实例状态事件失败: instanceId={}, error={}",
+                    event.getInstanceId(), e.getMessage(), e);
+        }
+        return true;
+    }
+
+    /**
+     * 获取摄取指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("received", received.get());
+        metrics.put("ingested", ingested.get());
+        metrics.put("duplicates", duplicates.get());
+        metrics.put("unsupported", unsupported.get());
+        metrics.put("failed", failed.get());
+        metrics.putAll(stateTracker.getMetrics());
+        return metrics;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.multicloud.ecs.core.event;
+
+import java.util.Map;
+
+/**
+ * 云厂商实例事件解析器
+ * 每个云厂商提供一个实现（注册为 Spring Bean），把厂商格式的事件通知解析为 InstanceStateEvent
+ *
+ * @author guo
+ */
+public interface InstanceEventParser {
+
+    /**
+     * 获取云厂商代码
+     *
+     * @return 云厂商代码
+     */
+    String getProviderCode();
+
+    /**
+     * 判断是否能解析该事件
+     *
+     * @param payload 已解码的事件JSON
+     * @return 是否支持
+     */
+    boolean supports(Map<String, Object> payload);
+
+    /**
+     * 解析事件
+     *
+     * @param payload 已解码的事件JSON
+     * @return 实例状态事件，非实例状态类事件返回null
+     */
+    InstanceStateEvent parse(Map<String, Object> payload);
+}
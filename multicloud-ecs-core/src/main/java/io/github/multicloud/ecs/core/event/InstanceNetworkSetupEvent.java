@@ -0,0 +1,70 @@
+package io.github.multicloud.ecs.core.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 实例网络打通完成事件
+ * 异步网络打通模式下，EIP绑定与安全组规则在后台完成后通过 Spring ApplicationEvent 发布
+ *
+ * 业务方可通过 @EventListener 监听此事件获取公网IP
+ *
+ * @author guo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstanceNetworkSetupEvent {
+
+    /**
+     * 云厂商代码
+     */
+    private String provider;
+
+    /**
+     * 云厂商实例ID
+     */
+    private String instanceId;
+
+    /**
+     * 区域
+     */
+    private String region;
+
+    /**
+     * 公网IP（未申请或绑定失败时为null）
+     */
+    private String publicIp;
+
+    /**
+     * 已开放的端口
+     */
+    private List<Integer> openPorts;
+
+    /**
+     * EIP绑定错误信息（成功或未申请时为null）
+     */
+    private String eipErrorMessage;
+
+    /**
+     * 安全组规则错误信息（成功或未配置时为null）
+     */
+    private String securityGroupErrorMessage;
+
+    /**
+     * 完成时间戳（毫秒）
+     */
+    private Long completedAt;
+
+    /**
+     * 判断网络打通是否全部成功
+     */
+    public boolean isSuccess() {
+        return eipErrorMessage == null && securityGroupErrorMessage == null;
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.multicloud.ecs.core.event;
+
+import io.github.multicloud.ecs.api.enums.VmStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 实例状态变更事件
+ * 由云厂商事件通知（如阿里云 EventBridge / 云监控）解析而来，状态已归一化为 VmStatusEnum
+ *
+ * 摄取后通过 Spring ApplicationEvent 发布，业务方可通过 @EventListener 监听
+ *
+ * @author guo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstanceStateEvent {
+
+    /**
+     * 云厂商代码
+     */
+    private String provider;
+
+    /**
+     * 云厂商实例ID
+     */
+    private String instanceId;
+
+    /**
+     * 区域
+     */
+    private String region;
+
+    /**
+     * 统一状态
+     */
+    private VmStatusEnum status;
+
+    /**
+     * 云厂商原始状态
+     */
+    private String rawStatus;
+
+    /**
+     * 事件ID（用于去重，可为空）
+     */
+    private String eventId;
+
+    /**
+     * 状态变更时间戳（毫秒），用于丢弃乱序到达的旧事件
+     */
+    private Long eventTime;
+
+    /**
+     * 事件来源：event(云厂商事件通知), poll(兜底轮询), local(本地事件源)
+     */
+    private String source;
+}
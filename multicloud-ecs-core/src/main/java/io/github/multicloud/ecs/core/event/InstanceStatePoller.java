@@ -0,0 +1,147 @@
+package io.github.multicloud.ecs.core.event;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.VirtualMachine;
+import io.github.multicloud.ecs.api.enums.VmStatusEnum;
+import io.github.multicloud.ecs.core.coordination.CoordinationService;
+import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 实例状态兜底轮询
+ * 状态以事件驱动为主，本轮询只处理超过 safety-net-interval 仍没有任何事件的实例（事件丢失、回调未配置），
+ * 以低频 DescribeInstances 校正状态，避免等待者永久挂起
+ *
+ * 多副本部署时按 provider|instanceId 分区，只轮询本节点负责的实例；本节点有等待者的实例总是轮询，避免等待者挂起
+ *
+ * 配置：multicloud.ecs.event.safety-net-interval（秒，默认300，0表示关闭），由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class InstanceStatePoller {
+
+    private final CloudEcsClientRegistry registry;
+    private final InstanceStateTracker stateTracker;
+    private final InstanceEventIngestor ingestor;
+    private final CoordinationService coordination;
+    private final long intervalSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong corrections = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong unknown = new AtomicLong();
+
+    public InstanceStatePoller(CloudEcsClientRegistry registry,
+                               InstanceStateTracker stateTracker,
+                               InstanceEventIngestor ingestor,
+                               CoordinationService coordination,
+                               long intervalSeconds) {
+        this.registry = registry;
+        this.stateTracker = stateTracker;
+        this.ingestor = ingestor;
+        this.coordination = coordination;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds <= 0) {
+            log.info("[InstanceStatePoller] 兜底轮询已关闭");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ecs-state-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollStale, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        log.info("[InstanceStatePoller] 兜底轮询已启动: interval={}s", intervalSeconds);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 轮询长时间没有事件的实例
+     */
+    public void pollStale() {
+        List<InstanceStateEvent> stale = stateTracker.findStale(TimeUnit.SECONDS.toMillis(intervalSeconds));
+        if (stale.isEmpty()) {
+            return;
+        }
+        log.info("[InstanceStatePoller] 兜底轮询: instances={}", stale.size());
+        for (InstanceStateEvent last : stale) {
+            if (!registry.isRegistered(last.getProvider())) {
+                continue;
+            }
+            if (!coordination.owns("instance:" + last.getProvider() + "|" + last.getInstanceId())
+                    && !stateTracker.hasWaiters(last.getProvider(), last.getInstanceId())) {
+                skipped.incrementAndGet();
+                continue;
+            }
+            try {
+                polls.incrementAndGet();
+                // 实例只在所在区域可查：必须用区域客户端，默认区域客户端查不到不代表已删除
+                CloudEcsClient client = registry.getClient(last.getProvider(), last.getRegion());
+                VirtualMachine vm = client.getInstance(last.getInstanceId());
+                if (vm == null && isEmpty(last.getRegion())) {
+                    unknown.incrementAndGet();
+                    log.warn("[InstanceStatePoller] 实例区域未知，无法确认是否已删除，保持原状态: provider={}, instanceId={}",
+                            last.getProvider(), last.getInstanceId());
+                    continue;
+                }
+                VmStatusEnum status = vm != null ? vm.getStatus() : VmStatusEnum.DELETED;
+                if (status != last.getStatus()) {
+                    corrections.incrementAndGet();
+                }
+                ingestor.ingest(InstanceStateEvent.builder()
+                        .provider(last.getProvider())
+                        .instanceId(last.getInstanceId())
+                        .region(vm != null ? vm.getRegion() : last.getRegion())
+                        .status(status)
+                        .rawStatus(vm != null ? vm.getRawStatus() : null)
+                        .eventTime(System.currentTimeMillis())
+                        .source("poll")
+                        .build());
+            } catch (Exception e) {
+                log.warn("[InstanceStatePoller] 兜底轮询失败: provider={}, instanceId={}, error={}",
+                        last.getProvider(), last.getInstanceId(), e.getMessage());
+            }
+        }
+    }
+
+    public long getPolls() {
+        return polls.get();
+    }
+
+    public long getCorrections() {
+        return corrections.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getUnknown() {
+        return unknown.get();
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,350 @@
+package io.github.multicloud.ecs.core.event;
+
+import io.github.multicloud.ecs.api.enums.VmStatusEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 实例状态跟踪器
+ * 保存每个实例最近一次的状态，并唤醒等待特定状态的调用方
+ *
+ * - 状态由事件驱动更新（InstanceEventIngestor），兜底轮询只覆盖长时间没有事件的实例
+ * - 按 eventTime 丢弃乱序到达的旧事件
+ * - 实例进入 DELETED 后移出跟踪；其他终态且没有等待者的实例超过 terminalTtl 没有更新后移出
+ *   （移出后按未跟踪处理：按区域路由的操作使用云厂商默认客户端）
+ * - 最多跟踪 maxTracked 个实例：track 与 apply 遇到新实例且已满时先清理过期终态，仍满则不记录状态（等待者与监听器照常通知）
+ * - provider 统一按大写记录
+ *
+ * 由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class InstanceStateTracker {
+
+    private final int maxTracked;
+    private final long terminalTtlMillis;
+
+    /**
+     * 最近状态：provider|instanceId -> 最近事件
+     */
+    private final Map<String, TrackedState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 状态等待者：provider|instanceId -> 等待者
+     */
+    private final Map<String, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 状态变更监听器
+     */
+    private final List<Consumer<InstanceStateEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ecs-state-waiter-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong staleDropped = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong overflow = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param maxTracked 最多跟踪的实例数
+     * @param terminalTtlMillis 终态实例无更新多久后移出跟踪（毫秒）
+     */
+    public InstanceStateTracker(int maxTracked, long terminalTtlMillis) {
+        this.maxTracked = Math.max(1, maxTracked);
+        this.terminalTtlMillis = Math.max(1, terminalTtlMillis);
+        long sweepInterval = Math.min(this.terminalTtlMillis, TimeUnit.MINUTES.toMillis(1));
+        timeoutScheduler.scheduleWithFixedDelay(this::evictExpired, sweepInterval, sweepInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 跟踪中的实例状态
+     */
+    public static final class TrackedState {
+        private final InstanceStateEvent event;
+        private final long updatedAt;
+
+        private TrackedState(InstanceStateEvent event) {
+            this.event = event;
+            this.updatedAt = System.currentTimeMillis();
+        }
+
+        public InstanceStateEvent getEvent() { return event; }
+        public long getUpdatedAt() { return updatedAt; }
+    }
+
+    private static final class Waiter {
+        private final Predicate<VmStatusEnum> condition;
+        private final CompletableFuture<InstanceStateEvent> future = new CompletableFuture<>();
+
+        private Waiter(Predicate<VmStatusEnum> condition) {
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * 开始跟踪实例（如创建实例后），已跟踪时不覆盖
+     *
+     * @param provider 云厂商代码
+     * @param instanceId 实例ID
+     * @param region 区域
+     * @param status 当前状态
+     */
+    public void track(String provider, String instanceId, String region, VmStatusEnum status) {
+        String key = key(provider, instanceId);
+        if (!states.containsKey(key) && !hasCapacity()) {
+            overflow.incrementAndGet();
+            log.warn("[InstanceStateTracker] 跟踪实例数已达上限，跳过: provider={}, instanceId={}", provider, instanceId);
+            return;
+        }
+        states.putIfAbsent(key, new TrackedState(InstanceStateEvent.builder()
+                .provider(normalize(provider))
+                .instanceId(instanceId)
+                .region(region)
+                .status(status)
+                .eventTime(System.currentTimeMillis())
+                .source("local")
+                .build()));
+    }
+
+    /**
+     * 应用一个状态事件：更新最近状态、唤醒满足条件的等待者、通知监听器
+     *
+     * @param event 状态事件
+     * @return 是否已应用；乱序的旧事件返回false
+     */
+    public boolean apply(InstanceStateEvent event) {
+        event.setProvider(normalize(event.getProvider()));
+        String key = key(event.getProvider(), event.getInstanceId());
+        boolean[] stale = {false};
+        if (event.getStatus() != VmStatusEnum.DELETED && !states.containsKey(key) && !hasCapacity()) {
+            overflow.incrementAndGet();
+            log.warn("[InstanceStateTracker] 跟踪实例数已达上限，不记录状态: key={}, status={}", key, event.getStatus());
+        } else {
+            states.compute(key, (k, current) -> {
+                if (current != null && current.event.getEventTime() != null && event.getEventTime() != null
+                        && event.getEventTime() < current.event.getEventTime()) {
+                    stale[0] = true;
+                    return current;
+                }
+                return new TrackedState(event);
+            });
+        }
+        if (stale[0]) {
+            staleDropped.incrementAndGet();
+            log.debug("[InstanceStateTracker] 丢弃乱序事件: key={}, status={}, eventTime={}",
+                    key, event.getStatus(), event.getEventTime());
+            return false;
+        }
+        applied.incrementAndGet();
+        log.info("[InstanceStateTracker] 实例状态更新: provider={}, instanceId={}, status={}, source={}",
+                event.getProvider(), event.getInstanceId(), event.getStatus(), event.getSource());
+
+        // 在 compute 内摘下满足条件的等待者，出锁后再完成（完成回调会再次修改 waiters）
+        List<Waiter> satisfied = new ArrayList<>();
+        waiters.computeIfPresent(key, (k, queue) -> {
+            queue.removeIf(waiter -> {
+                if (waiter.future.isDone()) {
+                    return true;
+                }
+                if (waiter.condition.test(event.getStatus())) {
+                    satisfied.add(waiter);
+                    return true;
+                }
+                return false;
+            });
+            return queue.isEmpty() ? null : queue;
+        });
+        for (Waiter waiter : satisfied) {
+            waiter.future.complete(event);
+        }
+
+        for (Consumer<InstanceStateEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                log.warn("[InstanceStateTracker] 状态监听器异常: key={}, error={}", key, e.getMessage());
+            }
+        }
+
+        if (event.getStatus() == VmStatusEnum.DELETED) {
+            states.remove(key);
+            waiters.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * 等待实例进入指定状态
+     *
+     * @param provider 云厂商代码
+     * @param instanceId 实例ID
+     * @param condition 目标状态条件
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 满足条件时完成的异步结果，超时以 TimeoutException 结束
+     */
+    public CompletableFuture<InstanceStateEvent> await(String provider, String instanceId,
+                                                       Predicate<VmStatusEnum> condition, long timeoutMillis) {
+        String key = key(provider, instanceId);
+        Waiter waiter = new Waiter(condition);
+        // 加入与移除都在 compute 内进行，队列清空时移除Key，不会把等待者加到已移除的队列上
+        waiters.compute(key, (k, queue) -> {
+            Queue<Waiter> result = queue != null ? queue : new ConcurrentLinkedQueue<>();
+            result.add(waiter);
+            return result;
+        });
+        waiter.future.whenComplete((event, e) -> waiters.computeIfPresent(key, (k, queue) -> {
+            queue.remove(waiter);
+            return queue.isEmpty() ? null : queue;
+        }));
+
+        // 注册后再检查当前状态，避免与 apply 竞争丢失唤醒
+        TrackedState current = states.get(key);
+        if (current != null && condition.test(current.event.getStatus())) {
+            waiter.future.complete(current.event);
+        }
+        if (!waiter.future.isDone()) {
+            timeoutScheduler.schedule(() -> waiter.future.completeExceptionally(new TimeoutException(
+                    "等待实例状态超时: " + key + ", timeout=" + timeoutMillis + "ms")), timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return waiter.future;
+    }
+
+    /**
+     * 获取实例最近状态
+     *
+     * @return 最近事件，未跟踪时返回null
+     */
+    public InstanceStateEvent getState(String provider, String instanceId) {
+        TrackedState state = states.get(key(provider, instanceId));
+        return state != null ? state.event : null;
+    }
+
+    /**
+     * 是否有调用方在等待该实例的状态
+     *
+     * @return 有未完成的等待者时返回true
+     */
+    public boolean hasWaiters(String provider, String instanceId) {
+        Queue<Waiter> queue = waiters.get(key(provider, instanceId));
+        return queue != null && !queue.isEmpty();
+    }
+
+    /**
+     * 注册状态变更监听器
+     *
+     * @param listener 监听器
+     * @return 用于注销的句柄
+     */
+    public Runnable addListener(Consumer<InstanceStateEvent> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * 列出需要兜底轮询的实例：未进入终态、或有等待者，且超过 staleMillis 没有状态更新
+     *
+     * @param staleMillis 无更新时长阈值（毫秒）
+     * @return 待轮询实例的最近事件
+     */
+    public List<InstanceStateEvent> findStale(long staleMillis) {
+        long deadline = System.currentTimeMillis() - staleMillis;
+        List<InstanceStateEvent> stale = new ArrayList<>();
+        states.forEach((key, state) -> {
+            Queue<Waiter> queue = waiters.get(key);
+            boolean waited = queue != null && !queue.isEmpty();
+            boolean settled = state.event.getStatus() != null && state.event.getStatus().isFinalState();
+            if ((waited || !settled) && state.updatedAt < deadline) {
+                stale.add(state.event);
+            }
+        });
+        return stale;
+    }
+
+    /**
+     * 获取跟踪器指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("tracked", states.size());
+        int waiting = 0;
+        for (Queue<Waiter> queue : waiters.values()) {
+            waiting += queue.size();
+        }
+        metrics.put("waiters", waiting);
+        metrics.put("applied", applied.get());
+        metrics.put("staleDropped", staleDropped.get());
+        metrics.put("evicted", evicted.get());
+        metrics.put("overflow", overflow.get());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timeoutScheduler.shutdownNow();
+    }
+
+    /**
+     * 移出超过 terminalTtl 没有更新、且没有等待者的终态实例
+     */
+    private void evictExpired() {
+        long deadline = System.currentTimeMillis() - terminalTtlMillis;
+        int before = states.size();
+        states.entrySet().removeIf(entry -> {
+            VmStatusEnum status = entry.getValue().event.getStatus();
+            return status != null && status.isFinalState() && entry.getValue().updatedAt < deadline
+                    && !waiters.containsKey(entry.getKey());
+        });
+        int removed = before - states.size();
+        if (removed > 0) {
+            evicted.addAndGet(removed);
+            log.debug("[InstanceStateTracker] 移出过期终态实例: count={}, tracked={}", removed, states.size());
+        }
+    }
+
+    /**
+     * 是否还能跟踪新实例，已满时先清理过期终态
+     */
+    private boolean hasCapacity() {
+        if (states.size() < maxTracked) {
+            return true;
+        }
+        evictExpired();
+        return states.size() < maxTracked;
+    }
+
+    private static String key(String provider, String instanceId) {
+        return normalize(provider) + "|" + instanceId;
+    }
+
+    private static String normalize(String provider) {
+        return provider != null ? provider.trim().toUpperCase() : null;
+    }
+}
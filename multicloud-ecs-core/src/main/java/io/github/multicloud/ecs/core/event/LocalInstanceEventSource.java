@@ -0,0 +1,44 @@
+package io.github.multicloud.ecs.core.event;
+
+import io.github.multicloud.ecs.api.enums.VmStatusEnum;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 本地实例事件源
+ * 进程内模拟云厂商事件通知，用于本地联调与测试（SDK未接入时替代 EventBridge 回调）
+ *
+ * @author guo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalInstanceEventSource {
+
+    private final InstanceEventIngestor ingestor;
+
+    /**
+     * 发出一条实例状态变更事件
+     *
+     * @param provider 云厂商代码
+     * @param instanceId 实例ID
+     * @param status 新状态
+     * @return 是否已应用
+     */
+    public boolean emit(String provider, String instanceId, VmStatusEnum status) {
+        log.info("[LocalInstanceEventSource] 发出本地事件: provider={}, instanceId={}, status={}",
+                provider, instanceId, status);
+        return ingestor.ingest(InstanceStateEvent.builder()
+                .provider(provider)
+                .instanceId(instanceId)
+                .status(status)
+                .rawStatus(status.getCode())
+                .eventId("local-" + UUID.randomUUID())
+                .eventTime(System.currentTimeMillis())
+                .source("local")
+                .build());
+    }
+}
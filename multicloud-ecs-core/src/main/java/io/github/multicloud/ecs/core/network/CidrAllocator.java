@@ -0,0 +1,361 @@
+package io.github.multicloud.ecs.core.network;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * /24 网段分配器
+ * 在 172.16.0.0/12 上按位图分配 4096 个 /24 子网（slot -> 172.(16 + slot/256).(slot%256).0/24），
+ * 同一分配器内不会产生重复网段
+ *
+ * - 位图为 64 个 long，分配时从轮转起点扫描空闲位并 CAS 置位，无锁、O(1)（最多 64 次探测）
+ * - 同一 owner 重复分配返回同一网段（幂等）
+ * - 分配/释放追加写入本地日志文件，启动时重放并压缩，重启后分配不丢失
+ *
+ * 通常每个账号+区域一个分配器实例（不同账号、不同区域的VPC网段互不影响）
+ *
+ * @author guo
+ */
+@Slf4j
+public class CidrAllocator {
+
+    /**
+     * 可分配的 /24 子网数（172.16.0.0/12）
+     */
+    public static final int CAPACITY = 4096;
+
+    private static final int WORDS = CAPACITY / 64;
+
+    private final String name;
+
+    /**
+     * 分配位图：第 slot 位为1表示已分配
+     */
+    private final AtomicLongArray bitmap = new AtomicLongArray(WORDS);
+
+    /**
+     * slot -> owner
+     */
+    private final AtomicReferenceArray<String> owners = new AtomicReferenceArray<>(CAPACITY);
+
+    /**
+     * owner -> slot
+     */
+    private final Map<String, Integer> slotsByOwner = new ConcurrentHashMap<>();
+
+    /**
+     * 下一次扫描的起始字（轮转，分散并发分配的CAS竞争）
+     */
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final AtomicInteger allocatedCount = new AtomicInteger();
+
+    /**
+     * 持久化日志文件，为null时仅在内存中分配
+     */
+    private final Path journal;
+    private BufferedWriter writer;
+    private final Object journalLock = new Object();
+
+    /**
+     * 构造函数
+     *
+     * @param name 分配器名称（用于日志和指标）
+     * @param journal 持久化日志文件，为null时不持久化
+     */
+    public CidrAllocator(String name, Path journal) {
+        this.name = name;
+        this.journal = journal;
+        if (journal != null) {
+            load();
+        }
+    }
+
+    /**
+     * 为 owner 分配一个 /24 网段
+     *
+     * @param owner 网段归属（如用户ID）
+     * @return CIDR，如 172.16.5.0/24；地址空间已耗尽时返回null
+     */
+    public String allocate(String owner) {
+        Integer existing = slotsByOwner.get(owner);
+        if (existing != null) {
+            return toCidr(existing);
+        }
+
+        int slot = claimFreeSlot();
+        if (slot < 0) {
+            log.warn("[CidrAllocator] 网段已耗尽: allocator={}, owner={}", name, owner);
+            return null;
+        }
+        owners.set(slot, owner);
+        Integer winner = slotsByOwner.putIfAbsent(owner, slot);
+        if (winner != null) {
+            // 同一 owner 并发分配，保留先完成的网段
+            owners.set(slot, null);
+            clearBit(slot);
+            return toCidr(winner);
+        }
+
+        try {
+            append('A', slot, owner);
+        } catch (UncheckedIOException e) {
+            slotsByOwner.remove(owner, slot);
+            owners.set(slot, null);
+            clearBit(slot);
+            throw e;
+        }
+        allocatedCount.incrementAndGet();
+        log.info("[CidrAllocator] 分配网段: allocator={}, owner={}, cidr={}", name, owner, toCidr(slot));
+        return toCidr(slot);
+    }
+
+    /**
+     * 查询 owner 已分配的网段
+     *
+     * @param owner 网段归属
+     * @return CIDR，未分配时返回null
+     */
+    public String lookup(String owner) {
+        Integer slot = slotsByOwner.get(owner);
+        return slot != null ? toCidr(slot) : null;
+    }
+
+    /**
+     * 把网段转给新的 owner（如预建网络栈被用户认领）
+     *
+     * @param cidrBlock 已分配的网段
+     * @param newOwner 新归属
+     * @return 是否转移成功；网段未分配或 newOwner 已有网段时返回false
+     */
+    public boolean reassign(String cidrBlock, String newOwner) {
+        int slot = toSlot(cidrBlock);
+        if (slot < 0) {
+            return false;
+        }
+        String oldOwner = owners.get(slot);
+        if (oldOwner == null || oldOwner.equals(newOwner)) {
+            return oldOwner != null;
+        }
+        if (slotsByOwner.putIfAbsent(newOwner, slot) != null) {
+            return false;
+        }
+        if (!owners.compareAndSet(slot, oldOwner, newOwner)) {
+            slotsByOwner.remove(newOwner, slot);
+            return false;
+        }
+        slotsByOwner.remove(oldOwner, slot);
+        append('F', slot, oldOwner);
+        append('A', slot, newOwner);
+        log.info("[CidrAllocator] 网段转移: allocator={}, cidr={}, {} -> {}", name, cidrBlock, oldOwner, newOwner);
+        return true;
+    }
+
+    /**
+     * 释放 owner 的网段
+     *
+     * @param owner 网段归属
+     * @return 是否释放了网段
+     */
+    public boolean release(String owner) {
+        Integer slot = slotsByOwner.remove(owner);
+        if (slot == null) {
+            return false;
+        }
+        owners.compareAndSet(slot, owner, null);
+        clearBit(slot);
+        allocatedCount.decrementAndGet();
+        append('F', slot, owner);
+        log.info("[CidrAllocator] 释放网段: allocator={}, owner={}, cidr={}", name, owner, toCidr(slot));
+        return true;
+    }
+
+    /**
+     * 获取分配器指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        int allocated = allocatedCount.get();
+        metrics.put("capacity", CAPACITY);
+        metrics.put("allocated", allocated);
+        metrics.put("free", CAPACITY - allocated);
+        metrics.put("persistent", journal != null);
+        return metrics;
+    }
+
+    /**
+     * slot 转 CIDR
+     */
+    public static String toCidr(int slot) {
+        return "172." + (16 + slot / 256) + "." + (slot % 256) + ".0/24";
+    }
+
+    /**
+     * CIDR 转 slot，不在分配范围内时返回-1
+     */
+    public static int toSlot(String cidrBlock) {
+        if (cidrBlock == null || !cidrBlock.startsWith("172.") || !cidrBlock.endsWith(".0/24")) {
+            return -1;
+        }
+        String[] octets = cidrBlock.substring(0, cidrBlock.length() - 3).split("\\.");
+        try {
+            int second = Integer.parseInt(octets[1]);
+            int third = Integer.parseInt(octets[2]);
+            if (second < 16 || second > 31 || third < 0 || third > 255) {
+                return -1;
+            }
+            return (second - 16) * 256 + third;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 关闭日志文件
+     */
+    public void close() {
+        synchronized (journalLock) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    log.warn("[CidrAllocator] 关闭日志失败: allocator={}, error={}", name, e.getMessage());
+                }
+                writer = null;
+            }
+        }
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private int claimFreeSlot() {
+        int start = Math.floorMod(cursor.getAndIncrement(), WORDS);
+        for (int i = 0; i < WORDS; i++) {
+            int word = (start + i) % WORDS;
+            long bits = bitmap.get(word);
+            while (bits != -1L) {
+                long free = Long.lowestOneBit(~bits);
+                if (bitmap.compareAndSet(word, bits, bits | free)) {
+                    return word * 64 + Long.numberOfTrailingZeros(free);
+                }
+                bits = bitmap.get(word);
+            }
+        }
+        return -1;
+    }
+
+    private void setBit(int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << (slot & 63);
+        long bits;
+        do {
+            bits = bitmap.get(word);
+        } while (!bitmap.compareAndSet(word, bits, bits | mask));
+    }
+
+    private void clearBit(int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << (slot & 63);
+        long bits;
+        do {
+            bits = bitmap.get(word);
+        } while (!bitmap.compareAndSet(word, bits, bits & ~mask));
+    }
+
+    /**
+     * 追加一条日志记录：A|F slot owner
+     */
+    private void append(char op, int slot, String owner) {
+        if (journal == null) {
+            return;
+        }
+        synchronized (journalLock) {
+            try {
+                writer.write(op + " " + slot + " " + owner);
+                writer.newLine();
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("写入网段分配日志失败: " + journal, e);
+            }
+        }
+    }
+
+    /**
+     * 重放日志恢复分配状态，并压缩为只含当前分配的快照
+     */
+    private void load() {
+        try {
+            Files.createDirectories(journal.toAbsolutePath().getParent());
+            if (Files.exists(journal)) {
+                List<String> lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+                for (int i = 0; i < lines.size(); i++) {
+                    String line = lines.get(i);
+                    String[] parts = line.split(" ", 3);
+                    int slot = parts.length == 3 ? parseSlot(parts[1]) : -1;
+                    if (slot < 0 || !("A".equals(parts[0]) || "F".equals(parts[0]))) {
+                        // 写入中断等原因产生的残缺行，跳过（压缩时丢弃）
+                        log.warn("[CidrAllocator] 跳过无法解析的日志行: allocator={}, journal={}, line={}, content={}",
+                                name, journal, i + 1, line);
+                        continue;
+                    }
+                    if ("A".equals(parts[0])) {
+                        owners.set(slot, parts[2]);
+                        slotsByOwner.put(parts[2], slot);
+                        setBit(slot);
+                    } else {
+                        owners.compareAndSet(slot, parts[2], null);
+                        slotsByOwner.remove(parts[2], slot);
+                        if (owners.get(slot) == null) {
+                            clearBit(slot);
+                        }
+                    }
+                }
+            }
+            allocatedCount.set(slotsByOwner.size());
+
+            Path compacted = journal.resolveSibling(journal.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Integer> entry : slotsByOwner.entrySet()) {
+                    out.write("A " + entry.getValue() + " " + entry.getKey());
+                    out.newLine();
+                }
+            }
+            Files.move(compacted, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log.info("[CidrAllocator] 加载网段分配: allocator={}, journal={}, allocated={}",
+                    name, journal, allocatedCount.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException("加载网段分配日志失败: " + journal, e);
+        }
+    }
+
+    /**
+     * 解析日志中的 slot，非法时返回-1
+     */
+    private static int parseSlot(String value) {
+        try {
+            int slot = Integer.parseInt(value);
+            return slot >= 0 && slot < CAPACITY ? slot : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package io.github.multicloud.ecs.core.pool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 通用预热池
+ * 按Key（如区域、区域+可用区、规格画像）维护一批预先创建的云资源，供创建流程直接取用
+ *
+ * - 空闲数低于低水位时，在指定执行器上后台补充到目标数量（每个Key同时只有一个补充任务）
+ * - 归还时超过上限（或本节点不负责该Key）则拒绝，由调用方自行释放资源
+ * - 供应函数返回null表示暂停补充（如超出成本预算）
+ * - 可设置补充闸门（如多节点协调下只有负责该Key的节点补充和认领已有资源），闸门关闭的Key不补充、不认领
+ * - 可设置共享库存（多节点部署时云端带池标签的空闲资源）与取用闸门（如按资源ID的排他租约）：
+ *   本地为空且本节点不负责该Key时从共享库存取用；每个资源交付前都须通过取用闸门，保证同一资源只交付一次
+ * - rebalance()：负责节点变化后，失去Key的节点交出本地空闲资源（资源仍在共享库存中），
+ *   新获得Key的节点认领共享库存后补充，避免新旧负责节点各持一份空闲资源
+ *
+ * @param <T> 池中资源类型
+ * @author guo
+ */
+@Slf4j
+public class WarmPool<T> {
+
+    private final String name;
+    private final Executor refillExecutor;
+    private final int lowWaterMark;
+    private final int targetSize;
+    private final int maxSize;
+    private final Function<String, T> provisioner;
+
+    /**
+     * 空闲资源：key -> 空闲队列
+     */
+    private final Map<String, Deque<T>> idle = new ConcurrentHashMap<>();
+
+    /**
+     * 空闲计数：key -> 数量（ConcurrentLinkedDeque.size() 为 O(n)，单独计数）
+     */
+    private final Map<String, AtomicInteger> idleCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 补充中标记：key -> 是否正在补充
+     */
+    private final Map<String, AtomicBoolean> refilling = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong provisioned = new AtomicLong();
+    private final AtomicLong returned = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong gatedRefills = new AtomicLong();
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong claimConflicts = new AtomicLong();
+    private final AtomicLong handedOff = new AtomicLong();
+    private final AtomicLong lastRefillLagMillis = new AtomicLong();
+    private final AtomicLong maxRefillLagMillis = new AtomicLong();
+
+    /**
+     * 补充闸门：key -> 本节点是否补充该Key，为null时总是补充
+     */
+    private volatile Predicate<String> refillGate;
+
+    /**
+     * 共享库存：key -> 云端空闲资源，为null时只使用本地空闲资源
+     */
+    private volatile Function<String, List<T>> sharedInventory;
+
+    /**
+     * 取用闸门：资源 -> 本节点能否交付该资源，为null时总是可以
+     */
+    private volatile Predicate<T> claimGate;
+
+    /**
+     * 本节点当前负责的Key（rebalance 据此判断得失）
+     */
+    private final Set<String> ownedKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 构造函数
+     *
+     * @param name 池名称（用于日志和指标）
+     * @param refillExecutor 后台补充执行器
+     * @param lowWaterMark 低水位：空闲数低于此值时触发补充
+     * @param targetSize 补充目标数量
+     * @param maxSize 每个Key的空闲上限
+     * @param provisioner 供应函数：key -> 新资源，返回null表示暂停补充
+     */
+    public WarmPool(String name, Executor refillExecutor, int lowWaterMark, int targetSize, int maxSize,
+                    Function<String, T> provisioner) {
+        this.name = name;
+        this.refillExecutor = refillExecutor;
+        this.lowWaterMark = lowWaterMark;
+        this.targetSize = Math.min(targetSize, maxSize);
+        this.maxSize = maxSize;
+        this.provisioner = provisioner;
+    }
+
+    /**
+     * 取出一个空闲资源，并在低于低水位时触发后台补充
+     *
+     * @param key 池Key
+     * @return 空闲资源，池为空时返回null
+     */
+    public T poll(String key) {
+        T item = pollLocal(key);
+        if (item == null && !gateOpen(key)) {
+            item = pollShared(key);
+        }
+        if (item != null) {
+            hits.incrementAndGet();
+            log.info("[WarmPool] 命中预热池: pool={}, key={}, remaining={}", name, key, countOf(key).get());
+        } else {
+            misses.incrementAndGet();
+            log.info("[WarmPool] 预热池为空: pool={}, key={}", name, key);
+        }
+        triggerRefill(key, false);
+        return item;
+    }
+
+    /**
+     * 归还资源
+     *
+     * @param key 池Key
+     * @param item 资源
+     * @return 是否已放回池中；超过上限或本节点不负责该Key时返回false，由调用方释放资源
+     */
+    public boolean offer(String key, T item) {
+        if (countOf(key).get() >= maxSize || !gateOpen(key)) {
+            return false;
+        }
+        offerIdle(key, item);
+        returned.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 放入已有资源（如重启后回收的资源），不计入归还数
+     *
+     * @param key 池Key
+     * @param item 资源
+     * @return 是否已认领；补充闸门关闭时返回false（资源留给负责该Key的节点）
+     */
+    public boolean adopt(String key, T item) {
+        if (!gateOpen(key)) {
+            return false;
+        }
+        ownedKeys.add(key);
+        offerIdle(key, item);
+        return true;
+    }
+
+    /**
+     * 负责节点变化后重新划分：失去该Key时交出本地空闲资源，新获得该Key时认领共享库存并补充
+     *
+     * @param key 池Key
+     * @param inventory 云端空闲资源（新获得该Key时调用）
+     * @return 交出的本地空闲资源（资源仍在云端，由新的负责节点认领；调用方据此调整成本等统计）
+     */
+    public List<T> rebalance(String key, Supplier<List<T>> inventory) {
+        if (!gateOpen(key)) {
+            if (!ownedKeys.remove(key)) {
+                return Collections.emptyList();
+            }
+            List<T> drained = new ArrayList<>();
+            T item;
+            while ((item = queueOf(key).pollFirst()) != null) {
+                countOf(key).decrementAndGet();
+                drained.add(item);
+            }
+            handedOff.addAndGet(drained.size());
+            log.info("[WarmPool] 本节点不再负责，交出空闲资源: pool={}, key={}, count={}", name, key, drained.size());
+            return drained;
+        }
+        if (ownedKeys.add(key)) {
+            int adopted = 0;
+            for (T item : inventory.get()) {
+                offerIdle(key, item);
+                adopted++;
+            }
+            log.info("[WarmPool] 本节点开始负责，认领共享库存: pool={}, key={}, adopted={}", name, key, adopted);
+        }
+        triggerRefill(key, true);
+        return Collections.emptyList();
+    }
+
+    /**
+     * 设置共享库存与取用闸门
+     *
+     * @param sharedInventory key -> 云端空闲资源
+     * @param claimGate 资源 -> 本节点能否交付该资源（须保证同一资源只对一个节点返回true）
+     */
+    public void setSharedInventory(Function<String, List<T>> sharedInventory, Predicate<T> claimGate) {
+        this.sharedInventory = sharedInventory;
+        this.claimGate = claimGate;
+    }
+
+    /**
+     * 设置补充闸门
+     *
+     * @param refillGate key -> 本节点是否补充和认领该Key的资源
+     */
+    public void setRefillGate(Predicate<String> refillGate) {
+        this.refillGate = refillGate;
+    }
+
+    /**
+     * 立即触发补充到目标数量（用于启动预热）
+     *
+     * @param key 池Key
+     */
+    public void refill(String key) {
+        if (gateOpen(key)) {
+            ownedKeys.add(key);
+        }
+        triggerRefill(key, true);
+    }
+
+    /**
+     * 获取空闲数量
+     *
+     * @param key 池Key
+     * @return 空闲数量
+     */
+    public int size(String key) {
+        return countOf(key).get();
+    }
+
+    /**
+     * 获取预热池指标
+     * 包含命中率、各Key空闲数、补充延迟（从低于低水位到补充完成的耗时）
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        Map<String, Integer> idleByKey = new LinkedHashMap<>();
+        idleCounts.forEach((key, count) -> idleByKey.put(key, count.get()));
+        metrics.put("idle", idleByKey);
+        metrics.put("provisioned", provisioned.get());
+        metrics.put("returned", returned.get());
+        metrics.put("refills", refills.get());
+        metrics.put("gatedRefills", gatedRefills.get());
+        metrics.put("sharedHits", sharedHits.get());
+        metrics.put("claimConflicts", claimConflicts.get());
+        metrics.put("handedOff", handedOff.get());
+        metrics.put("lastRefillLagMillis", lastRefillLagMillis.get());
+        metrics.put("maxRefillLagMillis", maxRefillLagMillis.get());
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 取本地空闲资源，跳过已被其他节点取用的资源
+     */
+    private T pollLocal(String key) {
+        T item;
+        while ((item = queueOf(key).pollFirst()) != null) {
+            countOf(key).decrementAndGet();
+            if (claimable(item)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从共享库存取用（本节点不负责该Key时）
+     */
+    private T pollShared(String key) {
+        Function<String, List<T>> inventory = sharedInventory;
+        if (inventory == null) {
+            return null;
+        }
+        try {
+            for (T item : inventory.apply(key)) {
+                if (claimable(item)) {
+                    sharedHits.incrementAndGet();
+                    return item;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[WarmPool] 查询共享库存失败: pool={}, key={}, error={}", name, key, e.getMessage());
+        }
+        return null;
+    }
+
+    private boolean claimable(T item) {
+        Predicate<T> gate = claimGate;
+        if (gate == null || gate.test(item)) {
+            return true;
+        }
+        claimConflicts.incrementAndGet();
+        return false;
+    }
+
+    private void triggerRefill(String key, boolean force) {
+        if (!force && countOf(key).get() >= lowWaterMark) {
+            return;
+        }
+        if (!gateOpen(key)) {
+            gatedRefills.incrementAndGet();
+            return;
+        }
+        AtomicBoolean flag = refilling.computeIfAbsent(key, k -> new AtomicBoolean());
+        if (!flag.compareAndSet(false, true)) {
+            return;
+        }
+
+        long belowSince = System.currentTimeMillis();
+        try {
+            refillExecutor.execute(() -> {
+                try {
+                    while (countOf(key).get() < targetSize) {
+                        T item = provisioner.apply(key);
+                        if (item == null) {
+                            log.info("[WarmPool] 供应暂停，停止补充: pool={}, key={}, idle={}",
+                                    name, key, countOf(key).get());
+                            break;
+                        }
+                        provisioned.incrementAndGet();
+                        offerIdle(key, item);
+                    }
+                    long lag = System.currentTimeMillis() - belowSince;
+                    refills.incrementAndGet();
+                    lastRefillLagMillis.set(lag);
+                    maxRefillLagMillis.accumulateAndGet(lag, Math::max);
+                    log.info("[WarmPool] 补充完成: pool={}, key={}, idle={}, lag={}ms",
+                            name, key, countOf(key).get(), lag);
+                } catch (Exception e) {
+                    log.error("[WarmPool] 补充失败: pool={}, key={}, error={}", name, key, e.getMessage(), e);
+                } finally {
+                    flag.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flag.set(false);
+            log.warn("[WarmPool] 执行器已满，跳过本次补充: pool={}, key={}", name, key);
+        }
+    }
+
+    private boolean gateOpen(String key) {
+        Predicate<String> gate = refillGate;
+        return gate == null || gate.test(key);
+    }
+
+    private void offerIdle(String key, T item) {
+        queueOf(key).offerLast(item);
+        countOf(key).incrementAndGet();
+    }
+
+    private Deque<T> queueOf(String key) {
+        return idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private AtomicInteger countOf(String key) {
+        return idleCounts.computeIfAbsent(key, k -> new AtomicInteger());
+    }
+}
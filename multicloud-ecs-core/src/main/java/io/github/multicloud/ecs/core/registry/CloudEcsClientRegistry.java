@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 云厂商ECS客户端注册中心
@@ -23,6 +24,16 @@ public class CloudEcsClientRegistry {
      */
     private final Map<String, CloudEcsClient> clients = new ConcurrentHashMap<>();
 
+    /**
+     * 区域客户端：providerCode|region -> CloudEcsClient（首次使用时由 CloudEcsClient.forRegion 创建）
+     */
+    private final Map<String, CloudEcsClient> regionalClients = new ConcurrentHashMap<>();
+
+    /**
+     * 注册表版本：每次注册、注销、清空后递增，调度器据此判断是否需要重建路由结构
+     */
+    private final AtomicLong version = new AtomicLong();
+
     /**
      * 注册云厂商客户端
      *
@@ -34,6 +45,8 @@ public class CloudEcsClientRegistry {
         }
         String providerCode = normalizeProviderCode(client.getProviderCode());
         CloudEcsClient existing = clients.put(providerCode, client);
+        evictRegionalClients(providerCode);
+        version.incrementAndGet();
         if (existing != null) {
             log.warn("云厂商客户端已被覆盖: providerCode={}, old={}, new={}",
                     providerCode, existing.getClass().getSimpleName(), client.getClass().getSimpleName());
@@ -55,6 +68,8 @@ public class CloudEcsClientRegistry {
         }
         providerCode = normalizeProviderCode(providerCode);
         CloudEcsClient existing = clients.put(providerCode, client);
+        evictRegionalClients(providerCode);
+        version.incrementAndGet();
         if (existing != null) {
             log.warn("云厂商客户端已被覆盖: providerCode={}, old={}, new={}",
                     providerCode, existing.getClass().getSimpleName(), client.getClass().getSimpleName());
@@ -73,6 +88,10 @@ public class CloudEcsClientRegistry {
     public CloudEcsClient unregister(String providerCode) {
         providerCode = normalizeProviderCode(providerCode);
         CloudEcsClient removed = clients.remove(providerCode);
+        evictRegionalClients(providerCode);
+        if (removed != null) {
+            version.incrementAndGet();
+        }
         if (removed != null) {
             log.info("注销云厂商客户端: providerCode={}", providerCode);
         }
@@ -96,6 +115,39 @@ public class CloudEcsClientRegistry {
         return client;
     }
 
+    /**
+     * 获取指定区域的云厂商客户端
+     * 每个 (providerCode, region) 首次使用时通过 CloudEcsClient.forRegion 创建并缓存；
+     * 只为客户端支持的区域（CloudEcsClient.supportsRegion）创建，避免任意区域参数使缓存无限增长
+     *
+     * @param providerCode 云厂商代码
+     * @param region 区域，为空时返回云厂商默认客户端
+     * @return 云厂商客户端
+     * @throws EcsException 客户端未注册或不支持该区域时抛出
+     */
+    public CloudEcsClient getClient(String providerCode, String region) throws EcsException {
+        CloudEcsClient client = getClient(providerCode);
+        if (region == null || region.trim().isEmpty()) {
+            return client;
+        }
+        String key = normalizeProviderCode(providerCode) + "|" + region.trim();
+        CloudEcsClient regional = regionalClients.get(key);
+        if (regional != null) {
+            return regional;
+        }
+        if (!client.supportsRegion(region.trim())) {
+            throw EcsException.of(normalizeProviderCode(providerCode), "REGION_NOT_SUPPORTED",
+                    "区域未配置: " + region.trim());
+        }
+        return regionalClients.computeIfAbsent(key, k -> {
+            CloudEcsClient created = client.forRegion(region.trim());
+            if (created != client) {
+                log.info("创建区域客户端: key={}, class={}", k, created.getClass().getSimpleName());
+            }
+            return created;
+        });
+    }
+
     /**
      * 获取云厂商客户端（可选）
      *
@@ -153,6 +205,42 @@ public class CloudEcsClientRegistry {
         return available;
     }
 
+    /**
+     * 获取已创建的区域客户端
+     *
+     * @return providerCode|region 列表
+     */
+    public List<String> getRegionalClientKeys() {
+        return new ArrayList<>(regionalClients.keySet());
+    }
+
+    /**
+     * 获取云厂商已创建的区域客户端（不含默认客户端）
+     *
+     * @param providerCode 云厂商代码
+     * @return 区域客户端列表
+     */
+    public List<CloudEcsClient> getRegionalClients(String providerCode) {
+        String prefix = normalizeProviderCode(providerCode) + "|";
+        List<CloudEcsClient> result = new ArrayList<>();
+        regionalClients.forEach((key, client) -> {
+            if (key.startsWith(prefix) && !result.contains(client)) {
+                result.add(client);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取注册表版本
+     * 注册、注销、清空后递增；客户端可用性（isAvailable）的变化不计入版本
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     /**
      * 获取已注册客户端数量
      *
@@ -167,9 +255,19 @@ public class CloudEcsClientRegistry {
      */
     public void clear() {
         clients.clear();
+        regionalClients.clear();
+        version.incrementAndGet();
         log.info("已清空所有云厂商客户端注册");
     }
 
+    /**
+     * 移除云厂商的所有区域客户端（客户端被覆盖或注销后，下次使用时按新客户端重新创建）
+     */
+    private void evictRegionalClients(String providerCode) {
+        String prefix = providerCode + "|";
+        regionalClients.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
     /**
      * 标准化云厂商代码（转大写）
      */
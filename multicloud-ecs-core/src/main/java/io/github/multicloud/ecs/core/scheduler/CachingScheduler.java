@@ -0,0 +1,295 @@
+package io.github.multicloud.ecs.core.scheduler;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.EcsScheduler;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 调度决策缓存（装饰器）
+ * 批量提交的大量相同规格创建请求复用同一个调度决策，代价高的调度（询价、打分）每个规格只执行一次
+ *
+ * - 缓存Key为影响路由的请求字段：provider、region、zone、instanceType、imageKey、gpuModel、cpu、memory、
+ *   系统盘、公网带宽、计费方式、时长、数量；被装饰调度器 isTenantAware() 时再加上 tenantId
+ *   （依赖租户的调度器遇到没有 tenantId 的请求时不缓存）
+ * - 决策在 ttl 毫秒后过期；注册表版本或健康状态版本变化时整体失效；命中时校验候选仍然可用
+ * - 同一Key并发未命中时只有一个请求执行调度，其他请求等待其结果；调度失败不缓存
+ * - 最多缓存 maxEntries 个Key，满时先清理过期项，仍满则本次不缓存
+ *
+ * 通过 multicloud.ecs.scheduler-cache.enabled=true 启用，由 MultiCloudEcsAutoConfiguration 包装调度器
+ *
+ * @author guo
+ */
+@Slf4j
+public class CachingScheduler implements EcsScheduler {
+
+    private final EcsScheduler delegate;
+    private final CloudEcsClientRegistry registry;
+    private final ProviderHealthTracker healthTracker;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final boolean tenantAware;
+
+    private final Map<List<Object>, Decision> decisions = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存内容对应的 注册表版本、健康状态版本（在 this 锁内修改）
+     */
+    private volatile long registryVersion = -1;
+    private volatile long healthVersion = -1;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 被装饰的调度器
+     * @param registry 客户端注册中心
+     * @param healthTracker 云厂商健康跟踪
+     * @param ttlMillis 决策有效期（毫秒）
+     * @param maxEntries 最多缓存的Key数
+     */
+    public CachingScheduler(EcsScheduler delegate, CloudEcsClientRegistry registry,
+                            ProviderHealthTracker healthTracker, long ttlMillis, int maxEntries) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.healthTracker = healthTracker;
+        this.ttlMillis = Math.max(1, ttlMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.tenantAware = delegate.isTenantAware();
+    }
+
+    public EcsScheduler getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public CloudEcsClient select(CreateInstanceRequest request) throws EcsException {
+        return selectCandidates(request).get(0);
+    }
+
+    @Override
+    public List<CloudEcsClient> selectCandidates(CreateInstanceRequest request) throws EcsException {
+        EcsDeadline.check("schedule");
+        if (tenantAware && isEmpty(request.getTenantId())) {
+            bypassed.incrementAndGet();
+            return delegate.selectCandidates(request);
+        }
+        checkVersions();
+
+        List<Object> key = fingerprint(request);
+        long now = System.currentTimeMillis();
+        Decision decision = decisions.get(key);
+        if (decision != null && decision.isUsable(now)) {
+            boolean done = decision.result.isDone();
+            List<CloudEcsClient> candidates = await(decision);
+            if (candidates != null) {
+                (done ? hits : coalesced).incrementAndGet();
+                return candidates;
+            }
+        }
+
+        Decision stale = decision;
+        Decision created = new Decision(now + ttlMillis);
+        Decision owner = decisions.size() < maxEntries || evictExpired(now)
+                ? decisions.compute(key, (k, current) ->
+                        current != null && current != stale && current.isUsable(now) ? current : created)
+                : created;
+        if (owner != created) {
+            // 其他请求已在调度同一规格
+            List<CloudEcsClient> candidates = await(owner);
+            if (candidates != null) {
+                coalesced.incrementAndGet();
+                return candidates;
+            }
+        }
+
+        misses.incrementAndGet();
+        try {
+            List<CloudEcsClient> candidates = Collections.unmodifiableList(
+                    new ArrayList<>(delegate.selectCandidates(request)));
+            created.result.complete(candidates);
+            return candidates;
+        } catch (EcsException | RuntimeException e) {
+            // 失败不缓存，等待者各自重新调度
+            decisions.remove(key, created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Caching(" + delegate.getName() + ")";
+    }
+
+    @Override
+    public String getDescription() {
+        return delegate.getDescription() + "（相同规格的调度决策缓存 " + ttlMillis + "ms）";
+    }
+
+    @Override
+    public boolean requireProvider() {
+        return delegate.requireProvider();
+    }
+
+    @Override
+    public boolean isTenantAware() {
+        return tenantAware;
+    }
+
+    /**
+     * 获取缓存指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long hitCount = hits.get() + coalesced.get();
+        long total = hitCount + misses.get();
+        metrics.put("delegate", delegate.getName());
+        metrics.put("ttlMillis", ttlMillis);
+        metrics.put("tenantAware", tenantAware);
+        metrics.put("size", decisions.size());
+        metrics.put("hits", hits.get());
+        metrics.put("coalesced", coalesced.get());
+        metrics.put("misses", misses.get());
+        metrics.put("bypassed", bypassed.get());
+        metrics.put("invalidations", invalidations.get());
+        metrics.put("hitRate", total > 0 ? String.format("%.2f%%", hitCount * 100.0 / total) : "0.00%");
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 注册表或健康状态变化后清空缓存
+     */
+    private void checkVersions() {
+        long currentRegistry = registry.getVersion();
+        long currentHealth = healthTracker.getVersion();
+        if (currentRegistry == registryVersion && currentHealth == healthVersion) {
+            return;
+        }
+        synchronized (this) {
+            if (currentRegistry == registryVersion && currentHealth == healthVersion) {
+                return;
+            }
+            if (registryVersion >= 0 && !decisions.isEmpty()) {
+                invalidations.incrementAndGet();
+                log.info("[CachingScheduler] 注册表或健康状态变化，清空调度缓存: registryVersion={}, healthVersion={}, size={}",
+                        currentRegistry, currentHealth, decisions.size());
+            }
+            decisions.clear();
+            registryVersion = currentRegistry;
+            healthVersion = currentHealth;
+        }
+    }
+
+    /**
+     * 等待决策结果
+     *
+     * @return 候选列表；决策调度失败或候选已不可用时返回null，由调用方自行调度
+     * @throws EcsException 超过当前请求的截止时间时抛出
+     */
+    private List<CloudEcsClient> await(Decision decision) throws EcsException {
+        List<CloudEcsClient> candidates;
+        if (decision.result.isDone()) {
+            if (decision.result.isCompletedExceptionally()) {
+                return null;
+            }
+            candidates = decision.result.join();
+        } else {
+            try {
+                // 等待独立的派生结果：当前请求超时不影响同一决策的其他等待者
+                candidates = EcsDeadline.await(decision.result.thenApply(Function.identity()), "schedule");
+            } catch (EcsException e) {
+                if (decision.result.isCompletedExceptionally()) {
+                    return null;
+                }
+                throw e;
+            }
+        }
+        for (CloudEcsClient candidate : candidates) {
+            if (!candidate.isAvailable()) {
+                // 可用性变化不计入注册表版本：发现后作废该决策
+                if (decisions.values().remove(decision)) {
+                    invalidations.incrementAndGet();
+                }
+                return null;
+            }
+        }
+        return candidates;
+    }
+
+    private boolean evictExpired(long now) {
+        decisions.values().removeIf(decision -> decision.result.isDone() && !decision.isUsable(now));
+        return decisions.size() < maxEntries;
+    }
+
+    /**
+     * 影响路由的请求字段（List 的 equals/hashCode 按元素比较，无需拼接分隔符）
+     */
+    private List<Object> fingerprint(CreateInstanceRequest request) {
+        return Arrays.asList(
+                normalize(request.getProvider()),
+                request.getRegion(),
+                request.getZone(),
+                request.getInstanceType(),
+                request.getImageKey(),
+                normalize(request.getGpuModel()),
+                request.getCpu(),
+                request.getMemory(),
+                request.getSystemDiskType(),
+                request.getSystemDiskSize(),
+                request.getAllocatePublicIp(),
+                request.getPublicIpBandwidth(),
+                request.getBandwidthMode(),
+                request.getInstanceChargeMode(),
+                request.getDuration(),
+                request.getQuantity(),
+                tenantAware ? request.getTenantId() : null);
+    }
+
+    private static String normalize(String value) {
+        return isEmpty(value) ? null : value.trim().toUpperCase();
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * 一个调度决策：进行中或已完成
+     */
+    private static final class Decision {
+        private final CompletableFuture<List<CloudEcsClient>> result = new CompletableFuture<>();
+        private final long expiresAt;
+
+        private Decision(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isUsable(long now) {
+            return !result.isCompletedExceptionally() && (!result.isDone() || now < expiresAt);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package io.github.multicloud.ecs.core.scheduler;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.EcsScheduler;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一致性哈希调度器
+ * 按 tenantId 把租户固定到一个云厂商（网络就近、账单归属），整体负载按配置的权重在云厂商间分布
+ *
+ * - 哈希环由可用云厂商的虚拟节点组成，每个云厂商 virtualNodes × weight 个，权重为0的云厂商不参与
+ * - 云厂商加入或离开 getAvailableClients() 时，只有落在其虚拟节点上的租户迁移
+ * - 哈希环不可变，查找为 O(log n) 二分；仅在注册表版本或可用云厂商集合变化时重建
+ * - 请求指定了 provider 且可用时优先使用；未指定 tenantId 时按 instanceName 分布
+ * - selectCandidates 沿环顺时针返回后继云厂商（最多 maxAttempts 个），故障切换时租户也落在确定的备选上
+ *
+ * 通过 multicloud.ecs.scheduler-type=consistent-hash 启用，由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class ConsistentHashScheduler implements EcsScheduler {
+
+    private final CloudEcsClientRegistry registry;
+    private final int virtualNodes;
+    private final Map<String, Integer> weights;
+    private final int maxAttempts;
+
+    private volatile Ring ring = Ring.EMPTY;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param registry 客户端注册中心
+     * @param virtualNodes 权重为1时每个云厂商的虚拟节点数
+     * @param weights 云厂商权重（providerCode -> weight），未配置的云厂商权重为1
+     * @param maxAttempts 故障切换时最多尝试的云厂商数
+     */
+    public ConsistentHashScheduler(CloudEcsClientRegistry registry, int virtualNodes,
+                                   Map<String, Integer> weights, int maxAttempts) {
+        this.registry = registry;
+        this.virtualNodes = Math.max(1, virtualNodes);
+        this.weights = new HashMap<>();
+        if (weights != null) {
+            weights.forEach((provider, weight) -> this.weights.put(provider.trim().toUpperCase(), weight));
+        }
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @Override
+    public CloudEcsClient select(CreateInstanceRequest request) throws EcsException {
+        return selectCandidates(request).get(0);
+    }
+
+    @Override
+    public List<CloudEcsClient> selectCandidates(CreateInstanceRequest request) throws EcsException {
+        EcsDeadline.check("schedule");
+        Ring current = currentRing();
+        List<CloudEcsClient> candidates = new ArrayList<>();
+        List<String> providers = new ArrayList<>();
+
+        String preferred = request.getProvider();
+        if (preferred != null && !preferred.trim().isEmpty()) {
+            CloudEcsClient client = registry.getClient(preferred, request.getRegion());
+            if (client.isAvailable()) {
+                candidates.add(client);
+                providers.add(client.getProviderCode());
+            } else {
+                log.warn("[ConsistentHashScheduler] 指定的云厂商不可用，按哈希环选择: provider={}", preferred);
+            }
+        }
+
+        String key = routingKey(request);
+        lookups.incrementAndGet();
+        for (String provider : current.successors(hash(key), maxAttempts)) {
+            if (candidates.size() >= maxAttempts) {
+                break;
+            }
+            if (providers.contains(provider)) {
+                continue;
+            }
+            candidates.add(registry.getClient(provider, request.getRegion()));
+            providers.add(provider);
+        }
+
+        if (candidates.isEmpty()) {
+            throw EcsException.of("SCHEDULER", "PROVIDER_UNAVAILABLE", "没有可用的云厂商客户端（哈希环为空）");
+        }
+        log.info("[ConsistentHashScheduler] 选择云厂商: key={}, candidates={}", key, providers);
+        return candidates;
+    }
+
+    /**
+     * 获取租户（或路由Key）当前映射到的云厂商，不检查截止时间，供排查使用
+     *
+     * @param routingKey tenantId 或 instanceName
+     * @return 云厂商代码，哈希环为空时返回null
+     */
+    public String ownerOf(String routingKey) {
+        List<String> owners = currentRing().successors(hash(routingKey), 1);
+        return owners.isEmpty() ? null : owners.get(0);
+    }
+
+    @Override
+    public String getName() {
+        return "ConsistentHashScheduler";
+    }
+
+    @Override
+    public String getDescription() {
+        return "一致性哈希调度器 - 按租户固定云厂商，按权重分布负载";
+    }
+
+    @Override
+    public boolean requireProvider() {
+        return false;
+    }
+
+    @Override
+    public boolean isTenantAware() {
+        return true;
+    }
+
+    /**
+     * 获取哈希环指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Ring current = ring;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("virtualNodes", virtualNodes);
+        metrics.put("weights", weights);
+        metrics.put("registryVersion", current.registryVersion);
+        metrics.put("providers", current.providers);
+        metrics.put("ringSize", current.points.length);
+        metrics.put("share", current.share);
+        metrics.put("lookups", lookups.get());
+        metrics.put("rebuilds", rebuilds.get());
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 获取当前哈希环，注册表版本或可用云厂商集合变化时重建
+     */
+    private Ring currentRing() {
+        long version = registry.getVersion();
+        List<String> providers = availableProviders();
+        Ring current = ring;
+        if (current.matches(version, providers)) {
+            return current;
+        }
+        synchronized (this) {
+            current = ring;
+            if (current.matches(version, providers)) {
+                return current;
+            }
+            Ring rebuilt = build(version, providers);
+            ring = rebuilt;
+            rebuilds.incrementAndGet();
+            log.info("[ConsistentHashScheduler] 重建哈希环: registryVersion={}, providers={}, ringSize={}, share={}",
+                    version, providers, rebuilt.points.length, rebuilt.share);
+            return rebuilt;
+        }
+    }
+
+    private List<String> availableProviders() {
+        List<String> providers = new ArrayList<>();
+        for (CloudEcsClient client : registry.getAvailableClients()) {
+            String provider = client.getProviderCode().trim().toUpperCase();
+            if (weights.getOrDefault(provider, 1) > 0) {
+                providers.add(provider);
+            }
+        }
+        Collections.sort(providers);
+        return providers;
+    }
+
+    private Ring build(long version, List<String> providers) {
+        int total = 0;
+        for (String provider : providers) {
+            total += virtualNodes * weights.getOrDefault(provider, 1);
+        }
+        long[][] entries = new long[total][];
+        int index = 0;
+        for (int p = 0; p < providers.size(); p++) {
+            String provider = providers.get(p);
+            int count = virtualNodes * weights.getOrDefault(provider, 1);
+            for (int i = 0; i < count; i++) {
+                entries[index++] = new long[]{hash(provider + "#" + i), p};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        long[] points = new long[total];
+        String[] owners = new String[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = entries[i][0];
+            owners[i] = providers.get((int) entries[i][1]);
+        }
+        return new Ring(version, providers, points, owners);
+    }
+
+    private static String routingKey(CreateInstanceRequest request) {
+        if (request.getTenantId() != null && !request.getTenantId().isEmpty()) {
+            return request.getTenantId();
+        }
+        return request.getInstanceName() != null ? request.getInstanceName() : "";
+    }
+
+    /**
+     * FNV-1a 64 位哈希后再做一次混合，保证虚拟节点在环上分布均匀
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * 不可变哈希环
+     */
+    private static final class Ring {
+        private static final Ring EMPTY = new Ring(-1, Collections.emptyList(), new long[0], new String[0]);
+
+        private final long registryVersion;
+        private final List<String> providers;
+        private final long[] points;
+        private final String[] owners;
+
+        /**
+         * 各云厂商占环上哈希空间的比例（用于核对权重）
+         */
+        private final Map<String, String> share;
+
+        private Ring(long registryVersion, List<String> providers, long[] points, String[] owners) {
+            this.registryVersion = registryVersion;
+            this.providers = Collections.unmodifiableList(new ArrayList<>(providers));
+            this.points = points;
+            this.owners = owners;
+            this.share = computeShare();
+        }
+
+        private boolean matches(long version, List<String> availableProviders) {
+            return registryVersion == version && providers.equals(availableProviders);
+        }
+
+        /**
+         * 从哈希值所在位置顺时针取不重复的云厂商
+         */
+        private List<String> successors(long hash, int limit) {
+            List<String> result = new ArrayList<>();
+            if (points.length == 0) {
+                return result;
+            }
+            int index = Arrays.binarySearch(points, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            for (int step = 0; step < points.length && result.size() < Math.min(limit, providers.size()); step++) {
+                String owner = owners[(index + step) % points.length];
+                if (!result.contains(owner)) {
+                    result.add(owner);
+                }
+            }
+            return result;
+        }
+
+        private Map<String, String> computeShare() {
+            Map<String, String> result = new LinkedHashMap<>();
+            if (points.length == 0) {
+                return result;
+            }
+            Map<String, Double> arcs = new LinkedHashMap<>();
+            for (int i = 0; i < points.length; i++) {
+                // 每个点负责从前一个点到自身的弧（首个点跨越环的起点）
+                long previous = points[(i + points.length - 1) % points.length];
+                long arc = points[i] - previous;
+                double length = points.length == 1 ? Math.pow(2, 64) : unsigned(arc);
+                arcs.merge(owners[i], length, Double::sum);
+            }
+            for (String provider : providers) {
+                double percent = arcs.getOrDefault(provider, 0.0) / Math.pow(2, 64) * 100;
+                result.put(provider, String.format("%.1f%%", percent));
+            }
+            return result;
+        }
+
+        private static double unsigned(long value) {
+            return value >= 0 ? value : value + Math.pow(2, 64);
+        }
+    }
+}
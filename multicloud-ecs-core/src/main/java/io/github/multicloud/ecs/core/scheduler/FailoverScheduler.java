@@ -0,0 +1,94 @@
+package io.github.multicloud.ecs.core.scheduler;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.EcsScheduler;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 故障切换调度器
+ * 返回有序的候选云厂商列表：请求指定的 provider（如有）排在首位，其余为 getAvailableClients() 中的可用云厂商（按优先级）；
+ * 创建在前一个候选上因配额、库存或可用性失败时，由 MultiCloudEcsServiceImpl 依次切换到下一个候选
+ *
+ * 通过 multicloud.ecs.scheduler-type=failover 启用，由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class FailoverScheduler implements EcsScheduler {
+
+    private final CloudEcsClientRegistry registry;
+    private final int maxAttempts;
+
+    /**
+     * 构造函数
+     *
+     * @param registry 客户端注册中心
+     * @param maxAttempts 最多尝试的云厂商数
+     */
+    public FailoverScheduler(CloudEcsClientRegistry registry, int maxAttempts) {
+        this.registry = registry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @Override
+    public CloudEcsClient select(CreateInstanceRequest request) throws EcsException {
+        return selectCandidates(request).get(0);
+    }
+
+    @Override
+    public List<CloudEcsClient> selectCandidates(CreateInstanceRequest request) throws EcsException {
+        EcsDeadline.check("schedule");
+        List<CloudEcsClient> candidates = new ArrayList<>();
+        List<String> providers = new ArrayList<>();
+
+        String preferred = request.getProvider();
+        if (preferred != null && !preferred.trim().isEmpty()) {
+            CloudEcsClient client = registry.getClient(preferred, request.getRegion());
+            if (client.isAvailable()) {
+                candidates.add(client);
+                providers.add(client.getProviderCode());
+            } else {
+                log.warn("[FailoverScheduler] 指定的云厂商不可用，改用其他云厂商: provider={}", preferred);
+            }
+        }
+
+        for (CloudEcsClient available : registry.getAvailableClients()) {
+            if (candidates.size() >= maxAttempts) {
+                break;
+            }
+            if (providers.contains(available.getProviderCode())) {
+                continue;
+            }
+            candidates.add(registry.getClient(available.getProviderCode(), request.getRegion()));
+            providers.add(available.getProviderCode());
+        }
+
+        if (candidates.isEmpty()) {
+            throw EcsException.of("SCHEDULER", "PROVIDER_UNAVAILABLE", "没有可用的云厂商客户端");
+        }
+        log.info("[FailoverScheduler] 候选云厂商: instanceName={}, candidates={}", request.getInstanceName(), providers);
+        return candidates;
+    }
+
+    @Override
+    public String getName() {
+        return "FailoverScheduler";
+    }
+
+    @Override
+    public String getDescription() {
+        return "故障切换调度器 - 配额/库存/可用性失败时切换到下一个云厂商";
+    }
+
+    @Override
+    public boolean requireProvider() {
+        return false;
+    }
+}
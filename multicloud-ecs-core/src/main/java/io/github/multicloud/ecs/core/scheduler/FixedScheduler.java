@@ -4,6 +4,7 @@ import io.github.multicloud.ecs.api.CloudEcsClient;
 import io.github.multicloud.ecs.api.EcsScheduler;
 import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
 import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
 import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class FixedScheduler implements EcsScheduler {
         log.info("[FixedScheduler] ========== 开始选择云厂商客户端 ==========");
         log.info("[FixedScheduler] 请求信息: instanceName={}, tenantId={}, region={}",
                 request.getInstanceName(), request.getTenantId(), request.getRegion());
+        EcsDeadline.check("schedule");
         
         // 1. 校验provider是否指定
         String provider = request.getProvider();
@@ -37,9 +39,9 @@ public class FixedScheduler implements EcsScheduler {
         }
         log.info("[FixedScheduler] 指定的provider: {}", provider);
 
-        // 2. 获取对应的客户端
-        log.info("[FixedScheduler] 从Registry获取客户端: provider={}", provider);
-        CloudEcsClient client = registry.getClient(provider);
+        // 2. 获取对应区域的客户端
+        log.info("[FixedScheduler] 从Registry获取客户端: provider={}, region={}", provider, request.getRegion());
+        CloudEcsClient client = registry.getClient(provider, request.getRegion());
         log.info("[FixedScheduler] ✓ 成功获取客户端: providerCode={}, providerName={}, class={}",
                 client.getProviderCode(), client.getProviderName(), client.getClass().getSimpleName());
 
@@ -0,0 +1,371 @@
+package io.github.multicloud.ecs.core.scheduler;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.EcsScheduler;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 插件式调度器（过滤 + 打分）
+ * 不修改调度器即可组合路由策略：
+ *
+ * 1. 候选：getAvailableClients() 中的云厂商，绑定请求区域
+ * 2. 过滤：依次执行 SchedulerFilter（区域、GPU型号、配额、健康等），任一拒绝即剔除
+ * 3. 打分：SchedulerScorer（价格、延迟、亲和、库存等）的原始分值在候选之间归一化到 0-100，按权重加权平均；
+ *    阻塞插件（询价）对所有候选并行执行，整体受 scoreTimeout 和请求截止时间限制，
+ *    超时、失败或没有依据的分值按50计，决策耗时取决于最慢的一次调用而不是插件数量
+ * 4. 排序：按总分从高到低（同分保持云厂商优先级顺序），请求指定了 provider 且通过过滤时排在首位，
+ *    返回前 maxAttempts 个候选供故障切换
+ *
+ * 只剩一个候选时跳过打分。通过 multicloud.ecs.scheduler-type=pluggable 启用，
+ * 插件与权重由 multicloud.ecs.pipeline.* 配置，由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class PluggableScheduler implements EcsScheduler {
+
+    private static final double NEUTRAL_SCORE = 50;
+
+    private final CloudEcsClientRegistry registry;
+    private final List<SchedulerFilter> filters;
+    private final List<SchedulerScorer> scorers;
+    private final double[] weights;
+    private final Executor executor;
+    private final long scoreTimeoutMillis;
+    private final int maxAttempts;
+
+    private final AtomicLong decisions = new AtomicLong();
+    private final AtomicLong decisionNanos = new AtomicLong();
+    private final AtomicLong noEligible = new AtomicLong();
+    private final Map<String, AtomicLong> filterRejects = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> scorerTimeouts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> scorerFailures = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param registry 客户端注册中心
+     * @param filters 过滤插件（按顺序执行）
+     * @param scorers 打分插件
+     * @param weights 打分权重（插件名称 -> 权重），未配置的为1，0表示不执行
+     * @param executor 阻塞打分插件的执行器
+     * @param scoreTimeoutMillis 并行打分的最长等待时间（毫秒）
+     * @param maxAttempts 故障切换时最多尝试的云厂商数
+     */
+    public PluggableScheduler(CloudEcsClientRegistry registry, List<SchedulerFilter> filters,
+                              List<SchedulerScorer> scorers, Map<String, Double> weights,
+                              Executor executor, long scoreTimeoutMillis, int maxAttempts) {
+        this.registry = registry;
+        this.filters = new ArrayList<>(filters);
+        this.scorers = new ArrayList<>(scorers);
+        this.weights = new double[scorers.size()];
+        for (int i = 0; i < scorers.size(); i++) {
+            Double weight = weights != null ? weights.get(scorers.get(i).getName()) : null;
+            this.weights[i] = weight != null ? Math.max(0, weight) : 1;
+        }
+        this.executor = executor;
+        this.scoreTimeoutMillis = Math.max(1, scoreTimeoutMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        for (SchedulerFilter filter : filters) {
+            filterRejects.put(filter.getName(), new AtomicLong());
+        }
+        for (SchedulerScorer scorer : scorers) {
+            scorerTimeouts.put(scorer.getName(), new AtomicLong());
+            scorerFailures.put(scorer.getName(), new AtomicLong());
+        }
+    }
+
+    @Override
+    public CloudEcsClient select(CreateInstanceRequest request) throws EcsException {
+        return selectCandidates(request).get(0);
+    }
+
+    @Override
+    public List<CloudEcsClient> selectCandidates(CreateInstanceRequest request) throws EcsException {
+        EcsDeadline.check("schedule");
+        long start = System.nanoTime();
+        try {
+            return decide(request);
+        } finally {
+            decisions.incrementAndGet();
+            decisionNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "PluggableScheduler";
+    }
+
+    @Override
+    public String getDescription() {
+        return "插件式调度器 - 过滤插件剔除候选，打分插件并行打分后按权重排序";
+    }
+
+    @Override
+    public boolean requireProvider() {
+        return false;
+    }
+
+    /**
+     * 任一启用的过滤或打分插件依赖 tenantId 时为true
+     */
+    @Override
+    public boolean isTenantAware() {
+        for (SchedulerFilter filter : filters) {
+            if (filter.isTenantAware()) {
+                return true;
+            }
+        }
+        for (int i = 0; i < scorers.size(); i++) {
+            if (weights[i] > 0 && scorers.get(i).isTenantAware()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取调度指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long count = decisions.get();
+        List<String> filterNames = new ArrayList<>();
+        filters.forEach(filter -> filterNames.add(filter.getName()));
+        Map<String, Double> scorerWeights = new LinkedHashMap<>();
+        for (int i = 0; i < scorers.size(); i++) {
+            scorerWeights.put(scorers.get(i).getName(), weights[i]);
+        }
+        metrics.put("filters", filterNames);
+        metrics.put("scorers", scorerWeights);
+        metrics.put("scoreTimeoutMillis", scoreTimeoutMillis);
+        metrics.put("decisions", count);
+        metrics.put("avgDecisionMicros", count > 0 ? decisionNanos.get() / count / 1000 : 0);
+        metrics.put("noEligible", noEligible.get());
+        metrics.put("filterRejects", snapshot(filterRejects));
+        metrics.put("scorerTimeouts", snapshot(scorerTimeouts));
+        metrics.put("scorerFailures", snapshot(scorerFailures));
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private List<CloudEcsClient> decide(CreateInstanceRequest request) throws EcsException {
+        // 1. 候选
+        List<CloudEcsClient> eligible = new ArrayList<>();
+        Map<String, String> rejected = new LinkedHashMap<>();
+        for (CloudEcsClient available : registry.getAvailableClients()) {
+            CloudEcsClient client = registry.getClient(available.getProviderCode(), request.getRegion());
+            // 2. 过滤
+            String rejectedBy = null;
+            for (SchedulerFilter filter : filters) {
+                if (!filter.test(request, client)) {
+                    rejectedBy = filter.getName();
+                    filterRejects.get(rejectedBy).incrementAndGet();
+                    break;
+                }
+            }
+            if (rejectedBy == null) {
+                eligible.add(client);
+            } else {
+                rejected.put(client.getProviderCode(), rejectedBy);
+            }
+        }
+        if (eligible.isEmpty()) {
+            noEligible.incrementAndGet();
+            throw EcsException.of("SCHEDULER", "PROVIDER_UNAVAILABLE",
+                    "没有满足条件的云厂商: rejected=" + rejected);
+        }
+
+        // 3. 打分并排序
+        double[] totals = eligible.size() > 1 ? score(request, eligible) : new double[]{NEUTRAL_SCORE};
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < eligible.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Double.compare(totals[b], totals[a]));
+
+        // 4. 指定的云厂商优先
+        String preferred = request.getProvider();
+        if (preferred != null && !preferred.trim().isEmpty()) {
+            int index = indexOf(eligible, preferred.trim());
+            if (index >= 0) {
+                order.remove(Integer.valueOf(index));
+                order.add(0, index);
+            } else {
+                log.warn("[PluggableScheduler] 指定的云厂商未通过过滤，按打分选择: provider={}, rejected={}",
+                        preferred, rejected);
+            }
+        }
+
+        List<CloudEcsClient> candidates = new ArrayList<>();
+        Map<String, String> ranking = new LinkedHashMap<>();
+        for (int index : order) {
+            if (candidates.size() >= maxAttempts) {
+                break;
+            }
+            candidates.add(eligible.get(index));
+            ranking.put(eligible.get(index).getProviderCode(), String.format("%.1f", totals[index]));
+        }
+        log.info("[PluggableScheduler] 选择云厂商: instanceName={}, ranking={}, rejected={}",
+                request.getInstanceName(), ranking, rejected);
+        return candidates;
+    }
+
+    /**
+     * 计算每个候选的加权总分（0-100）
+     */
+    private double[] score(CreateInstanceRequest request, List<CloudEcsClient> eligible) {
+        int n = eligible.size();
+        Double[][] raw = new Double[scorers.size()][n];
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Double>[][] pending = new CompletableFuture[scorers.size()][];
+        List<CompletableFuture<Double>> all = new ArrayList<>();
+
+        // 阻塞插件先全部提交，再在调用线程上执行本地插件
+        for (int s = 0; s < scorers.size(); s++) {
+            SchedulerScorer scorer = scorers.get(s);
+            if (weights[s] <= 0 || !scorer.isBlocking()) {
+                continue;
+            }
+            pending[s] = new CompletableFuture[n];
+            for (int c = 0; c < n; c++) {
+                pending[s][c] = submit(scorer, request, eligible.get(c));
+                all.add(pending[s][c]);
+            }
+        }
+        for (int s = 0; s < scorers.size(); s++) {
+            SchedulerScorer scorer = scorers.get(s);
+            if (weights[s] <= 0 || scorer.isBlocking()) {
+                continue;
+            }
+            for (int c = 0; c < n; c++) {
+                raw[s][c] = safeScore(scorer, request, eligible.get(c));
+            }
+        }
+
+        if (!all.isEmpty()) {
+            long timeout = Math.min(scoreTimeoutMillis, EcsDeadline.remainingMillis());
+            try {
+                CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).get(timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // 超时或部分失败：已完成的照常使用，其余按中间分计
+            }
+            for (int s = 0; s < scorers.size(); s++) {
+                if (pending[s] == null) {
+                    continue;
+                }
+                for (int c = 0; c < n; c++) {
+                    CompletableFuture<Double> future = pending[s][c];
+                    if (future.isDone() && !future.isCompletedExceptionally()) {
+                        raw[s][c] = future.getNow(null);
+                    } else if (!future.isDone()) {
+                        future.cancel(true);
+                        scorerTimeouts.get(scorers.get(s).getName()).incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        double[] totals = new double[n];
+        double weightSum = 0;
+        for (int s = 0; s < scorers.size(); s++) {
+            if (weights[s] <= 0) {
+                continue;
+            }
+            double[] normalized = normalize(raw[s], scorers.get(s).higherIsBetter());
+            for (int c = 0; c < n; c++) {
+                totals[c] += weights[s] * normalized[c];
+            }
+            weightSum += weights[s];
+        }
+        for (int c = 0; c < n; c++) {
+            totals[c] = weightSum > 0 ? totals[c] / weightSum : NEUTRAL_SCORE;
+        }
+        return totals;
+    }
+
+    private CompletableFuture<Double> submit(SchedulerScorer scorer, CreateInstanceRequest request,
+                                             CloudEcsClient client) {
+        try {
+            return CompletableFuture.supplyAsync(() -> safeScore(scorer, request, client), executor);
+        } catch (RejectedExecutionException e) {
+            // 执行器已满：在调用线程上执行，不丢弃该分值
+            return CompletableFuture.completedFuture(safeScore(scorer, request, client));
+        }
+    }
+
+    private Double safeScore(SchedulerScorer scorer, CreateInstanceRequest request, CloudEcsClient client) {
+        try {
+            Double value = scorer.score(request, client);
+            return value == null || value.isNaN() || value.isInfinite() ? null : value;
+        } catch (Exception e) {
+            scorerFailures.get(scorer.getName()).incrementAndGet();
+            log.warn("[PluggableScheduler] 打分失败，按中间分计: scorer={}, provider={}, error={}",
+                    scorer.getName(), client.getProviderCode(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 在候选之间线性归一化到 0-100；所有候选相同时均为100，没有分值的按中间分
+     */
+    private static double[] normalize(Double[] values, boolean higherIsBetter) {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (Double value : values) {
+            if (value != null) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        double[] normalized = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                normalized[i] = NEUTRAL_SCORE;
+            } else if (max == min) {
+                normalized[i] = 100;
+            } else {
+                double ratio = (values[i] - min) / (max - min);
+                normalized[i] = (higherIsBetter ? ratio : 1 - ratio) * 100;
+            }
+        }
+        return normalized;
+    }
+
+    private static int indexOf(List<CloudEcsClient> clients, String provider) {
+        for (int i = 0; i < clients.size(); i++) {
+            if (clients.get(i).getProviderCode().equalsIgnoreCase(provider)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Map<String, Long> snapshot(Map<String, AtomicLong> counters) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counters.forEach((key, value) -> result.put(key, value.get()));
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,300 @@
+package io.github.multicloud.ecs.core.scheduler;
+
+import io.github.multicloud.ecs.api.exception.EcsException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 云厂商健康跟踪
+ * MultiCloudEcsServiceImpl 记录每次创建的结果，调度插件据此过滤和打分
+ *
+ * - 健康：云厂商不可用类错误连续达到 failureThreshold 次后，unhealthyDuration 内视为不健康；
+ *   到期后放行请求试探，再次失败立即重新标记，成功则恢复
+ * - 配额：某云厂商区域返回配额不足后，quotaBlockDuration 内不再调度到该区域
+ * - 库存：记录 云厂商|区域|GPU型号 最近一次库存不足的时间，stockOutWindow 内按时间衰减扣分
+ * - 延迟：创建耗时的指数移动平均
+ * - 亲和：租户最近一次创建成功的云厂商（LRU，最多 affinityCapacity 个租户）
+ *
+ * 健康、配额、库存状态变化时 getVersion() 递增；到期恢复不递增，依赖方按自身的有效期感知
+ *
+ * 配置：multicloud.ecs.health.*，由 MultiCloudEcsAutoConfiguration 创建（不参与组件扫描）
+ *
+ * @author guo
+ */
+@Slf4j
+public class ProviderHealthTracker {
+
+    private final int failureThreshold;
+    private final long unhealthyDurationMillis;
+    private final long quotaBlockMillis;
+    private final long stockOutWindowMillis;
+    private final int affinityCapacity;
+
+    private static final double LATENCY_ALPHA = 0.2;
+
+    /**
+     * 云厂商状态：providerCode -> 状态
+     */
+    private final Map<String, ProviderState> providers = new ConcurrentHashMap<>();
+
+    /**
+     * 配额封禁：provider|region -> 截止时间
+     */
+    private final Map<String, Long> quotaBlockedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * 最近库存不足：provider|region|gpuModel -> 时间
+     */
+    private final Map<String, Long> lastStockOut = new ConcurrentHashMap<>();
+
+    /**
+     * 租户亲和：tenantId -> providerCode（访问顺序，受自身锁保护）
+     */
+    private final LinkedHashMap<String, String> tenantAffinity;
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param failureThreshold 连续不可用次数达到后标记为不健康
+     * @param unhealthyDurationMillis 不健康持续时长（毫秒）
+     * @param quotaBlockMillis 配额不足后暂停调度到该区域的时长（毫秒）
+     * @param stockOutWindowMillis 库存不足扣分的恢复窗口（毫秒）
+     * @param affinityCapacity 最多记录亲和关系的租户数
+     */
+    public ProviderHealthTracker(int failureThreshold, long unhealthyDurationMillis, long quotaBlockMillis,
+                                 long stockOutWindowMillis, int affinityCapacity) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.unhealthyDurationMillis = Math.max(0, unhealthyDurationMillis);
+        this.quotaBlockMillis = Math.max(0, quotaBlockMillis);
+        this.stockOutWindowMillis = Math.max(1, stockOutWindowMillis);
+        this.affinityCapacity = Math.max(1, affinityCapacity);
+        this.tenantAffinity = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > ProviderHealthTracker.this.affinityCapacity;
+            }
+        };
+    }
+
+    /**
+     * 记录创建成功
+     *
+     * @param provider 云厂商代码
+     * @param tenantId 租户ID，可为null
+     * @param latencyMillis 创建耗时（毫秒）
+     */
+    public void recordSuccess(String provider, String tenantId, long latencyMillis) {
+        ProviderState state = state(provider);
+        boolean recovered;
+        synchronized (state) {
+            recovered = state.consecutiveFailures >= failureThreshold;
+            state.consecutiveFailures = 0;
+            state.unhealthyUntil = 0;
+            state.successes++;
+            state.latencyEwma = Double.isNaN(state.latencyEwma)
+                    ? latencyMillis : state.latencyEwma + LATENCY_ALPHA * (latencyMillis - state.latencyEwma);
+        }
+        if (recovered) {
+            version.incrementAndGet();
+            log.info("[ProviderHealthTracker] 云厂商恢复健康: provider={}", normalize(provider));
+        }
+        if (tenantId != null) {
+            synchronized (tenantAffinity) {
+                tenantAffinity.put(tenantId, normalize(provider));
+            }
+        }
+    }
+
+    /**
+     * 记录创建失败：只统计配额、库存和云厂商不可用类错误，参数错误等与云厂商健康无关
+     *
+     * @param provider 云厂商代码
+     * @param region 区域
+     * @param gpuModel GPU型号，可为null
+     * @param error 失败原因
+     */
+    public void recordFailure(String provider, String region, String gpuModel, EcsException error) {
+        long now = System.currentTimeMillis();
+        if (error.isQuotaExceeded()) {
+            quotaBlockedUntil.put(key(provider, region), now + quotaBlockMillis);
+            version.incrementAndGet();
+            log.warn("[ProviderHealthTracker] 配额不足，暂停调度: provider={}, region={}, duration={}ms",
+                    normalize(provider), region, quotaBlockMillis);
+        } else if (error.isStockOut()) {
+            lastStockOut.put(key(provider, region) + "|" + gpuModel, now);
+            version.incrementAndGet();
+        } else if (error.isProviderUnavailable()) {
+            ProviderState state = state(provider);
+            boolean opened;
+            synchronized (state) {
+                state.failures++;
+                state.consecutiveFailures++;
+                opened = state.consecutiveFailures >= failureThreshold;
+                if (opened) {
+                    state.unhealthyUntil = now + unhealthyDurationMillis;
+                }
+            }
+            if (opened) {
+                version.incrementAndGet();
+                log.warn("[ProviderHealthTracker] 云厂商标记为不健康: provider={}, consecutiveFailures={}, duration={}ms",
+                        normalize(provider), state.consecutiveFailures, unhealthyDurationMillis);
+            }
+        }
+    }
+
+    /**
+     * 云厂商是否健康
+     *
+     * @param provider 云厂商代码
+     * @return 是否健康
+     */
+    public boolean isHealthy(String provider) {
+        ProviderState state = providers.get(normalize(provider));
+        return state == null || System.currentTimeMillis() >= state.unhealthyUntil;
+    }
+
+    /**
+     * 云厂商区域是否因配额不足暂停调度
+     *
+     * @param provider 云厂商代码
+     * @param region 区域
+     * @return 是否暂停
+     */
+    public boolean isQuotaBlocked(String provider, String region) {
+        Long until = quotaBlockedUntil.get(key(provider, region));
+        if (until == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() >= until) {
+            quotaBlockedUntil.remove(key(provider, region), until);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 最近库存不足的衰减程度
+     *
+     * @param provider 云厂商代码
+     * @param region 区域
+     * @param gpuModel GPU型号，可为null
+     * @return 0-1，1表示刚刚库存不足，0表示窗口内没有库存不足
+     */
+    public double stockOutPressure(String provider, String region, String gpuModel) {
+        Long at = lastStockOut.get(key(provider, region) + "|" + gpuModel);
+        if (at == null) {
+            return 0;
+        }
+        long age = System.currentTimeMillis() - at;
+        if (age >= stockOutWindowMillis) {
+            lastStockOut.remove(key(provider, region) + "|" + gpuModel, at);
+            return 0;
+        }
+        return 1 - (double) age / stockOutWindowMillis;
+    }
+
+    /**
+     * 创建耗时的指数移动平均
+     *
+     * @param provider 云厂商代码
+     * @return 毫秒，没有样本时返回null
+     */
+    public Double getLatencyMillis(String provider) {
+        ProviderState state = providers.get(normalize(provider));
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            return Double.isNaN(state.latencyEwma) ? null : state.latencyEwma;
+        }
+    }
+
+    /**
+     * 租户最近一次创建成功的云厂商
+     *
+     * @param tenantId 租户ID
+     * @return 云厂商代码，没有记录返回null
+     */
+    public String getPreferredProvider(String tenantId) {
+        if (tenantId == null) {
+            return null;
+        }
+        synchronized (tenantAffinity) {
+            return tenantAffinity.get(tenantId);
+        }
+    }
+
+    /**
+     * 状态版本：健康、配额、库存状态变化时递增
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 获取健康指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        Map<String, Object> byProvider = new LinkedHashMap<>();
+        providers.forEach((provider, state) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            synchronized (state) {
+                item.put("healthy", now >= state.unhealthyUntil);
+                item.put("consecutiveFailures", state.consecutiveFailures);
+                item.put("successes", state.successes);
+                item.put("failures", state.failures);
+                item.put("latencyMs", Double.isNaN(state.latencyEwma) ? null : Math.round(state.latencyEwma));
+            }
+            byProvider.put(provider, item);
+        });
+        metrics.put("providers", byProvider);
+        Map<String, Long> blocked = new LinkedHashMap<>();
+        quotaBlockedUntil.forEach((key, until) -> {
+            if (until > now) {
+                blocked.put(key, until - now);
+            }
+        });
+        metrics.put("quotaBlockedMs", blocked);
+        metrics.put("stockOutRecords", lastStockOut.size());
+        synchronized (tenantAffinity) {
+            metrics.put("tenantAffinity", tenantAffinity.size());
+        }
+        metrics.put("version", version.get());
+        return metrics;
+    }
+
+    private ProviderState state(String provider) {
+        return providers.computeIfAbsent(normalize(provider), p -> new ProviderState());
+    }
+
+    private static String key(String provider, String region) {
+        return normalize(provider) + "|" + region;
+    }
+
+    private static String normalize(String provider) {
+        return provider == null ? "" : provider.trim().toUpperCase();
+    }
+
+    /**
+     * 单个云厂商的状态（受自身锁保护）
+     */
+    private static final class ProviderState {
+        private int consecutiveFailures;
+        private long unhealthyUntil;
+        private long successes;
+        private long failures;
+        private double latencyEwma = Double.NaN;
+    }
+}
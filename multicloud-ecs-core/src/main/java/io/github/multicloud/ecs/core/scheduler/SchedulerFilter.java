@@ -0,0 +1,40 @@
+package io.github.multicloud.ecs.core.scheduler;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+
+/**
+ * 调度过滤插件
+ * PluggableScheduler 在打分前依次执行过滤插件，任一插件拒绝的候选不再参与打分
+ *
+ * 过滤在调用线程上同步执行，实现应只读取本地状态（不调用云厂商API）
+ *
+ * @author guo
+ */
+public interface SchedulerFilter {
+
+    /**
+     * 插件名称，用于配置（multicloud.ecs.pipeline.filters）和指标
+     *
+     * @return 名称
+     */
+    String getName();
+
+    /**
+     * 判断候选客户端能否处理该请求
+     *
+     * @param request 创建请求
+     * @param client 候选客户端（已绑定请求区域）
+     * @return 是否保留
+     */
+    boolean test(CreateInstanceRequest request, CloudEcsClient client);
+
+    /**
+     * 结果是否依赖 tenantId（调度决策缓存据此决定缓存Key是否包含 tenantId）
+     *
+     * @return 默认false
+     */
+    default boolean isTenantAware() {
+        return false;
+    }
+}
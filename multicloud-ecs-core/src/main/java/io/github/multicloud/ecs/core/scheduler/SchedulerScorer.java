@@ -0,0 +1,62 @@
+package io.github.multicloud.ecs.core.scheduler;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.exception.EcsException;
+
+/**
+ * 调度打分插件
+ * 返回原始分值（如价格、延迟），由 PluggableScheduler 在候选之间归一化到 0-100 后按权重加权求和
+ *
+ * - 返回null表示对该候选没有判断依据，按中间分（50）计
+ * - isBlocking() 为true的插件（如调用云厂商询价）在调度执行器上并行执行，受 score-timeout 限制，
+ *   超时或失败同样按中间分计；其他插件在调用线程上直接执行
+ *
+ * @author guo
+ */
+public interface SchedulerScorer {
+
+    /**
+     * 插件名称，用于配置权重（multicloud.ecs.pipeline.scorers）和指标
+     *
+     * @return 名称
+     */
+    String getName();
+
+    /**
+     * 计算原始分值
+     *
+     * @param request 创建请求
+     * @param client 候选客户端（已绑定请求区域）
+     * @return 原始分值，没有判断依据时返回null
+     * @throws EcsException 计算失败时抛出（按中间分计）
+     */
+    Double score(CreateInstanceRequest request, CloudEcsClient client) throws EcsException;
+
+    /**
+     * 原始分值是否越大越好（价格、延迟等越小越好的返回false）
+     *
+     * @return 默认true
+     */
+    default boolean higherIsBetter() {
+        return true;
+    }
+
+    /**
+     * 是否会阻塞（远程调用），阻塞插件并行执行
+     *
+     * @return 默认false
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+
+    /**
+     * 结果是否依赖 tenantId（调度决策缓存据此决定缓存Key是否包含 tenantId）
+     *
+     * @return 默认false
+     */
+    default boolean isTenantAware() {
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.core.scheduler.ProviderHealthTracker;
+import io.github.multicloud.ecs.core.scheduler.SchedulerScorer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 亲和打分：租户最近一次创建成功的云厂商得满分，使同一租户尽量留在同一云厂商
+ *
+ * @author guo
+ */
+@RequiredArgsConstructor
+public class AffinityScorer implements SchedulerScorer {
+
+    private final ProviderHealthTracker healthTracker;
+
+    @Override
+    public String getName() {
+        return "affinity";
+    }
+
+    @Override
+    public Double score(CreateInstanceRequest request, CloudEcsClient client) {
+        String preferred = healthTracker.getPreferredProvider(request.getTenantId());
+        if (preferred == null) {
+            return null;
+        }
+        return preferred.equalsIgnoreCase(client.getProviderCode()) ? 1.0 : 0.0;
+    }
+
+    @Override
+    public boolean isTenantAware() {
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.core.scheduler.SchedulerFilter;
+
+/**
+ * GPU型号过滤：排除不提供请求GPU型号的云厂商（CloudEcsClient.supportsGpuModel）
+ *
+ * @author guo
+ */
+public class GpuModelFilter implements SchedulerFilter {
+
+    @Override
+    public String getName() {
+        return "gpu";
+    }
+
+    @Override
+    public boolean test(CreateInstanceRequest request, CloudEcsClient client) {
+        String gpuModel = request.getGpuModel();
+        return gpuModel == null || gpuModel.trim().isEmpty() || client.supportsGpuModel(gpuModel.trim());
+    }
+}
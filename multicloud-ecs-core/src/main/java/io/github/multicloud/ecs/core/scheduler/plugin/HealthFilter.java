@@ -0,0 +1,28 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.core.scheduler.ProviderHealthTracker;
+import io.github.multicloud.ecs.core.scheduler.SchedulerFilter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 健康过滤：排除连续不可用、处于隔离期内的云厂商
+ *
+ * @author guo
+ */
+@RequiredArgsConstructor
+public class HealthFilter implements SchedulerFilter {
+
+    private final ProviderHealthTracker healthTracker;
+
+    @Override
+    public String getName() {
+        return "health";
+    }
+
+    @Override
+    public boolean test(CreateInstanceRequest request, CloudEcsClient client) {
+        return healthTracker.isHealthy(client.getProviderCode());
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.core.scheduler.ProviderHealthTracker;
+import io.github.multicloud.ecs.core.scheduler.SchedulerScorer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 延迟打分：按最近创建耗时的移动平均，越快得分越高
+ *
+ * @author guo
+ */
+@RequiredArgsConstructor
+public class LatencyScorer implements SchedulerScorer {
+
+    private final ProviderHealthTracker healthTracker;
+
+    @Override
+    public String getName() {
+        return "latency";
+    }
+
+    @Override
+    public Double score(CreateInstanceRequest request, CloudEcsClient client) {
+        return healthTracker.getLatencyMillis(client.getProviderCode());
+    }
+
+    @Override
+    public boolean higherIsBetter() {
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.dto.PriceInfo;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.scheduler.SchedulerScorer;
+
+/**
+ * 价格打分：按 calculatePrice 返回的每小时总价，越便宜得分越高
+ * 询价是远程调用，在调度执行器上并行执行
+ *
+ * @author guo
+ */
+public class PriceScorer implements SchedulerScorer {
+
+    @Override
+    public String getName() {
+        return "price";
+    }
+
+    @Override
+    public Double score(CreateInstanceRequest request, CloudEcsClient client) throws EcsException {
+        PriceInfo price = client.calculatePrice(request);
+        if (price == null) {
+            return null;
+        }
+        if (price.getTotalPricePerHour() != null) {
+            return price.getTotalPricePerHour().doubleValue();
+        }
+        return price.getInstancePricePerHour() != null ? price.getInstancePricePerHour().doubleValue() : null;
+    }
+
+    @Override
+    public boolean higherIsBetter() {
+        return false;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+}
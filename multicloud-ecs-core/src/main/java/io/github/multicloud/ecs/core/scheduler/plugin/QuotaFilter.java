@@ -0,0 +1,28 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.core.scheduler.ProviderHealthTracker;
+import io.github.multicloud.ecs.core.scheduler.SchedulerFilter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 配额过滤：排除最近返回配额不足的云厂商区域（multicloud.ecs.health.quota-block 内）
+ *
+ * @author guo
+ */
+@RequiredArgsConstructor
+public class QuotaFilter implements SchedulerFilter {
+
+    private final ProviderHealthTracker healthTracker;
+
+    @Override
+    public String getName() {
+        return "quota";
+    }
+
+    @Override
+    public boolean test(CreateInstanceRequest request, CloudEcsClient client) {
+        return !healthTracker.isQuotaBlocked(client.getProviderCode(), request.getRegion());
+    }
+}
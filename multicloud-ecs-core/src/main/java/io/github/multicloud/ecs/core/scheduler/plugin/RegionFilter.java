@@ -0,0 +1,24 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.core.scheduler.SchedulerFilter;
+
+/**
+ * 区域过滤：排除不支持请求区域的云厂商（CloudEcsClient.supportsRegion）
+ *
+ * @author guo
+ */
+public class RegionFilter implements SchedulerFilter {
+
+    @Override
+    public String getName() {
+        return "region";
+    }
+
+    @Override
+    public boolean test(CreateInstanceRequest request, CloudEcsClient client) {
+        String region = request.getRegion();
+        return region == null || region.trim().isEmpty() || client.supportsRegion(region.trim());
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.multicloud.ecs.core.scheduler.plugin;
+
+import io.github.multicloud.ecs.api.CloudEcsClient;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.core.scheduler.ProviderHealthTracker;
+import io.github.multicloud.ecs.core.scheduler.SchedulerScorer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 库存打分：该区域、GPU型号最近库存不足的云厂商扣分，随时间恢复（multicloud.ecs.health.stock-out-window）
+ *
+ * @author guo
+ */
+@RequiredArgsConstructor
+public class StockScorer implements SchedulerScorer {
+
+    private final ProviderHealthTracker healthTracker;
+
+    @Override
+    public String getName() {
+        return "stock";
+    }
+
+    @Override
+    public Double score(CreateInstanceRequest request, CloudEcsClient client) {
+        return 1 - healthTracker.stockOutPressure(client.getProviderCode(), request.getRegion(), request.getGpuModel());
+    }
+}
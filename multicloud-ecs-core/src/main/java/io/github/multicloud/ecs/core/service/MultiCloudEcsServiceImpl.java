@@ -6,13 +6,25 @@ import io.github.multicloud.ecs.api.MultiCloudEcsService;
 import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
 import io.github.multicloud.ecs.api.dto.VirtualMachine;
 import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.admission.CreateAdmissionController;
+import io.github.multicloud.ecs.core.client.InstanceQueryDispatcher;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import io.github.multicloud.ecs.core.event.InstanceStateEvent;
+import io.github.multicloud.ecs.core.event.InstanceStateTracker;
 import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
+import io.github.multicloud.ecs.core.scheduler.ProviderHealthTracker;
 import io.github.multicloud.ecs.core.util.TenantTagInjector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 多云ECS统一服务实现类
@@ -27,26 +39,89 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
     private final CloudEcsClientRegistry registry;
     private final EcsScheduler scheduler;
     private final TenantTagInjector tenantTagInjector;
+    private final InstanceStateTracker stateTracker;
+    private final InstanceQueryDispatcher queryDispatcher;
+    /**
+     * 创建准入控制（multicloud.ecs.admission.enabled=true 时存在）
+     */
+    private final ObjectProvider<CreateAdmissionController> admissionController;
+    private final ProviderHealthTracker healthTracker;
+
+    /**
+     * 单次操作的截止时间（秒），从服务入口开始计算，0表示不限制
+     */
+    @Value("${multicloud.ecs.operation-timeout:300}")
+    private long operationTimeout = 300;
 
     @Override
     public VirtualMachine createInstance(CreateInstanceRequest request) throws EcsException {
+        try (EcsDeadline.Scope deadline = startDeadline("createInstance")) {
+            return doCreateInstance(request);
+        }
+    }
+
+    private VirtualMachine doCreateInstance(CreateInstanceRequest request) throws EcsException {
         // 1. 参数校验
         validateCreateRequest(request);
 
         // 2. 注入租户标签
         tenantTagInjector.inject(request);
 
-        // 3. 调度选择云厂商
-        CloudEcsClient client = scheduler.select(request);
+        // 3. 租户准入（启用时，超出租户并发按加权公平排队）
+        CreateAdmissionController admission = admissionController.getIfAvailable();
+        try (CreateAdmissionController.Permit permit = admission != null ? admission.acquire(request) : null) {
+            return createAdmitted(request);
+        }
+    }
+
+    private VirtualMachine createAdmitted(CreateInstanceRequest request) throws EcsException {
+        // 4. 调度选择候选云厂商（故障切换调度器返回多个候选）
+        List<CloudEcsClient> candidates = scheduler.selectCandidates(request);
+        List<Map<String, Object>> attempts = new ArrayList<>();
+
+        for (int i = 0; i < candidates.size(); i++) {
+            CloudEcsClient client = candidates.get(i);
+            EcsDeadline.check("createInstance");
+            try {
+                VirtualMachine vm = createOn(client, request);
+                if (candidates.size() > 1) {
+                    attempts.add(attempt(client, null));
+                    recordAttempts(vm, attempts);
+                }
+                return vm;
+            } catch (EcsException e) {
+                attempts.add(attempt(client, e));
+                if (i == candidates.size() - 1 || !e.isFailoverRetryable()) {
+                    if (attempts.size() > 1) {
+                        log.error("创建实例失败，已尝试云厂商: instanceName={}, attempts={}",
+                                request.getInstanceName(), attempts);
+                    }
+                    throw e;
+                }
+                log.warn("创建实例失败，切换到下一个云厂商: instanceName={}, failed={}, errorCode={}, next={}",
+                        request.getInstanceName(), client.getProviderCode(), e.getErrorCode(),
+                        candidates.get(i + 1).getProviderCode());
+            }
+        }
+        throw EcsException.of("SCHEDULER", "PROVIDER_UNAVAILABLE", "没有可用的云厂商客户端");
+    }
+
+    /**
+     * 在指定云厂商上创建实例
+     */
+    private VirtualMachine createOn(CloudEcsClient client, CreateInstanceRequest request) throws EcsException {
         log.info("创建实例开始: provider={}, instanceName={}, tenantId={}, region={}",
                 client.getProviderCode(), request.getInstanceName(), 
                 request.getTenantId(), request.getRegion());
 
+        long start = System.currentTimeMillis();
         try {
-            // 4. 调用云厂商API创建实例
+            // 5. 调用云厂商API创建实例
             VirtualMachine vm = client.createInstance(request);
+            healthTracker.recordSuccess(client.getProviderCode(), request.getTenantId(),
+                    System.currentTimeMillis() - start);
 
-            // 5. 补充响应信息
+            // 6. 补充响应信息
             if (vm.getProvider() == null) {
                 vm.setProvider(client.getProviderCode());
             }
@@ -54,11 +129,15 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
                 vm.setTenantId(request.getTenantId());
             }
 
+            // 7. 开始跟踪实例状态（后续由事件驱动更新）
+            stateTracker.track(vm.getProvider(), vm.getInstanceId(), vm.getRegion(), vm.getStatus());
+
             log.info("创建实例成功: provider={}, instanceId={}, instanceName={}, status={}",
                     vm.getProvider(), vm.getInstanceId(), vm.getInstanceName(), vm.getStatus());
             return vm;
 
         } catch (EcsException e) {
+            healthTracker.recordFailure(client.getProviderCode(), request.getRegion(), request.getGpuModel(), e);
             log.error("创建实例失败: provider={}, instanceName={}, error={}",
                     client.getProviderCode(), request.getInstanceName(), e.getMessage());
             throw e;
@@ -70,11 +149,40 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
         }
     }
 
+    /**
+     * 一次云厂商尝试的记录
+     */
+    private Map<String, Object> attempt(CloudEcsClient client, EcsException error) {
+        Map<String, Object> attempt = new LinkedHashMap<>();
+        attempt.put("provider", client.getProviderCode());
+        attempt.put("region", client.getRegion());
+        attempt.put("result", error == null ? "SUCCESS" : "FAILED");
+        if (error != null) {
+            attempt.put("errorCode", error.getErrorCode());
+            attempt.put("message", error.getMessage());
+        }
+        return attempt;
+    }
+
+    /**
+     * 把尝试链写入实例元数据：schedulerAttempts（每次尝试）、failoverCount（切换次数）
+     */
+    private void recordAttempts(VirtualMachine vm, List<Map<String, Object>> attempts) {
+        Map<String, Object> metadata = vm.getMetadata() != null ? vm.getMetadata() : new HashMap<>();
+        metadata.put("schedulerAttempts", attempts);
+        metadata.put("failoverCount", attempts.size() - 1);
+        vm.setMetadata(metadata);
+        if (attempts.size() > 1) {
+            log.info("创建实例经故障切换成功: instanceId={}, provider={}, attempts={}",
+                    vm.getInstanceId(), vm.getProvider(), attempts);
+        }
+    }
+
     @Override
     public boolean deleteInstance(String providerCode, String instanceId) throws EcsException {
         log.info("删除实例开始: provider={}, instanceId={}", providerCode, instanceId);
-        try {
-            CloudEcsClient client = registry.getClient(providerCode);
+        try (EcsDeadline.Scope deadline = startDeadline("deleteInstance")) {
+            CloudEcsClient client = clientForInstance(providerCode, instanceId);
             boolean result = client.deleteInstance(instanceId);
             log.info("删除实例完成: provider={}, instanceId={}, result={}", providerCode, instanceId, result);
             return result;
@@ -87,8 +195,8 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
     @Override
     public boolean startInstance(String providerCode, String instanceId) throws EcsException {
         log.info("启动实例开始: provider={}, instanceId={}", providerCode, instanceId);
-        try {
-            CloudEcsClient client = registry.getClient(providerCode);
+        try (EcsDeadline.Scope deadline = startDeadline("startInstance")) {
+            CloudEcsClient client = clientForInstance(providerCode, instanceId);
             boolean result = client.startInstance(instanceId);
             log.info("启动实例完成: provider={}, instanceId={}, result={}", providerCode, instanceId, result);
             return result;
@@ -101,8 +209,8 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
     @Override
     public boolean stopInstance(String providerCode, String instanceId) throws EcsException {
         log.info("停止实例开始: provider={}, instanceId={}", providerCode, instanceId);
-        try {
-            CloudEcsClient client = registry.getClient(providerCode);
+        try (EcsDeadline.Scope deadline = startDeadline("stopInstance")) {
+            CloudEcsClient client = clientForInstance(providerCode, instanceId);
             boolean result = client.stopInstance(instanceId);
             log.info("停止实例完成: provider={}, instanceId={}, result={}", providerCode, instanceId, result);
             return result;
@@ -115,8 +223,8 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
     @Override
     public boolean restartInstance(String providerCode, String instanceId) throws EcsException {
         log.info("重启实例开始: provider={}, instanceId={}", providerCode, instanceId);
-        try {
-            CloudEcsClient client = registry.getClient(providerCode);
+        try (EcsDeadline.Scope deadline = startDeadline("restartInstance")) {
+            CloudEcsClient client = clientForInstance(providerCode, instanceId);
             boolean result = client.restartInstance(instanceId);
             log.info("重启实例完成: provider={}, instanceId={}, result={}", providerCode, instanceId, result);
             return result;
@@ -129,9 +237,9 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
     @Override
     public VirtualMachine getInstance(String providerCode, String instanceId) throws EcsException {
         log.debug("查询实例详情: provider={}, instanceId={}", providerCode, instanceId);
-        try {
-            CloudEcsClient client = registry.getClient(providerCode);
-            return client.getInstance(instanceId);
+        try (EcsDeadline.Scope deadline = startDeadline("getInstance")) {
+            CloudEcsClient client = clientForInstance(providerCode, instanceId);
+            return queryDispatcher.getInstance(client, instanceId);
         } catch (EcsException e) {
             log.error("查询实例失败: provider={}, instanceId={}, error={}", providerCode, instanceId, e.getMessage());
             throw e;
@@ -140,13 +248,31 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
 
     @Override
     public String findInstanceIdByName(String providerCode, String instanceName) throws EcsException {
-        log.debug("根据名称查找实例ID: provider={}, instanceName={}", providerCode, instanceName);
-        try {
+        return findInstanceIdByName(providerCode, null, instanceName);
+    }
+
+    @Override
+    public String findInstanceIdByName(String providerCode, String region, String instanceName) throws EcsException {
+        log.debug("根据名称查找实例ID: provider={}, region={}, instanceName={}", providerCode, region, instanceName);
+        try (EcsDeadline.Scope deadline = startDeadline("findInstanceIdByName")) {
+            if (region != null && !region.trim().isEmpty()) {
+                return registry.getClient(providerCode, region).findInstanceIdByName(instanceName);
+            }
+            // 未指定区域：实例只在所在区域可查，默认区域未找到时继续查询已使用过的区域
             CloudEcsClient client = registry.getClient(providerCode);
-            return client.findInstanceIdByName(instanceName);
+            String instanceId = client.findInstanceIdByName(instanceName);
+            for (CloudEcsClient regional : registry.getRegionalClients(providerCode)) {
+                if (instanceId != null) {
+                    break;
+                }
+                if (regional != client) {
+                    instanceId = regional.findInstanceIdByName(instanceName);
+                }
+            }
+            return instanceId;
         } catch (EcsException e) {
-            log.error("查找实例ID失败: provider={}, instanceName={}, error={}", 
-                    providerCode, instanceName, e.getMessage());
+            log.error("查找实例ID失败: provider={}, region={}, instanceName={}, error={}",
+                    providerCode, region, instanceName, e.getMessage());
             throw e;
         }
     }
@@ -163,6 +289,50 @@ public class MultiCloudEcsServiceImpl implements MultiCloudEcsService {
                 .orElse(false);
     }
 
+    /**
+     * 在当前线程建立本次操作的截止时间
+     */
+    private EcsDeadline.Scope startDeadline(String operation) {
+        return EcsDeadline.start(operation, operationTimeout * 1000);
+    }
+
+    /**
+     * 获取实例所在区域的客户端
+     * 区域取自状态跟踪器中的最近状态；未跟踪的实例（服务重启或终态过期后）依次在默认客户端和已使用过的
+     * 区域客户端中查询，都未找到时使用默认客户端（由其返回实例不存在）
+     */
+    private CloudEcsClient clientForInstance(String providerCode, String instanceId) throws EcsException {
+        InstanceStateEvent state = stateTracker.getState(providerCode, instanceId);
+        if (state != null && state.getRegion() != null) {
+            return registry.getClient(providerCode, state.getRegion());
+        }
+        CloudEcsClient client = registry.getClient(providerCode);
+        if (hasInstance(client, instanceId)) {
+            return client;
+        }
+        for (CloudEcsClient regional : registry.getRegionalClients(providerCode)) {
+            if (regional != client && hasInstance(regional, instanceId)) {
+                log.info("实例所在区域已通过查询确定: provider={}, instanceId={}, region={}",
+                        providerCode, instanceId, regional.getRegion());
+                return regional;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * 实例是否在客户端所在区域（查询失败视为不在）
+     */
+    private boolean hasInstance(CloudEcsClient client, String instanceId) {
+        try {
+            return client.getInstance(instanceId) != null;
+        } catch (EcsException e) {
+            log.debug("查询实例所在区域失败: region={}, instanceId={}, error={}",
+                    client.getRegion(), instanceId, e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * 校验创建请求参数
      */
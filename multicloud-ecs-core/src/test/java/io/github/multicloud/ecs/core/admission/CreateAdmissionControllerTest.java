@@ -0,0 +1,198 @@
+package io.github.multicloud.ecs.core.admission;
+
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.enums.RequestPriority;
+import io.github.multicloud.ecs.api.exception.EcsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CreateAdmissionController 单元测试：通道优先级、老化提升、通道内加权公平排队、拒绝与超时
+ * 全局并发上限为1，先占住唯一名额再排队，释放后按放行顺序逐个记录
+ *
+ * @author guo
+ */
+class CreateAdmissionControllerTest {
+
+    private final List<String> grantOrder = Collections.synchronizedList(new ArrayList<>());
+    private final List<Thread> waiters = new ArrayList<>();
+
+    @AfterEach
+    void stopWaiters() throws InterruptedException {
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+    }
+
+    @Test
+    void higherPriorityLaneIsAdmittedFirst() throws Exception {
+        CreateAdmissionController controller = controller(1, 0, Collections.emptyMap());
+        CreateAdmissionController.Permit holder = controller.acquire(request("holder", RequestPriority.NORMAL, 1));
+
+        enqueue(controller, "low", RequestPriority.LOW, 1);
+        enqueue(controller, "normal", RequestPriority.NORMAL, 1);
+        enqueue(controller, "high", RequestPriority.HIGH, 1);
+        holder.close();
+
+        awaitGranted(3);
+        assertEquals(Arrays.asList("high", "normal", "low"), grantOrder);
+    }
+
+    @Test
+    void agedLowPriorityRequestOvertakesNewHighPriority() throws Exception {
+        CreateAdmissionController controller = controller(1, 50, Collections.emptyMap());
+        CreateAdmissionController.Permit holder = controller.acquire(request("holder", RequestPriority.NORMAL, 1));
+
+        enqueue(controller, "low", RequestPriority.LOW, 1);
+        // 等待4个老化周期：LOW 排名 2 - 4 = -2，优先于刚入队的 HIGH（排名0）
+        Thread.sleep(200);
+        enqueue(controller, "high", RequestPriority.HIGH, 1);
+        holder.close();
+
+        awaitGranted(2);
+        assertEquals(Arrays.asList("low", "high"), grantOrder);
+        Map<String, Object> low = lane(controller, RequestPriority.LOW);
+        assertEquals(1L, low.get("aged"));
+    }
+
+    @Test
+    void smallTenantIsNotStarvedByBurstInSameLane() throws Exception {
+        CreateAdmissionController controller = controller(1, 0, Collections.emptyMap());
+        CreateAdmissionController.Permit holder = controller.acquire(request("holder", RequestPriority.NORMAL, 1));
+
+        enqueue(controller, "big", RequestPriority.NORMAL, 1);
+        enqueue(controller, "big", RequestPriority.NORMAL, 1);
+        enqueue(controller, "big", RequestPriority.NORMAL, 1);
+        enqueue(controller, "small", RequestPriority.NORMAL, 1);
+        holder.close();
+
+        // 完成时间：big 1/2/3，small 1（与 big 的首个请求相同，按入队顺序）
+        awaitGranted(4);
+        assertEquals(Arrays.asList("big", "small", "big", "big"), grantOrder);
+    }
+
+    @Test
+    void heavierTenantGetsProportionallyMoreAdmissions() throws Exception {
+        Map<String, Double> weights = Collections.singletonMap("heavy", 2.0);
+        CreateAdmissionController controller = controller(1, 0, weights);
+        CreateAdmissionController.Permit holder = controller.acquire(request("holder", RequestPriority.NORMAL, 1));
+
+        enqueue(controller, "light", RequestPriority.NORMAL, 1);
+        enqueue(controller, "light", RequestPriority.NORMAL, 1);
+        enqueue(controller, "heavy", RequestPriority.NORMAL, 1);
+        enqueue(controller, "heavy", RequestPriority.NORMAL, 1);
+        holder.close();
+
+        // 完成时间：heavy 0.5/1.0，light 1/2
+        awaitGranted(4);
+        assertEquals(Arrays.asList("heavy", "light", "heavy", "light"), grantOrder);
+    }
+
+    @Test
+    void fullLaneRejectsAndIdleTenantsArePruned() throws Exception {
+        Map<RequestPriority, Integer> laneMaxQueued = new EnumMap<>(RequestPriority.class);
+        laneMaxQueued.put(RequestPriority.NORMAL, 1);
+        CreateAdmissionController controller = new CreateAdmissionController(1, 1, 10, 10_000,
+                Collections.emptyMap(), 0, laneMaxQueued);
+        CreateAdmissionController.Permit holder = controller.acquire(request("holder", RequestPriority.NORMAL, 1));
+        enqueue(controller, "queued", RequestPriority.NORMAL, 1);
+
+        EcsException e = assertThrows(EcsException.class,
+                () -> controller.acquire(request("rejected", RequestPriority.NORMAL, 1)));
+        assertEquals(CreateAdmissionController.ADMISSION_REJECTED, e.getErrorCode());
+
+        holder.close();
+        awaitGranted(1);
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+        assertTrue(tenants(controller).isEmpty(), "空闲租户应被移除: " + tenants(controller));
+    }
+
+    @Test
+    void queuedRequestTimesOut() throws Exception {
+        CreateAdmissionController controller = new CreateAdmissionController(1, 1, 10, 50,
+                Collections.emptyMap(), 0, lanes(10));
+        try (CreateAdmissionController.Permit holder = controller.acquire(request("holder", RequestPriority.NORMAL, 1))) {
+            EcsException e = assertThrows(EcsException.class,
+                    () -> controller.acquire(request("waiting", RequestPriority.NORMAL, 1)));
+            assertEquals(CreateAdmissionController.ADMISSION_TIMEOUT, e.getErrorCode());
+            assertEquals(0, controller.getMetrics().get("queued"));
+        }
+        assertEquals(0, controller.getMetrics().get("inFlight"));
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private static CreateAdmissionController controller(int maxConcurrent, long agingMillis,
+                                                        Map<String, Double> weights) {
+        return new CreateAdmissionController(maxConcurrent, 10, 10, 10_000, weights, agingMillis, lanes(10));
+    }
+
+    private static Map<RequestPriority, Integer> lanes(int maxQueued) {
+        Map<RequestPriority, Integer> laneMaxQueued = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            laneMaxQueued.put(priority, maxQueued);
+        }
+        return laneMaxQueued;
+    }
+
+    private static CreateInstanceRequest request(String tenantId, RequestPriority priority, int quantity) {
+        return CreateInstanceRequest.builder()
+                .tenantId(tenantId)
+                .priority(priority)
+                .quantity(quantity)
+                .build();
+    }
+
+    /**
+     * 在后台线程排队申请许可，获得后记录租户并立即释放；返回前等待请求进入队列，保证入队顺序
+     */
+    private void enqueue(CreateAdmissionController controller, String tenantId, RequestPriority priority,
+                         int quantity) throws InterruptedException {
+        int queuedBefore = (Integer) controller.getMetrics().get("queued");
+        Thread waiter = new Thread(() -> {
+            try (CreateAdmissionController.Permit permit = controller.acquire(request(tenantId, priority, quantity))) {
+                grantOrder.add(tenantId);
+            }
+        }, "admission-test-" + tenantId);
+        waiter.setDaemon(true);
+        waiters.add(waiter);
+        waiter.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((Integer) controller.getMetrics().get("queued") <= queuedBefore) {
+            assertTrue(System.currentTimeMillis() < deadline, "请求未进入队列: " + tenantId);
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitGranted(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (grantOrder.size() < count) {
+            assertTrue(System.currentTimeMillis() < deadline, "放行超时: " + grantOrder);
+            Thread.sleep(5);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> lane(CreateAdmissionController controller, RequestPriority priority) {
+        Map<String, Object> lanes = (Map<String, Object>) controller.getMetrics().get("lanes");
+        return (Map<String, Object>) lanes.get(priority.getCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> tenants(CreateAdmissionController controller) {
+        return (Map<String, Object>) controller.getMetrics().get("tenants");
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.multicloud.ecs.core.coordination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CoordinationService 单元测试：节点加入/离开后的分区归属与排他租约
+ * 多个服务实例共用一个 InMemoryLeaseStore 模拟多节点，直接调用 heartbeat() 刷新视图（不启动定时心跳）
+ *
+ * @author guo
+ */
+class CoordinationServiceTest {
+
+    private static final int KEYS = 200;
+
+    private final InMemoryLeaseStore store = new InMemoryLeaseStore();
+
+    @Test
+    void singleNodeOwnsEveryPartition() {
+        CoordinationService a = node("node-a");
+
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(a.owns(key(i)));
+        }
+    }
+
+    @Test
+    void eachPartitionHasExactlyOneOwnerAfterJoin() {
+        CoordinationService a = node("node-a");
+        CoordinationService b = node("node-b");
+        a.heartbeat();
+
+        assertEquals(Arrays.asList("node-a", "node-b"), a.getLiveNodes());
+        assertEquals(a.getLiveNodes(), b.getLiveNodes());
+        int ownedByA = 0;
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(a.ownerOf(key(i)), b.ownerOf(key(i)));
+            assertTrue(a.owns(key(i)) ^ b.owns(key(i)), "分区应只有一个负责节点: " + key(i));
+            if (a.owns(key(i))) {
+                ownedByA++;
+            }
+        }
+        // Rendezvous 哈希大致均匀
+        assertTrue(ownedByA > KEYS / 4 && ownedByA < KEYS * 3 / 4, "分布不均: ownedByA=" + ownedByA);
+    }
+
+    @Test
+    void joiningNodeOnlyTakesPartitionsItNowOwns() {
+        CoordinationService a = node("node-a");
+        CoordinationService b = node("node-b");
+        a.heartbeat();
+        Map<String, String> before = owners(a);
+
+        CoordinationService c = node("node-c");
+        a.heartbeat();
+        b.heartbeat();
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String owner = a.ownerOf(key(i));
+            assertEquals(owner, b.ownerOf(key(i)));
+            assertEquals(owner, c.ownerOf(key(i)));
+            if (!owner.equals(before.get(key(i)))) {
+                assertEquals("node-c", owner, "分区只应迁移到新加入的节点: " + key(i));
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < KEYS, "迁移数量异常: moved=" + moved);
+    }
+
+    @Test
+    void remainingNodeTakesOverAfterLeave() {
+        CoordinationService a = node("node-a");
+        CoordinationService b = node("node-b");
+        a.heartbeat();
+        List<List<String>> notified = new ArrayList<>();
+        a.addMembershipListener(notified::add);
+
+        store.leave(b.getNodeId());
+        a.heartbeat();
+
+        assertEquals(Arrays.asList("node-a"), a.getLiveNodes());
+        assertEquals(1, notified.size());
+        assertEquals(Arrays.asList("node-a"), notified.get(0));
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(a.owns(key(i)));
+        }
+
+        // 视图未变化时不重复通知
+        a.heartbeat();
+        assertEquals(1, notified.size());
+    }
+
+    @Test
+    void leaseIsExclusiveUntilReleased() {
+        CoordinationService a = node("node-a");
+        CoordinationService b = node("node-b");
+
+        assertTrue(a.tryLease("pool-claim:eip|eip-1", 60_000));
+        assertTrue(a.tryLease("pool-claim:eip|eip-1", 60_000), "持有者应能续约");
+        assertFalse(b.tryLease("pool-claim:eip|eip-1", 60_000));
+
+        a.releaseLease("pool-claim:eip|eip-1");
+        assertTrue(b.tryLease("pool-claim:eip|eip-1", 60_000));
+        assertFalse(a.tryLease("pool-claim:eip|eip-1", 60_000));
+    }
+
+    @Test
+    void disabledCoordinationOwnsEverythingAndAlwaysLeases() {
+        CoordinationService a = new CoordinationService(store, false, "node-a", 1000);
+        CoordinationService b = node("node-b");
+        assertTrue(b.tryLease("pool:instance-budget", 60_000));
+
+        assertTrue(a.owns(key(0)));
+        assertTrue(a.tryLease("pool:instance-budget", 60_000));
+        assertNotEquals(a.getNodeId(), b.getNodeId());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 创建节点并完成一次心跳（加入存活节点）
+     */
+    private CoordinationService node(String nodeId) {
+        CoordinationService service = new CoordinationService(store, true, nodeId, 1000);
+        service.heartbeat();
+        return service;
+    }
+
+    private static String key(int i) {
+        return "instance:ALIYUN|i-" + i;
+    }
+
+    private static Map<String, String> owners(CoordinationService service) {
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            owners.put(key(i), service.ownerOf(key(i)));
+        }
+        return owners;
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.multicloud.ecs.core.network;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CidrAllocator 单元测试：位图分配、并发CAS、日志重放
+ *
+ * @author guo
+ */
+class CidrAllocatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void allocateIsIdempotentPerOwner() {
+        CidrAllocator allocator = new CidrAllocator("test", null);
+
+        String first = allocator.allocate("user-1");
+        String again = allocator.allocate("user-1");
+        String other = allocator.allocate("user-2");
+
+        assertEquals(first, again);
+        assertNotEquals(first, other);
+        assertEquals(first, allocator.lookup("user-1"));
+        assertEquals(2, allocator.getMetrics().get("allocated"));
+    }
+
+    @Test
+    void concurrentAllocationsNeverShareSlot() throws Exception {
+        CidrAllocator allocator = new CidrAllocator("test", null);
+        int threads = 16;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                Callable<List<String>> task = () -> {
+                    start.await();
+                    List<String> cidrs = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        cidrs.add(allocator.allocate("owner-" + thread + "-" + i));
+                    }
+                    return cidrs;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            Set<String> unique = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                for (String cidr : future.get(30, TimeUnit.SECONDS)) {
+                    assertNotNull(cidr);
+                    assertTrue(unique.add(cidr), "重复分配的网段: " + cidr);
+                }
+            }
+            assertEquals(threads * perThread, unique.size());
+            assertEquals(threads * perThread, allocator.getMetrics().get("allocated"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exhaustedAllocatorReturnsNullUntilRelease() {
+        CidrAllocator allocator = new CidrAllocator("test", null);
+        for (int i = 0; i < CidrAllocator.CAPACITY; i++) {
+            assertNotNull(allocator.allocate("owner-" + i));
+        }
+
+        assertNull(allocator.allocate("overflow"));
+
+        String freed = allocator.lookup("owner-7");
+        assertTrue(allocator.release("owner-7"));
+        assertEquals(freed, allocator.allocate("overflow"));
+    }
+
+    @Test
+    void journalReplayRestoresAllocations() {
+        Path journal = tempDir.resolve("cidr").resolve("account-cn-hangzhou.log");
+        CidrAllocator allocator = new CidrAllocator("test", journal);
+        String a = allocator.allocate("a");
+        allocator.allocate("b");
+        String c = allocator.allocate("c");
+        assertTrue(allocator.release("b"));
+        assertTrue(allocator.reassign(c, "d"));
+        allocator.close();
+
+        CidrAllocator restored = new CidrAllocator("test", journal);
+        try {
+            assertEquals(a, restored.lookup("a"));
+            assertNull(restored.lookup("b"));
+            assertNull(restored.lookup("c"));
+            assertEquals(c, restored.lookup("d"));
+            assertEquals(2, restored.getMetrics().get("allocated"));
+
+            // 重放后的位图与归属一致：新分配不与已恢复的网段冲突
+            String next = restored.allocate("e");
+            assertNotEquals(a, next);
+            assertNotEquals(c, next);
+        } finally {
+            restored.close();
+        }
+    }
+
+    @Test
+    void journalReplaySkipsTruncatedLines() throws Exception {
+        Path journal = tempDir.resolve("truncated.log");
+        Files.write(journal, ("A 3 user-1\nA 5 user-2\nF 5 user-2\nA 9").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE);
+
+        CidrAllocator allocator = new CidrAllocator("test", journal);
+        try {
+            assertEquals(CidrAllocator.toCidr(3), allocator.lookup("user-1"));
+            assertNull(allocator.lookup("user-2"));
+            assertEquals(1, allocator.getMetrics().get("allocated"));
+            assertFalse(Files.readAllLines(journal, StandardCharsets.UTF_8).contains("A 9"));
+        } finally {
+            allocator.close();
+        }
+    }
+
+    @Test
+    void slotAndCidrRoundTrip() {
+        assertEquals("172.16.0.0/24", CidrAllocator.toCidr(0));
+        assertEquals("172.31.255.0/24", CidrAllocator.toCidr(CidrAllocator.CAPACITY - 1));
+        assertEquals(300, CidrAllocator.toSlot(CidrAllocator.toCidr(300)));
+        assertEquals(-1, CidrAllocator.toSlot("10.0.0.0/24"));
+        assertEquals(-1, CidrAllocator.toSlot("172.32.0.0/24"));
+    }
+}
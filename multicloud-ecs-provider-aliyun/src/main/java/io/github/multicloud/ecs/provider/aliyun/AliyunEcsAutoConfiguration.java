@@ -1,14 +1,23 @@
 package io.github.multicloud.ecs.provider.aliyun;
 
+import io.github.multicloud.ecs.core.concurrent.ExecutionMode;
+import io.github.multicloud.ecs.core.concurrent.VirtualThreadExecutor;
+import io.github.multicloud.ecs.core.coordination.CoordinationService;
 import io.github.multicloud.ecs.core.util.TenantTagInjector;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import javax.annotation.Resource;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 阿里云ECS自动配置
@@ -29,14 +38,107 @@ public class AliyunEcsAutoConfiguration {
     @Resource
     private TenantTagInjector tenantTagInjector;
 
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    @Resource
+    private CoordinationService coordinationService;
+
+    @Value("${multicloud.ecs.execution-mode:platform}")
+    private String executionMode;
+
+    @Value("${multicloud.ecs.virtual-max-in-flight:10000}")
+    private int virtualMaxInFlight;
+
+    /**
+     * 创建网络异步操作执行器
+     * EIP申请绑定、安全组规则等阻塞SDK调用在此执行，与 ForkJoinPool.commonPool() 隔离；
+     * multicloud.ecs.execution-mode 为 virtual/auto 且运行时支持时改用虚拟线程
+     */
+    @Bean(name = "aliyunNetworkExecutor")
+    @ConditionalOnMissingBean(name = "aliyunNetworkExecutor")
+    public Executor aliyunNetworkExecutor() {
+        if (ExecutionMode.of(executionMode).useVirtualThreads()) {
+            log.info("[AliyunEcsAutoConfiguration] 网络执行器使用虚拟线程: maxInFlight={}, operationTimeout={}s",
+                    virtualMaxInFlight, properties.getNetworkOperationTimeout());
+            return new VirtualThreadExecutor("aliyun-network-", virtualMaxInFlight, 30);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getNetworkExecutorCorePoolSize());
+        executor.setMaxPoolSize(properties.getNetworkExecutorMaxPoolSize());
+        executor.setQueueCapacity(properties.getNetworkExecutorQueueCapacity());
+        executor.setThreadNamePrefix("aliyun-network-");
+        // 队列满时拒绝并快速失败，由调用方记录错误，而不是在调用线程上执行阻塞SDK调用
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        log.info("[AliyunEcsAutoConfiguration] 网络执行器已创建: coreSize={}, maxSize={}, queueCapacity={}, operationTimeout={}s",
+                properties.getNetworkExecutorCorePoolSize(), properties.getNetworkExecutorMaxPoolSize(),
+                properties.getNetworkExecutorQueueCapacity(), properties.getNetworkOperationTimeout());
+        return executor;
+    }
+
+    /**
+     * 创建SDK客户端工厂Bean（按区域和凭证缓存复用SDK客户端）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AliyunSdkClientFactory aliyunSdkClientFactory() {
+        AliyunEcsProperties.SdkClientPool pool = properties.getSdkClientPool();
+        log.info("[AliyunEcsAutoConfiguration] 创建SDK客户端工厂Bean: connectTimeout={}ms, readTimeout={}ms, maxIdleConns={}, maxConnections={}",
+                pool.getConnectTimeout(), pool.getReadTimeout(), pool.getMaxIdleConns(), pool.getMaxConnections());
+        return new AliyunSdkClientFactory(properties);
+    }
+
+    /**
+     * 创建EIP预热池Bean
+     * 未启用（multicloud.ecs.aliyun.eip-pool.enabled=false）时不预热，每次绑定前同步申请EIP
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AliyunEipPool aliyunEipPool(@Qualifier("aliyunNetworkExecutor") Executor networkExecutor) {
+        log.info("[AliyunEcsAutoConfiguration] 创建EIP预热池Bean: enabled={}", properties.getEipPool().isEnabled());
+        AliyunEipPool eipPool = new AliyunEipPool(properties, networkExecutor);
+        eipPool.setCoordinationService(coordinationService);
+        return eipPool;
+    }
+
     /**
      * 创建阿里云网络资源管理器Bean
      */
     @Bean
     @ConditionalOnMissingBean
-    public AliyunNetworkManager aliyunNetworkManager() {
+    public AliyunNetworkManager aliyunNetworkManager(@Qualifier("aliyunNetworkExecutor") Executor networkExecutor,
+                                                     AliyunEipPool eipPool,
+                                                     AliyunSdkClientFactory sdkClientFactory) {
         log.info("[AliyunEcsAutoConfiguration] 创建阿里云网络资源管理器Bean");
-        return new AliyunNetworkManager(properties);
+        AliyunNetworkManager networkManager = new AliyunNetworkManager(properties, networkExecutor, eipPool, sdkClientFactory);
+        networkManager.setCoordinationService(coordinationService);
+        return networkManager;
+    }
+
+    /**
+     * 创建镜像目录Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AliyunImageCatalog aliyunImageCatalog() {
+        log.info("[AliyunEcsAutoConfiguration] 创建镜像目录Bean: regions={}, refreshInterval={}s, strict={}",
+                properties.getImageCatalog().getRegions(), properties.getImageCatalog().getRefreshInterval(),
+                properties.getImageCatalog().isStrict());
+        return new AliyunImageCatalog(properties);
+    }
+
+    /**
+     * 创建实例规格目录Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AliyunInstanceTypeCatalog aliyunInstanceTypeCatalog() {
+        log.info("[AliyunEcsAutoConfiguration] 创建实例规格目录Bean: regions={}, refreshInterval={}s",
+                properties.getInstanceTypeCatalog().getRegions(), properties.getInstanceTypeCatalog().getRefreshInterval());
+        return new AliyunInstanceTypeCatalog(properties);
     }
 
     /**
@@ -44,9 +146,48 @@ public class AliyunEcsAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public AliyunParameterMapper aliyunParameterMapper() {
+    public AliyunParameterMapper aliyunParameterMapper(AliyunImageCatalog imageCatalog,
+                                                       AliyunInstanceTypeCatalog instanceTypeCatalog) {
         log.info("[AliyunEcsAutoConfiguration] 创建阿里云参数映射器Bean");
-        return new AliyunParameterMapper(properties);
+        return new AliyunParameterMapper(properties, imageCatalog, instanceTypeCatalog);
+    }
+
+    /**
+     * 创建实例预热池Bean
+     * 未启用（multicloud.ecs.aliyun.instance-pool.enabled=false）时不预热，所有创建请求走 RunInstances
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AliyunInstancePool aliyunInstancePool(@Qualifier("aliyunNetworkExecutor") Executor networkExecutor,
+                                                 AliyunNetworkManager networkManager,
+                                                 AliyunParameterMapper parameterMapper) {
+        log.info("[AliyunEcsAutoConfiguration] 创建实例预热池Bean: enabled={}, profiles={}",
+                properties.getInstancePool().isEnabled(), properties.getInstancePool().getProfiles().size());
+        AliyunInstancePool instancePool = new AliyunInstancePool(properties, networkExecutor, networkManager,
+                parameterMapper, tenantTagInjector);
+        instancePool.setCoordinationService(coordinationService);
+        return instancePool;
+    }
+
+    /**
+     * 创建可用区库存缓存Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AliyunStockCache aliyunStockCache() {
+        log.info("[AliyunEcsAutoConfiguration] 创建可用区库存缓存Bean: enabled={}, positiveTtl={}s, negativeTtl={}s",
+                properties.getStockCache().isEnabled(), properties.getStockCache().getPositiveTtl(),
+                properties.getStockCache().getNegativeTtl());
+        return new AliyunStockCache(properties);
+    }
+
+    /**
+     * 创建阿里云实例事件解析器Bean（EventBridge / 云监控实例状态变更通知）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AliyunInstanceEventParser aliyunInstanceEventParser() {
+        return new AliyunInstanceEventParser(properties);
     }
 
     /**
@@ -58,10 +199,15 @@ public class AliyunEcsAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public AliyunEcsClient aliyunEcsClient(AliyunNetworkManager networkManager, 
-                                           AliyunParameterMapper parameterMapper) {
+                                           AliyunParameterMapper parameterMapper,
+                                           AliyunInstancePool instancePool,
+                                           AliyunStockCache stockCache,
+                                           AliyunSdkClientFactory sdkClientFactory) {
         log.info("[AliyunEcsAutoConfiguration] 创建阿里云ECS客户端Bean: providerCode={}, providerName={}, region={}",
                 properties.getProviderCode(), properties.getProviderName(), properties.getRegionId());
-        AliyunEcsClient client = new AliyunEcsClient(properties, networkManager, parameterMapper, tenantTagInjector);
+        AliyunEcsClient client = new AliyunEcsClient(properties, networkManager, parameterMapper, instancePool, stockCache,
+                sdkClientFactory, tenantTagInjector);
+        client.setEventPublisher(eventPublisher);
         log.info("[AliyunEcsAutoConfiguration] 阿里云ECS客户端Bean创建完成，等待自动注册到Registry");
         return client;
     }
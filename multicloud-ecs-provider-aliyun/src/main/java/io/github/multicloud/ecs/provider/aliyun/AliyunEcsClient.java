@@ -9,14 +9,21 @@ import io.github.multicloud.ecs.api.enums.InstanceChargeMode;
 import io.github.multicloud.ecs.api.enums.VmStatusEnum;
 import io.github.multicloud.ecs.api.exception.EcsException;
 import io.github.multicloud.ecs.core.client.AbstractCloudEcsClient;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import io.github.multicloud.ecs.core.event.InstanceNetworkSetupEvent;
 import io.github.multicloud.ecs.core.util.TenantTagInjector;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 阿里云ECS客户端实现
@@ -31,9 +38,28 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class AliyunEcsClient extends AbstractCloudEcsClient {
 
+    /**
+     * DescribeInstances 单次最多查询的实例ID数
+     */
+    private static final int DESCRIBE_INSTANCES_MAX_IDS = 100;
+
     private final AliyunEcsProperties properties;
     private final AliyunNetworkManager networkManager;
     private final AliyunParameterMapper parameterMapper;
+    private final AliyunInstancePool instancePool;
+    private final AliyunStockCache stockCache;
+    private final AliyunSdkClientFactory sdkClientFactory;
+
+    /**
+     * 已绑定的公网IP：instanceId -> publicIp
+     * 异步网络打通完成后写入，供后续查询实例时回填 publicIp
+     */
+    private final Map<String, String> boundPublicIps = new ConcurrentHashMap<>();
+
+    /**
+     * 事件发布器（用于发布网络打通完成事件，可为空）
+     */
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * 构造函数
@@ -41,16 +67,29 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
     public AliyunEcsClient(AliyunEcsProperties properties,
                            AliyunNetworkManager networkManager,
                            AliyunParameterMapper parameterMapper,
+                           AliyunInstancePool instancePool,
+                           AliyunStockCache stockCache,
+                           AliyunSdkClientFactory sdkClientFactory,
                            TenantTagInjector tenantTagInjector) {
         super(tenantTagInjector);
         this.properties = properties;
         this.networkManager = networkManager;
         this.parameterMapper = parameterMapper;
+        this.instancePool = instancePool;
+        this.stockCache = stockCache;
+        this.sdkClientFactory = sdkClientFactory;
         log.info("[AliyunEcsClient] 阿里云ECS客户端实例已创建: providerCode={}, providerName={}, region={}, enabled={}",
                 properties.getProviderCode(), properties.getProviderName(), 
                 properties.getRegionId(), properties.isEnabled());
     }
 
+    /**
+     * 设置事件发布器
+     */
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
     @Override
     public String getProviderCode() {
         return properties.getProviderCode();
@@ -61,6 +100,34 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
         return properties.getProviderName();
     }
 
+    @Override
+    public String getRegion() {
+        return properties.getRegionId();
+    }
+
+    /**
+     * 只支持已配置的区域（见 AliyunEcsProperties.regions）
+     */
+    @Override
+    public boolean supportsRegion(String region) {
+        return properties.isRegionConfigured(region);
+    }
+
+    /**
+     * 获取绑定指定区域的客户端
+     * 区域客户端使用该区域的配置副本和端点；网络管理器、参数映射、预热池、库存缓存本身按区域隔离，各区域共用
+     */
+    @Override
+    public AliyunEcsClient forRegion(String region) {
+        if (region == null || region.equals(properties.getRegionId())) {
+            return this;
+        }
+        AliyunEcsClient regional = new AliyunEcsClient(properties.copyForRegion(region), networkManager,
+                parameterMapper, instancePool, stockCache, sdkClientFactory, tenantTagInjector);
+        regional.setEventPublisher(eventPublisher);
+        return regional;
+    }
+
     @Override
     public PriceInfo calculatePrice(CreateInstanceRequest request) throws EcsException {
         log.info("[AliyunEcsClient] 计算价格: instanceName={}, instanceType={}, region={}",
@@ -70,8 +137,11 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
             // 1. 解析参数
             String region = resolveRegion(request);
             String instanceType = parameterMapper.resolveInstanceType(
+                    region,
                     request.getInstanceType(),
-                    request.getGpuModel()
+                    request.getGpuModel(),
+                    request.getCpu(),
+                    request.getMemory()
             );
 
             /*
@@ -150,14 +220,43 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
         
         String region = resolveRegion(request);
         String userId = request.getUserId();
+        String zone = request.getZone();
+        String instanceType = null;
+        // 已创建或已认领的实例，后续步骤失败时删除
+        String provisionedInstanceId = null;
 
         try {
-            // ========== 步骤1: 静默寻址（透明网络供应）==========
+            // ========== 步骤1: 参数映射 ==========
+            // 将 imageKey 映射为 ImageId
+            String imageId = parameterMapper.resolveImageId(region, null, request.getImageKey());
+
+            // 将 cpu/memory/gpuModel 解析为 InstanceType（规格目录中满足需求的最便宜规格）
+            instanceType = parameterMapper.resolveInstanceType(
+                    region,
+                    request.getInstanceType(),
+                    request.getGpuModel(),
+                    request.getCpu(),
+                    request.getMemory()
+            );
+
+            log.info("[AliyunEcsClient] 参数映射完成: imageKey={} -> imageId={}, gpuModel={} -> instanceType={}",
+                    request.getImageKey(), imageId, request.getGpuModel(), instanceType);
+
+            // 库存预检：在准备网络、认领预热实例之前进行，售罄时直接失败，不留下半成品网络资源
+            if (stockCache != null) {
+                stockCache.checkStock(region, zone, instanceType);
+            }
+
+            // 开放端口在创建任何资源之前校验
+            networkManager.validatePorts(request.getOpenPorts());
+
+            // ========== 步骤2: 静默寻址（透明网络供应）==========
             // 如果Request里只有tenantId，自动查找或创建VPC和交换机
+            EcsDeadline.check("ensureNetworkResources");
             AliyunNetworkManager.NetworkResources networkResources = networkManager.ensureNetworkResources(
                     userId,
                     region,
-                    request.getZone(),
+                    zone,
                     request.getTags() != null ? request.getTags() : new HashMap<>()
             );
 
@@ -165,19 +264,6 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
                     networkResources.getVpcId(), networkResources.getVSwitchId(),
                     networkResources.getSecurityGroupId());
 
-            // ========== 步骤2: 参数映射 ==========
-            // 将 imageKey 映射为 ImageId
-            String imageId = parameterMapper.resolveImageId(null, request.getImageKey());
-
-            // 将 gpuModel 映射为 InstanceType（如果指定了gpuModel）
-            String instanceType = parameterMapper.resolveInstanceType(
-                    request.getInstanceType(),
-                    request.getGpuModel()
-            );
-
-            log.info("[AliyunEcsClient] 参数映射完成: imageKey={} -> imageId={}, gpuModel={} -> instanceType={}",
-                    request.getImageKey(), imageId, request.getGpuModel(), instanceType);
-
             // ========== 步骤3: 计费模式映射 ==========
             String instanceChargeType = mapInstanceChargeMode(request.getInstanceChargeMode());
             String internetChargeType = mapBandwidthMode(request.getBandwidthMode());
@@ -186,62 +272,79 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
                     request.getInstanceChargeMode(), instanceChargeType,
                     request.getBandwidthMode(), internetChargeType);
 
-            // ========== 步骤4: 创建实例 ==========
-            log.info("[AliyunEcsClient] ========== 步骤4: 开始创建ECS实例 ==========");
-            
-            // 模拟：创建 IAcsClient 客户端
-            log.info("[AliyunEcsClient] [模拟SDK] 创建 IAcsClient 客户端");
-            log.info("[AliyunEcsClient] [模拟SDK] DefaultProfile.getProfile(region={}, accessKeyId={})", 
-                    region, properties.getAccessKeyId() != null ? "***" : "null");
-            log.info("[AliyunEcsClient] [模拟SDK] new DefaultAcsClient(profile) - 客户端初始化完成");
-            
-            // 模拟：构建 RunInstancesRequest
-            log.info("[AliyunEcsClient] [模拟SDK] 构建 RunInstancesRequest");
-            log.info("[AliyunEcsClient] [模拟SDK]   - regionId: {}", region);
-            log.info("[AliyunEcsClient] [模拟SDK]   - zoneId: {}", request.getZone() != null ? request.getZone() : "默认可用区");
-            log.info("[AliyunEcsClient] [模拟SDK]   - instanceType: {}", instanceType);
-            log.info("[AliyunEcsClient] [模拟SDK]   - imageId: {}", imageId);
-            log.info("[AliyunEcsClient] [模拟SDK]   - securityGroupId: {}", networkResources.getSecurityGroupId());
-            log.info("[AliyunEcsClient] [模拟SDK]   - vSwitchId: {}", networkResources.getVSwitchId());
-            log.info("[AliyunEcsClient] [模拟SDK]   - instanceName: {}", request.getInstanceName());
-            log.info("[AliyunEcsClient] [模拟SDK]   - systemDiskCategory: {}", resolveSystemDiskCategory(request));
-            log.info("[AliyunEcsClient] [模拟SDK]   - systemDiskSize: {} GB", resolveSystemDiskSize(request));
-            log.info("[AliyunEcsClient] [模拟SDK]   - instanceChargeType: {}", instanceChargeType);
-            
-            if (request.getInstanceChargeMode() == InstanceChargeMode.PREPAID && request.getDuration() != null) {
-                log.info("[AliyunEcsClient] [模拟SDK]   - period: {} Month", request.getDuration());
-            }
-            
-            if (request.getAllocatePublicIp() != null && request.getAllocatePublicIp()) {
-                log.info("[AliyunEcsClient] [模拟SDK]   - internetChargeType: {}", internetChargeType);
-                log.info("[AliyunEcsClient] [模拟SDK]   - internetMaxBandwidthOut: {} Mbps", 
-                        request.getPublicIpBandwidth() != null ? request.getPublicIpBandwidth() : 5);
+            // ========== 步骤4: 创建实例（命中实例预热池时直接认领并启动）==========
+            EcsDeadline.check("RunInstances");
+            String mockInstanceId;
+            String mockRequestId = "req-" + System.currentTimeMillis();
+            AliyunInstancePool.PooledInstance pooledInstance = instancePool != null
+                    ? instancePool.claim(request, region, zone, instanceType) : null;
+            if (pooledInstance != null) {
+                log.info("[AliyunEcsClient] ========== 步骤4: 认领预热实例 ==========");
+                provisionedInstanceId = pooledInstance.getInstanceId();
+                instancePool.assign(pooledInstance, request, networkResources);
+                mockInstanceId = pooledInstance.getInstanceId();
+                log.info("[AliyunEcsClient] ✓ 预热实例认领成功: instanceId={}, profile={}",
+                        mockInstanceId, pooledInstance.getProfileKey());
             } else {
-                log.info("[AliyunEcsClient] [模拟SDK]   - internetMaxBandwidthOut: 0 (不分配公网IP)");
-            }
-            
-            if (request.getTags() != null && !request.getTags().isEmpty()) {
-                log.info("[AliyunEcsClient] [模拟SDK]   - tags: {}", request.getTags());
+                log.info("[AliyunEcsClient] ========== 步骤4: 开始创建ECS实例 ==========");
+
+                // 复用按 (区域, 凭证) 缓存的SDK客户端，不再每次调用新建客户端
+                try (AliyunSdkClientFactory.Lease lease = sdkClientFactory.acquire(
+                        AliyunSdkClientFactory.PRODUCT_ECS, region, "RunInstances")) {
+                    log.info("[AliyunEcsClient] [模拟SDK] 复用SDK客户端: endpoint={}", lease.getClient().getEndpoint());
+
+                    // 模拟：构建 RunInstancesRequest
+                    log.info("[AliyunEcsClient] [模拟SDK] 构建 RunInstancesRequest");
+                    log.info("[AliyunEcsClient] [模拟SDK]   - regionId: {}", region);
+                    log.info("[AliyunEcsClient] [模拟SDK]   - zoneId: {}", zone != null ? zone : "默认可用区");
+                    log.info("[AliyunEcsClient] [模拟SDK]   - instanceType: {}", instanceType);
+                    log.info("[AliyunEcsClient] [模拟SDK]   - imageId: {}", imageId);
+                    log.info("[AliyunEcsClient] [模拟SDK]   - securityGroupId: {}", networkResources.getSecurityGroupId());
+                    log.info("[AliyunEcsClient] [模拟SDK]   - vSwitchId: {}", networkResources.getVSwitchId());
+                    log.info("[AliyunEcsClient] [模拟SDK]   - instanceName: {}", request.getInstanceName());
+                    log.info("[AliyunEcsClient] [模拟SDK]   - systemDiskCategory: {}", resolveSystemDiskCategory(request));
+                    log.info("[AliyunEcsClient] [模拟SDK]   - systemDiskSize: {} GB", resolveSystemDiskSize(request));
+                    log.info("[AliyunEcsClient] [模拟SDK]   - instanceChargeType: {}", instanceChargeType);
+
+                    if (request.getInstanceChargeMode() == InstanceChargeMode.PREPAID && request.getDuration() != null) {
+                        log.info("[AliyunEcsClient] [模拟SDK]   - period: {} Month", request.getDuration());
+                    }
+
+                    if (request.getAllocatePublicIp() != null && request.getAllocatePublicIp()) {
+                        log.info("[AliyunEcsClient] [模拟SDK]   - internetChargeType: {}", internetChargeType);
+                        log.info("[AliyunEcsClient] [模拟SDK]   - internetMaxBandwidthOut: {} Mbps", 
+                                request.getPublicIpBandwidth() != null ? request.getPublicIpBandwidth() : 5);
+                    } else {
+                        log.info("[AliyunEcsClient] [模拟SDK]   - internetMaxBandwidthOut: 0 (不分配公网IP)");
+                    }
+
+                    if (request.getTags() != null && !request.getTags().isEmpty()) {
+                        log.info("[AliyunEcsClient] [模拟SDK]   - tags: {}", request.getTags());
+                    }
+
+                    // 模拟：调用API创建实例
+                    log.info("[AliyunEcsClient] [模拟SDK] 调用 client.getAcsResponse(runRequest) - 发送创建实例请求到阿里云");
+                    log.info("[AliyunEcsClient] [模拟SDK] 等待阿里云API响应...");
+
+                    // 模拟：解析响应
+                    mockInstanceId = "i-" + System.currentTimeMillis();
+                    provisionedInstanceId = mockInstanceId;
+                    log.info("[AliyunEcsClient] [模拟SDK] 收到 RunInstancesResponse");
+                    log.info("[AliyunEcsClient] [模拟SDK]   - instanceIdSets: [{}]", mockInstanceId);
+                    log.info("[AliyunEcsClient] [模拟SDK]   - requestId: {}", mockRequestId);
+                    log.info("[AliyunEcsClient] ========== 步骤4: ECS实例创建完成 ==========");
+                    log.info("[AliyunEcsClient] ✓ 实例创建成功: instanceId={}, requestId={}", mockInstanceId, mockRequestId);
+                }
             }
-            
-            // 模拟：调用API创建实例
-            log.info("[AliyunEcsClient] [模拟SDK] 调用 client.getAcsResponse(runRequest) - 发送创建实例请求到阿里云");
-            log.info("[AliyunEcsClient] [模拟SDK] 等待阿里云API响应...");
-            
-            // 模拟：解析响应
-            String mockInstanceId = "i-" + System.currentTimeMillis();
-            String mockRequestId = "req-" + System.currentTimeMillis();
-            log.info("[AliyunEcsClient] [模拟SDK] 收到 RunInstancesResponse");
-            log.info("[AliyunEcsClient] [模拟SDK]   - instanceIdSets: [{}]", mockInstanceId);
-            log.info("[AliyunEcsClient] [模拟SDK]   - requestId: {}", mockRequestId);
-            log.info("[AliyunEcsClient] ========== 步骤4: ECS实例创建完成 ==========");
-            log.info("[AliyunEcsClient] ✓ 实例创建成功: instanceId={}, requestId={}", mockInstanceId, mockRequestId);
 
             // ========== 步骤5: 网络打通（异步）==========
+            // 异步网络打通模式下不等待结果，后台操作不受本次请求截止时间约束
+            boolean awaitNetwork = !properties.isAsyncNetworkSetup();
+
             // 如果需要公网IP，异步申请并绑定EIP
             CompletableFuture<String> eipFuture = null;
             if (request.getAllocatePublicIp() != null && request.getAllocatePublicIp()) {
-                eipFuture = networkManager.allocateAndBindEip(mockInstanceId, region);
+                eipFuture = networkManager.allocateAndBindEip(mockInstanceId, region, awaitNetwork);
             }
 
             // 如果需要开放端口，异步添加安全组规则
@@ -250,32 +353,22 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
                 sgRulesFuture = networkManager.addSecurityGroupRules(
                         networkResources.getSecurityGroupId(),
                         request.getOpenPorts(),
-                        region
+                        region,
+                        awaitNetwork
                 );
             }
 
-            // 等待异步操作完成（可选：也可以不等待，让后台异步执行）
+            // 异步网络打通模式：不等待，后台完成后发布事件；否则等待网络打通完成
             String publicIp = null;
-            if (eipFuture != null) {
-                try {
-                    publicIp = eipFuture.get(); // 等待EIP绑定完成
-                    log.info("[AliyunEcsClient] EIP绑定完成: instanceId={}, publicIp={}", mockInstanceId, publicIp);
-                } catch (Exception e) {
-                    log.error("[AliyunEcsClient] EIP绑定失败: instanceId={}, error={}", mockInstanceId, e.getMessage());
-                    // EIP绑定失败不影响实例创建，记录日志即可
-                }
-            }
-
-            if (sgRulesFuture != null) {
-                try {
-                    sgRulesFuture.get(); // 等待安全组规则添加完成
-                    log.info("[AliyunEcsClient] 安全组规则添加完成: instanceId={}, ports={}",
-                            mockInstanceId, request.getOpenPorts());
-                } catch (Exception e) {
-                    log.error("[AliyunEcsClient] 安全组规则添加失败: instanceId={}, error={}",
-                            mockInstanceId, e.getMessage());
-                    // 安全组规则添加失败不影响实例创建，记录日志即可
+            boolean networkSetupPending = false;
+            if (!awaitNetwork) {
+                networkSetupPending = eipFuture != null || sgRulesFuture != null;
+                if (networkSetupPending) {
+                    completeNetworkSetupInBackground(mockInstanceId, region, request.getOpenPorts(),
+                            eipFuture, sgRulesFuture);
                 }
+            } else {
+                publicIp = awaitNetworkSetup(mockInstanceId, request.getOpenPorts(), eipFuture, sgRulesFuture);
             }
 
             // ========== 步骤6: 构建返回结果 ==========
@@ -291,15 +384,24 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
             metadata.put("securityGroupId", networkResources.getSecurityGroupId());
             metadata.put("instanceChargeType", instanceChargeType);
             metadata.put("internetChargeType", internetChargeType);
+            if (networkSetupPending) {
+                metadata.put("networkSetupStatus", "IN_PROGRESS");
+            } else if ((eipFuture != null && eipFuture.isCancelled())
+                    || (sgRulesFuture != null && sgRulesFuture.isCancelled())) {
+                metadata.put("networkSetupStatus", EcsDeadline.DEADLINE_EXCEEDED);
+            }
+            if (pooledInstance != null) {
+                metadata.put("warmPoolProfile", pooledInstance.getProfileKey());
+            }
 
             VirtualMachine vm = VirtualMachine.builder()
                     .instanceId(mockInstanceId)
                     .instanceName(request.getInstanceName())
-                    .status(VmStatusEnum.PENDING)
-                    .rawStatus("Pending")
+                    .status(pooledInstance != null ? VmStatusEnum.STARTING : VmStatusEnum.PENDING)
+                    .rawStatus(pooledInstance != null ? "Starting" : "Pending")
                     .provider(getProviderCode())
                     .region(region)
-                    .zone(request.getZone())
+                    .zone(zone)
                     .instanceType(instanceType)
                     .imageId(imageId)
                     .privateIp(null) // TODO: 从实例详情中获取
@@ -320,9 +422,19 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
             return vm;
 
         } catch (EcsException e) {
+            rollbackInstance(provisionedInstanceId, e);
             // 重新抛出EcsException（包含配额错误等）
             throw e;
         } catch (Exception e) {
+            rollbackInstance(provisionedInstanceId, e);
+            // 库存不足：记录到库存缓存，后续请求在TTL内跳过该可用区
+            if (AliyunStockCache.isStockOutError(e.getMessage())) {
+                if (stockCache != null) {
+                    stockCache.recordStockOut(region, zone, instanceType);
+                }
+                throw new EcsException(getProviderCode(), "STOCK_OUT",
+                        "实例规格库存不足: " + e.getMessage(), e);
+            }
             // 处理其他异常
             log.error("[AliyunEcsClient] 创建实例异常: instanceName={}, userId={}, error={}",
                     request.getInstanceName(), userId, e.getMessage(), e);
@@ -331,6 +443,131 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
         }
     }
 
+    /**
+     * 创建流程在实例已创建（或已认领预热实例）之后失败时删除该实例，避免遗留计费资源
+     * 认领的预热实例可能已迁入用户网络、改打标签，不再放回预热池
+     * 删除不受本次请求截止时间约束（请求可能正是因超时失败）
+     *
+     * @param instanceId 已创建的实例ID，为null时不处理
+     * @param cause 创建失败原因
+     */
+    private void rollbackInstance(String instanceId, Exception cause) {
+        if (instanceId == null) {
+            return;
+        }
+        log.warn("[AliyunEcsClient] 创建流程失败，删除已创建的实例: instanceId={}, error={}",
+                instanceId, cause.getMessage());
+        try (EcsDeadline.Scope detached = EcsDeadline.attach(null)) {
+            doDeleteInstance(instanceId);
+        } catch (Exception e) {
+            log.error("[AliyunEcsClient] 删除已创建的实例失败，需人工清理: instanceId={}, error={}",
+                    instanceId, e.getMessage(), e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 同步等待网络打通完成（EIP绑定、安全组规则）
+     * 网络打通失败不影响实例创建，仅记录日志；等待受请求截止时间约束，到期后取消未完成的操作
+     *
+     * @return 公网IP，未申请或绑定失败时返回null
+     */
+    private String awaitNetworkSetup(String instanceId, List<Integer> openPorts,
+                                     CompletableFuture<String> eipFuture,
+                                     CompletableFuture<Void> sgRulesFuture) {
+        String publicIp = null;
+        if (eipFuture != null) {
+            try {
+                publicIp = EcsDeadline.await(eipFuture, "AllocateAndBindEip"); // 等待EIP绑定完成
+                log.info("[AliyunEcsClient] EIP绑定完成: instanceId={}, publicIp={}", instanceId, publicIp);
+                if (publicIp != null) {
+                    boundPublicIps.put(instanceId, publicIp);
+                }
+            } catch (EcsException e) {
+                if (e.isDeadlineExceeded() && sgRulesFuture != null) {
+                    sgRulesFuture.cancel(true);
+                }
+                log.error("[AliyunEcsClient] EIP绑定失败: instanceId={}, error={}", instanceId, e.getMessage());
+            } catch (Exception e) {
+                log.error("[AliyunEcsClient] EIP绑定失败: instanceId={}, error={}", instanceId, e.getMessage());
+                // EIP绑定失败不影响实例创建，记录日志即可
+            }
+        }
+
+        if (sgRulesFuture != null) {
+            try {
+                EcsDeadline.await(sgRulesFuture, "AuthorizeSecurityGroup"); // 等待安全组规则添加完成
+                log.info("[AliyunEcsClient] 安全组规则添加完成: instanceId={}, ports={}", instanceId, openPorts);
+            } catch (Exception e) {
+                log.error("[AliyunEcsClient] 安全组规则添加失败: instanceId={}, error={}", instanceId, e.getMessage());
+                // 安全组规则添加失败不影响实例创建，记录日志即可
+            }
+        }
+        return publicIp;
+    }
+
+    /**
+     * 后台完成网络打通
+     * EIP与安全组规则全部结束后回填公网IP缓存，并发布 InstanceNetworkSetupEvent
+     */
+    private void completeNetworkSetupInBackground(String instanceId, String region, List<Integer> openPorts,
+                                                  CompletableFuture<String> eipFuture,
+                                                  CompletableFuture<Void> sgRulesFuture) {
+        CompletableFuture<String> eip = eipFuture != null ? eipFuture : CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> sgRules = sgRulesFuture != null ? sgRulesFuture : CompletableFuture.completedFuture(null);
+        log.info("[AliyunEcsClient] 网络打通转入后台执行: instanceId={}, allocateEip={}, openPorts={}",
+                instanceId, eipFuture != null, openPorts);
+
+        CompletableFuture.allOf(eip, sgRules).whenComplete((ignored, ex) -> {
+            String publicIp = eip.handle((ip, e) -> e == null ? ip : null).join();
+            String eipError = errorMessageOf(eip);
+            String sgError = errorMessageOf(sgRules);
+            if (publicIp != null) {
+                boundPublicIps.put(instanceId, publicIp);
+            }
+
+            InstanceNetworkSetupEvent event = InstanceNetworkSetupEvent.builder()
+                    .provider(getProviderCode())
+                    .instanceId(instanceId)
+                    .region(region)
+                    .publicIp(publicIp)
+                    .openPorts(openPorts)
+                    .eipErrorMessage(eipError)
+                    .securityGroupErrorMessage(sgError)
+                    .completedAt(System.currentTimeMillis())
+                    .build();
+            if (event.isSuccess()) {
+                log.info("[AliyunEcsClient] 后台网络打通完成: instanceId={}, publicIp={}, ports={}",
+                        instanceId, publicIp, openPorts);
+            } else {
+                log.error("[AliyunEcsClient] 后台网络打通失败: instanceId={}, eipError={}, securityGroupError={}",
+                        instanceId, eipError, sgError);
+            }
+
+            if (eventPublisher != null) {
+                try {
+                    eventPublisher.publishEvent(event);
+                } catch (Exception e) {
+                    log.error("[AliyunEcsClient] 发布网络打通事件失败: instanceId={}, error={}",
+                            instanceId, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 提取异步操作的错误信息，成功时返回null
+     */
+    private static String errorMessageOf(CompletableFuture<?> future) {
+        return future.handle((result, e) -> {
+            if (e == null) {
+                return null;
+            }
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        }).join();
+    }
+
     /**
      * 将统一的实例计费模式映射为阿里云计费模式
      * ON_DEMAND -> PostPaid
@@ -383,7 +620,12 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
          * return response != null;
          */
 
-        log.warn("[AliyunEcsClient] SDK未接入，删除操作模拟成功");
+        try (AliyunSdkClientFactory.Lease lease = acquireSdkClient("DeleteInstance")) {
+            log.warn("[AliyunEcsClient] SDK未接入，删除操作模拟成功");
+        }
+        // 删除成功后再归还EIP：删除失败时实例保留原有公网地址
+        networkManager.releaseInstanceEip(instanceId, properties.getRegionId());
+        boundPublicIps.remove(instanceId);
         return true;
     }
 
@@ -398,7 +640,9 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
          * return response != null;
          */
 
-        log.warn("[AliyunEcsClient] SDK未接入，启动操作模拟成功");
+        try (AliyunSdkClientFactory.Lease lease = acquireSdkClient("StartInstance")) {
+            log.warn("[AliyunEcsClient] SDK未接入，启动操作模拟成功");
+        }
         return true;
     }
 
@@ -414,7 +658,9 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
          * return response != null;
          */
 
-        log.warn("[AliyunEcsClient] SDK未接入，停止操作模拟成功");
+        try (AliyunSdkClientFactory.Lease lease = acquireSdkClient("StopInstance")) {
+            log.warn("[AliyunEcsClient] SDK未接入，停止操作模拟成功");
+        }
         return true;
     }
 
@@ -430,7 +676,9 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
          * return response != null;
          */
 
-        log.warn("[AliyunEcsClient] SDK未接入，重启操作模拟成功");
+        try (AliyunSdkClientFactory.Lease lease = acquireSdkClient("RebootInstance")) {
+            log.warn("[AliyunEcsClient] SDK未接入，重启操作模拟成功");
+        }
         return true;
     }
 
@@ -451,7 +699,9 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
          * return convertToVirtualMachine(instance);
          */
 
-        log.warn("[AliyunEcsClient] SDK未接入，返回模拟数据");
+        try (AliyunSdkClientFactory.Lease lease = acquireSdkClient("DescribeInstances")) {
+            log.warn("[AliyunEcsClient] SDK未接入，返回模拟数据");
+        }
         return VirtualMachine.builder()
                 .instanceId(instanceId)
                 .instanceName("mock-instance")
@@ -459,9 +709,54 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
                 .rawStatus("Running")
                 .provider(getProviderCode())
                 .region(properties.getRegionId())
+                .publicIp(boundPublicIps.get(instanceId))
                 .build();
     }
 
+    @Override
+    protected Map<String, VirtualMachine> doGetInstances(Collection<String> instanceIds) throws EcsException {
+        if (instanceIds.size() > DESCRIBE_INSTANCES_MAX_IDS) {
+            throw EcsException.of(getProviderCode(), "INVALID_PARAMETER",
+                    "DescribeInstances 单次最多查询" + DESCRIBE_INSTANCES_MAX_IDS + "个实例: count=" + instanceIds.size());
+        }
+        /*
+         * TODO: 阿里云SDK接入后实现
+         *
+         * DescribeInstancesRequest request = new DescribeInstancesRequest();
+         * request.setInstanceIds(JSON.toJSONString(instanceIds));
+         * request.setPageSize(DESCRIBE_INSTANCES_MAX_IDS);
+         * DescribeInstancesResponse response = client.getAcsResponse(request);
+         *
+         * Map<String, VirtualMachine> result = new LinkedHashMap<>();
+         * for (DescribeInstancesResponse.Instance instance : response.getInstances()) {
+         *     result.put(instance.getInstanceId(), convertToVirtualMachine(instance));
+         * }
+         * return result;
+         */
+
+        try (AliyunSdkClientFactory.Lease lease = acquireSdkClient("DescribeInstances")) {
+            log.warn("[AliyunEcsClient] SDK未接入，返回模拟数据: count={}", instanceIds.size());
+        }
+        Map<String, VirtualMachine> result = new LinkedHashMap<>();
+        for (String instanceId : instanceIds) {
+            result.put(instanceId, VirtualMachine.builder()
+                    .instanceId(instanceId)
+                    .instanceName("mock-instance")
+                    .status(VmStatusEnum.RUNNING)
+                    .rawStatus("Running")
+                    .provider(getProviderCode())
+                    .region(properties.getRegionId())
+                    .publicIp(boundPublicIps.get(instanceId))
+                    .build());
+        }
+        return result;
+    }
+
+    @Override
+    public int getMaxQueryBatchSize() {
+        return DESCRIBE_INSTANCES_MAX_IDS;
+    }
+
     @Override
     protected String doFindInstanceIdByName(String instanceName) throws EcsException {
         /*
@@ -477,10 +772,17 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
          * return null;
          */
 
-        log.warn("[AliyunEcsClient] SDK未接入，返回null");
+        try (AliyunSdkClientFactory.Lease lease = acquireSdkClient("DescribeInstances")) {
+            log.warn("[AliyunEcsClient] SDK未接入，返回null");
+        }
         return null;
     }
 
+    @Override
+    public boolean supportsGpuModel(String gpuModel) {
+        return parameterMapper.supportsGpuModel(properties.getRegionId(), gpuModel);
+    }
+
     @Override
     public boolean isAvailable() {
         // SDK未接入时返回false，接入后改为true
@@ -508,6 +810,13 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
         return request.getRegion() != null ? request.getRegion() : properties.getRegionId();
     }
 
+    /**
+     * 为客户端所在区域的一次ECS API调用取得SDK连接
+     */
+    private AliyunSdkClientFactory.Lease acquireSdkClient(String action) throws EcsException {
+        return sdkClientFactory.acquire(AliyunSdkClientFactory.PRODUCT_ECS, properties.getRegionId(), action);
+    }
+
     /**
      * 解析系统盘类型
      */
@@ -527,10 +836,9 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
     }
 
     /**
-     * 转换阿里云状态到统一状态
+     * 转换阿里云状态到统一状态（DescribeInstances 与实例状态事件共用）
      */
-    @SuppressWarnings("unused")
-    private VmStatusEnum convertStatus(String aliyunStatus) {
+    static VmStatusEnum convertStatus(String aliyunStatus) {
         if (aliyunStatus == null) {
             return VmStatusEnum.UNKNOWN;
         }
@@ -546,6 +854,8 @@ public class AliyunEcsClient extends AbstractCloudEcsClient {
                 return VmStatusEnum.STARTING;
             case "Stopping":
                 return VmStatusEnum.STOPPING;
+            case "Deleted":
+                return VmStatusEnum.DELETED;
             default:
                 log.warn("[AliyunEcsClient] 未知的阿里云状态: {}", aliyunStatus);
                 return VmStatusEnum.UNKNOWN;
@@ -1,8 +1,15 @@
 package io.github.multicloud.ecs.provider.aliyun;
 
 import lombok.Data;
+import org.springframework.beans.BeanUtils;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 阿里云ECS配置属性
  *
@@ -32,6 +39,13 @@ public class AliyunEcsProperties {
      */
     private String regionId = "cn-hangzhou";
 
+    /**
+     * 允许使用的其他区域
+     * 区域客户端、调度和镜像目录只接受已配置的区域：regionId、regions，以及 regionEndpoints、
+     * 镜像/规格目录、EIP池、实例池中出现的区域
+     */
+    private List<String> regions = new ArrayList<>();
+
     /**
      * Access Key ID
      */
@@ -92,9 +106,387 @@ public class AliyunEcsProperties {
      */
     private Integer internetMaxBandwidthOut = 0;
 
+    /**
+     * 是否异步完成网络打通（EIP绑定、安全组规则）
+     * true: RunInstances成功后立即返回，网络打通在后台完成并发布 InstanceNetworkSetupEvent
+     * false: 等待网络打通完成后再返回（默认）
+     */
+    private boolean asyncNetworkSetup = false;
+
+    /**
+     * 网络异步操作线程池核心大小（EIP、安全组规则）
+     */
+    private int networkExecutorCorePoolSize = 8;
+
+    /**
+     * 网络异步操作线程池最大大小
+     */
+    private int networkExecutorMaxPoolSize = 32;
+
+    /**
+     * 网络异步操作线程池队列容量
+     */
+    private int networkExecutorQueueCapacity = 200;
+
+    /**
+     * 单个网络异步操作的截止时间（秒），0表示不限制
+     */
+    private long networkOperationTimeout = 60;
+
+    /**
+     * VPC网段分配状态目录（每个账号+区域一个日志文件），为空时使用 ${user.home}/.multicloud-ecs/cidr
+     */
+    private String cidrStateDir;
+
     /**
      * 客户端优先级（值越小优先级越高）
      */
     private int priority = 100;
-}
 
+    /**
+     * 区域端点覆盖：regionId -> endpoint，未配置的区域使用 ecs.{regionId}.aliyuncs.com
+     */
+    private Map<String, String> regionEndpoints = new HashMap<>();
+
+    /**
+     * SDK客户端连接池配置
+     */
+    private SdkClientPool sdkClientPool = new SdkClientPool();
+
+    /**
+     * 镜像目录配置
+     */
+    private ImageCatalog imageCatalog = new ImageCatalog();
+
+    /**
+     * 实例规格目录配置
+     */
+    private InstanceTypeCatalog instanceTypeCatalog = new InstanceTypeCatalog();
+
+    /**
+     * 可用区库存缓存配置
+     */
+    private StockCache stockCache = new StockCache();
+
+    /**
+     * EIP预热池配置
+     */
+    private EipPool eipPool = new EipPool();
+
+    /**
+     * 网络栈预热池配置
+     */
+    private NetworkStackPool networkStackPool = new NetworkStackPool();
+
+    /**
+     * 实例预热池配置
+     */
+    private InstancePool instancePool = new InstancePool();
+
+    /**
+     * 解析区域的ECS服务端点
+     *
+     * @param region 区域
+     * @return 端点
+     */
+    public String resolveEndpoint(String region) {
+        String endpoint = regionEndpoints.get(region);
+        return endpoint != null ? endpoint : "ecs." + region + ".aliyuncs.com";
+    }
+
+    /**
+     * 是否为已配置的区域
+     *
+     * @param region 区域
+     * @return 是否已配置
+     */
+    public boolean isRegionConfigured(String region) {
+        if (region == null) {
+            return false;
+        }
+        if (region.equals(regionId) || regions.contains(region) || regionEndpoints.containsKey(region)
+                || imageCatalog.getRegions().contains(region) || instanceTypeCatalog.getRegions().contains(region)
+                || eipPool.getRegions().contains(region)) {
+            return true;
+        }
+        for (Profile profile : instancePool.getProfiles()) {
+            if (region.equals(profile.getRegion())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 复制一份绑定指定区域的配置，供区域客户端使用
+     * 嵌套配置共享；vpcId / vSwitchId / securityGroupId 只在原区域有效，其他区域清空后由静默寻址创建
+     *
+     * @param region 区域
+     * @return 区域配置
+     */
+    public AliyunEcsProperties copyForRegion(String region) {
+        AliyunEcsProperties copy = new AliyunEcsProperties();
+        BeanUtils.copyProperties(this, copy);
+        copy.setRegionId(region);
+        if (!region.equals(regionId)) {
+            copy.setVpcId(null);
+            copy.setVSwitchId(null);
+            copy.setSecurityGroupId(null);
+        }
+        return copy;
+    }
+
+    /**
+     * SDK客户端连接池配置
+     * SDK客户端按 (产品, 区域, 凭证) 缓存复用，以下参数作用于每个客户端
+     */
+    @Data
+    public static class SdkClientPool {
+
+        /**
+         * 连接超时（毫秒）
+         */
+        private int connectTimeout = 5000;
+
+        /**
+         * 读取超时（毫秒）
+         */
+        private int readTimeout = 10000;
+
+        /**
+         * 保持的 keep-alive 空闲连接数
+         */
+        private int maxIdleConns = 64;
+
+        /**
+         * 同时进行中的最大调用数
+         */
+        private int maxConnections = 128;
+
+        /**
+         * 连接数已满时等待空闲连接的最长时间（毫秒）
+         */
+        private long acquireTimeout = 5000;
+    }
+
+    /**
+     * 镜像目录配置
+     * 按区域从 DescribeImages 加载镜像，优先级：内置默认 < 云端发现 < overrides < region-overrides
+     */
+    @Data
+    public static class ImageCatalog {
+
+        /**
+         * 需要加载镜像的区域，为空时使用 regionId
+         */
+        private List<String> regions = new ArrayList<>();
+
+        /**
+         * 刷新间隔（秒），0表示只在启动时加载一次
+         */
+        private long refreshInterval = 600;
+
+        /**
+         * 云端镜像上标识业务镜像Key的标签（自定义镜像打此标签后自动进入目录）
+         */
+        private String imageKeyTag = "multicloud-ecs-image-key";
+
+        /**
+         * 所有区域生效的镜像覆盖：imageKey -> imageId
+         */
+        private Map<String, String> overrides = new HashMap<>();
+
+        /**
+         * 按区域的镜像覆盖：region -> (imageKey -> imageId)
+         */
+        private Map<String, Map<String, String>> regionOverrides = new HashMap<>();
+
+        /**
+         * 严格模式：未找到映射时报错（IMAGE_NOT_FOUND），关闭后回退到默认镜像
+         */
+        private boolean strict = true;
+    }
+
+    /**
+     * 实例规格目录配置
+     * 按区域从 DescribeInstanceTypes 与价格数据构建规格索引，按 cpu/memory/gpuModel 选择最便宜的规格
+     */
+    @Data
+    public static class InstanceTypeCatalog {
+
+        /**
+         * 需要加载规格的区域，为空时使用 regionId
+         */
+        private List<String> regions = new ArrayList<>();
+
+        /**
+         * 刷新间隔（秒），0表示只在启动时加载一次
+         */
+        private long refreshInterval = 3600;
+    }
+
+    /**
+     * 可用区库存缓存配置
+     * RunInstances 前按 (region, zone, instanceType) 检查库存，售罄时快速失败（不改选可用区）
+     */
+    @Data
+    public static class StockCache {
+
+        /**
+         * 是否启用库存预检
+         */
+        private boolean enabled = true;
+
+        /**
+         * 有库存状态的缓存时间（秒）
+         */
+        private long positiveTtl = 30;
+
+        /**
+         * 售罄状态的缓存时间（秒）
+         */
+        private long negativeTtl = 60;
+
+        /**
+         * 最多缓存的 (region, zone, instanceType) 数，满时先清理过期项，仍满则本次不缓存
+         */
+        private int maxEntries = 10000;
+    }
+
+    /**
+     * EIP预热池配置
+     * 每个区域预先申请一批未绑定的EIP，创建实例时只需绑定
+     */
+    @Data
+    public static class EipPool {
+
+        /**
+         * 是否启用EIP预热池
+         */
+        private boolean enabled = false;
+
+        /**
+         * 启动时预热的区域，为空时使用 regionId
+         */
+        private List<String> regions = new ArrayList<>();
+
+        /**
+         * 低水位：空闲EIP数低于此值时触发后台补充
+         */
+        private int lowWaterMark = 2;
+
+        /**
+         * 补充目标：每次补充到此数量
+         */
+        private int targetSize = 5;
+
+        /**
+         * 每个区域空闲EIP上限（控制成本），超出部分直接释放
+         */
+        private int maxSize = 10;
+
+        /**
+         * 预申请EIP的带宽(Mbps)
+         */
+        private int bandwidth = 10;
+    }
+
+    /**
+     * 网络栈预热池配置
+     * 按区域/可用区预先创建未分配的 VPC + VSwitch + SecurityGroup，新用户首次创建时直接认领
+     */
+    @Data
+    public static class NetworkStackPool {
+
+        /**
+         * 是否启用网络栈预热池
+         */
+        private boolean enabled = false;
+
+        /**
+         * 预热目标，格式为 region 或 region/zone（如 cn-hangzhou/cn-hangzhou-h），为空时使用 regionId
+         */
+        private List<String> targets = new ArrayList<>();
+
+        /**
+         * 低水位：空闲网络栈数低于此值时触发后台补充
+         */
+        private int lowWaterMark = 1;
+
+        /**
+         * 补充目标：每次补充到此数量
+         */
+        private int targetSize = 2;
+
+        /**
+         * 每个区域/可用区空闲网络栈上限
+         */
+        private int maxSize = 5;
+    }
+
+    /**
+     * 实例预热池配置
+     * 按 (region, instanceType, imageKey) 画像预先创建并停机的实例，匹配的创建请求直接认领并启动
+     */
+    @Data
+    public static class InstancePool {
+
+        /**
+         * 是否启用实例预热池
+         */
+        private boolean enabled = false;
+
+        /**
+         * 预热画像列表
+         */
+        private List<Profile> profiles = new ArrayList<>();
+
+        /**
+         * 预热池每小时成本预算（元），0表示不限制
+         * 所有空闲预热实例的 hourlyCost 之和不超过此值，超出时暂停补充
+         */
+        private BigDecimal hourlyBudget = BigDecimal.ZERO;
+    }
+
+    /**
+     * 实例预热画像
+     */
+    @Data
+    public static class Profile {
+
+        /**
+         * 区域
+         */
+        private String region;
+
+        /**
+         * 可用区（可选，为空时使用默认可用区）
+         */
+        private String zone;
+
+        /**
+         * 实例规格，如 ecs.gn7i-c8g1.2xlarge
+         */
+        private String instanceType;
+
+        /**
+         * 业务镜像标识，如 pytorch-1.12
+         */
+        private String imageKey;
+
+        /**
+         * 目标空闲实例数
+         */
+        private int size = 2;
+
+        /**
+         * 低水位：空闲实例数低于此值时触发后台补充
+         */
+        private int minIdle = 1;
+
+        /**
+         * 单个空闲实例每小时成本（元），用于预算控制
+         */
+        private BigDecimal hourlyCost = BigDecimal.ZERO;
+    }
+}
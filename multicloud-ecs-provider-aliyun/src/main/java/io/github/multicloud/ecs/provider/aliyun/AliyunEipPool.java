@@ -0,0 +1,244 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import io.github.multicloud.ecs.core.coordination.CoordinationService;
+import io.github.multicloud.ecs.core.pool.WarmPool;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阿里云EIP预热池
+ * 每个区域维护一批已申请、未绑定的EIP，创建实例时直接取用并绑定，把EIP申请移出关键路径
+ *
+ * - 空闲数低于低水位时在网络执行器上后台补充到目标数量（见 WarmPool）
+ * - 实例释放的EIP优先归还池中，超过上限的部分直接释放（控制成本）
+ * - 池中EIP带有 pool 标签，重启后通过 DescribeEipAddresses 回收复用
+ * - 多节点部署时每个区域由一个节点补充；其他节点本地为空时从云端共享库存取用，
+ *   每个EIP交付前先获取 pool-claim 租约，保证只交付一次；失去区域的节点交出本地空闲EIP，由新的负责节点认领
+ *
+ * @author guo
+ */
+@Slf4j
+public class AliyunEipPool {
+
+    /**
+     * 池中EIP的标签Key
+     */
+    public static final String POOL_TAG_KEY = "multicloud-ecs-pool";
+
+    /**
+     * 池中EIP的标签值
+     */
+    public static final String POOL_TAG_VALUE = "eip";
+
+    /**
+     * 取用租约有效期：覆盖从取用到绑定完成（绑定后EIP不再出现在共享库存中）
+     */
+    static final long CLAIM_LEASE_MILLIS = 60_000;
+
+    private final AliyunEcsProperties properties;
+    private final AliyunEcsProperties.EipPool config;
+
+    /**
+     * 空闲EIP池：region -> 空闲EIP
+     */
+    private final WarmPool<EipAddress> pool;
+
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+
+    /**
+     * 多节点协调服务，未接入时为null
+     */
+    private volatile CoordinationService coordination;
+
+    /**
+     * EIP信息
+     */
+    public static class EipAddress {
+        private final String allocationId;
+        private final String ipAddress;
+        private final String region;
+
+        public EipAddress(String allocationId, String ipAddress, String region) {
+            this.allocationId = allocationId;
+            this.ipAddress = ipAddress;
+            this.region = region;
+        }
+
+        public String getAllocationId() { return allocationId; }
+        public String getIpAddress() { return ipAddress; }
+        public String getRegion() { return region; }
+
+        @Override
+        public String toString() {
+            return allocationId + "(" + ipAddress + ")";
+        }
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param properties 阿里云配置
+     * @param networkExecutor 网络异步操作执行器（用于后台补充）
+     */
+    public AliyunEipPool(AliyunEcsProperties properties, Executor networkExecutor) {
+        this.properties = properties;
+        this.config = properties.getEipPool();
+        this.pool = new WarmPool<>("eip", networkExecutor, config.getLowWaterMark(),
+                config.getTargetSize(), config.getMaxSize(), this::allocate);
+    }
+
+    /**
+     * 接入多节点协调：每个区域的EIP池只由负责该区域的节点补充和认领，存活节点变化后由新的负责节点补充
+     *
+     * @param coordination 协调服务
+     */
+    public void setCoordinationService(CoordinationService coordination) {
+        this.coordination = coordination;
+        pool.setRefillGate(region -> coordination.owns("pool:eip|" + region));
+        pool.setSharedInventory(this::describePooledEips,
+                eip -> coordination.tryLease(claimKey(eip), CLAIM_LEASE_MILLIS));
+        coordination.addMembershipListener(nodes -> {
+            if (config.isEnabled()) {
+                poolRegions().forEach(region -> pool.rebalance(region, () -> describePooledEips(region)));
+            }
+        });
+    }
+
+    /**
+     * 启动预热：回收已有的池EIP，并补充到目标数量
+     */
+    @PostConstruct
+    public void warmUp() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<String> regions = poolRegions();
+        log.info("[AliyunEipPool] 开始预热EIP池: regions={}, lowWaterMark={}, targetSize={}, maxSize={}",
+                regions, config.getLowWaterMark(), config.getTargetSize(), config.getMaxSize());
+        for (String region : regions) {
+            for (EipAddress eip : describePooledEips(region)) {
+                pool.adopt(region, eip);
+            }
+            pool.refill(region);
+        }
+    }
+
+    /**
+     * 从池中取一个空闲EIP
+     *
+     * @param region 区域
+     * @return 空闲EIP，池未启用或池为空时返回null
+     */
+    public EipAddress acquire(String region) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        EipAddress eip = pool.poll(region);
+        if (eip == null) {
+            log.info("[AliyunEipPool] EIP池为空，回退为同步申请: region={}", region);
+        }
+        return eip;
+    }
+
+    /**
+     * 归还EIP（须已解绑）
+     * 池未满时放回池中，否则直接释放
+     *
+     * @param eip EIP
+     */
+    public void release(EipAddress eip) {
+        if (eip == null) {
+            return;
+        }
+        CoordinationService current = coordination;
+        if (current != null) {
+            // 归还后其他节点可以再次取用
+            current.releaseLease(claimKey(eip));
+        }
+        if (config.isEnabled() && pool.offer(eip.getRegion(), eip)) {
+            log.info("[AliyunEipPool] EIP已归还池中: region={}, eip={}, idle={}",
+                    eip.getRegion(), eip, pool.size(eip.getRegion()));
+            return;
+        }
+        releaseToCloud(eip);
+    }
+
+    /**
+     * 向云端申请一个新的EIP（池未命中时同步调用，或后台补充时调用）
+     *
+     * @param region 区域
+     * @return 新申请的EIP
+     */
+    public EipAddress allocate(String region) {
+        log.info("[AliyunEipPool] [模拟SDK] 申请EIP");
+        log.info("[AliyunEipPool] [模拟SDK]   构建 AllocateEipAddressRequest");
+        log.info("[AliyunEipPool] [模拟SDK]     - regionId: {}", region);
+        log.info("[AliyunEipPool] [模拟SDK]     - bandwidth: {} Mbps", config.getBandwidth());
+        log.info("[AliyunEipPool] [模拟SDK]     - tag: {}={}", POOL_TAG_KEY, POOL_TAG_VALUE);
+        log.info("[AliyunEipPool] [模拟SDK]   调用 client.getAcsResponse(allocateRequest) - 申请EIP");
+        long now = System.nanoTime();
+        String mockAllocationId = "eip-" + now;
+        String mockEip = "47." + (now % 256) + "." + ((now / 256) % 256) + "." + ((now / 65536) % 256);
+        log.info("[AliyunEipPool] [模拟SDK]   ✓ EIP申请成功: allocationId={}, eipAddress={}", mockAllocationId, mockEip);
+        allocated.incrementAndGet();
+        return new EipAddress(mockAllocationId, mockEip, region);
+    }
+
+    /**
+     * 获取EIP池指标
+     * 包含命中率、各区域空闲数、补充延迟（从低于低水位到补充完成的耗时）
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = pool.getMetrics();
+        metrics.put("enabled", config.isEnabled());
+        metrics.put("allocated", allocated.get());
+        metrics.put("released", released.get());
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 查询区域内带有池标签且未绑定的EIP（重启后回收，以及多节点间的共享库存）
+     */
+    private List<EipAddress> describePooledEips(String region) {
+        log.info("[AliyunEipPool] [模拟SDK] 查询池中EIP");
+        log.info("[AliyunEipPool] [模拟SDK]   构建 DescribeEipAddressesRequest");
+        log.info("[AliyunEipPool] [模拟SDK]     - regionId: {}", region);
+        log.info("[AliyunEipPool] [模拟SDK]     - status: Available");
+        log.info("[AliyunEipPool] [模拟SDK]     - tag: {}={}", POOL_TAG_KEY, POOL_TAG_VALUE);
+        log.info("[AliyunEipPool] [模拟SDK]   收到 DescribeEipAddressesResponse: eipAddresses=[]");
+        return new ArrayList<>();
+    }
+
+    /**
+     * 释放EIP（池已满或未启用时）
+     */
+    private void releaseToCloud(EipAddress eip) {
+        log.info("[AliyunEipPool] [模拟SDK] 释放EIP");
+        log.info("[AliyunEipPool] [模拟SDK]   构建 ReleaseEipAddressRequest");
+        log.info("[AliyunEipPool] [模拟SDK]     - allocationId: {}", eip.getAllocationId());
+        log.info("[AliyunEipPool] [模拟SDK]   调用 client.getAcsResponse(releaseRequest) - 释放EIP");
+        log.info("[AliyunEipPool] [模拟SDK]   ✓ EIP已释放: {}", eip);
+        released.incrementAndGet();
+    }
+
+    private static String claimKey(EipAddress eip) {
+        return "pool-claim:eip|" + eip.getAllocationId();
+    }
+
+    private List<String> poolRegions() {
+        return config.getRegions().isEmpty()
+                ? Collections.singletonList(properties.getRegionId()) : config.getRegions();
+    }
+}
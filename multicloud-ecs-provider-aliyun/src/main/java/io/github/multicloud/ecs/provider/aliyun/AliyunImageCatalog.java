@@ -0,0 +1,293 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阿里云镜像目录
+ * 按区域维护 imageKey -> imageId 的映射，定期从 DescribeImages 加载，刷新时构建新的不可变查找表并整体替换
+ *
+ * 优先级（后者覆盖前者）：内置默认 < 云端发现（带 imageKeyTag 标签的自定义镜像） < overrides < region-overrides
+ *
+ * - 查询只读当前快照，一次哈希查找，不分配字符串
+ * - 查询未命中只记录指标，不会在请求路径上调用云端；未加载过的区域在下次刷新时加载
+ *
+ * @author guo
+ */
+@Slf4j
+public class AliyunImageCatalog {
+
+    /**
+     * 内置默认镜像映射
+     */
+    static final Map<String, String> BUILTIN_IMAGES;
+    static {
+        Map<String, String> images = new HashMap<>();
+        images.put("centos-7.9", "centos_7_9_x64_20G_alibase_20220824.vhd");
+        images.put("ubuntu-20.04", "ubuntu_20_04_x64_20G_alibase_20220824.vhd");
+        images.put("pytorch-1.12", "pytorch_1_12_cuda11_3_ubuntu20_04");
+        images.put("tensorflow-2.8", "tensorflow_2_8_cuda11_2_ubuntu20_04");
+        BUILTIN_IMAGES = Collections.unmodifiableMap(images);
+    }
+
+    /**
+     * 最多单独统计未命中次数的 imageKey 数量（防止异常输入撑大指标）
+     */
+    private static final int MAX_TRACKED_MISSES = 256;
+
+    /**
+     * 单独统计的 imageKey 最大长度，超长的计入 otherMisses
+     */
+    private static final int MAX_TRACKED_KEY_LENGTH = 128;
+
+    private final AliyunEcsProperties properties;
+    private final AliyunEcsProperties.ImageCatalog config;
+
+    /**
+     * 当前查找表快照（整体替换，读取无锁）
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 查询过但尚未加载的区域，下次刷新时加载（只接受已配置的区域，见 AliyunEcsProperties.regions）
+     */
+    private final Set<String> requestedRegions = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService refresher;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final Map<String, AtomicLong> missesByKey = new ConcurrentHashMap<>();
+    private final AtomicLong otherMisses = new AtomicLong();
+
+    /**
+     * 查找表快照
+     */
+    private static final class Snapshot {
+        /**
+         * region -> (imageKey -> imageId)
+         */
+        private final Map<String, Map<String, String>> byRegion;
+
+        /**
+         * 未加载区域使用的表（内置默认 + overrides）
+         */
+        private final Map<String, String> fallback;
+
+        private final long builtAt;
+
+        private Snapshot(Map<String, Map<String, String>> byRegion, Map<String, String> fallback) {
+            this.byRegion = byRegion;
+            this.fallback = fallback;
+            this.builtAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param properties 阿里云配置
+     */
+    public AliyunImageCatalog(AliyunEcsProperties properties) {
+        this.properties = properties;
+        this.config = properties.getImageCatalog();
+        this.snapshot = new Snapshot(Collections.emptyMap(), buildTable(null, Collections.emptyMap()));
+    }
+
+    /**
+     * 启动：首次加载并按 refreshInterval 定期刷新
+     */
+    @PostConstruct
+    public void start() {
+        refresh();
+        if (config.getRefreshInterval() > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "aliyun-image-catalog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refresh, config.getRefreshInterval(),
+                    config.getRefreshInterval(), TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 停止定期刷新
+     */
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * 查询镜像ID
+     *
+     * @param region 区域，为null时使用未分区的默认表
+     * @param imageKey 业务镜像标识
+     * @return 阿里云ImageId，未找到时返回null
+     */
+    public String lookup(String region, String imageKey) {
+        if (imageKey == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        Map<String, String> table = region != null ? current.byRegion.get(region) : null;
+        if (table == null) {
+            table = current.fallback;
+            if (region != null && properties.isRegionConfigured(region)) {
+                requestedRegions.add(region);
+            }
+        }
+
+        String imageId = table.get(imageKey);
+        if (imageId == null) {
+            // 仅在未命中时尝试小写（表中已预置小写别名）
+            String lowerKey = imageKey.toLowerCase(Locale.ROOT);
+            if (!lowerKey.equals(imageKey)) {
+                imageId = table.get(lowerKey);
+            }
+        }
+        if (imageId == null) {
+            recordMiss(imageKey);
+            return null;
+        }
+        hits.incrementAndGet();
+        return imageId;
+    }
+
+    /**
+     * 是否为严格模式（未命中时报错）
+     */
+    public boolean isStrict() {
+        return config.isStrict();
+    }
+
+    /**
+     * 刷新所有区域的镜像表并原子替换快照
+     * 单个区域加载失败时保留该区域的旧表
+     */
+    public synchronized void refresh() {
+        Snapshot previous = snapshot;
+        Set<String> regions = new LinkedHashSet<>(config.getRegions());
+        if (regions.isEmpty()) {
+            regions.add(properties.getRegionId());
+        }
+        regions.addAll(previous.byRegion.keySet());
+        regions.addAll(requestedRegions);
+
+        Map<String, Map<String, String>> byRegion = new HashMap<>();
+        for (String region : regions) {
+            try {
+                byRegion.put(region, buildTable(region, describeImages(region)));
+            } catch (Exception e) {
+                refreshFailures.incrementAndGet();
+                Map<String, String> old = previous.byRegion.get(region);
+                if (old != null) {
+                    byRegion.put(region, old);
+                }
+                log.error("[AliyunImageCatalog] 加载区域镜像失败，保留旧表: region={}, error={}",
+                        region, e.getMessage(), e);
+            }
+        }
+        snapshot = new Snapshot(Collections.unmodifiableMap(byRegion), buildTable(null, Collections.emptyMap()));
+        requestedRegions.removeAll(byRegion.keySet());
+        refreshes.incrementAndGet();
+        log.info("[AliyunImageCatalog] 镜像目录已刷新: regions={}", byRegion.keySet());
+    }
+
+    /**
+     * 获取镜像目录指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Snapshot current = snapshot;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        Map<String, Long> missCounts = new LinkedHashMap<>();
+        missesByKey.forEach((key, count) -> missCounts.put(key, count.get()));
+        metrics.put("missesByKey", missCounts);
+        metrics.put("otherMisses", otherMisses.get());
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        current.byRegion.forEach((region, table) -> sizes.put(region, table.size()));
+        metrics.put("regions", sizes);
+        metrics.put("refreshes", refreshes.get());
+        metrics.put("refreshFailures", refreshFailures.get());
+        metrics.put("lastRefreshAt", current.builtAt);
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 按优先级合并出一个区域的不可变查找表，并为每个Key预置小写别名
+     */
+    private Map<String, String> buildTable(String region, Map<String, String> discovered) {
+        Map<String, String> merged = new HashMap<>(BUILTIN_IMAGES);
+        merged.putAll(discovered);
+        merged.putAll(config.getOverrides());
+        if (region != null && config.getRegionOverrides().containsKey(region)) {
+            merged.putAll(config.getRegionOverrides().get(region));
+        }
+
+        Map<String, String> table = new HashMap<>(merged.size() * 2);
+        merged.forEach((key, imageId) -> table.putIfAbsent(key.toLowerCase(Locale.ROOT), imageId));
+        table.putAll(merged);
+        return Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * 查询区域内带有 imageKeyTag 标签的可用镜像
+     *
+     * @return imageKey -> imageId
+     */
+    private Map<String, String> describeImages(String region) {
+        log.info("[AliyunImageCatalog] [模拟SDK] 加载区域镜像");
+        log.info("[AliyunImageCatalog] [模拟SDK]   构建 DescribeImagesRequest");
+        log.info("[AliyunImageCatalog] [模拟SDK]     - regionId: {}", region);
+        log.info("[AliyunImageCatalog] [模拟SDK]     - status: Available");
+        log.info("[AliyunImageCatalog] [模拟SDK]     - tagKey: {}", config.getImageKeyTag());
+        log.info("[AliyunImageCatalog] [模拟SDK]     - pageSize: 100（分页直到 nextToken 为空）");
+        log.info("[AliyunImageCatalog] [模拟SDK]   收到 DescribeImagesResponse: images=[]");
+        return Collections.emptyMap();
+    }
+
+    private void recordMiss(String imageKey) {
+        misses.incrementAndGet();
+        AtomicLong counter = missesByKey.get(imageKey);
+        if (counter == null && imageKey.length() <= MAX_TRACKED_KEY_LENGTH) {
+            // 加锁保证并发未命中时也不超过上限
+            synchronized (missesByKey) {
+                counter = missesByKey.get(imageKey);
+                if (counter == null && missesByKey.size() < MAX_TRACKED_MISSES) {
+                    counter = new AtomicLong();
+                    missesByKey.put(imageKey, counter);
+                }
+            }
+        }
+        if (counter != null) {
+            counter.incrementAndGet();
+        } else {
+            otherMisses.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import io.github.multicloud.ecs.core.event.InstanceEventParser;
+import io.github.multicloud.ecs.core.event.InstanceStateEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * 阿里云实例事件解析器
+ * 支持两种实例状态变更通知格式：
+ *
+ * EventBridge：
+ * {"id":"...","source":"acs.ecs","type":"ecs:Instance:StateChange","time":"2026-10-18T10:00:00Z",
+ *  "aliyunregionid":"cn-hangzhou","data":{"resourceId":"i-xxx","state":"Running"}}
+ *
+ * 云监控事件推送：
+ * {"product":"ECS","name":"Instance:StateChange","regionId":"cn-hangzhou","eventTime":"20261018T100000.000+0800",
+ *  "content":{"resourceId":"i-xxx","state":"Stopped"}}
+ *
+ * @author guo
+ */
+@Slf4j
+public class AliyunInstanceEventParser implements InstanceEventParser {
+
+    private static final String STATE_CHANGE = "Instance:StateChange";
+
+    private static final DateTimeFormatter CLOUD_MONITOR_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSSZ");
+
+    private final AliyunEcsProperties properties;
+
+    public AliyunInstanceEventParser(AliyunEcsProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public String getProviderCode() {
+        return properties.getProviderCode();
+    }
+
+    @Override
+    public boolean supports(Map<String, Object> payload) {
+        if (payload == null) {
+            return false;
+        }
+        return "acs.ecs".equals(payload.get("source")) || "ECS".equals(payload.get("product"));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public InstanceStateEvent parse(Map<String, Object> payload) {
+        boolean eventBridge = "acs.ecs".equals(payload.get("source"));
+        String type = eventBridge ? asString(payload.get("type")) : asString(payload.get("name"));
+        if (type == null || !type.endsWith(STATE_CHANGE)) {
+            log.debug("[AliyunInstanceEventParser] 忽略非状态变更事件: type={}", type);
+            return null;
+        }
+
+        Object body = eventBridge ? payload.get("data") : payload.get("content");
+        if (!(body instanceof Map)) {
+            log.warn("[AliyunInstanceEventParser] 事件缺少 data/content: type={}", type);
+            return null;
+        }
+        Map<String, Object> data = (Map<String, Object>) body;
+        String instanceId = asString(data.get("resourceId"));
+        String state = asString(data.get("state"));
+        if (instanceId == null || state == null) {
+            log.warn("[AliyunInstanceEventParser] 事件缺少 resourceId/state: type={}", type);
+            return null;
+        }
+
+        String region = eventBridge ? asString(payload.get("aliyunregionid")) : asString(payload.get("regionId"));
+        if (region == null) {
+            region = asString(data.get("regionId"));
+        }
+        return InstanceStateEvent.builder()
+                .provider(getProviderCode())
+                .instanceId(instanceId)
+                .region(region)
+                .status(AliyunEcsClient.convertStatus(state))
+                .rawStatus(state)
+                .eventId(asString(payload.get("id")))
+                .eventTime(parseTime(eventBridge ? payload.get("time") : payload.get("eventTime"), eventBridge))
+                .source("event")
+                .build();
+    }
+
+    /**
+     * 解析事件时间，失败时返回null（由摄取器使用接收时间）
+     */
+    private static Long parseTime(Object value, boolean eventBridge) {
+        String text = asString(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            OffsetDateTime time = eventBridge
+                    ? OffsetDateTime.parse(text)
+                    : OffsetDateTime.parse(text, CLOUD_MONITOR_TIME);
+            return time.toInstant().toEpochMilli();
+        } catch (Exception e) {
+            log.debug("[AliyunInstanceEventParser] 无法解析事件时间: {}", text);
+            return null;
+        }
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,467 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.enums.InstanceChargeMode;
+import io.github.multicloud.ecs.core.coordination.CoordinationService;
+import io.github.multicloud.ecs.core.pool.WarmPool;
+import io.github.multicloud.ecs.core.util.TenantTagInjector;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阿里云实例预热池
+ * 按 (region, instanceType, imageKey) 画像预先创建一批已停机（StopCharging）的实例，
+ * 匹配的创建请求直接认领：迁入用户网络 -> 改打租户标签 -> 启动，把 RunInstances 到 Running 的分钟级等待移出关键路径
+ *
+ * - 每个画像独立维护空闲数与命中/未命中指标（见 WarmPool）
+ * - 补充在网络执行器上后台进行，空闲实例总成本受 hourlyBudget 限制，超出时暂停补充
+ * - 预热实例放在 warm-pool 专用网络中，带有 pool 标签，重启后通过 DescribeInstances 回收复用
+ * - 仅按量付费、单台、系统盘使用默认配置的请求可命中预热池
+ * - 多节点部署时每个画像由一个节点补充；其他节点本地为空时从云端共享库存取用（交付前获取 pool-claim 租约），
+ *   失去画像的节点交出本地空闲实例；补充时持有 pool:instance-budget 租约，按云端全部预热实例计算成本，
+ *   hourlyBudget 对所有节点合计生效
+ *
+ * @author guo
+ */
+@Slf4j
+public class AliyunInstancePool {
+
+    /**
+     * 池中实例的标签值
+     */
+    public static final String POOL_TAG_INSTANCE = "instance";
+
+    /**
+     * 预热实例所在网络的归属用户
+     */
+    private static final String POOL_OWNER = "warm-pool";
+
+    /**
+     * 取用租约有效期：覆盖从取用到改打租户标签（之后实例不再出现在共享库存中）
+     */
+    private static final long CLAIM_LEASE_MILLIS = 60_000;
+
+    /**
+     * 补充时的成本预算租约（多节点间串行计算预算）
+     */
+    private static final String BUDGET_LEASE = "pool:instance-budget";
+    private static final long BUDGET_LEASE_MILLIS = 600_000;
+
+    private final AliyunEcsProperties properties;
+    private final AliyunEcsProperties.InstancePool config;
+    private final AliyunNetworkManager networkManager;
+    private final AliyunParameterMapper parameterMapper;
+    private final TenantTagInjector tenantTagInjector;
+
+    /**
+     * 画像配置：profileKey -> 画像
+     */
+    private final Map<String, AliyunEcsProperties.Profile> profiles = new LinkedHashMap<>();
+
+    /**
+     * 空闲实例池：profileKey -> 预热池（每个画像的目标数量不同，各自一个池）
+     */
+    private final Map<String, WarmPool<PooledInstance>> pools = new LinkedHashMap<>();
+
+    /**
+     * 空闲实例当前占用的每小时成本（受 budgetLock 保护）
+     */
+    private BigDecimal committedHourlyCost = BigDecimal.ZERO;
+    private final Object budgetLock = new Object();
+
+    /**
+     * 计入本节点预算的空闲实例ID（从共享库存取用的实例不在其中）
+     */
+    private final Set<String> budgetedInstances = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 多节点协调服务，未接入时为null
+     */
+    private volatile CoordinationService coordination;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong budgetRejections = new AtomicLong();
+
+    /**
+     * 预热实例信息
+     */
+    public static class PooledInstance {
+        private final String instanceId;
+        private final String profileKey;
+        private final String region;
+        private final String zone;
+        private final String instanceType;
+        private final String imageId;
+        private final BigDecimal hourlyCost;
+
+        public PooledInstance(String instanceId, String profileKey, String region, String zone,
+                              String instanceType, String imageId, BigDecimal hourlyCost) {
+            this.instanceId = instanceId;
+            this.profileKey = profileKey;
+            this.region = region;
+            this.zone = zone;
+            this.instanceType = instanceType;
+            this.imageId = imageId;
+            this.hourlyCost = hourlyCost;
+        }
+
+        public String getInstanceId() { return instanceId; }
+        public String getProfileKey() { return profileKey; }
+        public String getRegion() { return region; }
+        public String getZone() { return zone; }
+        public String getInstanceType() { return instanceType; }
+        public String getImageId() { return imageId; }
+        public BigDecimal getHourlyCost() { return hourlyCost; }
+
+        @Override
+        public String toString() {
+            return instanceId + "(" + profileKey + ")";
+        }
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param properties 阿里云配置
+     * @param networkExecutor 网络异步操作执行器（用于后台补充）
+     * @param networkManager 网络资源管理器
+     * @param parameterMapper 参数映射器
+     * @param tenantTagInjector 租户标签注入器
+     */
+    public AliyunInstancePool(AliyunEcsProperties properties, Executor networkExecutor,
+                              AliyunNetworkManager networkManager, AliyunParameterMapper parameterMapper,
+                              TenantTagInjector tenantTagInjector) {
+        this.properties = properties;
+        this.config = properties.getInstancePool();
+        this.networkManager = networkManager;
+        this.parameterMapper = parameterMapper;
+        this.tenantTagInjector = tenantTagInjector;
+        for (AliyunEcsProperties.Profile profile : config.getProfiles()) {
+            String region = profile.getRegion() != null ? profile.getRegion() : properties.getRegionId();
+            String key = profileKey(region, profile.getInstanceType(), profile.getImageKey());
+            int size = Math.max(profile.getSize(), 0);
+            profiles.put(key, profile);
+            pools.put(key, new WarmPool<>("instance:" + key, networkExecutor,
+                    Math.min(profile.getMinIdle(), size), size, size, this::provision));
+        }
+    }
+
+    /**
+     * 接入多节点协调：每个画像的实例池只由负责该画像的节点补充和认领，存活节点变化后由新的负责节点补充
+     *
+     * @param coordination 协调服务
+     */
+    public void setCoordinationService(CoordinationService coordination) {
+        this.coordination = coordination;
+        pools.forEach((key, pool) -> {
+            pool.setRefillGate(k -> coordination.owns("pool:instance|" + k));
+            pool.setSharedInventory(this::describePooledInstances,
+                    instance -> coordination.tryLease("pool-claim:instance|" + instance.getInstanceId(),
+                            CLAIM_LEASE_MILLIS));
+        });
+        coordination.addMembershipListener(nodes -> {
+            if (config.isEnabled()) {
+                pools.forEach((key, pool) -> {
+                    for (PooledInstance instance : pool.rebalance(key, () -> adoptable(key))) {
+                        unbudget(instance);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 启动预热：回收已有的预热实例，并补充到各画像的目标数量
+     */
+    @PostConstruct
+    public void warmUp() {
+        if (!config.isEnabled() || pools.isEmpty()) {
+            return;
+        }
+        log.info("[AliyunInstancePool] 开始预热实例池: profiles={}, hourlyBudget={}",
+                pools.keySet(), config.getHourlyBudget());
+        pools.forEach((key, pool) -> {
+            for (PooledInstance instance : describePooledInstances(key)) {
+                if (pool.adopt(key, instance)) {
+                    budget(instance);
+                }
+            }
+            pool.refill(key);
+        });
+    }
+
+    /**
+     * 为创建请求认领一个预热实例
+     *
+     * @param request 创建请求
+     * @param region 已解析的区域
+     * @param zone 已确定的可用区，可为null
+     * @param instanceType 已解析的实例规格
+     * @return 预热实例，请求不匹配任何画像、不满足预热条件或池为空时返回null
+     */
+    public PooledInstance claim(CreateInstanceRequest request, String region, String zone, String instanceType) {
+        if (!config.isEnabled() || !isEligible(request)) {
+            return null;
+        }
+        String key = profileKey(region, instanceType, request.getImageKey());
+        WarmPool<PooledInstance> pool = pools.get(key);
+        if (pool == null) {
+            return null;
+        }
+        AliyunEcsProperties.Profile profile = profiles.get(key);
+        if (zone != null && profile.getZone() != null && !zone.equals(profile.getZone())) {
+            return null;
+        }
+
+        PooledInstance instance = pool.poll(key);
+        if (instance == null) {
+            log.info("[AliyunInstancePool] 实例预热池未命中，回退为 RunInstances: profile={}", key);
+            return null;
+        }
+        unbudget(instance);
+        claimed.incrementAndGet();
+        log.info("[AliyunInstancePool] 命中实例预热池: profile={}, instanceId={}", key, instance.getInstanceId());
+        return instance;
+    }
+
+    /**
+     * 把认领的预热实例交付给用户：迁入用户网络、改打租户标签、设置名称与登录凭证，然后启动
+     *
+     * @param instance 预热实例
+     * @param request 创建请求
+     * @param networkResources 用户网络资源
+     */
+    public void assign(PooledInstance instance, CreateInstanceRequest request,
+                       AliyunNetworkManager.NetworkResources networkResources) {
+        String instanceId = instance.getInstanceId();
+        // 标签以 TenantTagInjector 注入结果为准（幂等），保证与 RunInstances 路径一致
+        tenantTagInjector.inject(request);
+        Map<String, String> tags = request.getTags();
+
+        log.info("[AliyunInstancePool] [模拟SDK] 交付预热实例: instanceId={}, userId={}", instanceId, request.getUserId());
+        log.info("[AliyunInstancePool] [模拟SDK] 1. 迁入用户网络");
+        log.info("[AliyunInstancePool] [模拟SDK]   构建 ModifyInstanceVpcAttributeRequest");
+        log.info("[AliyunInstancePool] [模拟SDK]     - instanceId: {}", instanceId);
+        log.info("[AliyunInstancePool] [模拟SDK]     - vSwitchId: {}", networkResources.getVSwitchId());
+        log.info("[AliyunInstancePool] [模拟SDK]     - securityGroupIds: [{}]", networkResources.getSecurityGroupId());
+
+        log.info("[AliyunInstancePool] [模拟SDK] 2. 改打租户标签");
+        log.info("[AliyunInstancePool] [模拟SDK]   构建 TagResourcesRequest: resourceType=instance, tags={}", tags);
+        log.info("[AliyunInstancePool] [模拟SDK]   构建 UntagResourcesRequest: tagKey={}", AliyunEipPool.POOL_TAG_KEY);
+
+        log.info("[AliyunInstancePool] [模拟SDK] 3. 设置实例属性");
+        log.info("[AliyunInstancePool] [模拟SDK]   构建 ModifyInstanceAttributeRequest");
+        log.info("[AliyunInstancePool] [模拟SDK]     - instanceName: {}", request.getInstanceName());
+        log.info("[AliyunInstancePool] [模拟SDK]     - password: {}", request.getPassword() != null ? "***" : "未设置");
+        if (request.getKeyPairName() != null) {
+            log.info("[AliyunInstancePool] [模拟SDK]   构建 AttachKeyPairRequest: keyPairName={}", request.getKeyPairName());
+        }
+
+        log.info("[AliyunInstancePool] [模拟SDK] 4. 启动实例");
+        log.info("[AliyunInstancePool] [模拟SDK]   构建 StartInstanceRequest: instanceId={}", instanceId);
+        log.info("[AliyunInstancePool] [模拟SDK]   调用 client.getAcsResponse(startRequest) - 启动实例");
+        log.info("[AliyunInstancePool] [模拟SDK]   ✓ 预热实例已交付: instanceId={}, instanceName={}",
+                instanceId, request.getInstanceName());
+    }
+
+    /**
+     * 获取实例预热池指标
+     * 按画像给出命中/未命中、空闲数、补充延迟，以及预算占用
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", config.isEnabled());
+        metrics.put("claimed", claimed.get());
+        synchronized (budgetLock) {
+            metrics.put("committedHourlyCost", committedHourlyCost);
+        }
+        metrics.put("hourlyBudget", config.getHourlyBudget());
+        metrics.put("budgetRejections", budgetRejections.get());
+        Map<String, Object> byProfile = new LinkedHashMap<>();
+        pools.forEach((key, pool) -> byProfile.put(key, pool.getMetrics()));
+        metrics.put("profiles", byProfile);
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 判断请求是否可由预热实例满足
+     * 预热实例按默认系统盘、按量付费创建，包年包月、批量或自定义系统盘的请求走 RunInstances
+     */
+    private boolean isEligible(CreateInstanceRequest request) {
+        if (request.getImageKey() == null) {
+            return false;
+        }
+        if (request.getQuantity() != null && request.getQuantity() != 1) {
+            return false;
+        }
+        if (request.getInstanceChargeMode() == InstanceChargeMode.PREPAID) {
+            return false;
+        }
+        if (request.getSystemDiskType() != null
+                && !request.getSystemDiskType().equals(properties.getDefaultSystemDiskCategory())) {
+            return false;
+        }
+        return request.getSystemDiskSize() == null
+                || request.getSystemDiskSize().equals(properties.getDefaultSystemDiskSize());
+    }
+
+    /**
+     * 预建一个停机的实例（预热池补充时在网络执行器上调用）
+     *
+     * @param key 画像Key
+     * @return 预热实例，超出成本预算时返回null（暂停补充）
+     */
+    private PooledInstance provision(String key) {
+        CoordinationService current = coordination;
+        if (current != null && !current.tryLease(BUDGET_LEASE, BUDGET_LEASE_MILLIS)) {
+            log.info("[AliyunInstancePool] 其他节点正在补充预热实例，暂停补充: profile={}", key);
+            return null;
+        }
+        try {
+            return provision(key, current != null);
+        } finally {
+            if (current != null) {
+                current.releaseLease(BUDGET_LEASE);
+            }
+        }
+    }
+
+    private PooledInstance provision(String key, boolean shared) {
+        AliyunEcsProperties.Profile profile = profiles.get(key);
+        BigDecimal hourlyCost = profile.getHourlyCost() != null ? profile.getHourlyCost() : BigDecimal.ZERO;
+        if (!reserveBudget(hourlyCost, shared ? sharedHourlyCost() : BigDecimal.ZERO)) {
+            budgetRejections.incrementAndGet();
+            log.warn("[AliyunInstancePool] 超出预热成本预算，暂停补充: profile={}, hourlyCost={}, budget={}",
+                    key, hourlyCost, config.getHourlyBudget());
+            return null;
+        }
+
+        try {
+            String region = profile.getRegion() != null ? profile.getRegion() : properties.getRegionId();
+            String imageId = parameterMapper.resolveImageId(region, null, profile.getImageKey());
+            Map<String, String> poolTags = new HashMap<>();
+            poolTags.put(AliyunEipPool.POOL_TAG_KEY, POOL_TAG_INSTANCE);
+            poolTags.put(TenantTagInjector.CREATED_BY_TAG_KEY, TenantTagInjector.CREATED_BY_TAG_VALUE);
+            AliyunNetworkManager.NetworkResources network = networkManager.ensureNetworkResources(
+                    POOL_OWNER, region, profile.getZone(), poolTags);
+
+            log.info("[AliyunInstancePool] [模拟SDK] 预建实例: profile={}", key);
+            log.info("[AliyunInstancePool] [模拟SDK]   构建 RunInstancesRequest");
+            log.info("[AliyunInstancePool] [模拟SDK]     - regionId: {}", region);
+            log.info("[AliyunInstancePool] [模拟SDK]     - zoneId: {}", profile.getZone() != null ? profile.getZone() : "默认可用区");
+            log.info("[AliyunInstancePool] [模拟SDK]     - instanceType: {}", profile.getInstanceType());
+            log.info("[AliyunInstancePool] [模拟SDK]     - imageId: {}", imageId);
+            log.info("[AliyunInstancePool] [模拟SDK]     - vSwitchId: {}", network.getVSwitchId());
+            log.info("[AliyunInstancePool] [模拟SDK]     - instanceChargeType: PostPaid");
+            log.info("[AliyunInstancePool] [模拟SDK]     - tags: {}", poolTags);
+            String instanceId = "i-pool-" + System.nanoTime();
+            log.info("[AliyunInstancePool] [模拟SDK]   收到 RunInstancesResponse: instanceIdSets=[{}]", instanceId);
+            log.info("[AliyunInstancePool] [模拟SDK]   等待实例 Running 后停机");
+            log.info("[AliyunInstancePool] [模拟SDK]   构建 StopInstanceRequest: instanceId={}, stoppedMode=StopCharging", instanceId);
+            log.info("[AliyunInstancePool] [模拟SDK]   ✓ 预热实例就绪: instanceId={}, profile={}", instanceId, key);
+            budgetedInstances.add(instanceId);
+            return new PooledInstance(instanceId, key, region, profile.getZone(),
+                    profile.getInstanceType(), imageId, hourlyCost);
+        } catch (RuntimeException e) {
+            releaseBudget(hourlyCost);
+            throw e;
+        }
+    }
+
+    /**
+     * 查询带有池标签的停机实例（重启后回收，以及多节点间的共享库存）
+     */
+    private List<PooledInstance> describePooledInstances(String key) {
+        log.info("[AliyunInstancePool] [模拟SDK] 查询预热实例: profile={}", key);
+        log.info("[AliyunInstancePool] [模拟SDK]   构建 DescribeInstancesRequest: status=Stopped, tag {}={}",
+                AliyunEipPool.POOL_TAG_KEY, POOL_TAG_INSTANCE);
+        log.info("[AliyunInstancePool] [模拟SDK]   收到 DescribeInstancesResponse: instances=[]");
+        return new ArrayList<>();
+    }
+
+    /**
+     * 新获得画像时认领的云端空闲实例，计入本节点预算
+     */
+    private List<PooledInstance> adoptable(String key) {
+        List<PooledInstance> instances = describePooledInstances(key);
+        instances.forEach(this::budget);
+        return instances;
+    }
+
+    /**
+     * 云端全部画像的空闲实例每小时成本（多节点合计）
+     */
+    private BigDecimal sharedHourlyCost() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (String key : pools.keySet()) {
+            for (PooledInstance instance : describePooledInstances(key)) {
+                total = total.add(instance.getHourlyCost());
+            }
+        }
+        return total;
+    }
+
+    private void budget(PooledInstance instance) {
+        if (budgetedInstances.add(instance.getInstanceId())) {
+            synchronized (budgetLock) {
+                committedHourlyCost = committedHourlyCost.add(instance.getHourlyCost());
+            }
+        }
+    }
+
+    /**
+     * 实例被取用或交出后移出本节点预算（从共享库存取用的实例不在本节点预算中）
+     */
+    private void unbudget(PooledInstance instance) {
+        if (budgetedInstances.remove(instance.getInstanceId())) {
+            releaseBudget(instance.getHourlyCost());
+        }
+    }
+
+    /**
+     * 预占成本预算
+     *
+     * @param hourlyCost 新实例每小时成本
+     * @param sharedCost 云端所有节点空闲实例的每小时成本，与本节点已占用成本取较大者作为已占用
+     * @return 预算充足返回true
+     */
+    private boolean reserveBudget(BigDecimal hourlyCost, BigDecimal sharedCost) {
+        BigDecimal budget = config.getHourlyBudget();
+        synchronized (budgetLock) {
+            BigDecimal next = committedHourlyCost.max(sharedCost).add(hourlyCost);
+            if (budget != null && budget.signum() > 0 && next.compareTo(budget) > 0) {
+                return false;
+            }
+            committedHourlyCost = committedHourlyCost.add(hourlyCost);
+            return true;
+        }
+    }
+
+    private void releaseBudget(BigDecimal hourlyCost) {
+        synchronized (budgetLock) {
+            committedHourlyCost = committedHourlyCost.subtract(hourlyCost).max(BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * 画像Key
+     */
+    private static String profileKey(String region, String instanceType, String imageKey) {
+        return region + "|" + instanceType + "|" + imageKey;
+    }
+}
@@ -0,0 +1,360 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阿里云实例规格目录
+ * 按区域从 DescribeInstanceTypes 与价格数据构建规格索引，按 (vCPU, 内存, GPU型号) 需求返回满足条件的最便宜规格
+ *
+ * 索引结构（每个区域、每个GPU型号一组，CPU规格的GPU型号为空串）：
+ * - 按 vCPU 阈值分段：第 i 段包含 vCPU >= 第 i 个阈值的全部规格，段内按内存升序排列
+ * - 每段预计算“后缀最低成本”下标：suffixMin[j] 为内存 >= memory[j] 的规格中成本最低者
+ * 查询时对 vCPU 阈值、段内内存各做一次二分，O(log n)，不分配对象
+ *
+ * 缺少价格数据的规格按 vCPU/内存/GPU 数量估算成本（即返回“最接近需求”的规格）
+ *
+ * @author guo
+ */
+@Slf4j
+public class AliyunInstanceTypeCatalog {
+
+    /**
+     * 无价格数据时的估算单价（元/小时）：每 vCPU、每 GB 内存、每张 GPU
+     */
+    private static final double PROXY_PRICE_PER_VCPU = 0.12;
+    private static final double PROXY_PRICE_PER_GB = 0.016;
+    private static final double PROXY_PRICE_PER_GPU = 8.0;
+
+    /**
+     * CPU规格的GPU分组Key
+     */
+    private static final String NO_GPU = "";
+
+    private final AliyunEcsProperties properties;
+    private final AliyunEcsProperties.InstanceTypeCatalog config;
+
+    /**
+     * 当前索引：region -> (gpuModel -> 规格索引)，整体替换
+     */
+    private volatile Map<String, Map<String, SpecIndex>> indexes = Collections.emptyMap();
+
+    private ScheduledExecutorService refresher;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    /**
+     * 实例规格
+     */
+    public static class InstanceTypeSpec {
+        private final String instanceType;
+        private final int vcpu;
+        private final double memoryGb;
+        private final String gpuModel;
+        private final int gpuCount;
+        private final Double hourlyPrice;
+
+        public InstanceTypeSpec(String instanceType, int vcpu, double memoryGb, String gpuModel, int gpuCount,
+                                Double hourlyPrice) {
+            this.instanceType = instanceType;
+            this.vcpu = vcpu;
+            this.memoryGb = memoryGb;
+            this.gpuModel = gpuModel;
+            this.gpuCount = gpuCount;
+            this.hourlyPrice = hourlyPrice;
+        }
+
+        public String getInstanceType() { return instanceType; }
+        public int getVcpu() { return vcpu; }
+        public double getMemoryGb() { return memoryGb; }
+        public String getGpuModel() { return gpuModel; }
+        public int getGpuCount() { return gpuCount; }
+        public Double getHourlyPrice() { return hourlyPrice; }
+
+        /**
+         * 排序成本：有价格时用价格，否则按规格估算
+         */
+        double cost() {
+            if (hourlyPrice != null) {
+                return hourlyPrice;
+            }
+            return vcpu * PROXY_PRICE_PER_VCPU + memoryGb * PROXY_PRICE_PER_GB + gpuCount * PROXY_PRICE_PER_GPU;
+        }
+
+        @Override
+        public String toString() {
+            return instanceType + "(" + vcpu + "C" + memoryGb + "G"
+                    + (gpuModel != null ? "," + gpuCount + "x" + gpuModel : "") + ")";
+        }
+    }
+
+    /**
+     * 单个GPU分组的规格索引（构建后不可变）
+     */
+    static final class SpecIndex {
+        /**
+         * 升序去重的 vCPU 阈值
+         */
+        private final int[] vcpuThresholds;
+
+        /**
+         * 每个阈值段内按内存升序的内存值
+         */
+        private final double[][] memories;
+
+        /**
+         * 每个阈值段内按内存升序的规格
+         */
+        private final InstanceTypeSpec[][] specs;
+
+        /**
+         * 每个阈值段内的后缀最低成本下标
+         */
+        private final int[][] suffixMin;
+
+        SpecIndex(List<InstanceTypeSpec> group) {
+            vcpuThresholds = group.stream().mapToInt(InstanceTypeSpec::getVcpu).distinct().sorted().toArray();
+            memories = new double[vcpuThresholds.length][];
+            specs = new InstanceTypeSpec[vcpuThresholds.length][];
+            suffixMin = new int[vcpuThresholds.length][];
+            for (int i = 0; i < vcpuThresholds.length; i++) {
+                int threshold = vcpuThresholds[i];
+                InstanceTypeSpec[] segment = group.stream()
+                        .filter(spec -> spec.getVcpu() >= threshold)
+                        .sorted(Comparator.comparingDouble(InstanceTypeSpec::getMemoryGb))
+                        .toArray(InstanceTypeSpec[]::new);
+                double[] memory = new double[segment.length];
+                int[] best = new int[segment.length];
+                for (int j = segment.length - 1; j >= 0; j--) {
+                    memory[j] = segment[j].getMemoryGb();
+                    best[j] = j == segment.length - 1 || segment[j].cost() <= segment[best[j + 1]].cost()
+                            ? j : best[j + 1];
+                }
+                specs[i] = segment;
+                memories[i] = memory;
+                suffixMin[i] = best;
+            }
+        }
+
+        /**
+         * 查找 vCPU >= cpu 且内存 >= memoryGb 的最低成本规格
+         */
+        InstanceTypeSpec cheapest(int cpu, double memoryGb) {
+            int i = lowerBound(vcpuThresholds, cpu);
+            if (i == vcpuThresholds.length) {
+                return null;
+            }
+            int j = lowerBound(memories[i], memoryGb);
+            if (j == memories[i].length) {
+                return null;
+            }
+            return specs[i][suffixMin[i][j]];
+        }
+
+        int size() {
+            return vcpuThresholds.length == 0 ? 0 : specs[0].length;
+        }
+
+        private static int lowerBound(int[] values, int key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int lowerBound(double[] values, double key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param properties 阿里云配置
+     */
+    public AliyunInstanceTypeCatalog(AliyunEcsProperties properties) {
+        this.properties = properties;
+        this.config = properties.getInstanceTypeCatalog();
+    }
+
+    /**
+     * 启动：首次加载并按 refreshInterval 定期刷新
+     */
+    @PostConstruct
+    public void start() {
+        refresh();
+        if (config.getRefreshInterval() > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "aliyun-instance-type-catalog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refresh, config.getRefreshInterval(),
+                    config.getRefreshInterval(), TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 停止定期刷新
+     */
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * 查找满足需求的最便宜规格
+     *
+     * @param region 区域
+     * @param cpu 最少 vCPU 数，为null时不限
+     * @param memoryGb 最少内存(GB)，为null时不限
+     * @param gpuModel GPU型号，为null时只在CPU规格中查找
+     * @return 规格，区域未加载或无满足条件的规格时返回null
+     */
+    public InstanceTypeSpec findCheapest(String region, Integer cpu, Integer memoryGb, String gpuModel) {
+        Map<String, SpecIndex> byGpu = indexes.get(region != null ? region : properties.getRegionId());
+        if (byGpu == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        SpecIndex index = byGpu.get(gpuModel != null ? gpuModel : NO_GPU);
+        if (index == null && gpuModel != null) {
+            index = byGpu.get(gpuModel.toUpperCase(Locale.ROOT));
+        }
+        InstanceTypeSpec spec = index != null
+                ? index.cheapest(cpu != null ? cpu : 0, memoryGb != null ? memoryGb : 0) : null;
+        if (spec == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return spec;
+    }
+
+    /**
+     * 刷新所有区域的规格索引并原子替换
+     * 单个区域加载失败时保留该区域的旧索引
+     */
+    public synchronized void refresh() {
+        Map<String, Map<String, SpecIndex>> previous = indexes;
+        Set<String> regions = new LinkedHashSet<>(config.getRegions());
+        if (regions.isEmpty()) {
+            regions.add(properties.getRegionId());
+        }
+
+        Map<String, Map<String, SpecIndex>> next = new HashMap<>();
+        for (String region : regions) {
+            try {
+                Map<String, List<InstanceTypeSpec>> groups = new HashMap<>();
+                for (InstanceTypeSpec spec : describeInstanceTypes(region)) {
+                    String key = spec.getGpuModel() != null ? spec.getGpuModel().toUpperCase(Locale.ROOT) : NO_GPU;
+                    groups.computeIfAbsent(key, k -> new ArrayList<>()).add(spec);
+                }
+                Map<String, SpecIndex> byGpu = new HashMap<>();
+                groups.forEach((gpu, group) -> byGpu.put(gpu, new SpecIndex(group)));
+                next.put(region, Collections.unmodifiableMap(byGpu));
+            } catch (Exception e) {
+                refreshFailures.incrementAndGet();
+                if (previous.containsKey(region)) {
+                    next.put(region, previous.get(region));
+                }
+                log.error("[AliyunInstanceTypeCatalog] 加载区域规格失败，保留旧索引: region={}, error={}",
+                        region, e.getMessage(), e);
+            }
+        }
+        indexes = Collections.unmodifiableMap(next);
+        refreshes.incrementAndGet();
+        log.info("[AliyunInstanceTypeCatalog] 规格目录已刷新: regions={}", next.keySet());
+    }
+
+    /**
+     * 获取规格目录指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        Map<String, Object> sizes = new LinkedHashMap<>();
+        indexes.forEach((region, byGpu) -> {
+            Map<String, Integer> groupSizes = new LinkedHashMap<>();
+            byGpu.forEach((gpu, index) -> groupSizes.put(gpu.isEmpty() ? "CPU" : gpu, index.size()));
+            sizes.put(region, groupSizes);
+        });
+        metrics.put("regions", sizes);
+        metrics.put("refreshes", refreshes.get());
+        metrics.put("refreshFailures", refreshFailures.get());
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 查询区域可用的实例规格及按量价格
+     */
+    private List<InstanceTypeSpec> describeInstanceTypes(String region) {
+        log.info("[AliyunInstanceTypeCatalog] [模拟SDK] 加载区域规格");
+        log.info("[AliyunInstanceTypeCatalog] [模拟SDK]   构建 DescribeInstanceTypesRequest (分页直到 nextToken 为空)");
+        log.info("[AliyunInstanceTypeCatalog] [模拟SDK]   构建 DescribePriceRequest: regionId={}, priceUnit=Hour", region);
+        List<InstanceTypeSpec> specs = Arrays.asList(
+                new InstanceTypeSpec("ecs.c7.large", 2, 4, null, 0, 0.39),
+                new InstanceTypeSpec("ecs.c7.xlarge", 4, 8, null, 0, 0.78),
+                new InstanceTypeSpec("ecs.c7.2xlarge", 8, 16, null, 0, 1.56),
+                new InstanceTypeSpec("ecs.c7.4xlarge", 16, 32, null, 0, 3.12),
+                new InstanceTypeSpec("ecs.g7.large", 2, 8, null, 0, 0.49),
+                new InstanceTypeSpec("ecs.g7.xlarge", 4, 16, null, 0, 0.98),
+                new InstanceTypeSpec("ecs.g7.2xlarge", 8, 32, null, 0, 1.96),
+                new InstanceTypeSpec("ecs.g7.4xlarge", 16, 64, null, 0, 3.92),
+                new InstanceTypeSpec("ecs.r7.large", 2, 16, null, 0, 0.64),
+                new InstanceTypeSpec("ecs.r7.xlarge", 4, 32, null, 0, 1.28),
+                new InstanceTypeSpec("ecs.r7.2xlarge", 8, 64, null, 0, 2.56),
+                new InstanceTypeSpec("ecs.gn6i-c4g1.xlarge", 4, 15, "T4", 1, 11.2),
+                new InstanceTypeSpec("ecs.gn6i-c8g1.2xlarge", 8, 31, "T4", 1, 13.4),
+                new InstanceTypeSpec("ecs.gn6v-c8g1.2xlarge", 8, 32, "V100", 1, 26.4),
+                new InstanceTypeSpec("ecs.gn7i-c8g1.2xlarge", 8, 30, "A10", 1, 14.9),
+                new InstanceTypeSpec("ecs.gn7e-c16g1.4xlarge", 16, 125, "A100", 1, 34.7));
+        log.info("[AliyunInstanceTypeCatalog] [模拟SDK]   收到 DescribeInstanceTypesResponse: region={}, instanceTypes={}",
+                region, specs.size());
+        return specs;
+    }
+}
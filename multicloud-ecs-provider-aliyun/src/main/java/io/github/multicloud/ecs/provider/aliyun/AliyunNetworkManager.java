@@ -1,27 +1,204 @@
 package io.github.multicloud.ecs.provider.aliyun;
 
 import io.github.multicloud.ecs.api.exception.EcsException;
-import lombok.RequiredArgsConstructor;
+import io.github.multicloud.ecs.core.concurrent.VirtualThreadExecutor;
+import io.github.multicloud.ecs.core.coordination.CoordinationService;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import io.github.multicloud.ecs.core.network.CidrAllocator;
+import io.github.multicloud.ecs.core.pool.WarmPool;
+import io.github.multicloud.ecs.core.util.TenantTagInjector;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * 阿里云网络资源管理器
  * 负责透明网络供应：自动查找或创建VPC、VSwitch、SecurityGroup
  *
+ * 异步操作（EIP、安全组规则）运行在专用的网络执行器上，不占用 ForkJoinPool.commonPool()，
+ * 每个异步操作都有截止时间，超时后异步结果以异常结束并中断执行线程
+ *
+ * 启用网络栈预热池时，新用户首次创建直接认领预建的网络栈（改打 Owner 标签），无需等待VPC创建
+ *
+ * 由 AliyunEcsAutoConfiguration 创建并接入多节点协调（不参与组件扫描）
+ *
  * @author guo
  */
 @Slf4j
-@Component
-@RequiredArgsConstructor
 public class AliyunNetworkManager {
 
     private final AliyunEcsProperties properties;
 
+    /**
+     * 网络异步操作执行器（由 AliyunEcsAutoConfiguration 提供）
+     */
+    private final Executor networkExecutor;
+    private final AliyunSdkClientFactory sdkClientFactory;
+
+    /**
+     * EIP预热池
+     */
+    private final AliyunEipPool eipPool;
+
+    /**
+     * 已绑定的EIP：instanceId -> EIP（删除实例时归还EIP池）
+     */
+    private final Map<String, AliyunEipPool.EipAddress> boundEips = new ConcurrentHashMap<>();
+
+    /**
+     * 网络栈预热池：region[/zone] -> 未分配的网络栈
+     */
+    private final WarmPool<NetworkResources> stackPool;
+
+    /**
+     * 截止时间调度器：到期后使异步操作以超时异常结束
+     */
+    private final ScheduledExecutorService deadlineScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "aliyun-network-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 单次 AuthorizeSecurityGroup 请求最多携带的规则数
+     */
+    private static final int MAX_PERMISSIONS_PER_REQUEST = 100;
+
+    /**
+     * 预建网络栈的池标签值
+     */
+    private static final String POOL_TAG_NETWORK = "network";
+
+    /**
+     * 预建网络栈取用租约有效期：覆盖从取用到改打用户标签
+     */
+    private static final long CLAIM_LEASE_MILLIS = 60_000;
+
+    /**
+     * VPC网段分配器：region -> 分配器（当前账号）
+     */
+    private final Map<String, CidrAllocator> cidrAllocators = new ConcurrentHashMap<>();
+
+    /**
+     * 安全组已授权端口缓存：securityGroupId -> 已授权的TCP入站端口
+     */
+    private final Map<String, Set<Integer>> authorizedPorts = new ConcurrentHashMap<>();
+
+    /**
+     * 安全组进行中的授权操作：securityGroupId -> 最后一次授权（同一安全组的授权串行执行）
+     */
+    private final Map<String, CompletableFuture<Void>> securityGroupOperations = new ConcurrentHashMap<>();
+
+    /**
+     * 正在执行的异步操作数
+     */
+    private final AtomicInteger inFlightOperations = new AtomicInteger();
+
+    /**
+     * 超时的异步操作数
+     */
+    private final AtomicLong timedOutOperations = new AtomicLong();
+
+    /**
+     * 被执行器拒绝的异步操作数
+     */
+    private final AtomicLong rejectedOperations = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param properties 阿里云配置
+     * @param networkExecutor 网络异步操作执行器
+     * @param eipPool EIP预热池
+     * @param sdkClientFactory SDK客户端工厂
+     */
+    public AliyunNetworkManager(AliyunEcsProperties properties,
+                                @Qualifier("aliyunNetworkExecutor") Executor networkExecutor,
+                                AliyunEipPool eipPool,
+                                AliyunSdkClientFactory sdkClientFactory) {
+        this.properties = properties;
+        this.networkExecutor = networkExecutor;
+        this.eipPool = eipPool;
+        this.sdkClientFactory = sdkClientFactory;
+        AliyunEcsProperties.NetworkStackPool poolConfig = properties.getNetworkStackPool();
+        this.stackPool = new WarmPool<>("network-stack", networkExecutor, poolConfig.getLowWaterMark(),
+                poolConfig.getTargetSize(), poolConfig.getMaxSize(), this::provisionPooledStack);
+    }
+
+    /**
+     * 接入多节点协调：每个目标的网络栈池只由负责该目标的节点补充和认领，存活节点变化后由新的负责节点补充
+     *
+     * @param coordination 协调服务
+     */
+    public void setCoordinationService(CoordinationService coordination) {
+        stackPool.setRefillGate(target -> coordination.owns("pool:network-stack|" + target));
+        // 非负责节点从云端共享库存取用，每个网络栈交付前获取 pool-claim 租约（认领后改打用户标签，不再出现在共享库存中）
+        stackPool.setSharedInventory(this::describePooledStacks,
+                stack -> coordination.tryLease("pool-claim:network-stack|" + stack.getVpcId(), CLAIM_LEASE_MILLIS));
+        coordination.addMembershipListener(nodes -> {
+            if (properties.getNetworkStackPool().isEnabled()) {
+                stackPoolTargets().forEach(target -> stackPool.rebalance(target, () -> describePooledStacks(target)));
+            }
+        });
+    }
+
+    /**
+     * 启动预热网络栈池：回收已有的未分配网络栈，并补充到目标数量
+     */
+    @PostConstruct
+    public void warmUpNetworkStackPool() {
+        AliyunEcsProperties.NetworkStackPool poolConfig = properties.getNetworkStackPool();
+        if (!poolConfig.isEnabled()) {
+            return;
+        }
+        List<String> targets = stackPoolTargets();
+        log.info("[AliyunNetworkManager] 开始预热网络栈池: targets={}, lowWaterMark={}, targetSize={}, maxSize={}",
+                targets, poolConfig.getLowWaterMark(), poolConfig.getTargetSize(), poolConfig.getMaxSize());
+        for (String target : targets) {
+            for (NetworkResources stack : describePooledStacks(target)) {
+                stackPool.adopt(target, stack);
+            }
+            stackPool.refill(target);
+        }
+    }
+
+    private List<String> stackPoolTargets() {
+        AliyunEcsProperties.NetworkStackPool poolConfig = properties.getNetworkStackPool();
+        return poolConfig.getTargets().isEmpty()
+                ? Collections.singletonList(properties.getRegionId()) : poolConfig.getTargets();
+    }
+
     /**
      * 网络资源信息
      */
@@ -44,6 +221,31 @@ public class AliyunNetworkManager {
         public String getCidrBlock() { return cidrBlock; }
     }
 
+    /**
+     * 端口段（对应安全组规则的 PortRange，格式 from/to）
+     */
+    static class PortRange {
+        private final int from;
+        private final int to;
+
+        PortRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        int getFrom() { return from; }
+        int getTo() { return to; }
+
+        String toPortRange() {
+            return from + "/" + to;
+        }
+
+        @Override
+        public String toString() {
+            return toPortRange();
+        }
+    }
+
     /**
      * 确保用户拥有独立的网络资源（幂等操作）
      * 如果不存在则创建，存在则直接返回
@@ -60,6 +262,7 @@ public class AliyunNetworkManager {
 
         try {
             // 1. 查找是否存在带有 Owner: {userId} 标签的VPC
+            EcsDeadline.check("DescribeVpcs");
             String existingVpcId = findVpcByUserTag(userId, region);
             
             if (existingVpcId != null) {
@@ -68,10 +271,19 @@ public class AliyunNetworkManager {
                 return findExistingNetworkResources(existingVpcId, userId, region, zone);
             }
 
-            // 2. VPC不存在，需要创建
+            // 2. VPC不存在，优先从网络栈预热池认领
+            NetworkResources pooled = claimPooledStack(userId, region, zone, tags);
+            if (pooled != null) {
+                return pooled;
+            }
+
+            // 3. 预热池未启用或为空，需要创建
             log.info("[AliyunNetworkManager] VPC不存在，开始创建: userId={}", userId);
+            EcsDeadline.check("CreateVpc");
             return createNetworkResources(userId, region, zone, tags);
 
+        } catch (EcsException e) {
+            throw e;
         } catch (Exception e) {
             // 处理配额错误
             if (e.getMessage() != null && e.getMessage().contains("QuotaExceeded")) {
@@ -128,7 +340,46 @@ public class AliyunNetworkManager {
         
         log.info("[AliyunNetworkManager] [模拟SDK] ✓ 找到现有网络资源: vpcId={}, vSwitchId={}, securityGroupId={}", 
                 vpcId, mockVSwitchId, mockSecurityGroupId);
-        return new NetworkResources(vpcId, mockVSwitchId, mockSecurityGroupId, "172.16.0.0/12");
+        // 网段以分配器记录为准；分配器中没有记录（如网段不是本框架分配的）时不猜测，留空
+        String cidrBlock = cidrAllocator(region).lookup(userId);
+        if (cidrBlock == null) {
+            log.info("[AliyunNetworkManager] 网段分配器中没有该用户的记录，不记录网段: userId={}, vpcId={}", userId, vpcId);
+        }
+        return new NetworkResources(vpcId, mockVSwitchId, mockSecurityGroupId, cidrBlock);
+    }
+
+    /**
+     * 删除用户的网络资源（SecurityGroup -> VSwitch -> VPC），并释放其VPC网段
+     * 网段只在云端资源删除成功后释放，删除失败时保留，避免被分配给其他用户后网段冲突
+     *
+     * @param userId 用户ID
+     * @param region 区域
+     * @throws EcsException 删除失败时抛出
+     */
+    public void deleteNetworkResources(String userId, String region) throws EcsException {
+        log.info("[AliyunNetworkManager] 开始删除网络资源: userId={}, region={}", userId, region);
+        try {
+            String vpcId = findVpcByUserTag(userId, region);
+            if (vpcId != null) {
+                NetworkResources resources = findExistingNetworkResources(vpcId, userId, region, null);
+                log.info("[AliyunNetworkManager] [模拟SDK] ========== 开始删除网络资源 ==========");
+                log.info("[AliyunNetworkManager] [模拟SDK] 1. 删除SecurityGroup");
+                log.info("[AliyunNetworkManager] [模拟SDK]   构建 DeleteSecurityGroupRequest: securityGroupId={}",
+                        resources.getSecurityGroupId());
+                log.info("[AliyunNetworkManager] [模拟SDK] 2. 删除VSwitch");
+                log.info("[AliyunNetworkManager] [模拟SDK]   构建 DeleteVSwitchRequest: vSwitchId={}", resources.getVSwitchId());
+                log.info("[AliyunNetworkManager] [模拟SDK] 3. 删除VPC");
+                log.info("[AliyunNetworkManager] [模拟SDK]   构建 DeleteVpcRequest: vpcId={}", vpcId);
+                log.info("[AliyunNetworkManager] [模拟SDK] ========== 网络资源删除完成 ==========");
+                evictSecurityGroupRules(resources.getSecurityGroupId());
+            }
+        } catch (EcsException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EcsException(properties.getProviderCode(), "NETWORK_DELETE_FAILED",
+                    "删除网络资源失败: " + e.getMessage(), e);
+        }
+        cidrAllocator(region).release(userId);
     }
 
     /**
@@ -139,9 +390,22 @@ public class AliyunNetworkManager {
         log.info("[AliyunNetworkManager] [模拟SDK] userId={}, region={}, zone={}, tags={}", userId, region, zone, tags);
         
         // 1. 计算CIDR网段
-        String cidrBlock = calculateCidrBlock(userId);
+        String cidrBlock = calculateCidrBlock(userId, region);
         log.info("[AliyunNetworkManager] [模拟SDK] 1. 计算CIDR网段: cidrBlock={}", cidrBlock);
-        
+        try {
+            return createNetworkResources(userId, region, zone, tags, cidrBlock);
+        } catch (RuntimeException e) {
+            // 创建失败时释放网段，不占用分配器容量
+            cidrAllocator(region).release(userId);
+            throw e;
+        }
+    }
+
+    /**
+     * 在已分配的网段上依次创建 VPC、VSwitch、SecurityGroup
+     */
+    private NetworkResources createNetworkResources(String userId, String region, String zone, Map<String, String> tags,
+                                                    String cidrBlock) {
         // 2. 创建VPC
         log.info("[AliyunNetworkManager] [模拟SDK] 2. 创建VPC");
         log.info("[AliyunNetworkManager] [模拟SDK]   构建 CreateVpcRequest");
@@ -194,90 +458,505 @@ public class AliyunNetworkManager {
     }
 
     /**
-     * 计算用户的CIDR网段
-     * 基于userId的hash值，从172.16.0.0/12中分配
-     * TODO: SDK接入后实现
+     * 从网络栈预热池认领一个网络栈，并改打用户标签
+     *
+     * @return 认领到的网络栈，预热池未启用或为空时返回null
+     */
+    private NetworkResources claimPooledStack(String userId, String region, String zone, Map<String, String> tags) {
+        if (!properties.getNetworkStackPool().isEnabled()) {
+            return null;
+        }
+        NetworkResources stack = stackPool.poll(stackKey(region, zone));
+        if (stack == null) {
+            return null;
+        }
+
+        // 预建网络栈的网段转给认领用户，保证该用户后续查询到同一网段
+        cidrAllocator(region).reassign(stack.getCidrBlock(), userId);
+
+        Map<String, String> ownerTags = new HashMap<>(tags);
+        ownerTags.put(TenantTagInjector.USER_TAG_KEY, userId);
+        log.info("[AliyunNetworkManager] [模拟SDK] 认领预建网络栈: userId={}, vpcId={}, vSwitchId={}, securityGroupId={}",
+                userId, stack.getVpcId(), stack.getVSwitchId(), stack.getSecurityGroupId());
+        log.info("[AliyunNetworkManager] [模拟SDK]   构建 TagResourcesRequest (VPC)");
+        log.info("[AliyunNetworkManager] [模拟SDK]     - resourceType: VPC, resourceIds: [{}]", stack.getVpcId());
+        log.info("[AliyunNetworkManager] [模拟SDK]     - tags: {}", ownerTags);
+        log.info("[AliyunNetworkManager] [模拟SDK]   构建 TagResourcesRequest (VSWITCH)");
+        log.info("[AliyunNetworkManager] [模拟SDK]     - resourceType: VSWITCH, resourceIds: [{}]", stack.getVSwitchId());
+        log.info("[AliyunNetworkManager] [模拟SDK]   构建 TagResourcesRequest (ECS)");
+        log.info("[AliyunNetworkManager] [模拟SDK]     - resourceType: securitygroup, resourceIds: [{}]", stack.getSecurityGroupId());
+        log.info("[AliyunNetworkManager] [模拟SDK]   构建 UntagResourcesRequest: tagKey={}", AliyunEipPool.POOL_TAG_KEY);
+        log.info("[AliyunNetworkManager] [模拟SDK]   ✓ 网络栈认领完成: userId={}, vpcId={}", userId, stack.getVpcId());
+        return stack;
+    }
+
+    /**
+     * 预建一个未分配的网络栈（预热池补充时在网络执行器上调用）
+     *
+     * @param key 预热池Key，格式 region 或 region/zone
+     */
+    private NetworkResources provisionPooledStack(String key) {
+        int slash = key.indexOf('/');
+        String region = slash < 0 ? key : key.substring(0, slash);
+        String zone = slash < 0 ? null : key.substring(slash + 1);
+
+        Map<String, String> poolTags = new HashMap<>();
+        poolTags.put(AliyunEipPool.POOL_TAG_KEY, POOL_TAG_NETWORK);
+        poolTags.put(TenantTagInjector.CREATED_BY_TAG_KEY, TenantTagInjector.CREATED_BY_TAG_VALUE);
+        return createNetworkResources("pool-" + System.nanoTime(), region, zone, poolTags);
+    }
+
+    /**
+     * 查询带有池标签且未分配的网络栈（重启后回收，以及多节点间的共享库存）
      */
-    @SuppressWarnings("unused")
-    private String calculateCidrBlock(String userId) {
-        // 简单实现：基于userId的hash值计算
-        int hash = Math.abs(userId.hashCode());
-        int subnet = hash % 4096; // 172.16.0.0/12 有4096个子网
-        int thirdOctet = subnet / 256;
-        return String.format("172.%d.%d.0/24", 16 + thirdOctet / 16, (thirdOctet % 16) * 16);
+    private List<NetworkResources> describePooledStacks(String key) {
+        log.info("[AliyunNetworkManager] [模拟SDK] 查询预建网络栈: key={}", key);
+        log.info("[AliyunNetworkManager] [模拟SDK]   构建 DescribeVpcsRequest: tag {}={}", AliyunEipPool.POOL_TAG_KEY, POOL_TAG_NETWORK);
+        log.info("[AliyunNetworkManager] [模拟SDK]   收到 DescribeVpcsResponse: vpcs=[]");
+        return new ArrayList<>();
+    }
+
+    /**
+     * 网络栈预热池Key
+     */
+    private static String stackKey(String region, String zone) {
+        return zone == null || zone.isEmpty() ? region : region + "/" + zone;
+    }
+
+    /**
+     * 为用户分配VPC网段
+     * 从当前账号+区域的分配器中分配一个不冲突的 /24（172.16.0.0/12 内），同一用户重复调用返回同一网段
+     *
+     * @throws EcsException 网段已耗尽时抛出
+     */
+    private String calculateCidrBlock(String userId, String region) {
+        String cidrBlock = cidrAllocator(region).allocate(userId);
+        if (cidrBlock == null) {
+            throw EcsException.of(properties.getProviderCode(), "CIDR_EXHAUSTED",
+                    "区域 " + region + " 的VPC网段已耗尽（172.16.0.0/12 共 " + CidrAllocator.CAPACITY + " 个 /24）");
+        }
+        return cidrBlock;
+    }
+
+    /**
+     * 获取区域的网段分配器（按需创建，状态持久化到 cidrStateDir）
+     */
+    private CidrAllocator cidrAllocator(String region) {
+        return cidrAllocators.computeIfAbsent(region, r -> {
+            String stateDir = properties.getCidrStateDir() != null && !properties.getCidrStateDir().isEmpty()
+                    ? properties.getCidrStateDir()
+                    : Paths.get(System.getProperty("user.home"), ".multicloud-ecs", "cidr").toString();
+            Path journal = Paths.get(stateDir, "aliyun-" + accountKey() + "-" + r + ".journal");
+            return new CidrAllocator("aliyun:" + r, journal);
+        });
+    }
+
+    /**
+     * 账号标识：AccessKeyId 的摘要前缀（日志文件名中不出现明文AccessKeyId）
+     */
+    private String accountKey() {
+        String accessKeyId = properties.getAccessKeyId() != null ? properties.getAccessKeyId() : "default";
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(accessKeyId.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 6; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(accessKeyId.hashCode());
+        }
+    }
+
+    /**
+     * 获取VPC网段分配指标
+     *
+     * @return 指标快照：region -> 分配器指标
+     */
+    public Map<String, Object> getCidrMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        cidrAllocators.forEach((region, allocator) -> metrics.put(region, allocator.getMetrics()));
+        return metrics;
+    }
+
+    /**
+     * 校验待开放的端口
+     *
+     * @param ports 端口列表，可为null
+     * @throws EcsException 存在null或超出 1-65535 的端口时抛出
+     */
+    public void validatePorts(List<Integer> ports) throws EcsException {
+        if (ports == null) {
+            return;
+        }
+        for (Integer port : ports) {
+            if (port == null || port < 1 || port > 65535) {
+                throw EcsException.of(properties.getProviderCode(), "INVALID_PORT",
+                        "非法端口: " + port + "（取值范围 1-65535）");
+            }
+        }
     }
 
     /**
      * 为安全组添加端口规则（异步）
+     * 已授权的端口直接跳过（不调用API），其余端口合并为连续端口段后批量授权
+     *
+     * 同一安全组的授权串行执行：并发请求排在进行中的授权之后，轮到时重新核对缓存，
+     * 已被前一次授权覆盖的端口不再重复调用 AuthorizeSecurityGroup
+     *
+     * @param awaited 调用方是否等待结果；只有等待的操作受当前请求截止时间约束，后台操作只受 networkOperationTimeout 约束
+     * @throws EcsException 端口非法时抛出
      */
-    public CompletableFuture<Void> addSecurityGroupRules(String securityGroupId, List<Integer> ports, String region) {
-        return CompletableFuture.runAsync(() -> {
-            if (ports == null || ports.isEmpty()) {
-                return;
+    public CompletableFuture<Void> addSecurityGroupRules(String securityGroupId, List<Integer> ports, String region,
+                                                         boolean awaited) throws EcsException {
+        validatePorts(ports);
+        if (ports == null || ports.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // 缓存命中：所有端口均已授权，无需任何API调用
+        Set<Integer> cached = authorizedPorts.get(securityGroupId);
+        if (cached != null && cached.containsAll(ports)) {
+            log.info("[AliyunNetworkManager] 安全组规则已存在，跳过授权: securityGroupId={}, ports={}",
+                    securityGroupId, ports);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        EcsDeadline deadline = EcsDeadline.current();
+        CompletableFuture<Void> operation = securityGroupOperations.compute(securityGroupId, (k, previous) -> {
+            if (previous == null) {
+                return authorizeSecurityGroup(securityGroupId, ports, region, awaited);
             }
+            log.debug("[AliyunNetworkManager] 安全组授权进行中，排队等待: securityGroupId={}, ports={}",
+                    securityGroupId, ports);
+            // 前一次授权失败不影响本次；本次在前一次完成的线程上发起，恢复调用方的截止时间
+            return previous.handle((v, e) -> null).thenCompose(v -> {
+                try (EcsDeadline.Scope scope = EcsDeadline.attach(deadline)) {
+                    return authorizeSecurityGroup(securityGroupId, ports, region, awaited);
+                }
+            });
+        });
+        operation.whenComplete((v, e) -> securityGroupOperations.remove(securityGroupId, operation));
+        return operation;
+    }
 
+    /**
+     * 授权缺失的端口（端口已校验）
+     */
+    private CompletableFuture<Void> authorizeSecurityGroup(String securityGroupId, List<Integer> ports, String region,
+                                                           boolean awaited) {
+        return supplyAsync("AuthorizeSecurityGroup", AliyunSdkClientFactory.PRODUCT_ECS, region, awaited, () -> {
+            Set<Integer> authorized = loadAuthorizedPorts(securityGroupId, region);
+            Set<Integer> missing = new TreeSet<>();
+            for (Integer port : ports) {
+                if (!authorized.contains(port)) {
+                    missing.add(port);
+                }
+            }
+            if (missing.isEmpty()) {
+                log.info("[AliyunNetworkManager] 安全组规则已存在，跳过授权: securityGroupId={}, ports={}",
+                        securityGroupId, ports);
+                return null;
+            }
+
+            List<PortRange> ranges = mergePortRanges(missing);
             log.info("[AliyunNetworkManager] [模拟SDK] ========== 开始添加安全组规则 ==========");
-            log.info("[AliyunNetworkManager] [模拟SDK] securityGroupId={}, ports={}, region={}", securityGroupId, ports, region);
+            log.info("[AliyunNetworkManager] [模拟SDK] securityGroupId={}, ports={}, region={}, 合并后端口段={}",
+                    securityGroupId, missing, region, ranges);
 
-            for (Integer port : ports) {
-                log.info("[AliyunNetworkManager] [模拟SDK] 处理端口: {}", port);
-                log.info("[AliyunNetworkManager] [模拟SDK]   构建 AuthorizeSecurityGroupRequest");
+            for (int from = 0; from < ranges.size(); from += MAX_PERMISSIONS_PER_REQUEST) {
+                List<PortRange> batch = ranges.subList(from, Math.min(from + MAX_PERMISSIONS_PER_REQUEST, ranges.size()));
+                log.info("[AliyunNetworkManager] [模拟SDK]   构建 AuthorizeSecurityGroupRequest（批量 {} 条规则）", batch.size());
                 log.info("[AliyunNetworkManager] [模拟SDK]     - securityGroupId: {}", securityGroupId);
                 log.info("[AliyunNetworkManager] [模拟SDK]     - regionId: {}", region);
-                log.info("[AliyunNetworkManager] [模拟SDK]     - ipProtocol: tcp");
-                log.info("[AliyunNetworkManager] [模拟SDK]     - portRange: {}/{}", port, port);
-                log.info("[AliyunNetworkManager] [模拟SDK]     - sourceCidrIp: 0.0.0.0/0");
+                for (PortRange range : batch) {
+                    log.info("[AliyunNetworkManager] [模拟SDK]     - permission: ipProtocol=tcp, portRange={}, sourceCidrIp=0.0.0.0/0",
+                            range.toPortRange());
+                }
                 log.info("[AliyunNetworkManager] [模拟SDK]     - description: Auto-opened port for AI compute platform");
-                log.info("[AliyunNetworkManager] [模拟SDK]   调用 client.getAcsResponse(request) - 添加安全组规则");
-                log.info("[AliyunNetworkManager] [模拟SDK]   等待阿里云API响应...");
+                log.info("[AliyunNetworkManager] [模拟SDK]   调用 client.getAcsResponse(request) - 批量添加安全组规则");
                 log.info("[AliyunNetworkManager] [模拟SDK]   收到 AuthorizeSecurityGroupResponse");
-                log.info("[AliyunNetworkManager] [模拟SDK]   ✓ 安全组规则添加成功: securityGroupId={}, port={}", 
-                        securityGroupId, port);
+                for (PortRange range : batch) {
+                    for (int port = range.getFrom(); port <= range.getTo(); port++) {
+                        authorized.add(port);
+                    }
+                }
             }
-            
+
+            log.info("[AliyunNetworkManager] [模拟SDK] ✓ 安全组规则添加成功: securityGroupId={}, ranges={}",
+                    securityGroupId, ranges);
             log.info("[AliyunNetworkManager] [模拟SDK] ========== 安全组规则添加完成 ==========");
+            return null;
         });
     }
 
+    /**
+     * 清除安全组的规则缓存（安全组规则被外部修改时调用）
+     *
+     * @param securityGroupId 安全组ID
+     */
+    public void evictSecurityGroupRules(String securityGroupId) {
+        authorizedPorts.remove(securityGroupId);
+    }
+
+    /**
+     * 获取安全组已授权端口（首次访问时从云端加载，之后读缓存）
+     */
+    private Set<Integer> loadAuthorizedPorts(String securityGroupId, String region) {
+        Set<Integer> cached = authorizedPorts.get(securityGroupId);
+        if (cached != null) {
+            return cached;
+        }
+
+        log.info("[AliyunNetworkManager] [模拟SDK] 加载安全组已有规则: securityGroupId={}, region={}", securityGroupId, region);
+        log.info("[AliyunNetworkManager] [模拟SDK]   构建 DescribeSecurityGroupAttributeRequest");
+        log.info("[AliyunNetworkManager] [模拟SDK]     - securityGroupId: {}", securityGroupId);
+        log.info("[AliyunNetworkManager] [模拟SDK]     - direction: ingress");
+        log.info("[AliyunNetworkManager] [模拟SDK]   调用 client.getAcsResponse(request) - 查询安全组规则");
+        log.info("[AliyunNetworkManager] [模拟SDK]   收到 DescribeSecurityGroupAttributeResponse: permissions=[]");
+        Set<Integer> loaded = ConcurrentHashMap.newKeySet();
+
+        Set<Integer> existing = authorizedPorts.putIfAbsent(securityGroupId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * 将端口合并为连续端口段
+     * 如 [22, 80, 81, 82, 8080] -> [22/22, 80/82, 8080/8080]
+     *
+     * @param ports 端口集合
+     * @return 按起始端口升序排列的端口段
+     */
+    static List<PortRange> mergePortRanges(Collection<Integer> ports) {
+        List<PortRange> ranges = new ArrayList<>();
+        int from = -1;
+        int to = -1;
+        for (Integer port : new TreeSet<>(ports)) {
+            if (from < 0) {
+                from = port;
+            } else if (port != to + 1) {
+                ranges.add(new PortRange(from, to));
+                from = port;
+            }
+            to = port;
+        }
+        if (from >= 0) {
+            ranges.add(new PortRange(from, to));
+        }
+        return ranges;
+    }
+
     /**
      * 申请并绑定EIP（异步）
+     * 优先从EIP预热池取用（只需绑定），池为空时同步申请
+     *
+     * @param awaited 调用方是否等待结果；只有等待的操作受当前请求截止时间约束，后台操作只受 networkOperationTimeout 约束
      */
-    public CompletableFuture<String> allocateAndBindEip(String instanceId, String region) {
-        return CompletableFuture.supplyAsync(() -> {
+    public CompletableFuture<String> allocateAndBindEip(String instanceId, String region, boolean awaited) {
+        return supplyAsync("AllocateAndBindEip", AliyunSdkClientFactory.PRODUCT_VPC, region, awaited, () -> {
             log.info("[AliyunNetworkManager] [模拟SDK] ========== 开始申请并绑定EIP ==========");
             log.info("[AliyunNetworkManager] [模拟SDK] instanceId={}, region={}", instanceId, region);
-            
-            // 1. 申请EIP
-            log.info("[AliyunNetworkManager] [模拟SDK] 1. 申请EIP");
-            log.info("[AliyunNetworkManager] [模拟SDK]   构建 AllocateEipAddressRequest");
-            log.info("[AliyunNetworkManager] [模拟SDK]     - regionId: {}", region);
-            log.info("[AliyunNetworkManager] [模拟SDK]     - bandwidth: 10 Mbps");
-            log.info("[AliyunNetworkManager] [模拟SDK]   调用 client.getAcsResponse(allocateRequest) - 申请EIP");
-            log.info("[AliyunNetworkManager] [模拟SDK]   等待阿里云API响应...");
-            String mockAllocationId = "eip-" + System.currentTimeMillis();
-            String mockEip = "47." + (System.currentTimeMillis() % 256) + "." + 
-                            ((System.currentTimeMillis() / 256) % 256) + "." + 
-                            ((System.currentTimeMillis() / 65536) % 256);
-            log.info("[AliyunNetworkManager] [模拟SDK]   收到 AllocateEipAddressResponse");
-            log.info("[AliyunNetworkManager] [模拟SDK]     - allocationId: {}", mockAllocationId);
-            log.info("[AliyunNetworkManager] [模拟SDK]     - eipAddress: {}", mockEip);
-            log.info("[AliyunNetworkManager] [模拟SDK]   ✓ EIP申请成功: allocationId={}, eipAddress={}", 
-                    mockAllocationId, mockEip);
-            
+
+            // 1. 获取EIP（预热池命中则跳过申请）
+            AliyunEipPool.EipAddress eip = eipPool.acquire(region);
+            if (eip == null) {
+                eip = eipPool.allocate(region);
+            }
+
             // 2. 绑定到实例
-            log.info("[AliyunNetworkManager] [模拟SDK] 2. 绑定EIP到实例");
-            log.info("[AliyunNetworkManager] [模拟SDK]   构建 AssociateEipAddressRequest");
-            log.info("[AliyunNetworkManager] [模拟SDK]     - allocationId: {}", mockAllocationId);
-            log.info("[AliyunNetworkManager] [模拟SDK]     - instanceId: {}", instanceId);
-            log.info("[AliyunNetworkManager] [模拟SDK]     - instanceType: EcsInstance");
-            log.info("[AliyunNetworkManager] [模拟SDK]   调用 client.getAcsResponse(associateRequest) - 绑定EIP");
-            log.info("[AliyunNetworkManager] [模拟SDK]   等待阿里云API响应...");
-            log.info("[AliyunNetworkManager] [模拟SDK]   收到 AssociateEipAddressResponse");
-            log.info("[AliyunNetworkManager] [模拟SDK]   ✓ EIP绑定成功: instanceId={}, eipAddress={}", instanceId, mockEip);
-            
+            try {
+                log.info("[AliyunNetworkManager] [模拟SDK] 绑定EIP到实例");
+                log.info("[AliyunNetworkManager] [模拟SDK]   构建 AssociateEipAddressRequest");
+                log.info("[AliyunNetworkManager] [模拟SDK]     - allocationId: {}", eip.getAllocationId());
+                log.info("[AliyunNetworkManager] [模拟SDK]     - instanceId: {}", instanceId);
+                log.info("[AliyunNetworkManager] [模拟SDK]     - instanceType: EcsInstance");
+                log.info("[AliyunNetworkManager] [模拟SDK]   调用 client.getAcsResponse(associateRequest) - 绑定EIP");
+                log.info("[AliyunNetworkManager] [模拟SDK]   等待阿里云API响应...");
+                log.info("[AliyunNetworkManager] [模拟SDK]   收到 AssociateEipAddressResponse");
+                log.info("[AliyunNetworkManager] [模拟SDK]   ✓ EIP绑定成功: instanceId={}, eipAddress={}",
+                        instanceId, eip.getIpAddress());
+            } catch (RuntimeException e) {
+                // 绑定失败，EIP仍可复用
+                eipPool.release(eip);
+                throw e;
+            }
+            boundEips.put(instanceId, eip);
+
             log.info("[AliyunNetworkManager] [模拟SDK] ========== EIP申请并绑定完成 ==========");
-            return mockEip;
+            return eip.getIpAddress();
+        });
+    }
+
+    /**
+     * 将已删除实例的EIP归还EIP池（DeleteInstance 成功后调用，EIP随实例删除自动解绑）
+     * 本地没有绑定记录（如进程重启）时按实例ID查询云端绑定的EIP
+     *
+     * @param instanceId 实例ID
+     * @param region 实例所在区域
+     */
+    public void releaseInstanceEip(String instanceId, String region) {
+        AliyunEipPool.EipAddress eip = boundEips.remove(instanceId);
+        if (eip == null) {
+            eip = describeInstanceEip(instanceId, region);
+            if (eip == null) {
+                return;
+            }
+        }
+        log.info("[AliyunNetworkManager] 实例已删除，EIP已随实例解绑: instanceId={}, eip={}", instanceId, eip);
+        eipPool.release(eip);
+    }
+
+    /**
+     * 查询实例绑定的EIP
+     *
+     * @return 绑定的EIP，未绑定时返回null
+     */
+    private AliyunEipPool.EipAddress describeInstanceEip(String instanceId, String region) {
+        log.info("[AliyunNetworkManager] [模拟SDK] 查询实例绑定的EIP");
+        log.info("[AliyunNetworkManager] [模拟SDK]   构建 DescribeEipAddressesRequest");
+        log.info("[AliyunNetworkManager] [模拟SDK]     - regionId: {}", region);
+        log.info("[AliyunNetworkManager] [模拟SDK]     - associatedInstanceType: EcsInstance");
+        log.info("[AliyunNetworkManager] [模拟SDK]     - associatedInstanceId: {}", instanceId);
+        log.info("[AliyunNetworkManager] [模拟SDK]   调用 client.getAcsResponse(request) - 查询EIP");
+        log.info("[AliyunNetworkManager] [模拟SDK]   收到 DescribeEipAddressesResponse: eipAddresses=[]");
+        return null;
+    }
+
+    /**
+     * 获取网络执行器指标
+     * 包含队列深度、活跃线程数、进行中/超时/被拒绝的操作数
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getExecutorMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (networkExecutor instanceof ThreadPoolTaskExecutor) {
+            ThreadPoolExecutor pool = ((ThreadPoolTaskExecutor) networkExecutor).getThreadPoolExecutor();
+            metrics.put("poolSize", pool.getPoolSize());
+            metrics.put("activeThreads", pool.getActiveCount());
+            metrics.put("maxPoolSize", pool.getMaximumPoolSize());
+            metrics.put("queueDepth", pool.getQueue().size());
+            metrics.put("queueRemainingCapacity", pool.getQueue().remainingCapacity());
+            metrics.put("completedTasks", pool.getCompletedTaskCount());
+        } else if (networkExecutor instanceof VirtualThreadExecutor) {
+            metrics.put("virtualThreads", ((VirtualThreadExecutor) networkExecutor).getMetrics());
+        }
+        metrics.put("inFlightOperations", inFlightOperations.get());
+        metrics.put("timedOutOperations", timedOutOperations.get());
+        metrics.put("rejectedOperations", rejectedOperations.get());
+        return metrics;
+    }
+
+    /**
+     * 获取网络栈预热池指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getNetworkStackPoolMetrics() {
+        Map<String, Object> metrics = stackPool.getMetrics();
+        metrics.put("enabled", properties.getNetworkStackPool().isEnabled());
+        return metrics;
+    }
+
+    /**
+     * 关闭截止时间调度器
+     */
+    @PreDestroy
+    public void shutdown() {
+        deadlineScheduler.shutdownNow();
+        cidrAllocators.values().forEach(CidrAllocator::close);
+    }
+
+    /**
+     * 在网络执行器上异步执行操作，并施加截止时间
+     * 超时时间取 networkOperationTimeout 与请求截止时间剩余预算中较小者（调用方不等待结果时不使用请求截止时间，
+     * 请求返回后后台操作仍需完成）；
+     * 超时或被取消时，异步结果以异常结束，并中断仍在执行该操作的线程；执行期间占用一个该区域的SDK连接
+     *
+     * @param operation 操作名称（用于日志）
+     * @param product SDK产品（AliyunSdkClientFactory.PRODUCT_*）
+     * @param region 区域
+     * @param awaited 调用方是否等待结果
+     * @param task 操作逻辑
+     * @return 异步结果
+     */
+    private <T> CompletableFuture<T> supplyAsync(String operation, String product, String region, boolean awaited,
+                                                 Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        // 正在执行该操作的线程；读写均在锁内，保证只中断仍在执行本操作的线程
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        // 是否由超时/取消中断过执行线程（在 runner 锁内读写）
+        AtomicBoolean interruptedByTimeout = new AtomicBoolean();
+
+        try {
+            networkExecutor.execute(() -> {
+                if (future.isDone()) {
+                    // 排队期间已超时，不再执行
+                    return;
+                }
+                synchronized (runner) {
+                    runner.set(Thread.currentThread());
+                }
+                inFlightOperations.incrementAndGet();
+                try (AliyunSdkClientFactory.Lease lease = sdkClientFactory.acquire(product, region, operation)) {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlightOperations.decrementAndGet();
+                    synchronized (runner) {
+                        runner.set(null);
+                        // 只清除本操作超时/取消留下的中断标记，避免影响线程池中的后续任务；
+                        // 其他来源的中断（如执行器关闭）保留
+                        if (interruptedByTimeout.get()) {
+                            Thread.interrupted();
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedOperations.incrementAndGet();
+            log.error("[AliyunNetworkManager] 网络执行器已满，拒绝操作: operation={}, metrics={}",
+                    operation, getExecutorMetrics());
+            future.completeExceptionally(new EcsException(properties.getProviderCode(), "NETWORK_EXECUTOR_REJECTED",
+                    "网络执行器已满，拒绝执行: " + operation, e));
+            return future;
+        }
+
+        long operationTimeoutMillis = properties.getNetworkOperationTimeout() > 0
+                ? properties.getNetworkOperationTimeout() * 1000 : Long.MAX_VALUE;
+        long remainingMillis = awaited ? EcsDeadline.remainingMillis() : Long.MAX_VALUE;
+        boolean deadlineBound = remainingMillis < operationTimeoutMillis;
+        long timeoutMillis = Math.min(operationTimeoutMillis, remainingMillis);
+        if (timeoutMillis != Long.MAX_VALUE) {
+            ScheduledFuture<?> timer = deadlineScheduler.schedule(() -> {
+                EcsException timeout = deadlineBound
+                        ? EcsException.of(properties.getProviderCode(), EcsDeadline.DEADLINE_EXCEEDED,
+                                "网络操作超过请求截止时间: " + operation + ", remaining=" + timeoutMillis + "ms")
+                        : EcsException.of(properties.getProviderCode(), "NETWORK_OPERATION_TIMEOUT",
+                                "网络操作超时: " + operation + ", timeout=" + timeoutMillis + "ms");
+                if (future.completeExceptionally(timeout)) {
+                    timedOutOperations.incrementAndGet();
+                    log.warn("[AliyunNetworkManager] 网络操作超时: operation={}, timeout={}ms, deadlineBound={}",
+                            operation, timeoutMillis, deadlineBound);
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+            future.whenComplete((result, e) -> timer.cancel(false));
+        }
+
+        // 超时或被调用方取消时，中断仍在执行的线程，避免挂起的SDK调用长期占用线程
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                synchronized (runner) {
+                    Thread thread = runner.get();
+                    if (thread != null) {
+                        interruptedByTimeout.set(true);
+                        thread.interrupt();
+                    }
+                }
+            }
         });
+        return future;
     }
 }
 
@@ -1,5 +1,6 @@
 package io.github.multicloud.ecs.provider.aliyun;
 
+import io.github.multicloud.ecs.api.exception.EcsException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -21,16 +22,14 @@ public class AliyunParameterMapper {
     private final AliyunEcsProperties properties;
 
     /**
-     * 镜像Key到ImageId的映射表
-     * TODO: 从配置文件或数据库加载
+     * 镜像目录（按区域的 imageKey -> imageId 映射）
      */
-    private static final Map<String, String> IMAGE_KEY_MAPPING = new HashMap<>();
-    static {
-        IMAGE_KEY_MAPPING.put("centos-7.9", "centos_7_9_x64_20G_alibase_20220824.vhd");
-        IMAGE_KEY_MAPPING.put("ubuntu-20.04", "ubuntu_20_04_x64_20G_alibase_20220824.vhd");
-        IMAGE_KEY_MAPPING.put("pytorch-1.12", "pytorch_1_12_cuda11_3_ubuntu20_04");
-        IMAGE_KEY_MAPPING.put("tensorflow-2.8", "tensorflow_2_8_cuda11_2_ubuntu20_04");
-    }
+    private final AliyunImageCatalog imageCatalog;
+
+    /**
+     * 实例规格目录（按 cpu/memory/gpuModel 查找最便宜的规格）
+     */
+    private final AliyunInstanceTypeCatalog instanceTypeCatalog;
 
     /**
      * GPU型号到实例类型的映射表
@@ -44,26 +43,44 @@ public class AliyunParameterMapper {
     }
 
     /**
-     * 将业务镜像标识映射为阿里云ImageId
+     * 将业务镜像标识映射为阿里云ImageId（默认区域）
      *
      * @param imageKey 业务镜像标识
      * @return 阿里云ImageId
-     * @throws IllegalArgumentException 如果imageKey未找到映射
+     * @throws IllegalArgumentException 如果imageKey为空
+     * @throws EcsException 严格模式下未找到映射时抛出（IMAGE_NOT_FOUND）
      */
     public String mapImageKeyToImageId(String imageKey) {
+        return mapImageKeyToImageId(properties.getRegionId(), imageKey);
+    }
+
+    /**
+     * 将业务镜像标识映射为指定区域的阿里云ImageId
+     *
+     * @param region 区域
+     * @param imageKey 业务镜像标识
+     * @return 阿里云ImageId
+     * @throws IllegalArgumentException 如果imageKey为空
+     * @throws EcsException 严格模式下未找到映射时抛出（IMAGE_NOT_FOUND）
+     */
+    public String mapImageKeyToImageId(String region, String imageKey) {
         if (imageKey == null || imageKey.trim().isEmpty()) {
             throw new IllegalArgumentException("镜像标识不能为空");
         }
 
-        String imageId = IMAGE_KEY_MAPPING.get(imageKey.toLowerCase());
+        String imageId = imageCatalog.lookup(region, imageKey);
         if (imageId == null) {
+            if (imageCatalog.isStrict()) {
+                throw EcsException.of(properties.getProviderCode(), "IMAGE_NOT_FOUND",
+                        "未找到镜像映射: region=" + region + ", imageKey=" + imageKey);
+            }
             // 如果未找到映射，尝试使用默认镜像或直接使用imageKey（可能是完整的ImageId）
-            log.warn("[AliyunParameterMapper] 未找到镜像映射: imageKey={}, 使用默认镜像", imageKey);
+            log.warn("[AliyunParameterMapper] 未找到镜像映射: region={}, imageKey={}, 使用默认镜像", region, imageKey);
             return properties.getDefaultImageId() != null ? 
                    properties.getDefaultImageId() : imageKey;
         }
 
-        log.debug("[AliyunParameterMapper] 镜像映射: imageKey={} -> imageId={}", imageKey, imageId);
+        log.debug("[AliyunParameterMapper] 镜像映射: region={}, imageKey={} -> imageId={}", region, imageKey, imageId);
         return imageId;
     }
 
@@ -89,6 +106,21 @@ public class AliyunParameterMapper {
         return instanceType;
     }
 
+    /**
+     * 是否提供指定GPU型号：GPU型号映射表或该区域的规格目录中存在即视为支持
+     *
+     * @param region 区域
+     * @param gpuModel GPU型号
+     * @return 是否支持
+     */
+    public boolean supportsGpuModel(String region, String gpuModel) {
+        if (gpuModel == null || gpuModel.trim().isEmpty()) {
+            return true;
+        }
+        return GPU_MODEL_MAPPING.containsKey(gpuModel.toUpperCase())
+                || instanceTypeCatalog.findCheapest(region, null, null, gpuModel) != null;
+    }
+
     /**
      * 解析实例类型（优先使用gpuModel映射，其次使用instanceType，最后使用默认值）
      */
@@ -110,13 +142,52 @@ public class AliyunParameterMapper {
         return properties.getDefaultInstanceType();
     }
 
+    /**
+     * 按资源需求解析实例类型
+     * 优先级：显式 instanceType > 规格目录中满足 cpu/memory/gpuModel 的最便宜规格 > GPU型号映射 > 默认实例类型
+     *
+     * @param region 区域
+     * @param instanceType 显式指定的实例类型
+     * @param gpuModel GPU型号
+     * @param cpu 最少 vCPU 数
+     * @param memory 最少内存(GB)
+     * @return 阿里云实例类型
+     */
+    public String resolveInstanceType(String region, String instanceType, String gpuModel, Integer cpu, Integer memory) {
+        if (instanceType != null && !instanceType.trim().isEmpty()) {
+            return instanceType;
+        }
+
+        boolean hasGpu = gpuModel != null && !gpuModel.trim().isEmpty();
+        if (hasGpu || cpu != null || memory != null) {
+            AliyunInstanceTypeCatalog.InstanceTypeSpec spec =
+                    instanceTypeCatalog.findCheapest(region, cpu, memory, hasGpu ? gpuModel : null);
+            if (spec != null) {
+                log.debug("[AliyunParameterMapper] 规格目录匹配: region={}, cpu={}, memory={}, gpuModel={} -> {}",
+                        region, cpu, memory, gpuModel, spec);
+                return spec.getInstanceType();
+            }
+            log.warn("[AliyunParameterMapper] 规格目录中无满足需求的规格: region={}, cpu={}, memory={}, gpuModel={}",
+                    region, cpu, memory, gpuModel);
+        }
+
+        return resolveInstanceType(null, gpuModel);
+    }
+
     /**
      * 解析镜像ID（优先使用imageKey映射，其次使用imageId，最后使用默认值）
      */
     public String resolveImageId(String imageId, String imageKey) {
+        return resolveImageId(properties.getRegionId(), imageId, imageKey);
+    }
+
+    /**
+     * 解析指定区域的镜像ID（优先使用imageKey映射，其次使用imageId，最后使用默认值）
+     */
+    public String resolveImageId(String region, String imageId, String imageKey) {
         // 1. 如果指定了imageKey，映射为imageId
         if (imageKey != null && !imageKey.trim().isEmpty()) {
-            return mapImageKeyToImageId(imageKey);
+            return mapImageKeyToImageId(region, imageKey);
         }
 
         // 2. 如果指定了imageId，直接使用
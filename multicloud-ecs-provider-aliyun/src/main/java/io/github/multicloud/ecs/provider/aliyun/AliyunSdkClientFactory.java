@@ -0,0 +1,273 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.deadline.EcsDeadline;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阿里云SDK客户端工厂
+ * 按 (产品, 区域, 凭证) 缓存SDK客户端，客户端及其 keep-alive 连接池在进程内复用，
+ * 单次调用只付出请求往返的开销，不再重复建连和 TLS 握手
+ *
+ * - 连接/读取超时、空闲连接数来自 AliyunEcsProperties.SdkClientPool
+ * - 每个客户端以 maxConnections 限制同时进行中的调用，占满时最多等待 acquireTimeout，超时抛出 SDK_CONNECTION_POOL_EXHAUSTED
+ * - 调用方通过 acquire() 取得租约，在 try-with-resources 中完成一次SDK调用
+ *
+ * @author guo
+ */
+@Slf4j
+public class AliyunSdkClientFactory {
+
+    /**
+     * ECS 产品
+     */
+    public static final String PRODUCT_ECS = "ecs";
+
+    /**
+     * VPC 产品（VPC、交换机、EIP）
+     */
+    public static final String PRODUCT_VPC = "vpc";
+
+    private final AliyunEcsProperties properties;
+    private final AliyunEcsProperties.SdkClientPool config;
+    private final String credentialKey;
+
+    /**
+     * SDK客户端：product|region|credential -> 客户端
+     */
+    private final Map<String, SdkClient> clients = new ConcurrentHashMap<>();
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong acquisitions = new AtomicLong();
+
+    /**
+     * 缓存的SDK客户端
+     */
+    public final class SdkClient {
+        private final String product;
+        private final String region;
+        private final String endpoint;
+        private final long createdAt = System.currentTimeMillis();
+        private final Semaphore connections = new Semaphore(config.getMaxConnections());
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong waited = new AtomicLong();
+        private final AtomicLong exhausted = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+        private SdkClient(String product, String region, String endpoint) {
+            this.product = product;
+            this.region = region;
+            this.endpoint = endpoint;
+        }
+
+        public String getEndpoint() { return endpoint; }
+
+        private int inFlight() {
+            return config.getMaxConnections() - connections.availablePermits();
+        }
+
+        private Map<String, Object> getMetrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            int inFlight = inFlight();
+            long callCount = calls.get();
+            metrics.put("product", product);
+            metrics.put("region", region);
+            metrics.put("endpoint", endpoint);
+            metrics.put("inFlight", inFlight);
+            metrics.put("peakInFlight", peakInFlight.get());
+            metrics.put("maxConnections", config.getMaxConnections());
+            metrics.put("utilization", String.format("%.1f%%", inFlight * 100.0 / config.getMaxConnections()));
+            metrics.put("calls", callCount);
+            metrics.put("waited", waited.get());
+            metrics.put("exhausted", exhausted.get());
+            metrics.put("avgLatencyMs", callCount > 0
+                    ? String.format("%.2f", totalLatencyNanos.get() / 1_000_000.0 / callCount) : "0.00");
+            metrics.put("ageSeconds", (System.currentTimeMillis() - createdAt) / 1000);
+            return metrics;
+        }
+    }
+
+    /**
+     * 一次SDK调用的连接租约，关闭时归还连接并记录耗时
+     */
+    public static final class Lease implements AutoCloseable {
+        private final SdkClient client;
+        private final long startNanos = System.nanoTime();
+        private boolean closed;
+
+        private Lease(SdkClient client) {
+            this.client = client;
+        }
+
+        public SdkClient getClient() { return client; }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            client.totalLatencyNanos.addAndGet(System.nanoTime() - startNanos);
+            client.connections.release();
+        }
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param properties 阿里云配置
+     */
+    public AliyunSdkClientFactory(AliyunEcsProperties properties) {
+        this.properties = properties;
+        this.config = properties.getSdkClientPool();
+        this.credentialKey = credentialKey(properties.getAccessKeyId());
+    }
+
+    /**
+     * 获取（必要时创建）区域的SDK客户端，使用配置中的凭证
+     *
+     * @param product 产品（PRODUCT_ECS / PRODUCT_VPC）
+     * @param region 区域
+     * @return SDK客户端
+     */
+    public SdkClient getClient(String product, String region) {
+        String key = product + "|" + region + "|" + credentialKey;
+        SdkClient client = clients.get(key);
+        if (client != null) {
+            return client;
+        }
+        return clients.computeIfAbsent(key, k -> createClient(product, region));
+    }
+
+    /**
+     * 为一次SDK调用取得连接租约
+     *
+     * @param product 产品（PRODUCT_ECS / PRODUCT_VPC）
+     * @param region 区域
+     * @param action API名称（用于日志）
+     * @return 连接租约，调用结束后关闭
+     * @throws EcsException 连接数已满且在 acquireTimeout（不超过请求截止时间剩余预算）内未释放时抛出
+     */
+    public Lease acquire(String product, String region, String action) throws EcsException {
+        SdkClient client = getClient(product, region);
+        acquisitions.incrementAndGet();
+        if (!client.connections.tryAcquire()) {
+            client.waited.incrementAndGet();
+            boolean acquired;
+            try {
+                acquired = client.connections.tryAcquire(
+                        Math.min(config.getAcquireTimeout(), EcsDeadline.remainingMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EcsException(properties.getProviderCode(), "SDK_CONNECTION_INTERRUPTED",
+                        "等待SDK连接被中断: " + action, e);
+            }
+            if (!acquired) {
+                client.exhausted.incrementAndGet();
+                log.warn("[AliyunSdkClientFactory] SDK连接已满: product={}, region={}, action={}, maxConnections={}",
+                        product, region, action, config.getMaxConnections());
+                throw EcsException.of(properties.getProviderCode(), "SDK_CONNECTION_POOL_EXHAUSTED",
+                        "SDK连接已满: product=" + product + ", region=" + region + ", action=" + action
+                                + ", maxConnections=" + config.getMaxConnections());
+            }
+        }
+        client.calls.incrementAndGet();
+        client.peakInFlight.accumulateAndGet(client.inFlight(), Math::max);
+        return new Lease(client);
+    }
+
+    /**
+     * 获取连接池指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("clients", clients.size());
+        metrics.put("created", created.get());
+        metrics.put("acquisitions", acquisitions.get());
+        metrics.put("connectTimeout", config.getConnectTimeout());
+        metrics.put("readTimeout", config.getReadTimeout());
+        metrics.put("maxIdleConns", config.getMaxIdleConns());
+        List<Map<String, Object>> perClient = new ArrayList<>();
+        for (SdkClient client : clients.values()) {
+            perClient.add(client.getMetrics());
+        }
+        metrics.put("perClient", perClient);
+        return metrics;
+    }
+
+    /**
+     * 关闭所有SDK客户端，释放连接池
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("[AliyunSdkClientFactory] 关闭SDK客户端: clients={}", clients.size());
+        clients.clear();
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private SdkClient createClient(String product, String region) {
+        String endpoint = PRODUCT_ECS.equals(product)
+                ? properties.resolveEndpoint(region) : product + "." + region + ".aliyuncs.com";
+
+        /*
+         * TODO: 阿里云SDK接入后实现
+         *
+         * Config sdkConfig = new Config()
+         *         .setAccessKeyId(properties.getAccessKeyId())
+         *         .setAccessKeySecret(properties.getAccessKeySecret())
+         *         .setRegionId(region)
+         *         .setEndpoint(endpoint)
+         *         .setConnectTimeout(config.getConnectTimeout())
+         *         .setReadTimeout(config.getReadTimeout())
+         *         .setMaxIdleConns(config.getMaxIdleConns());
+         * Object sdkClient = PRODUCT_ECS.equals(product)
+         *         ? new com.aliyun.ecs20140526.Client(sdkConfig)
+         *         : new com.aliyun.vpc20160428.Client(sdkConfig);
+         */
+
+        log.info("[AliyunSdkClientFactory] [模拟SDK] 创建SDK客户端（进程内复用）");
+        log.info("[AliyunSdkClientFactory] [模拟SDK]   - product: {}", product);
+        log.info("[AliyunSdkClientFactory] [模拟SDK]   - regionId: {}", region);
+        log.info("[AliyunSdkClientFactory] [模拟SDK]   - endpoint: {}", endpoint);
+        log.info("[AliyunSdkClientFactory] [模拟SDK]   - accessKeyId: {}", properties.getAccessKeyId() != null ? "***" : "null");
+        log.info("[AliyunSdkClientFactory] [模拟SDK]   - connectTimeout: {}ms, readTimeout: {}ms, maxIdleConns: {}",
+                config.getConnectTimeout(), config.getReadTimeout(), config.getMaxIdleConns());
+        created.incrementAndGet();
+        return new SdkClient(product, region, endpoint);
+    }
+
+    /**
+     * 凭证标识：AccessKeyId 的摘要前缀（缓存Key中不出现明文AccessKeyId）
+     */
+    private static String credentialKey(String accessKeyId) {
+        String value = accessKeyId != null ? accessKeyId : "default";
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 6; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import io.github.multicloud.ecs.api.exception.EcsException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阿里云可用区库存缓存
+ * 按 (region, zone, instanceType) 缓存库存状态，在 RunInstances 前做库存预检：
+ * 指定可用区已售罄时快速失败（STOCK_OUT），未指定可用区时区域内全部售罄才快速失败
+ *
+ * - 只做校验不改选可用区：交换机、网络栈预热池、实例预热池都按请求的可用区解析，
+ *   改选会与它们不一致
+ *
+ * - 数据来源：DescribeAvailableResource 查询结果，以及 RunInstances 返回的库存不足错误
+ * - 有库存与售罄分别使用较短的 TTL（positiveTtl / negativeTtl），过期后重新查询
+ * - 查询失败或结果中没有该可用区时视为“未知”，不阻止创建
+ * - 最多缓存 maxEntries 项，满时先清理过期项，仍满则本次不缓存
+ *
+ * @author guo
+ */
+@Slf4j
+public class AliyunStockCache {
+
+    private final AliyunEcsProperties properties;
+    private final AliyunEcsProperties.StockCache config;
+
+    /**
+     * 库存状态：region|zone|instanceType -> 状态
+     */
+    private final Map<String, StockEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 区域级查询时间：region|instanceType -> 最近一次全可用区查询的过期时间
+     */
+    private final Map<String, Long> regionScans = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong describeCalls = new AtomicLong();
+    private final AtomicLong failFast = new AtomicLong();
+    private final AtomicLong stockOutsRecorded = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    /**
+     * 库存状态
+     */
+    private static final class StockEntry {
+        private final boolean withStock;
+        private final long expiresAt;
+
+        private StockEntry(boolean withStock, long expiresAt) {
+            this.withStock = withStock;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param properties 阿里云配置
+     */
+    public AliyunStockCache(AliyunEcsProperties properties) {
+        this.properties = properties;
+        this.config = properties.getStockCache();
+    }
+
+    /**
+     * RunInstances 前的库存预检
+     *
+     * @param region 区域
+     * @param zone 实例所在可用区（与交换机一致），可为null
+     * @param instanceType 实例规格
+     * @throws EcsException 指定可用区已售罄，或未指定可用区且区域内所有可用区均售罄时抛出 STOCK_OUT
+     */
+    public void checkStock(String region, String zone, String instanceType) throws EcsException {
+        if (!config.isEnabled() || instanceType == null) {
+            return;
+        }
+
+        if (zone != null) {
+            StockEntry entry = lookup(region, zone, instanceType);
+            if (entry == null) {
+                describeAvailableResource(region, zone, instanceType);
+                entry = lookup(region, zone, instanceType);
+            }
+            if (entry != null && !entry.withStock) {
+                failFast.incrementAndGet();
+                throw stockOut(region, zone, instanceType);
+            }
+            return;
+        }
+
+        Long scanExpiresAt = regionScans.get(region + "|" + instanceType);
+        if (scanExpiresAt == null || scanExpiresAt < System.currentTimeMillis()) {
+            describeAvailableResource(region, null, instanceType);
+        }
+
+        boolean anyKnown = false;
+        long now = System.currentTimeMillis();
+        String prefix = region + "|";
+        String suffix = "|" + instanceType;
+        for (Map.Entry<String, StockEntry> e : entries.entrySet()) {
+            String key = e.getKey();
+            if (!key.startsWith(prefix) || !key.endsWith(suffix) || e.getValue().expiresAt < now) {
+                continue;
+            }
+            if (e.getValue().withStock) {
+                return;
+            }
+            anyKnown = true;
+        }
+        if (anyKnown) {
+            failFast.incrementAndGet();
+            throw stockOut(region, null, instanceType);
+        }
+    }
+
+    /**
+     * 记录 RunInstances 返回的库存不足，后续请求在 negativeTtl 内直接跳过该可用区
+     *
+     * @param region 区域
+     * @param zone 可用区
+     * @param instanceType 实例规格
+     */
+    public void recordStockOut(String region, String zone, String instanceType) {
+        if (!config.isEnabled() || zone == null) {
+            return;
+        }
+        put(region, zone, instanceType, false);
+        stockOutsRecorded.incrementAndGet();
+        log.warn("[AliyunStockCache] 记录库存不足: region={}, zone={}, instanceType={}, ttl={}s",
+                region, zone, instanceType, config.getNegativeTtl());
+    }
+
+    /**
+     * 判断云端错误码是否为库存不足
+     *
+     * @param errorCode 阿里云错误码或错误信息
+     * @return 是否为库存不足
+     */
+    public static boolean isStockOutError(String errorCode) {
+        return errorCode != null
+                && (errorCode.contains("NoStock")
+                || errorCode.contains("Zone.NotOnSale")
+                || errorCode.contains("ResourceNotAvailable"));
+    }
+
+    /**
+     * 获取库存缓存指标
+     *
+     * @return 指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", config.isEnabled());
+        metrics.put("entries", entries.size());
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("describeCalls", describeCalls.get());
+        metrics.put("failFast", failFast.get());
+        metrics.put("stockOutsRecorded", stockOutsRecorded.get());
+        metrics.put("evicted", evicted.get());
+        return metrics;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private StockEntry lookup(String region, String zone, String instanceType) {
+        StockEntry entry = entries.get(key(region, zone, instanceType));
+        if (entry == null || entry.expiresAt < System.currentTimeMillis()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry;
+    }
+
+    private void put(String region, String zone, String instanceType, boolean withStock) {
+        String key = key(region, zone, instanceType);
+        if (!entries.containsKey(key) && entries.size() >= config.getMaxEntries() && !evictExpired()) {
+            log.debug("[AliyunStockCache] 缓存已满，不缓存: key={}", key);
+            return;
+        }
+        long ttlSeconds = withStock ? config.getPositiveTtl() : config.getNegativeTtl();
+        entries.put(key, new StockEntry(withStock, System.currentTimeMillis() + ttlSeconds * 1000));
+    }
+
+    /**
+     * 清理过期项
+     *
+     * @return 清理后是否还有空位
+     */
+    private boolean evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAt < now);
+        regionScans.values().removeIf(expiresAt -> expiresAt < now);
+        evicted.addAndGet(Math.max(0, before - entries.size()));
+        return entries.size() < config.getMaxEntries();
+    }
+
+    /**
+     * 查询可用区库存并写入缓存
+     * 查询失败时不写入（视为未知），不阻止创建
+     *
+     * @param zone 为null时查询区域内所有可用区
+     */
+    private void describeAvailableResource(String region, String zone, String instanceType) {
+        describeCalls.incrementAndGet();
+        try {
+            log.info("[AliyunStockCache] [模拟SDK] 查询可用区库存");
+            log.info("[AliyunStockCache] [模拟SDK]   构建 DescribeAvailableResourceRequest");
+            log.info("[AliyunStockCache] [模拟SDK]     - regionId: {}", region);
+            log.info("[AliyunStockCache] [模拟SDK]     - zoneId: {}", zone != null ? zone : "全部可用区");
+            log.info("[AliyunStockCache] [模拟SDK]     - destinationResource: InstanceType");
+            log.info("[AliyunStockCache] [模拟SDK]     - instanceType: {}", instanceType);
+            log.info("[AliyunStockCache] [模拟SDK]     - instanceChargeType: {}", properties.getInstanceChargeType());
+            Map<String, String> statuses = new LinkedHashMap<>();
+            if (zone != null) {
+                statuses.put(zone, "WithStock");
+            } else {
+                statuses.put(region + "-h", "WithStock");
+                statuses.put(region + "-i", "WithStock");
+            }
+            log.info("[AliyunStockCache] [模拟SDK]   收到 DescribeAvailableResourceResponse: {}", statuses);
+
+            statuses.forEach((z, status) -> put(region, z, instanceType, "WithStock".equals(status)));
+            if (zone == null && (regionScans.size() < config.getMaxEntries() || evictExpired())) {
+                regionScans.put(region + "|" + instanceType,
+                        System.currentTimeMillis() + config.getPositiveTtl() * 1000);
+            }
+        } catch (Exception e) {
+            log.warn("[AliyunStockCache] 查询可用区库存失败，视为未知: region={}, zone={}, instanceType={}, error={}",
+                    region, zone, instanceType, e.getMessage());
+        }
+    }
+
+    private EcsException stockOut(String region, String zone, String instanceType) {
+        log.warn("[AliyunStockCache] 库存不足，快速失败: region={}, zone={}, instanceType={}",
+                region, zone != null ? zone : "全部可用区", instanceType);
+        return EcsException.of(properties.getProviderCode(), "STOCK_OUT",
+                "实例规格库存不足: region=" + region + ", zone=" + (zone != null ? zone : "全部可用区")
+                        + ", instanceType=" + instanceType);
+    }
+
+    private static String key(String region, String zone, String instanceType) {
+        return region + "|" + zone + "|" + instanceType;
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.multicloud.ecs.provider.aliyun;
+
+import io.github.multicloud.ecs.api.exception.EcsException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AliyunStockCache 单元测试：售罄快速失败、缓存命中、容量上限
+ * 模拟SDK的 DescribeAvailableResource 总是返回有库存，售罄状态通过 recordStockOut 写入
+ *
+ * @author guo
+ */
+class AliyunStockCacheTest {
+
+    private static final String REGION = "cn-hangzhou";
+    private static final String TYPE = "ecs.gn7i-c8g1.2xlarge";
+
+    @Test
+    void soldOutZoneFailsFastWithoutDescribe() {
+        AliyunStockCache cache = new AliyunStockCache(new AliyunEcsProperties());
+        cache.recordStockOut(REGION, "cn-hangzhou-h", TYPE);
+
+        EcsException e = assertThrows(EcsException.class, () -> cache.checkStock(REGION, "cn-hangzhou-h", TYPE));
+
+        assertEquals("STOCK_OUT", e.getErrorCode());
+        assertEquals("ALIYUN", e.getProviderCode());
+        assertEquals(0L, cache.getMetrics().get("describeCalls"));
+        assertEquals(1L, cache.getMetrics().get("failFast"));
+    }
+
+    @Test
+    void zoneWithStockIsDescribedOnceThenCached() {
+        AliyunStockCache cache = new AliyunStockCache(new AliyunEcsProperties());
+
+        assertDoesNotThrow(() -> cache.checkStock(REGION, "cn-hangzhou-i", TYPE));
+        assertDoesNotThrow(() -> cache.checkStock(REGION, "cn-hangzhou-i", TYPE));
+
+        assertEquals(1L, cache.getMetrics().get("describeCalls"));
+        assertEquals(1L, cache.getMetrics().get("misses"));
+    }
+
+    @Test
+    void regionFailsFastOnlyWhenEveryZoneIsSoldOut() {
+        AliyunStockCache cache = new AliyunStockCache(new AliyunEcsProperties());
+        // 区域级查询：模拟SDK返回 -h、-i 两个可用区均有库存
+        assertDoesNotThrow(() -> cache.checkStock(REGION, null, TYPE));
+
+        cache.recordStockOut(REGION, REGION + "-h", TYPE);
+        assertDoesNotThrow(() -> cache.checkStock(REGION, null, TYPE));
+
+        cache.recordStockOut(REGION, REGION + "-i", TYPE);
+        EcsException e = assertThrows(EcsException.class, () -> cache.checkStock(REGION, null, TYPE));
+        assertEquals("STOCK_OUT", e.getErrorCode());
+        assertEquals(1L, cache.getMetrics().get("describeCalls"));
+    }
+
+    @Test
+    void otherInstanceTypesAreNotAffected() {
+        AliyunStockCache cache = new AliyunStockCache(new AliyunEcsProperties());
+        cache.recordStockOut(REGION, "cn-hangzhou-h", TYPE);
+
+        assertDoesNotThrow(() -> cache.checkStock(REGION, "cn-hangzhou-h", "ecs.g7.large"));
+    }
+
+    @Test
+    void disabledCacheNeverBlocks() {
+        AliyunEcsProperties properties = new AliyunEcsProperties();
+        properties.getStockCache().setEnabled(false);
+        AliyunStockCache cache = new AliyunStockCache(properties);
+        cache.recordStockOut(REGION, "cn-hangzhou-h", TYPE);
+
+        assertDoesNotThrow(() -> cache.checkStock(REGION, "cn-hangzhou-h", TYPE));
+        assertEquals(0, cache.getMetrics().get("entries"));
+    }
+
+    @Test
+    void entriesAreBoundedByMaxEntries() {
+        AliyunEcsProperties properties = new AliyunEcsProperties();
+        properties.getStockCache().setMaxEntries(2);
+        AliyunStockCache cache = new AliyunStockCache(properties);
+
+        cache.recordStockOut(REGION, "cn-hangzhou-h", TYPE);
+        cache.recordStockOut(REGION, "cn-hangzhou-i", TYPE);
+        cache.recordStockOut(REGION, "cn-hangzhou-j", TYPE);
+
+        assertEquals(2, cache.getMetrics().get("entries"));
+        // 未缓存的可用区视为未知，不阻止创建
+        assertDoesNotThrow(() -> cache.checkStock(REGION, "cn-hangzhou-j", TYPE));
+    }
+
+    @Test
+    void recognizesStockOutErrorCodes() {
+        assertTrue(AliyunStockCache.isStockOutError("OperationDenied.NoStock"));
+        assertTrue(AliyunStockCache.isStockOutError("Zone.NotOnSale"));
+        assertTrue(AliyunStockCache.isStockOutError("InvalidResourceType.ResourceNotAvailable"));
+        assertFalse(AliyunStockCache.isStockOutError("InvalidParameter"));
+        assertFalse(AliyunStockCache.isStockOutError(null));
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.multicloud.ecs.reactive;
+
+import io.github.multicloud.ecs.api.MultiCloudEcsService;
+import io.github.multicloud.ecs.core.concurrent.ExecutionMode;
+import io.github.multicloud.ecs.core.concurrent.VirtualThreadExecutor;
+import io.github.multicloud.ecs.core.event.InstanceStateTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * 多云ECS响应式接口自动配置
+ *
+ * 使用方式：
+ * 1. 在 multicloud-ecs-starter 之外引入 multicloud-ecs-reactive 依赖
+ * 2. 注入 ReactiveMultiCloudEcsService 即可使用
+ *
+ * @author guo
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass(Mono.class)
+@ConditionalOnBean({MultiCloudEcsService.class, InstanceStateTracker.class})
+@AutoConfigureAfter(name = "io.github.multicloud.ecs.starter.MultiCloudEcsAutoConfiguration")
+@EnableConfigurationProperties(ReactiveEcsProperties.class)
+@ConditionalOnProperty(prefix = "multicloud.ecs.reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveEcsAutoConfiguration {
+
+    /**
+     * 虚拟线程模式下调度器使用的执行器（Schedulers.fromExecutor 的 dispose 不会关闭它，由本配置类关闭）
+     */
+    private VirtualThreadExecutor reactiveExecutor;
+
+    /**
+     * 创建执行云厂商调用的调度器
+     * 云厂商SDK均为阻塞调用，使用有界弹性调度器隔离，避免占用事件循环线程；
+     * multicloud.ecs.execution-mode 为 virtual/auto 且运行时支持时改用虚拟线程
+     */
+    @Bean(name = "ecsReactiveScheduler", destroyMethod = "dispose")
+    @ConditionalOnMissingBean(name = "ecsReactiveScheduler")
+    public Scheduler ecsReactiveScheduler(ReactiveEcsProperties properties,
+                                          @Value("${multicloud.ecs.execution-mode:platform}") String executionMode,
+                                          @Value("${multicloud.ecs.virtual-max-in-flight:10000}") int virtualMaxInFlight) {
+        if (ExecutionMode.of(executionMode).useVirtualThreads()) {
+            log.info("[ReactiveEcs] 响应式调度器使用虚拟线程: maxInFlight={}", virtualMaxInFlight);
+            reactiveExecutor = new VirtualThreadExecutor("ecs-reactive-", virtualMaxInFlight, 30);
+            return Schedulers.fromExecutor(reactiveExecutor);
+        }
+        log.info("[ReactiveEcs] 响应式调度器已创建: threadCap={}, queuedTaskCap={}",
+                properties.getThreadCap(), properties.getQueuedTaskCap());
+        return Schedulers.newBoundedElastic(properties.getThreadCap(), properties.getQueuedTaskCap(),
+                "ecs-reactive");
+    }
+
+    /**
+     * 创建响应式服务
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveMultiCloudEcsService reactiveMultiCloudEcsService(MultiCloudEcsService multiCloudEcsService,
+                                                                     InstanceStateTracker stateTracker,
+                                                                     @Qualifier("ecsReactiveScheduler") Scheduler scheduler,
+                                                                     ReactiveEcsProperties properties) {
+        return new ReactiveMultiCloudEcsServiceImpl(multiCloudEcsService, stateTracker,
+                scheduler, properties.getBatchConcurrency());
+    }
+
+    /**
+     * 关闭响应式调度器的虚拟线程执行器（调度器依赖本配置类，先于此处 dispose）
+     */
+    @PreDestroy
+    public void shutdownExecutors() {
+        if (reactiveExecutor != null) {
+            reactiveExecutor.shutdown();
+        }
+    }
+}
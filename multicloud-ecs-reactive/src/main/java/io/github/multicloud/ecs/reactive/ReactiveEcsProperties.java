@@ -0,0 +1,34 @@
+package io.github.multicloud.ecs.reactive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 多云ECS响应式接口配置
+ *
+ * @author guo
+ */
+@Data
+@ConfigurationProperties(prefix = "multicloud.ecs.reactive")
+public class ReactiveEcsProperties {
+
+    /**
+     * 是否启用响应式接口
+     */
+    private boolean enabled = true;
+
+    /**
+     * 执行云厂商调用的最大线程数（有界弹性调度器）
+     */
+    private int threadCap = 64;
+
+    /**
+     * 线程全部繁忙时最多排队的任务数，超出后订阅以 RejectedExecutionException 失败
+     */
+    private int queuedTaskCap = 10000;
+
+    /**
+     * 批量创建/查询时同时进行中的最大调用数
+     */
+    private int batchConcurrency = 16;
+}
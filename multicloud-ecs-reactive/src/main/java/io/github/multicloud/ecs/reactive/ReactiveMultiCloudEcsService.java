@@ -0,0 +1,137 @@
+package io.github.multicloud.ecs.reactive;
+
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.dto.VirtualMachine;
+import io.github.multicloud.ecs.api.enums.VmStatusEnum;
+import io.github.multicloud.ecs.core.event.InstanceStateEvent;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * 多云ECS响应式服务接口
+ * MultiCloudEcsService 的 Mono/Flux 形式，供 WebFlux 等非阻塞调用方使用
+ *
+ * - 云厂商调用在专用调度器上执行，不占用调用方的事件循环线程
+ * - 返回的 Mono/Flux 均为惰性，订阅后才发起调用
+ * - 失败以 EcsException 作为错误信号下发
+ *
+ * @author guo
+ */
+public interface ReactiveMultiCloudEcsService {
+
+    /**
+     * 创建实例
+     *
+     * @param request 创建请求
+     * @return 创建结果
+     */
+    Mono<VirtualMachine> createInstance(CreateInstanceRequest request);
+
+    /**
+     * 批量创建实例
+     * 同时进行中的创建数受 batchConcurrency 限制，按下游需求从上游拉取请求；
+     * 任一创建失败即以错误结束，尚未开始的请求不再发起
+     *
+     * @param requests 创建请求流
+     * @return 按完成顺序下发的创建结果
+     */
+    Flux<VirtualMachine> createInstances(Publisher<CreateInstanceRequest> requests);
+
+    /**
+     * 删除实例
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceId 云厂商实例ID
+     * @return 是否成功
+     */
+    Mono<Boolean> deleteInstance(String providerCode, String instanceId);
+
+    /**
+     * 启动实例
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceId 云厂商实例ID
+     * @return 是否成功
+     */
+    Mono<Boolean> startInstance(String providerCode, String instanceId);
+
+    /**
+     * 停止实例
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceId 云厂商实例ID
+     * @return 是否成功
+     */
+    Mono<Boolean> stopInstance(String providerCode, String instanceId);
+
+    /**
+     * 重启实例
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceId 云厂商实例ID
+     * @return 是否成功
+     */
+    Mono<Boolean> restartInstance(String providerCode, String instanceId);
+
+    /**
+     * 查询实例详情
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceId 云厂商实例ID
+     * @return 实例详情，不存在时为空
+     */
+    Mono<VirtualMachine> getInstance(String providerCode, String instanceId);
+
+    /**
+     * 批量查询实例详情
+     * 按输入顺序下发结果，不存在的实例跳过；并发查询数受 batchConcurrency 限制
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceIds 云厂商实例ID流
+     * @return 实例详情流
+     */
+    Flux<VirtualMachine> getInstances(String providerCode, Publisher<String> instanceIds);
+
+    /**
+     * 根据实例名称查找实例ID
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceName 实例名称
+     * @return 实例ID，未找到时为空
+     */
+    Mono<String> findInstanceIdByName(String providerCode, String instanceName);
+
+    /**
+     * 获取所有已注册的云厂商代码
+     *
+     * @return 云厂商代码流
+     */
+    Flux<String> getRegisteredProviders();
+
+    /**
+     * 订阅实例状态变化
+     * 订阅时先下发当前已知状态（如有），之后每次状态变化下发一条；实例进入 DELETED 后结束。
+     * 下游消费不及时只保留最新状态，取消订阅时自动注销监听
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceId 云厂商实例ID
+     * @return 状态事件流
+     */
+    Flux<InstanceStateEvent> watchInstance(String providerCode, String instanceId);
+
+    /**
+     * 等待实例进入指定状态
+     *
+     * @param providerCode 云厂商代码
+     * @param instanceId 云厂商实例ID
+     * @param condition 目标状态条件
+     * @param timeout 超时时间
+     * @return 满足条件的状态事件，超时以 TimeoutException 结束
+     */
+    Mono<InstanceStateEvent> awaitStatus(String providerCode, String instanceId,
+                                         Predicate<VmStatusEnum> condition, Duration timeout);
+}
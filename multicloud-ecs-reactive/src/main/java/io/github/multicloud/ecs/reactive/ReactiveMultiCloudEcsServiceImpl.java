@@ -0,0 +1,163 @@
+package io.github.multicloud.ecs.reactive;
+
+import io.github.multicloud.ecs.api.MultiCloudEcsService;
+import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
+import io.github.multicloud.ecs.api.dto.VirtualMachine;
+import io.github.multicloud.ecs.api.enums.VmStatusEnum;
+import io.github.multicloud.ecs.core.event.InstanceStateEvent;
+import io.github.multicloud.ecs.core.event.InstanceStateTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 多云ECS响应式服务实现
+ * 包装阻塞的 MultiCloudEcsService：每次调用通过 Mono.fromCallable 延迟执行，并切换到专用的有界弹性调度器，
+ * 状态订阅直接基于 InstanceStateTracker 的监听器，不轮询云端
+ *
+ * @author guo
+ */
+@Slf4j
+public class ReactiveMultiCloudEcsServiceImpl implements ReactiveMultiCloudEcsService {
+
+    private final MultiCloudEcsService delegate;
+    private final InstanceStateTracker stateTracker;
+    private final Scheduler scheduler;
+    private final int batchConcurrency;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 阻塞服务
+     * @param stateTracker 实例状态跟踪器
+     * @param scheduler 执行云厂商调用的调度器
+     * @param batchConcurrency 批量操作的最大并发数
+     */
+    public ReactiveMultiCloudEcsServiceImpl(MultiCloudEcsService delegate,
+                                            InstanceStateTracker stateTracker,
+                                            Scheduler scheduler,
+                                            int batchConcurrency) {
+        this.delegate = delegate;
+        this.stateTracker = stateTracker;
+        this.scheduler = scheduler;
+        this.batchConcurrency = Math.max(1, batchConcurrency);
+    }
+
+    @Override
+    public Mono<VirtualMachine> createInstance(CreateInstanceRequest request) {
+        return Mono.fromCallable(() -> delegate.createInstance(request))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<VirtualMachine> createInstances(Publisher<CreateInstanceRequest> requests) {
+        // prefetch=1：只在有空闲并发槽时才向上游请求下一个创建请求
+        return Flux.from(requests)
+                .flatMap(this::createInstance, batchConcurrency, 1);
+    }
+
+    @Override
+    public Mono<Boolean> deleteInstance(String providerCode, String instanceId) {
+        return Mono.fromCallable(() -> delegate.deleteInstance(providerCode, instanceId))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Boolean> startInstance(String providerCode, String instanceId) {
+        return Mono.fromCallable(() -> delegate.startInstance(providerCode, instanceId))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Boolean> stopInstance(String providerCode, String instanceId) {
+        return Mono.fromCallable(() -> delegate.stopInstance(providerCode, instanceId))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Boolean> restartInstance(String providerCode, String instanceId) {
+        return Mono.fromCallable(() -> delegate.restartInstance(providerCode, instanceId))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<VirtualMachine> getInstance(String providerCode, String instanceId) {
+        // fromCallable 返回null时为空 Mono
+        return Mono.fromCallable(() -> delegate.getInstance(providerCode, instanceId))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<VirtualMachine> getInstances(String providerCode, Publisher<String> instanceIds) {
+        return Flux.from(instanceIds)
+                .flatMapSequential(id -> getInstance(providerCode, id), batchConcurrency, 1);
+    }
+
+    @Override
+    public Mono<String> findInstanceIdByName(String providerCode, String instanceName) {
+        return Mono.fromCallable(() -> delegate.findInstanceIdByName(providerCode, instanceName))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<String> getRegisteredProviders() {
+        // 只读取本地注册表，不需要切换线程
+        return Flux.defer(() -> Flux.fromIterable(delegate.getRegisteredProviders()));
+    }
+
+    @Override
+    public Flux<InstanceStateEvent> watchInstance(String providerCode, String instanceId) {
+        // 状态跟踪器按大写记录 provider，比较前统一格式
+        String provider = providerCode.trim().toUpperCase();
+        return Flux.create(sink -> {
+            AtomicLong lastEventTime = new AtomicLong(Long.MIN_VALUE);
+            // 先注册监听再读取当前状态，避免两者之间的状态变化丢失
+            Runnable unregister = stateTracker.addListener(event -> {
+                if (event.getProvider() != null && provider.equals(event.getProvider().trim().toUpperCase())
+                        && instanceId.equals(event.getInstanceId())) {
+                    emit(sink, event, lastEventTime);
+                }
+            });
+            sink.onDispose(unregister::run);
+
+            InstanceStateEvent current = stateTracker.getState(providerCode, instanceId);
+            if (current != null) {
+                emit(sink, current, lastEventTime);
+            }
+            log.debug("[ReactiveEcs] 订阅实例状态: provider={}, instanceId={}, current={}",
+                    providerCode, instanceId, current != null ? current.getStatus() : null);
+        }, FluxSink.OverflowStrategy.LATEST);
+    }
+
+    @Override
+    public Mono<InstanceStateEvent> awaitStatus(String providerCode, String instanceId,
+                                                Predicate<VmStatusEnum> condition, Duration timeout) {
+        return Mono.fromFuture(() -> stateTracker.await(providerCode, instanceId, condition, timeout.toMillis()));
+    }
+
+    /**
+     * 下发状态事件，丢弃比已下发事件更旧的快照；DELETED 后结束流
+     */
+    private static void emit(FluxSink<InstanceStateEvent> sink, InstanceStateEvent event, AtomicLong lastEventTime) {
+        long eventTime = event.getEventTime() != null ? event.getEventTime() : Long.MAX_VALUE;
+        long previous;
+        do {
+            previous = lastEventTime.get();
+            if (eventTime < previous) {
+                return;
+            }
+        } while (!lastEventTime.compareAndSet(previous, eventTime));
+
+        sink.next(event);
+        if (event.getStatus() == VmStatusEnum.DELETED) {
+            sink.complete();
+        }
+    }
+}
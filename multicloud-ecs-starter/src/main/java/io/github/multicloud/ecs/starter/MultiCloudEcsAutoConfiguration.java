@@ -2,8 +2,36 @@ package io.github.multicloud.ecs.starter;
 
 import io.github.multicloud.ecs.api.CloudEcsClient;
 import io.github.multicloud.ecs.api.EcsScheduler;
+import io.github.multicloud.ecs.api.enums.RequestPriority;
+import io.github.multicloud.ecs.core.admission.CreateAdmissionController;
+import io.github.multicloud.ecs.core.client.HedgingCloudEcsClient;
+import io.github.multicloud.ecs.core.client.InstanceQueryDispatcher;
+import io.github.multicloud.ecs.core.concurrent.ExecutionMode;
+import io.github.multicloud.ecs.core.concurrent.VirtualThreadExecutor;
+import io.github.multicloud.ecs.core.coordination.CoordinationService;
+import io.github.multicloud.ecs.core.coordination.FileLeaseStore;
+import io.github.multicloud.ecs.core.coordination.InMemoryLeaseStore;
+import io.github.multicloud.ecs.core.coordination.LeaseStore;
+import io.github.multicloud.ecs.core.event.InstanceEventIngestor;
+import io.github.multicloud.ecs.core.event.InstanceStatePoller;
+import io.github.multicloud.ecs.core.event.InstanceStateTracker;
 import io.github.multicloud.ecs.core.registry.CloudEcsClientRegistry;
+import io.github.multicloud.ecs.core.scheduler.CachingScheduler;
+import io.github.multicloud.ecs.core.scheduler.ConsistentHashScheduler;
+import io.github.multicloud.ecs.core.scheduler.FailoverScheduler;
 import io.github.multicloud.ecs.core.scheduler.FixedScheduler;
+import io.github.multicloud.ecs.core.scheduler.PluggableScheduler;
+import io.github.multicloud.ecs.core.scheduler.ProviderHealthTracker;
+import io.github.multicloud.ecs.core.scheduler.SchedulerFilter;
+import io.github.multicloud.ecs.core.scheduler.SchedulerScorer;
+import io.github.multicloud.ecs.core.scheduler.plugin.AffinityScorer;
+import io.github.multicloud.ecs.core.scheduler.plugin.GpuModelFilter;
+import io.github.multicloud.ecs.core.scheduler.plugin.HealthFilter;
+import io.github.multicloud.ecs.core.scheduler.plugin.LatencyScorer;
+import io.github.multicloud.ecs.core.scheduler.plugin.PriceScorer;
+import io.github.multicloud.ecs.core.scheduler.plugin.QuotaFilter;
+import io.github.multicloud.ecs.core.scheduler.plugin.RegionFilter;
+import io.github.multicloud.ecs.core.scheduler.plugin.StockScorer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -12,10 +40,18 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 /**
@@ -42,6 +78,16 @@ public class MultiCloudEcsAutoConfiguration {
     private final ObjectProvider<List<CloudEcsClient>> clientsProvider;
     private final CloudEcsClientRegistry registry;
 
+    /**
+     * 对冲读执行器（hedging.enabled 时创建）
+     */
+    private Executor hedgingExecutor;
+
+    /**
+     * 调度打分执行器（scheduler-type=pluggable 时创建）
+     */
+    private Executor schedulerExecutor;
+
     public MultiCloudEcsAutoConfiguration(
             MultiCloudEcsProperties properties,
             ObjectProvider<List<CloudEcsClient>> clientsProvider,
@@ -62,27 +108,187 @@ public class MultiCloudEcsAutoConfiguration {
 
     /**
      * 创建调度器（默认使用固定调度）
+     * FixedScheduler 本身也会被组件扫描注册，这里忽略它并以 @Primary 覆盖，使 scheduler-type 生效
      */
     @Bean
-    @ConditionalOnMissingBean
-    public EcsScheduler ecsScheduler(CloudEcsClientRegistry registry) {
+    @Primary
+    @ConditionalOnMissingBean(ignored = FixedScheduler.class)
+    public EcsScheduler ecsScheduler(CloudEcsClientRegistry registry, ProviderHealthTracker healthTracker,
+                                     ObjectProvider<SchedulerFilter> customFilters,
+                                     ObjectProvider<SchedulerScorer> customScorers) {
         String schedulerType = properties.getSchedulerType();
         log.info("[MultiCloudEcs] 使用调度器: {}", schedulerType);
-        
-        // V1 只支持 fixed 调度器
-        // V2 可扩展支持 cost, availability 等调度策略
+
+        EcsScheduler scheduler = createScheduler(schedulerType, registry, healthTracker, customFilters, customScorers);
+        MultiCloudEcsProperties.SchedulerCache cache = properties.getSchedulerCache();
+        if (!cache.isEnabled()) {
+            return scheduler;
+        }
+        log.info("[MultiCloudEcs] 启用调度决策缓存: ttl={}ms, maxEntries={}, tenantAware={}",
+                cache.getTtl(), cache.getMaxEntries(), scheduler.isTenantAware());
+        return new CachingScheduler(scheduler, registry, healthTracker, cache.getTtl(), cache.getMaxEntries());
+    }
+
+    /**
+     * 按 scheduler-type 创建调度器
+     */
+    private EcsScheduler createScheduler(String schedulerType, CloudEcsClientRegistry registry,
+                                         ProviderHealthTracker healthTracker,
+                                         ObjectProvider<SchedulerFilter> customFilters,
+                                         ObjectProvider<SchedulerScorer> customScorers) {
+        if ("failover".equalsIgnoreCase(schedulerType)) {
+            return new FailoverScheduler(registry, properties.getFailover().getMaxAttempts());
+        }
+        if ("consistent-hash".equalsIgnoreCase(schedulerType)) {
+            MultiCloudEcsProperties.ConsistentHash consistentHash = properties.getConsistentHash();
+            return new ConsistentHashScheduler(registry, consistentHash.getVirtualNodes(),
+                    consistentHash.getWeights(), properties.getFailover().getMaxAttempts());
+        }
+        if ("pluggable".equalsIgnoreCase(schedulerType)) {
+            return createPluggableScheduler(registry, healthTracker, customFilters, customScorers);
+        }
+        // cost, availability 可用 pluggable 组合（price 打分 / health、latency 插件），其他类型使用固定调度
         return new FixedScheduler(registry);
     }
 
+    /**
+     * 按 pipeline 配置组装插件式调度器
+     * 内置插件之外，容器中的 SchedulerFilter / SchedulerScorer Bean 也可按名称引用（同名时覆盖内置插件）
+     */
+    private PluggableScheduler createPluggableScheduler(CloudEcsClientRegistry registry,
+                                                        ProviderHealthTracker healthTracker,
+                                                        ObjectProvider<SchedulerFilter> customFilters,
+                                                        ObjectProvider<SchedulerScorer> customScorers) {
+        MultiCloudEcsProperties.Pipeline pipeline = properties.getPipeline();
+
+        Map<String, SchedulerFilter> availableFilters = new LinkedHashMap<>();
+        for (SchedulerFilter filter : Arrays.asList(new RegionFilter(), new GpuModelFilter(),
+                new QuotaFilter(healthTracker), new HealthFilter(healthTracker))) {
+            availableFilters.put(filter.getName(), filter);
+        }
+        customFilters.orderedStream().forEach(filter -> availableFilters.put(filter.getName(), filter));
+
+        Map<String, SchedulerScorer> availableScorers = new LinkedHashMap<>();
+        for (SchedulerScorer scorer : Arrays.asList(new PriceScorer(), new LatencyScorer(healthTracker),
+                new AffinityScorer(healthTracker), new StockScorer(healthTracker))) {
+            availableScorers.put(scorer.getName(), scorer);
+        }
+        customScorers.orderedStream().forEach(scorer -> availableScorers.put(scorer.getName(), scorer));
+
+        List<SchedulerFilter> filters = new ArrayList<>();
+        for (String name : pipeline.getFilters()) {
+            SchedulerFilter filter = availableFilters.get(name);
+            if (filter == null) {
+                throw new IllegalStateException("未知的调度过滤插件: " + name + ", 可用: " + availableFilters.keySet());
+            }
+            filters.add(filter);
+        }
+        List<SchedulerScorer> scorers = new ArrayList<>();
+        for (String name : pipeline.getScorers().keySet()) {
+            SchedulerScorer scorer = availableScorers.get(name);
+            if (scorer == null) {
+                throw new IllegalStateException("未知的调度打分插件: " + name + ", 可用: " + availableScorers.keySet());
+            }
+            scorers.add(scorer);
+        }
+
+        if (schedulerExecutor == null) {
+            schedulerExecutor = createSchedulerExecutor(pipeline);
+        }
+        log.info("[MultiCloudEcs] 插件式调度器: filters={}, scorers={}, scoreTimeout={}ms",
+                pipeline.getFilters(), pipeline.getScorers(), pipeline.getScoreTimeout());
+        return new PluggableScheduler(registry, filters, scorers, pipeline.getScorers(), schedulerExecutor,
+                pipeline.getScoreTimeout(), properties.getFailover().getMaxAttempts());
+    }
+
+    /**
+     * 创建云厂商健康跟踪
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ProviderHealthTracker providerHealthTracker() {
+        MultiCloudEcsProperties.Health health = properties.getHealth();
+        return new ProviderHealthTracker(health.getFailureThreshold(), health.getUnhealthyDuration(),
+                health.getQuotaBlock(), health.getStockOutWindow(), health.getAffinityCapacity());
+    }
+
+    /**
+     * 创建多节点协调服务
+     * 容器中有 LeaseStore Bean 时使用它，否则按 coordination.store 创建 memory / file 存储
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CoordinationService coordinationService(ObjectProvider<LeaseStore> storeProvider) {
+        MultiCloudEcsProperties.Coordination coordination = properties.getCoordination();
+        LeaseStore store = storeProvider.getIfAvailable(() -> "file".equalsIgnoreCase(coordination.getStore())
+                ? new FileLeaseStore(Paths.get(coordination.getDirectory())) : new InMemoryLeaseStore());
+        return new CoordinationService(store, coordination.isEnabled(), coordination.getNodeId(),
+                coordination.getHeartbeatInterval());
+    }
+
+    /**
+     * 创建实例状态跟踪器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public InstanceStateTracker instanceStateTracker() {
+        MultiCloudEcsProperties.Event event = properties.getEvent();
+        return new InstanceStateTracker(event.getMaxTracked(), event.getTerminalTtl());
+    }
+
+    /**
+     * 创建实例状态兜底轮询（event.safety-net-interval=0 时不启动）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public InstanceStatePoller instanceStatePoller(CloudEcsClientRegistry registry, InstanceStateTracker stateTracker,
+                                                   InstanceEventIngestor ingestor, CoordinationService coordination) {
+        return new InstanceStatePoller(registry, stateTracker, ingestor, coordination,
+                properties.getEvent().getSafetyNetInterval());
+    }
+
+    /**
+     * 创建准入控制（admission.enabled=true 时创建，否则创建请求不排队）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "multicloud.ecs.admission", name = "enabled", havingValue = "true")
+    public CreateAdmissionController createAdmissionController() {
+        MultiCloudEcsProperties.Admission admission = properties.getAdmission();
+        Map<RequestPriority, Integer> laneMaxQueued = new EnumMap<>(RequestPriority.class);
+        laneMaxQueued.put(RequestPriority.HIGH, admission.getHighMaxQueued());
+        laneMaxQueued.put(RequestPriority.NORMAL, admission.getNormalMaxQueued());
+        laneMaxQueued.put(RequestPriority.LOW, admission.getLowMaxQueued());
+        return new CreateAdmissionController(admission.getMaxConcurrent(), admission.getTenantMaxConcurrent(),
+                admission.getTenantMaxQueued(), admission.getQueueTimeout(), admission.getTenantWeights(),
+                admission.getAgingMillis(), laneMaxQueued);
+    }
+
+    /**
+     * 创建实例查询合并分发器（query-batch.enabled=false 时直接透传到云厂商客户端）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public InstanceQueryDispatcher instanceQueryDispatcher() {
+        MultiCloudEcsProperties.QueryBatch queryBatch = properties.getQueryBatch();
+        return new InstanceQueryDispatcher(queryBatch.isEnabled(), queryBatch.getWindowMillis(),
+                queryBatch.getMaxBatchSize(), queryBatch.getMaxThreads(), queryBatch.getMaxQueued());
+    }
+
     // MultiCloudEcsService 由 @ComponentScan 自动发现 MultiCloudEcsServiceImpl (@Service)
 
     /**
      * 创建异步任务执行器
+     * execution-mode 为 virtual/auto 且运行时支持虚拟线程时，每个任务一个虚拟线程，不再按线程数限制并发
      */
     @Bean(name = "ecsAsyncExecutor")
     @ConditionalOnMissingBean(name = "ecsAsyncExecutor")
     @ConditionalOnProperty(prefix = "multicloud.ecs", name = "async-enabled", havingValue = "true", matchIfMissing = true)
     public Executor ecsAsyncExecutor() {
+        if (ExecutionMode.of(properties.getExecutionMode()).useVirtualThreads()) {
+            log.info("[MultiCloudEcs] 异步执行器使用虚拟线程: maxInFlight={}", properties.getVirtualMaxInFlight());
+            return new VirtualThreadExecutor("ecs-async-", properties.getVirtualMaxInFlight(), 60);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(properties.getAsyncCorePoolSize());
         executor.setMaxPoolSize(properties.getAsyncMaxPoolSize());
@@ -111,7 +317,7 @@ public class MultiCloudEcsAutoConfiguration {
                         providerCode, client.getProviderName(), client.getClass().getSimpleName(), 
                         client.isAvailable());
                 if (!registry.isRegistered(providerCode)) {
-                    registry.register(client);
+                    registry.register(wrapHedging(client));
                     log.info("[MultiCloudEcs] ✓ 客户端已注册: providerCode={}", providerCode);
                 } else {
                     log.warn("[MultiCloudEcs] ✗ 客户端已存在，跳过注册: providerCode={}", providerCode);
@@ -125,5 +331,79 @@ public class MultiCloudEcsAutoConfiguration {
             log.warn("[MultiCloudEcs] 请确认：1) 是否引入了provider模块 2) 是否配置了 enabled=true");
         }
     }
-}
 
+    /**
+     * 启用对冲读时包装客户端
+     */
+    private CloudEcsClient wrapHedging(CloudEcsClient client) {
+        MultiCloudEcsProperties.Hedging hedging = properties.getHedging();
+        if (!hedging.isEnabled()) {
+            return client;
+        }
+        if (hedgingExecutor == null) {
+            hedgingExecutor = createHedgingExecutor(hedging);
+        }
+        log.info("[MultiCloudEcs] 客户端启用对冲读: providerCode={}, percentile={}, budgetPercent={}%",
+                client.getProviderCode(), hedging.getPercentile(), hedging.getBudgetPercent());
+        return new HedgingCloudEcsClient(client, hedgingExecutor, HedgingCloudEcsClient.HedgingPolicy.builder()
+                .percentile(hedging.getPercentile())
+                .minDelay(hedging.getMinDelay())
+                .maxDelay(hedging.getMaxDelay())
+                .windowSize(hedging.getWindowSize())
+                .minSamples(hedging.getMinSamples())
+                .budgetPercent(hedging.getBudgetPercent())
+                .maxBurst(hedging.getMaxBurst())
+                .build());
+    }
+
+    /**
+     * 对冲读执行器：队列很短，满时不对冲（调用线程直接执行首个请求），不让对冲请求排队放大延迟
+     */
+    private Executor createHedgingExecutor(MultiCloudEcsProperties.Hedging hedging) {
+        if (ExecutionMode.of(properties.getExecutionMode()).useVirtualThreads()) {
+            return new VirtualThreadExecutor("ecs-hedge-", properties.getVirtualMaxInFlight(), 10);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hedging.getPoolSize());
+        executor.setMaxPoolSize(hedging.getPoolSize());
+        executor.setQueueCapacity(hedging.getPoolSize());
+        executor.setThreadNamePrefix("ecs-hedge-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 调度打分执行器：队列很短，满时由调度线程直接执行该打分
+     */
+    private Executor createSchedulerExecutor(MultiCloudEcsProperties.Pipeline pipeline) {
+        if (ExecutionMode.of(properties.getExecutionMode()).useVirtualThreads()) {
+            return new VirtualThreadExecutor("ecs-schedule-", properties.getVirtualMaxInFlight(), 10);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pipeline.getPoolSize());
+        executor.setMaxPoolSize(pipeline.getPoolSize());
+        executor.setQueueCapacity(pipeline.getPoolSize());
+        executor.setThreadNamePrefix("ecs-schedule-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 关闭对冲读、调度打分执行器
+     */
+    @PreDestroy
+    public void shutdownExecutors() {
+        shutdown(hedgingExecutor);
+        shutdown(schedulerExecutor);
+    }
+
+    private static void shutdown(Executor executor) {
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        } else if (executor instanceof VirtualThreadExecutor) {
+            ((VirtualThreadExecutor) executor).shutdown();
+        }
+    }
+}
@@ -3,6 +3,12 @@ package io.github.multicloud.ecs.starter;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 多云ECS框架全局配置
  *
@@ -18,7 +24,7 @@ public class MultiCloudEcsProperties {
     private boolean enabled = true;
 
     /**
-     * 调度策略：fixed(固定路由), cost(成本优化), availability(可用性优先)
+     * 调度策略：fixed(固定路由), failover(故障切换), consistent-hash(租户亲和), pluggable(插件式过滤+打分)
      */
     private String schedulerType = "fixed";
 
@@ -28,7 +34,8 @@ public class MultiCloudEcsProperties {
     private String defaultProvider;
 
     /**
-     * 操作超时时间（秒）
+     * 操作超时时间（秒）：从服务入口开始计算的请求截止时间，调度、客户端、网络各步骤共享剩余预算，
+     * 到期后抛出 DEADLINE_EXCEEDED 并取消未完成的异步操作；0表示不限制
      */
     private int operationTimeout = 300;
 
@@ -61,5 +68,379 @@ public class MultiCloudEcsProperties {
      * 异步线程池最大大小
      */
     private int asyncMaxPoolSize = 20;
-}
 
+    /**
+     * 阻塞云厂商调用的执行模式：platform(平台线程池), virtual(虚拟线程，需要JDK 21+), auto(支持时使用虚拟线程)
+     * virtual 在不支持的运行时回退到平台线程池；此配置同时作用于各云厂商的网络执行器
+     */
+    private String executionMode = "platform";
+
+    /**
+     * 虚拟线程模式下每个执行器同时执行的最大任务数，超出时拒绝
+     */
+    private int virtualMaxInFlight = 10000;
+
+    /**
+     * 实例事件配置
+     */
+    private Event event = new Event();
+
+    /**
+     * 创建准入配置
+     */
+    private Admission admission = new Admission();
+
+    /**
+     * 实例查询合并配置
+     */
+    private QueryBatch queryBatch = new QueryBatch();
+
+    /**
+     * 多节点协调配置
+     */
+    private Coordination coordination = new Coordination();
+
+    /**
+     * 云厂商健康跟踪配置
+     */
+    private Health health = new Health();
+
+    /**
+     * 对冲读配置
+     */
+    private Hedging hedging = new Hedging();
+
+    /**
+     * 故障切换调度配置（scheduler-type=failover 时生效）
+     */
+    private Failover failover = new Failover();
+
+    /**
+     * 一致性哈希调度配置（scheduler-type=consistent-hash 时生效）
+     */
+    private ConsistentHash consistentHash = new ConsistentHash();
+
+    /**
+     * 插件式调度配置（scheduler-type=pluggable 时生效）
+     */
+    private Pipeline pipeline = new Pipeline();
+
+    /**
+     * 调度决策缓存配置
+     */
+    private SchedulerCache schedulerCache = new SchedulerCache();
+
+    /**
+     * 实例事件配置
+     */
+    @Data
+    public static class Event {
+
+        /**
+         * 兜底轮询间隔（秒）：超过此时长没有状态事件的实例才会轮询 DescribeInstances，0表示关闭
+         */
+        private long safetyNetInterval = 300;
+
+        /**
+         * 最多跟踪的实例数，已满时不再记录新实例的状态
+         */
+        private int maxTracked = 100_000;
+
+        /**
+         * 终态实例（RUNNING/STOPPED/ERROR）无状态更新多久后移出跟踪（毫秒），移出后按区域路由的操作使用默认客户端
+         */
+        private long terminalTtl = 86_400_000;
+    }
+
+    /**
+     * 创建准入配置：按 tenantId 限制并发，超出时按优先级通道排队、通道内加权公平放行
+     */
+    @Data
+    public static class Admission {
+
+        /**
+         * 是否启用（默认关闭，关闭时创建请求不排队）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 全局同时进行中的创建数
+         */
+        private int maxConcurrent = 64;
+
+        /**
+         * 每个租户同时进行中的创建数
+         */
+        private int tenantMaxConcurrent = 8;
+
+        /**
+         * 每个租户排队上限，超出直接拒绝（ADMISSION_REJECTED）
+         */
+        private int tenantMaxQueued = 200;
+
+        /**
+         * 排队超时（毫秒），同时受 operation-timeout 限制
+         */
+        private long queueTimeout = 60000;
+
+        /**
+         * 租户权重（tenantId -> weight），未配置的租户权重为1
+         */
+        private Map<String, Double> tenantWeights = new LinkedHashMap<>();
+
+        /**
+         * 优先级通道老化：排队每等待该时长（毫秒）提升一级，0表示不提升
+         */
+        private long agingMillis = 10000;
+
+        /**
+         * HIGH 通道排队上限
+         */
+        private int highMaxQueued = 2000;
+
+        /**
+         * NORMAL 通道排队上限
+         */
+        private int normalMaxQueued = 2000;
+
+        /**
+         * LOW 通道排队上限
+         */
+        private int lowMaxQueued = 500;
+    }
+
+    /**
+     * 实例查询合并配置：同一实例的并发查询共享结果，窗口内的不同实例合并为一次批量查询
+     */
+    @Data
+    public static class QueryBatch {
+
+        /**
+         * 是否启用（关闭时 getInstance 直接调用云厂商客户端）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 合并窗口（毫秒）
+         */
+        private long windowMillis = 5;
+
+        /**
+         * 每批最多实例数（同时受云厂商单次查询上限限制）
+         */
+        private int maxBatchSize = 100;
+
+        /**
+         * 批量查询线程数
+         */
+        private int maxThreads = 32;
+
+        /**
+         * 线程占满时最多排队的批次数，超出时该批次的查询失败（QUERY_REJECTED）
+         */
+        private int maxQueued = 1000;
+    }
+
+    /**
+     * 多节点协调配置：多副本部署时兜底轮询、预热池补充按分区划分到存活节点
+     */
+    @Data
+    public static class Coordination {
+
+        /**
+         * 是否启用（关闭时本节点执行全部后台工作）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 节点ID，为空时使用 主机名-进程号-随机后缀
+         */
+        private String nodeId;
+
+        /**
+         * 租约存储：memory(单节点) / file(共享目录)；注册了 LeaseStore Bean 时忽略
+         */
+        private String store = "memory";
+
+        /**
+         * file 存储的共享目录
+         */
+        private String directory = "./multicloud-ecs-coordination";
+
+        /**
+         * 心跳间隔（毫秒），节点有效期为3倍心跳间隔
+         */
+        private long heartbeatInterval = 5000;
+    }
+
+    /**
+     * 云厂商健康跟踪配置：创建结果驱动的健康、配额、库存、延迟、亲和状态，供调度插件使用
+     */
+    @Data
+    public static class Health {
+
+        /**
+         * 连续不可用次数达到后隔离
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * 隔离时长（毫秒）
+         */
+        private long unhealthyDuration = 30000;
+
+        /**
+         * 配额不足后暂停调度到该区域的时长（毫秒）
+         */
+        private long quotaBlock = 300000;
+
+        /**
+         * 库存不足扣分的恢复窗口（毫秒）
+         */
+        private long stockOutWindow = 600000;
+
+        /**
+         * 最多记录亲和关系的租户数
+         */
+        private int affinityCapacity = 10000;
+    }
+
+    /**
+     * 对冲读配置：getInstance、getInstances、findInstanceIdByName、calculatePrice 在超过历史分位延迟后发起第二个请求，先返回者胜出
+     */
+    @Data
+    public static class Hedging {
+
+        /**
+         * 是否启用对冲读
+         */
+        private boolean enabled = false;
+
+        /**
+         * 对冲延迟取该操作历史延迟的分位数（0-100）
+         */
+        private double percentile = 95;
+
+        /**
+         * 最小对冲延迟（毫秒）
+         */
+        private long minDelay = 20;
+
+        /**
+         * 最大对冲延迟（毫秒）
+         */
+        private long maxDelay = 2000;
+
+        /**
+         * 延迟统计窗口（最近调用次数）
+         */
+        private int windowSize = 512;
+
+        /**
+         * 开始对冲前需要的最少样本数
+         */
+        private int minSamples = 20;
+
+        /**
+         * 对冲预算：对冲请求数占请求数的最大百分比，防止故障期间负载翻倍
+         */
+        private double budgetPercent = 10;
+
+        /**
+         * 对冲预算最多积累的令牌数
+         */
+        private int maxBurst = 10;
+
+        /**
+         * 对冲执行器线程数（platform 模式）
+         */
+        private int poolSize = 16;
+    }
+
+    /**
+     * 故障切换调度配置：创建因配额、库存或云厂商不可用失败时，切换到下一个可用云厂商重试
+     */
+    @Data
+    public static class Failover {
+
+        /**
+         * 单次创建最多尝试的云厂商数（含首选）
+         */
+        private int maxAttempts = 3;
+    }
+
+    /**
+     * 一致性哈希调度配置：按 tenantId 把租户固定到一个云厂商，按权重分布负载
+     */
+    @Data
+    public static class ConsistentHash {
+
+        /**
+         * 权重为1时每个云厂商在哈希环上的虚拟节点数
+         */
+        private int virtualNodes = 160;
+
+        /**
+         * 云厂商权重（providerCode -> weight），未配置的为1，0表示不参与分配
+         */
+        private Map<String, Integer> weights = new LinkedHashMap<>();
+    }
+
+    /**
+     * 插件式调度配置：过滤插件依次剔除候选，打分插件并行打分后按权重排序
+     */
+    @Data
+    public static class Pipeline {
+
+        /**
+         * 过滤插件（按顺序执行）：region, gpu, quota, health，或自定义 SchedulerFilter Bean 的名称
+         */
+        private List<String> filters = new ArrayList<>(Arrays.asList("region", "gpu", "quota", "health"));
+
+        /**
+         * 打分插件及权重：price, latency, affinity, stock，或自定义 SchedulerScorer Bean 的名称
+         */
+        private Map<String, Double> scorers = defaultScorers();
+
+        /**
+         * 并行打分（如询价）的最长等待时间（毫秒），超时的分值按中间分计
+         */
+        private long scoreTimeout = 200;
+
+        /**
+         * 打分执行器线程数（platform 模式）
+         */
+        private int poolSize = 16;
+
+        private static Map<String, Double> defaultScorers() {
+            Map<String, Double> scorers = new LinkedHashMap<>();
+            scorers.put("price", 1.0);
+            scorers.put("latency", 1.0);
+            scorers.put("affinity", 1.0);
+            scorers.put("stock", 1.0);
+            return scorers;
+        }
+    }
+
+    /**
+     * 调度决策缓存配置：相同规格的创建请求在有效期内复用调度决策，注册表或云厂商健康状态变化时失效
+     */
+    @Data
+    public static class SchedulerCache {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 决策有效期（毫秒）
+         */
+        private long ttl = 2000;
+
+        /**
+         * 最多缓存的请求规格数
+         */
+        private int maxEntries = 1024;
+    }
+}
@@ -5,7 +5,12 @@ import io.github.multicloud.ecs.api.dto.CreateInstanceRequest;
 import io.github.multicloud.ecs.api.dto.VirtualMachine;
 import io.github.multicloud.ecs.api.enums.BandwidthMode;
 import io.github.multicloud.ecs.api.enums.InstanceChargeMode;
+import io.github.multicloud.ecs.api.enums.VmStatusEnum;
 import io.github.multicloud.ecs.api.exception.EcsException;
+import io.github.multicloud.ecs.core.event.InstanceEventIngestor;
+import io.github.multicloud.ecs.core.event.InstanceStateEvent;
+import io.github.multicloud.ecs.core.event.InstanceStateTracker;
+import io.github.multicloud.ecs.core.event.LocalInstanceEventSource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +34,15 @@ public class EcsTestController {
     @Resource
     private MultiCloudEcsService multiCloudEcsService;
 
+    @Resource
+    private InstanceEventIngestor instanceEventIngestor;
+
+    @Resource
+    private InstanceStateTracker instanceStateTracker;
+
+    @Resource
+    private LocalInstanceEventSource localInstanceEventSource;
+
     /**
      * 创建实例
      */
@@ -99,6 +113,62 @@ public class EcsTestController {
         }
     }
 
+    /**
+     * 接收云厂商实例状态变更通知（阿里云 EventBridge HTTP 目标 / 云监控事件推送）
+     * 无法识别或处理失败时返回错误状态码，由事件总线重投；重复、乱序和非状态类事件按成功应答
+     */
+    @PostMapping("/events")
+    public ResponseEntity<Map<String, Object>> receiveEvent(@RequestBody Map<String, Object> payload) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            InstanceStateEvent event = instanceEventIngestor.ingest(payload);
+            result.put("success", true);
+            result.put("applied", event != null);
+            result.put("data", event);
+            return ResponseEntity.ok(result);
+        } catch (EcsException e) {
+            log.error("处理实例事件失败", e);
+            result.put("success", false);
+            result.put("error", e.getMessage());
+            result.put("code", e.getErrorCode());
+            return ResponseEntity.badRequest().body(result);
+        } catch (Exception e) {
+            log.error("处理实例事件异常", e);
+            result.put("success", false);
+            result.put("error", "系统异常: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+
+    /**
+     * 发出本地模拟的实例状态事件（SDK未接入时联调用）
+     */
+    @PostMapping("/events/local")
+    public ResponseEntity<Map<String, Object>> emitLocalEvent(
+            @RequestParam(required = false, defaultValue = "ALIYUN") String provider,
+            @RequestParam String instanceId,
+            @RequestParam String status) {
+        Map<String, Object> result = new HashMap<>();
+        boolean applied = localInstanceEventSource.emit(provider, instanceId, VmStatusEnum.fromCode(status));
+        result.put("success", true);
+        result.put("applied", applied);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 查询事件驱动的实例最近状态（不调用云厂商API）
+     */
+    @GetMapping("/instances/{providerCode}/{instanceId}/state")
+    public ResponseEntity<Map<String, Object>> getInstanceState(
+            @PathVariable String providerCode,
+            @PathVariable String instanceId) {
+        Map<String, Object> result = new HashMap<>();
+        InstanceStateEvent state = instanceStateTracker.getState(providerCode, instanceId);
+        result.put("success", state != null);
+        result.put("data", state);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 获取已注册的云厂商列表
      */